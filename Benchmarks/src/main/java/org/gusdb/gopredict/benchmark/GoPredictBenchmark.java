@@ -0,0 +1,203 @@
+package org.gusdb.gopredict.benchmark;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.gusdb.gopredict.AssocEvidenceSet;
+import org.gusdb.gopredict.AssociationGraph;
+import org.gusdb.gopredict.GeneProduct;
+import org.gusdb.gopredict.GoPredictionEngine;
+import org.gusdb.gopredict.IllegalHierarchyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GoPredictBenchmark.java
+ *
+ * The stages of GO prediction for one gene product against a SyntheticGo
+ * DAG, each measured on its own: building the AssociationGraph,
+ * <code>verifyGoAssociations</code>, <code>rejectGoAssociations</code>,
+ * <code>cachePrimaryInstances</code>, <code>adjustIsNots</code> and
+ * <code>setDefiningLeaves</code>, plus the whole of
+ * <code>GoPredictionEngine.predictGeneProduct</code>.
+ *
+ * Every stage changes the AssociationGraph it runs on, so before each
+ * invocation, outside of the measurement, a new AssociationGraph is built
+ * for the next gene product in the pool and taken through the stages
+ * before the one measured.  Each invocation takes at least a millisecond
+ * on a GO-sized DAG, so the per-invocation setup does not distort the
+ * results.  See GoPredictStackCheck for the stack depth the stages need.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoPredictBenchmark {
+
+    // ------------------------------------------------------------------
+    // States
+    // ------------------------------------------------------------------
+
+    /**
+     * Stages a GeneGraph can be taken through before the measured one.
+     */
+    static final int BUILT = 0;
+    static final int VERIFIED = 1;
+    static final int REJECTED = 2;
+    static final int CACHED = 3;
+    static final int ADJUSTED = 4;
+
+    /**
+     * New Associations and evidence sets for the next gene product in the pool.
+     */
+    @State(Scope.Thread)
+    public static class GeneAssociations {
+	int nextGene = 0;
+	GeneProduct geneProduct;
+
+	@Setup(Level.Invocation)
+	public void newAssociations(SyntheticGo go) {
+	    int gene = nextGene;
+	    nextGene = (nextGene + 1) % go.getNumGenes();
+	    geneProduct = new GeneProduct(Integer.valueOf(gene));
+	    geneProduct.setAssociations(go.newAssociations(gene));
+	    Vector<AssocEvidenceSet> verified = go.newVerifiedEvidenceSets(gene);
+	    for (int i = 0; i < verified.size(); ++i) geneProduct.addVerifiedAssocEvidenceSet(verified.get(i));
+	    Vector<AssocEvidenceSet> rejected = go.newRejectedEvidenceSets(gene);
+	    for (int i = 0; i < rejected.size(); ++i) geneProduct.addRejectedAssocEvidenceSet(rejected.get(i));
+	}
+
+	/**
+	 * predictGeneProduct records a failed prediction on the GeneProduct
+	 * rather than throwing, so check for one to avoid timing an early exit.
+	 */
+	@TearDown(Level.Invocation)
+	public void checkError() {
+	    if (geneProduct.getError() != null) {
+		throw new IllegalStateException("Prediction failed for gene " + geneProduct.getId(), geneProduct.getError());
+	    }
+	}
+    }
+
+    /**
+     * An AssociationGraph for the next gene product in the pool, taken
+     * through the stages up to and including <code>stage</code>, and new
+     * evidence sets for it.
+     */
+    public static abstract class GeneGraph {
+	int nextGene = 0;
+	AssociationGraph associationGraph;
+	Vector<AssocEvidenceSet> verified;
+	Vector<AssocEvidenceSet> rejected;
+
+	void prepare(SyntheticGo go, int stage) throws IllegalHierarchyException {
+	    int gene = nextGene;
+	    nextGene = (nextGene + 1) % go.getNumGenes();
+	    associationGraph = new AssociationGraph(go.newAssociations(gene), go.getGoGraph());
+	    verified = go.newVerifiedEvidenceSets(gene);
+	    rejected = go.newRejectedEvidenceSets(gene);
+	    if (stage >= VERIFIED) associationGraph.verifyGoAssociations(verified, go.getGoGraph());
+	    if (stage >= REJECTED) associationGraph.rejectGoAssociations(rejected, go.getGoGraph());
+	    if (stage >= CACHED) {
+		associationGraph.cachePrimaryInstances();
+		associationGraph.deprecateAssociations();
+	    }
+	    if (stage >= ADJUSTED) associationGraph.adjustIsNots();
+	}
+    }
+
+    @State(Scope.Thread)
+    public static class BuiltGraph extends GeneGraph {
+	@Setup(Level.Invocation)
+	public void setup(SyntheticGo go) throws IllegalHierarchyException { prepare(go, BUILT); }
+    }
+
+    @State(Scope.Thread)
+    public static class VerifiedGraph extends GeneGraph {
+	@Setup(Level.Invocation)
+	public void setup(SyntheticGo go) throws IllegalHierarchyException { prepare(go, VERIFIED); }
+    }
+
+    @State(Scope.Thread)
+    public static class RejectedGraph extends GeneGraph {
+	@Setup(Level.Invocation)
+	public void setup(SyntheticGo go) throws IllegalHierarchyException { prepare(go, REJECTED); }
+    }
+
+    @State(Scope.Thread)
+    public static class CachedGraph extends GeneGraph {
+	@Setup(Level.Invocation)
+	public void setup(SyntheticGo go) throws IllegalHierarchyException { prepare(go, CACHED); }
+    }
+
+    @State(Scope.Thread)
+    public static class AdjustedGraph extends GeneGraph {
+	@Setup(Level.Invocation)
+	public void setup(SyntheticGo go) throws IllegalHierarchyException { prepare(go, ADJUSTED); }
+    }
+
+    // ------------------------------------------------------------------
+    // Benchmarks
+    // ------------------------------------------------------------------
+
+    @Benchmark
+    public AssociationGraph buildAssociationGraph(SyntheticGo go, GeneAssociations gene) {
+	return new AssociationGraph(gene.geneProduct.getAssociations(), go.getGoGraph());
+    }
+
+    @Benchmark
+    public AssociationGraph verifyGoAssociations(SyntheticGo go, BuiltGraph graph) throws IllegalHierarchyException {
+	graph.associationGraph.verifyGoAssociations(graph.verified, go.getGoGraph());
+	return graph.associationGraph;
+    }
+
+    @Benchmark
+    public AssociationGraph rejectGoAssociations(SyntheticGo go, VerifiedGraph graph) throws IllegalHierarchyException {
+	graph.associationGraph.rejectGoAssociations(graph.rejected, go.getGoGraph());
+	return graph.associationGraph;
+    }
+
+    @Benchmark
+    public AssociationGraph cachePrimaryInstances(RejectedGraph graph) {
+	graph.associationGraph.cachePrimaryInstances();
+	return graph.associationGraph;
+    }
+
+    @Benchmark
+    public AssociationGraph adjustIsNots(CachedGraph graph) {
+	graph.associationGraph.adjustIsNots();
+	return graph.associationGraph;
+    }
+
+    @Benchmark
+    public AssociationGraph setDefiningLeaves(AdjustedGraph graph) {
+	graph.associationGraph.setDefiningLeaves();
+	return graph.associationGraph;
+    }
+
+    /**
+     * All stages, as run by GoPredictionEngine for each gene product.  The
+     * engine's AssocConverterI is only used by <code>predict</code>, so none is given.
+     */
+    @Benchmark
+    public GeneProduct predictGeneProduct(SyntheticGo go, GeneAssociations gene) {
+	new GoPredictionEngine(go.getGoGraph(), null).predictGeneProduct(gene.geneProduct);
+	return gene.geneProduct;
+    }
+
+} //GoPredictBenchmark
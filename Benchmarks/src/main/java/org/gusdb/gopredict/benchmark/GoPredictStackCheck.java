@@ -0,0 +1,88 @@
+package org.gusdb.gopredict.benchmark;
+
+import org.gusdb.gopredict.AssociationGraph;
+import org.gusdb.gopredict.IllegalHierarchyException;
+
+/**
+ * GoPredictStackCheck.java
+ *
+ * Finds the smallest thread stack on which every stage of GO prediction
+ * runs, for each gene product of a SyntheticGo DAG, without a
+ * StackOverflowError.  The stages are run, as in GoPredictBenchmark, on
+ * threads whose requested stack size doubles from 16 KB until all gene
+ * products succeed, so the result bounds the recursion depth of the
+ * slowest-growing stage.  (The JVM may round small stack sizes up.)
+ *
+ * Usage: java -cp benchmarks.jar org.gusdb.gopredict.benchmark.GoPredictStackCheck
+ *        [numTerms [depth [maxParents [annotationsPerGene]]]]
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class GoPredictStackCheck {
+
+    static final String[] STAGES = {
+	"buildAssociationGraph", "verifyGoAssociations", "rejectGoAssociations",
+	"cachePrimaryInstances", "deprecateAssociations", "adjustIsNots", "setDefiningLeaves"
+    };
+
+    static final long MIN_STACK = 16 * 1024;
+    static final long MAX_STACK = 1024 * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+	SyntheticGo go = new SyntheticGo();
+	go.numTerms = (args.length > 0) ? Integer.parseInt(args[0]) : 45000;
+	go.depth = (args.length > 1) ? Integer.parseInt(args[1]) : 15;
+	go.maxParents = (args.length > 2) ? Integer.parseInt(args[2]) : 4;
+	go.annotationsPerGene = (args.length > 3) ? Integer.parseInt(args[3]) : 20;
+	go.verifiedPerGene = 8;
+	go.rejectedPerGene = 8;
+	go.numGenes = 64;
+	go.seed = 1;
+	go.generate();
+
+	for (int stage = 0; stage < STAGES.length; ++stage) {
+	    long stackSize = MIN_STACK;
+	    while (stackSize <= MAX_STACK && !runsOn(go, stage, stackSize)) stackSize *= 2;
+	    System.out.println(STAGES[stage] + ": " +
+			       (stackSize <= MAX_STACK ? (stackSize / 1024) + " KB" : "over " + (MAX_STACK / 1024) + " KB"));
+	}
+    }
+
+    /**
+     * Returns true if <code>stage</code> runs for every gene product on a
+     * thread with <code>stackSize</code> bytes of stack.  The stages before
+     * it are run on the same thread.
+     */
+    static boolean runsOn(final SyntheticGo go, final int stage, long stackSize) throws InterruptedException {
+	final boolean[] overflowed = new boolean[1];
+	final Exception[] failure = new Exception[1];
+	Thread thread = new Thread(null, new Runnable() {
+		public void run() {
+		    try {
+			for (int gene = 0; gene < go.getNumGenes(); ++gene) runStages(go, gene, stage);
+		    } catch (StackOverflowError e) {
+			overflowed[0] = true;
+		    } catch (IllegalHierarchyException e) {
+			failure[0] = e;
+		    }
+		}
+	    }, "GoPredictStackCheck", stackSize);
+	thread.start();
+	thread.join();
+	if (failure[0] != null) throw new IllegalStateException("SyntheticGo evidence is inconsistent", failure[0]);
+	return !overflowed[0];
+    }
+
+    static void runStages(SyntheticGo go, int gene, int lastStage) throws IllegalHierarchyException {
+	AssociationGraph associationGraph = new AssociationGraph(go.newAssociations(gene), go.getGoGraph());
+	if (lastStage >= 1) associationGraph.verifyGoAssociations(go.newVerifiedEvidenceSets(gene), go.getGoGraph());
+	if (lastStage >= 2) associationGraph.rejectGoAssociations(go.newRejectedEvidenceSets(gene), go.getGoGraph());
+	if (lastStage >= 3) associationGraph.cachePrimaryInstances();
+	if (lastStage >= 4) associationGraph.deprecateAssociations();
+	if (lastStage >= 5) associationGraph.adjustIsNots();
+	if (lastStage >= 6) associationGraph.setDefiningLeaves();
+    }
+
+} //GoPredictStackCheck
@@ -0,0 +1,254 @@
+package org.gusdb.gopredict.benchmark;
+
+import java.util.Random;
+import java.util.Vector;
+
+import org.gusdb.gopredict.AssocEvidenceSet;
+import org.gusdb.gopredict.Association;
+import org.gusdb.gopredict.GoDag;
+import org.gusdb.gopredict.GoGraph;
+import org.gusdb.gopredict.GoResultSet;
+import org.gusdb.gopredict.IllegalHierarchyException;
+import org.gusdb.gopredict.Instance;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SyntheticGo.java
+ *
+ * JMH state holding a randomly generated, GO-like GoGraph and a pool of
+ * annotated gene products to predict against it.
+ *
+ * The GoGraph has numTerms terms, GO:0000000 (the root) to
+ * GO:(numTerms-1), whose GUS Ids are their numbers.  Terms are spread over
+ * <code>depth</code> levels below the root, with level sizes growing
+ * linearly with depth as in GO (numTerms must be more than depth).  Each
+ * term has between 1 and maxParents parents: one on the level above it,
+ * so that the deepest terms are <code>depth</code> links from the root,
+ * and the rest on any of the few levels above that.  The defaults give a
+ * DAG the size and shape of the molecular function and biological process
+ * branches of a recent release.
+ *
+ * Each of the numGenes gene products is annotated with
+ * annotationsPerGene terms from the deeper half of the DAG, some of them
+ * 'is not', and has verifiedPerGene verified and rejectedPerGene rejected
+ * evidence sets.  Rejected terms are never ancestors of verified terms, so
+ * verifying and then rejecting never throws an IllegalHierarchyException.
+ * Since an AssociationGraph takes over the Associations it is built from,
+ * <code>newAssociations</code> makes new ones every time it is called.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@State(Scope.Benchmark)
+public class SyntheticGo {
+
+    // ------------------------------------------------------------------
+    // Parameters
+    // ------------------------------------------------------------------
+
+    @Param({"45000"})
+    public int numTerms;
+
+    @Param({"15"})
+    public int depth;
+
+    @Param({"4"})
+    public int maxParents;
+
+    @Param({"20"})
+    public int annotationsPerGene;
+
+    @Param({"8"})
+    public int verifiedPerGene;
+
+    @Param({"8"})
+    public int rejectedPerGene;
+
+    @Param({"64"})
+    public int numGenes;
+
+    @Param({"1"})
+    public long seed;
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    protected GoGraph goGraph;
+
+    protected GoDag goDag;
+
+    /**
+     * Index of the first term on each level; level <code>depth + 1</code> starts at numTerms.
+     */
+    protected int[] levelStarts;
+
+    /**
+     * For each gene product, the GUS Ids of its annotated terms, whether each
+     * annotation is 'is not', and the GUS Ids of its verified and rejected terms.
+     */
+    protected int[][] annotatedIds;
+    protected boolean[][] annotatedIsNots;
+    protected int[][] verifiedIds;
+    protected int[][] rejectedIds;
+
+    protected int numEdges;
+
+    // ------------------------------------------------------------------
+    // JMH lifecycle
+    // ------------------------------------------------------------------
+
+    @Setup(Level.Trial)
+    public void generate() throws IllegalHierarchyException {
+	Random random = new Random(seed);
+
+	//level l gets a share of the terms proportional to l, and at least one
+	levelStarts = new int[depth + 2];
+	long weights = (long)depth * (depth + 1) / 2;
+	for (int level = 1; level <= depth; ++level) {
+	    long before = (long)(level - 1) * level / 2;
+	    levelStarts[level] = Math.max(levelStarts[level - 1] + 1, 1 + (int)((numTerms - 1) * before / weights));
+	}
+	levelStarts[depth + 1] = numTerms;
+
+	GoResultSet grs = new GoResultSet();
+	numEdges = 0;
+	for (int level = 1; level <= depth; ++level) {
+	    for (int term = levelStarts[level]; term < levelStarts[level + 1]; ++term) {
+		int numParents = 1 + random.nextInt(maxParents);
+		for (int p = 0; p < numParents; ++p) {
+		    int parentLevel = (p == 0) ? level - 1 : Math.max(0, level - 1 - random.nextInt(3));
+		    int parent = randomTerm(random, parentLevel, parentLevel);
+		    grs.addGoTermInfo(realId(parent), parent, term);
+		    ++numEdges;
+		}
+	    }
+	}
+	for (int term = 0; term < numTerms; ++term) {
+	    grs.addGoTermInfo(realId(term), term, GoResultSet.NULL_CHILD_ID);
+	}
+	goGraph = new GoGraph(grs, realId(0));
+	goDag = goGraph.getDag();
+
+	annotatedIds = new int[numGenes][];
+	annotatedIsNots = new boolean[numGenes][];
+	verifiedIds = new int[numGenes][];
+	rejectedIds = new int[numGenes][];
+	for (int gene = 0; gene < numGenes; ++gene) {
+	    generateGene(random, gene);
+	}
+	System.err.println("SyntheticGo: " + numTerms + " terms, " + numEdges + " edges, depth " + depth);
+    }
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    public GoGraph getGoGraph() {
+	return goGraph;
+    }
+
+    public int getNumGenes() {
+	return numGenes;
+    }
+
+    /**
+     * Returns new unreviewed Associations for the annotations of <code>gene</code>,
+     * each with one primary Instance.
+     */
+    public Vector<Association> newAssociations(int gene) {
+	Vector<Association> associations = new Vector<Association>(annotatedIds[gene].length);
+	for (int i = 0; i < annotatedIds[gene].length; ++i) {
+	    boolean isNot = annotatedIsNots[gene][i];
+	    Association assoc = new Association(goGraph.getGoTermFromGusGoId(annotatedIds[gene][i]));
+	    assoc.setIsNot(isNot);
+	    assoc.setReviewStatusId(Association.UNREVIEWED_ID);
+	    assoc.setIsDeprecated(false);
+	    assoc.addInstance(newInstance(isNot, 1 + (i % 2), "annotation " + gene + "." + i));
+	    associations.add(assoc);
+	}
+	return associations;
+    }
+
+    public Vector<AssocEvidenceSet> newVerifiedEvidenceSets(int gene) {
+	return newEvidenceSets(verifiedIds[gene], false, "verified " + gene + ".");
+    }
+
+    public Vector<AssocEvidenceSet> newRejectedEvidenceSets(int gene) {
+	return newEvidenceSets(rejectedIds[gene], true, "rejected " + gene + ".");
+    }
+
+    // ------------------------------------------------------------------
+    // Private methods
+    // ------------------------------------------------------------------
+
+    private void generateGene(Random random, int gene) {
+	int deep = Math.max(1, depth / 2);
+	annotatedIds[gene] = new int[annotationsPerGene];
+	annotatedIsNots[gene] = new boolean[annotationsPerGene];
+	for (int i = 0; i < annotationsPerGene; ++i) {
+	    annotatedIds[gene][i] = randomTerm(random, deep, depth);
+	    annotatedIsNots[gene][i] = random.nextInt(5) == 0;
+	}
+
+	verifiedIds[gene] = new int[Math.min(verifiedPerGene, annotationsPerGene)];
+	for (int i = 0; i < verifiedIds[gene].length; ++i) {
+	    verifiedIds[gene][i] = annotatedIds[gene][random.nextInt(annotationsPerGene)];
+	}
+
+	//reject only annotated terms that are neither verified nor ancestors of verified terms
+	Vector<Integer> rejectable = new Vector<Integer>();
+	for (int i = 0; i < annotationsPerGene; ++i) {
+	    int index = goDag.getIndex(annotatedIds[gene][i]);
+	    boolean ok = true;
+	    for (int v = 0; ok && v < verifiedIds[gene].length; ++v) {
+		int verifiedIndex = goDag.getIndex(verifiedIds[gene][v]);
+		ok = index != verifiedIndex && !goDag.isAncestor(index, verifiedIndex);
+	    }
+	    if (ok) rejectable.add(Integer.valueOf(annotatedIds[gene][i]));
+	}
+	rejectedIds[gene] = new int[Math.min(rejectedPerGene, rejectable.size())];
+	for (int i = 0; i < rejectedIds[gene].length; ++i) {
+	    rejectedIds[gene][i] = rejectable.get(random.nextInt(rejectable.size())).intValue();
+	}
+    }
+
+    private Vector<AssocEvidenceSet> newEvidenceSets(int[] gusIds, boolean isNot, String evidencePrefix) {
+	Vector<AssocEvidenceSet> sets = new Vector<AssocEvidenceSet>(gusIds.length);
+	for (int i = 0; i < gusIds.length; ++i) {
+	    AssocEvidenceSet set = new AssocEvidenceSet(gusIds[i]);
+	    set.addInstance(newInstance(isNot, Association.ANNOTATOR_LOE, evidencePrefix + i));
+	    sets.add(set);
+	}
+	return sets;
+    }
+
+    private static Instance newInstance(boolean isNot, int loeId, Object evidence) {
+	Instance instance = new Instance();
+	instance.setIsPrimary(true);
+	instance.setIsNot(isNot);
+	instance.setIsDeprecated(false);
+	instance.setReviewStatusId(Association.UNREVIEWED_ID);
+	instance.setLOEId(loeId);
+	instance.setEvidenceObject(evidence);
+	return instance;
+    }
+
+    /**
+     * Returns a random term on one of levels <code>firstLevel</code> to <code>lastLevel</code>.
+     */
+    private int randomTerm(Random random, int firstLevel, int lastLevel) {
+	int start = levelStarts[firstLevel];
+	return start + random.nextInt(levelStarts[lastLevel + 1] - start);
+    }
+
+    private static String realId(int term) {
+	return String.format("GO:%07d", term);
+    }
+
+} //SyntheticGo
@@ -0,0 +1,254 @@
+package org.gusdb.objrelj.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.gusdb.objrelj.GUSInvalidLoginException;
+import org.gusdb.objrelj.GUSNoConnectionException;
+import org.gusdb.objrelj.GUSRow;
+import org.gusdb.objrelj.GUSServer;
+import org.gusdb.objrelj.GUSTable;
+import org.gusdb.objrelj.JDBCDriver;
+import org.gusdb.objrelj.OracleSQLutils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * BenchmarkDatabase.java
+ *
+ * JMH state that creates an in-memory H2 database in Oracle compatibility
+ * mode, seeds it with GUS-shaped tables and exposes a GUSServer connected
+ * to it through the same JDBCDriver/OracleSQLutils path used against a
+ * real GUS instance.
+ *
+ * The database has the four Core tables referenced by the overhead columns
+ * and two benchmark tables, Bench.NASequence and Bench.NAFeature, modelled
+ * on their DoTS namesakes.  NASequence rows have primary keys
+ * 1..numSequences; each has featuresPerSequence NAFeature children, so
+ * that the features of sequence <code>s</code> are numbered
+ * <code>(s-1)*featuresPerSequence + 1</code> onwards.  The model classes
+ * for these tables are in <code>org.gusdb.objrelj.benchmark.model</code>,
+ * which is installed as <code>GUSRow.MODEL_PACKAGE</code>.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@State(Scope.Thread)
+public class BenchmarkDatabase {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    public static final String MODEL_PACKAGE = "org.gusdb.objrelj.benchmark.model";
+
+    static final String LOGIN = "bench";
+
+    private static final String OVERHEAD_COLUMNS =
+	"modification_date DATE NOT NULL, " +
+	"user_read NUMBER(1) NOT NULL, user_write NUMBER(1) NOT NULL, " +
+	"group_read NUMBER(1) NOT NULL, group_write NUMBER(1) NOT NULL, " +
+	"other_read NUMBER(1) NOT NULL, other_write NUMBER(1) NOT NULL, " +
+	"row_user_id NUMBER(12) NOT NULL, row_group_id NUMBER(4) NOT NULL, " +
+	"row_project_id NUMBER(4) NOT NULL, row_alg_invocation_id NUMBER(12) NOT NULL";
+
+    private static final String OVERHEAD_VALUES = "SYSDATE, 1, 1, 1, 1, 1, 0, 1, 1, 1, 1";
+
+    private static int dbCount = 0;
+
+    // ------------------------------------------------------------------
+    // Parameters
+    // ------------------------------------------------------------------
+
+    @Param({"1000"})
+    public int numSequences;
+
+    @Param({"10"})
+    public int featuresPerSequence;
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    protected String jdbcUrl;
+
+    /**
+     * Connection used for seeding and cleanup.  Also keeps the in-memory
+     * database open between GUSServer sessions.
+     */
+    protected Connection adminConn;
+
+    protected GUSServer server;
+
+    /**
+     * The currently open session, if any.
+     */
+    protected String session;
+
+    protected GUSTable naSequenceTable;
+    protected GUSTable naFeatureTable;
+
+    // ------------------------------------------------------------------
+    // JMH lifecycle
+    // ------------------------------------------------------------------
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws SQLException {
+	GUSRow.MODEL_PACKAGE = MODEL_PACKAGE;
+	naSequenceTable = GUSTable.getTableByName("Bench", "NASequence");
+	naFeatureTable = GUSTable.getTableByName("Bench", "NAFeature");
+
+	synchronized (BenchmarkDatabase.class) {
+	    jdbcUrl = "jdbc:h2:mem:objrelj" + (dbCount++) + ";MODE=Oracle;DB_CLOSE_DELAY=-1";
+	}
+	adminConn = DriverManager.getConnection(jdbcUrl, "sa", "");
+	createTables();
+	seedTables();
+
+	server = new GUSServer(new JDBCDriver("org.h2.Driver", new OracleSQLutils(), jdbcUrl, "sa", ""));
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() throws SQLException, GUSNoConnectionException {
+	closeSession();
+	Statement stmt = adminConn.createStatement();
+	stmt.execute("SHUTDOWN");
+	stmt.close();
+	adminConn.close();
+    }
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    public GUSServer getServer() { return server; }
+    public String getSession() { return session; }
+    public GUSTable getNASequenceTable() { return naSequenceTable; }
+    public GUSTable getNAFeatureTable() { return naFeatureTable; }
+    public int getNumFeatures() { return numSequences * featuresPerSequence; }
+
+    /**
+     * Close the current session, if any, and open a new one with an empty
+     * GUSRowFactory and the overhead defaults set.
+     *
+     * @return The new session identifier.
+     */
+    public String newSession() throws GUSInvalidLoginException, GUSNoConnectionException {
+	closeSession();
+	session = server.openConnection(LOGIN, LOGIN);
+	server.setDefaultUserRead(session, Boolean.TRUE);
+	server.setDefaultUserWrite(session, Boolean.TRUE);
+	server.setDefaultGroupRead(session, Boolean.TRUE);
+	server.setDefaultGroupWrite(session, Boolean.TRUE);
+	server.setDefaultOtherRead(session, Boolean.TRUE);
+	server.setDefaultOtherWrite(session, Boolean.FALSE);
+	server.setDefaultRowUserId(session, Long.valueOf(1));
+	server.setDefaultRowGroupId(session, Short.valueOf((short)1));
+	server.setDefaultRowProjectId(session, Short.valueOf((short)1));
+	server.setDefaultRowAlgInvocationId(session, Long.valueOf(1));
+	return session;
+    }
+
+    public void closeSession() throws GUSNoConnectionException {
+	if (session != null) {
+	    server.closeConnection(session);
+	    session = null;
+	}
+    }
+
+    /**
+     * Delete any rows added since the database was seeded, so that every
+     * iteration of a submit benchmark starts from the same database.
+     */
+    public void deleteSubmittedRows() throws SQLException {
+	Statement stmt = adminConn.createStatement();
+	stmt.executeUpdate("DELETE FROM Bench.NAFeature WHERE na_feature_id > " + getNumFeatures());
+	stmt.executeUpdate("DELETE FROM Bench.NASequence WHERE na_sequence_id > " + numSequences);
+	stmt.close();
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    protected void createTables() throws SQLException {
+	Statement stmt = adminConn.createStatement();
+	stmt.execute("CREATE SCHEMA Core");
+	stmt.execute("CREATE SCHEMA Bench");
+
+	stmt.execute("CREATE TABLE Core.UserInfo (user_id NUMBER(12) PRIMARY KEY, " +
+		     "login VARCHAR2(50) NOT NULL, password VARCHAR2(50) NOT NULL)");
+	stmt.execute("CREATE TABLE Core.GroupInfo (group_id NUMBER(4) PRIMARY KEY)");
+	stmt.execute("CREATE TABLE Core.ProjectInfo (project_id NUMBER(4) PRIMARY KEY)");
+	stmt.execute("CREATE TABLE Core.AlgorithmInvocation (algorithm_invocation_id NUMBER(12) PRIMARY KEY)");
+
+	stmt.execute("CREATE TABLE Bench.NASequence (na_sequence_id NUMBER(12) PRIMARY KEY, " +
+		     "source_id VARCHAR2(50), name VARCHAR2(100), length NUMBER(12), " +
+		     "gc_content NUMBER(10,4), description VARCHAR2(255), " + OVERHEAD_COLUMNS + ")");
+	stmt.execute("CREATE TABLE Bench.NAFeature (na_feature_id NUMBER(12) PRIMARY KEY, " +
+		     "na_sequence_id NUMBER(12) NOT NULL REFERENCES Bench.NASequence(na_sequence_id), " +
+		     "name VARCHAR2(30), source_id VARCHAR2(50), start_min NUMBER(12), end_max NUMBER(12), " +
+		     "is_reversed NUMBER(1), score NUMBER(14,4), " + OVERHEAD_COLUMNS + ")");
+	stmt.execute("CREATE INDEX Bench.NAFeature_IND01 ON Bench.NAFeature(na_sequence_id)");
+
+	stmt.execute("CREATE SEQUENCE Bench.NASequence_SQ START WITH " + (numSequences + 1));
+	stmt.execute("CREATE SEQUENCE Bench.NAFeature_SQ START WITH " + (getNumFeatures() + 1));
+	stmt.close();
+    }
+
+    protected void seedTables() throws SQLException {
+	Statement stmt = adminConn.createStatement();
+	stmt.execute("INSERT INTO Core.UserInfo VALUES (1, '" + LOGIN + "', '" + LOGIN + "')");
+	stmt.execute("INSERT INTO Core.GroupInfo VALUES (1)");
+	stmt.execute("INSERT INTO Core.ProjectInfo VALUES (1)");
+	stmt.execute("INSERT INTO Core.AlgorithmInvocation VALUES (1)");
+	stmt.close();
+
+	PreparedStatement seqPs = adminConn.prepareStatement
+	    ("INSERT INTO Bench.NASequence VALUES (?, ?, ?, ?, ?, ?, " + OVERHEAD_VALUES + ")");
+	PreparedStatement featPs = adminConn.prepareStatement
+	    ("INSERT INTO Bench.NAFeature VALUES (?, ?, ?, ?, ?, ?, ?, ?, " + OVERHEAD_VALUES + ")");
+
+	long featureId = 0;
+	for (int s = 1; s <= numSequences; ++s) {
+	    long length = 1000 + (s * 7919L) % 100000;
+	    seqPs.setLong(1, s);
+	    seqPs.setString(2, "BENCH" + s);
+	    seqPs.setString(3, "sequence " + s);
+	    seqPs.setLong(4, length);
+	    seqPs.setDouble(5, (s % 100) / 100.0);
+	    seqPs.setString(6, "Benchmark sequence number " + s + " with " + featuresPerSequence + " features");
+	    seqPs.addBatch();
+
+	    for (int f = 0; f < featuresPerSequence; ++f) {
+		long start = (length * f) / featuresPerSequence + 1;
+		featPs.setLong(1, ++featureId);
+		featPs.setLong(2, s);
+		featPs.setString(3, "exon");
+		featPs.setString(4, "BENCH" + s + "." + f);
+		featPs.setLong(5, start);
+		featPs.setLong(6, start + length / featuresPerSequence - 1);
+		featPs.setInt(7, (int)(featureId % 2));
+		featPs.setDouble(8, (featureId % 1000) / 10.0);
+		featPs.addBatch();
+	    }
+	    if (s % 100 == 0) {
+		seqPs.executeBatch();
+		featPs.executeBatch();
+	    }
+	}
+	seqPs.executeBatch();
+	featPs.executeBatch();
+	seqPs.close();
+	featPs.close();
+    }
+
+} //BenchmarkDatabase
@@ -0,0 +1,34 @@
+package org.gusdb.objrelj.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner.java
+ *
+ * Main class of <code>benchmarks.jar</code>.  Accepts the same command-line
+ * options as <code>org.openjdk.jmh.Main</code> (e.g. a benchmark name regex,
+ * <code>-p numSequences=10000</code>, <code>-rf json</code>) and always adds
+ * the GC profiler, so that allocation rates are reported alongside the
+ * throughput and sampled latencies of each benchmark.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+	Options opts = new OptionsBuilder()
+	    .parent(new CommandLineOptions(args))
+	    .addProfiler(GCProfiler.class)
+	    .build();
+	new Runner(opts).run();
+    }
+
+} //BenchmarkRunner
@@ -0,0 +1,63 @@
+package org.gusdb.objrelj.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CacheBenchmark.java
+ *
+ * <code>GUSServer.retrieveGUSRow</code> for rows that are already in the
+ * session's GUSRowFactory, so that no query is run.  The factory is filled
+ * with up to <code>WORKING_SET</code> eagerly retrieved sequences at the
+ * start of each iteration, and the benchmark cycles through them.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    /**
+     * Maximum number of rows held in the factory; well below its default
+     * capacity.
+     */
+    static final int WORKING_SET = 5000;
+
+    int workingSet;
+    long nextPk = 1;
+
+    @Setup(Level.Iteration)
+    public void fillFactory(BenchmarkDatabase db) throws Exception {
+	String session = db.newSession();
+	workingSet = Math.min(WORKING_SET, db.numSequences);
+	for (long pk = 1; pk <= workingSet; ++pk) {
+	    db.getServer().retrieveGUSRow(session, db.getNASequenceTable(), pk, true);
+	}
+	nextPk = 1;
+    }
+
+    @Benchmark
+    public Object factoryHit(BenchmarkDatabase db) throws Exception {
+	long pk = nextPk;
+	nextPk = (nextPk == workingSet) ? 1 : nextPk + 1;
+	return db.getServer().retrieveGUSRow(db.getSession(), db.getNASequenceTable(), pk, true);
+    }
+
+} //CacheBenchmark
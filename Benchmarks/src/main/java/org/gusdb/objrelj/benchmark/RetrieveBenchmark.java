@@ -0,0 +1,90 @@
+package org.gusdb.objrelj.benchmark;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.gusdb.objrelj.GUSRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * RetrieveBenchmark.java
+ *
+ * Retrieval of rows that are not yet in the session's GUSRowFactory, both
+ * one at a time by primary key (<code>GUSServer.retrieveGUSRow</code>, one
+ * query per row) and in bulk (<code>GUSServer.retrieveGUSRowsFromQuery</code>,
+ * one query per batch).  Each invocation starts from a new session, so
+ * that the factory is empty and never fills up; opening the session is not
+ * part of the measurement.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RetrieveBenchmark {
+
+    /**
+     * Number of rows retrieved per invocation.
+     */
+    static final int BATCH = 100;
+
+    /**
+     * Primary key of the first row retrieved by the next invocation.
+     */
+    long nextPk = 1;
+
+    @Setup(Level.Invocation)
+    public void openSession(BenchmarkDatabase db) throws Exception {
+	db.newSession();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void retrieveByPrimaryKey(BenchmarkDatabase db, Blackhole bh) throws Exception {
+	long first = nextBatch(db);
+	for (int i = 0; i < BATCH; ++i) {
+	    bh.consume(db.getServer().retrieveGUSRow(db.getSession(), db.getNAFeatureTable(), first + i, true));
+	}
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void retrieveByQuery(BenchmarkDatabase db, Blackhole bh) throws Exception {
+	long first = nextBatch(db);
+	long last = first + BATCH - 1;
+	String query = "select * from Bench.NAFeature where na_feature_id between " + first + " and " + last;
+
+	Vector rows = db.getServer().retrieveGUSRowsFromQuery(db.getSession(), db.getNAFeatureTable(), query);
+	for (int i = 0; i < rows.size(); ++i) {
+	    bh.consume((GUSRow)rows.elementAt(i));
+	}
+    }
+
+    /**
+     * @return The first feature primary key of the next batch, wrapping around at the end of the table.
+     */
+    long nextBatch(BenchmarkDatabase db) {
+	long first = nextPk;
+	nextPk += BATCH;
+	if (nextPk + BATCH - 1 > db.getNumFeatures()) nextPk = 1;
+	return first;
+    }
+
+} //RetrieveBenchmark
@@ -0,0 +1,121 @@
+package org.gusdb.objrelj.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gusdb.objrelj.SubmitResult;
+import org.gusdb.objrelj.benchmark.model.Bench.NAFeature;
+import org.gusdb.objrelj.benchmark.model.Bench.NASequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SubmitBenchmark.java
+ *
+ * <code>GUSServer.submitGUSRow</code> for new rows: a single NASequence
+ * submitted on its own, and an NASequence with <code>featuresPerSequence</code>
+ * new NAFeature children submitted with <code>deepSubmit</code> set.  One
+ * operation is one call to <code>GUSRow.submit</code>, including the
+ * primary key query, the insert and the commit for every row written.
+ * The rows are built in a new session before each invocation, and the
+ * rows inserted are deleted again after each iteration.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubmitBenchmark {
+
+    /**
+     * Number of top-level rows submitted per invocation.
+     */
+    static final int BATCH = 100;
+
+    NASequence[] single = new NASequence[BATCH];
+    NASequence[] deep = new NASequence[BATCH];
+
+    @Setup(Level.Invocation)
+    public void createRows(BenchmarkDatabase db) throws Exception {
+	String session = db.newSession();
+	for (int i = 0; i < BATCH; ++i) {
+	    single[i] = newSequence(db, session, i);
+	    deep[i] = newSequence(db, session, i);
+	    for (int f = 0; f < db.featuresPerSequence; ++f) {
+		NAFeature feat = new NAFeature(db.getServer(), session);
+		feat.setName("exon");
+		feat.setSourceId("NEW" + i + "." + f);
+		feat.setStartMin(Long.valueOf(f * 100 + 1));
+		feat.setEndMax(Long.valueOf(f * 100 + 100));
+		feat.setIsReversed(Boolean.FALSE);
+		feat.setScore(Double.valueOf(f));
+		deep[i].addNAFeature(feat);
+	    }
+	}
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows(BenchmarkDatabase db) throws Exception {
+	db.deleteSubmittedRows();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int singleSubmit() throws Exception {
+	int inserted = 0;
+	for (int i = 0; i < BATCH; ++i) {
+	    inserted += checkResult(single[i].submit(false));
+	}
+	return inserted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int deepSubmit() throws Exception {
+	int inserted = 0;
+	for (int i = 0; i < BATCH; ++i) {
+	    inserted += checkResult(deep[i].submit(true));
+	}
+	return inserted;
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    protected NASequence newSequence(BenchmarkDatabase db, String session, int i) {
+	NASequence seq = new NASequence(db.getServer(), session);
+	seq.setSourceId("NEW" + i);
+	seq.setName("new sequence " + i);
+	seq.setLength(Long.valueOf(1000 + i));
+	seq.setGcContent(Float.valueOf(0.5f));
+	seq.setDescription("Sequence created by SubmitBenchmark");
+	return seq;
+    }
+
+    /**
+     * Fail the benchmark, rather than measuring failed submits.
+     */
+    protected int checkResult(SubmitResult sr) {
+	if (!sr.submitSucceeded()) {
+	    throw new IllegalStateException("SubmitBenchmark: submit failed: " + sr.getMessage());
+	}
+	return sr.getRowsInserted();
+    }
+
+} //SubmitBenchmark
@@ -0,0 +1,89 @@
+package org.gusdb.objrelj.benchmark;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.gusdb.objrelj.benchmark.model.Bench.NAFeature;
+import org.gusdb.objrelj.benchmark.model.Bench.NASequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * TraversalBenchmark.java
+ *
+ * Navigation of the Bench.NASequence / Bench.NAFeature relationship through
+ * the generated-style accessors: from a feature to its (lazy) parent
+ * sequence, and from a sequence to all of its features in the database.
+ * The rows traversed from are retrieved into a new session before each
+ * invocation, outside of the measurement.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraversalBenchmark {
+
+    /**
+     * Number of rows traversed from per invocation.
+     */
+    static final int BATCH = 100;
+
+    NASequence[] sequences = new NASequence[BATCH];
+    NAFeature[] features = new NAFeature[BATCH];
+
+    long nextSequence = 1;
+
+    /**
+     * Retrieve the first feature of each of BATCH sequences, whose parents are
+     * left as lazy rows, and BATCH other sequences.  Requires at least
+     * 2*BATCH sequences in the database.
+     */
+    @Setup(Level.Invocation)
+    public void retrieveRows(BenchmarkDatabase db) throws Exception {
+	String session = db.newSession();
+	long first = nextSequence;
+	nextSequence += 2 * BATCH;
+	if (nextSequence + 2 * BATCH - 1 > db.numSequences) nextSequence = 1;
+
+	for (int i = 0; i < BATCH; ++i) {
+	    long featPk = (first + i - 1) * db.featuresPerSequence + 1;
+	    features[i] = (NAFeature)db.getServer().retrieveGUSRow(session, db.getNAFeatureTable(), featPk, true);
+	    sequences[i] = (NASequence)db.getServer().retrieveGUSRow(session, db.getNASequenceTable(), first + BATCH + i, true);
+	}
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void childToParent(Blackhole bh) throws Exception {
+	for (int i = 0; i < BATCH; ++i) {
+	    bh.consume(features[i].getNaSequence(true).getName());
+	}
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parentToChildren(Blackhole bh) throws Exception {
+	for (int i = 0; i < BATCH; ++i) {
+	    Vector children = sequences[i].getBenchNAFeatureList(false);
+	    bh.consume(children.size());
+	}
+    }
+
+} //TraversalBenchmark
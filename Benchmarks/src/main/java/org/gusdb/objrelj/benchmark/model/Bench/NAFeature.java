@@ -0,0 +1,136 @@
+package org.gusdb.objrelj.benchmark.model.Bench;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+import org.gusdb.objrelj.benchmark.model.OverheadRow;
+
+/**
+ * NAFeature.java
+ *
+ * Benchmark table modelled on DoTS.NAFeature, written in the form of
+ * a generated row class.  Each row references a Bench.NASequence.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class NAFeature extends OverheadRow {
+
+    //Empty Constructor; used in GUSRow.createGUSRow()
+    public NAFeature(){};
+
+    // Constructor that creates a new GUSRow that is not in the database but can be submitted there.
+    public NAFeature(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    public Long getNaFeatureId(){
+	return (Long)get_Attribute("na_feature_id");
+    }
+
+    public void setName(String name){
+	set_Attribute("name", name);
+    }
+
+    public String getName(){
+	return (String)get_Attribute("name");
+    }
+
+    public void setSourceId(String source_id){
+	set_Attribute("source_id", source_id);
+    }
+
+    public String getSourceId(){
+	return (String)get_Attribute("source_id");
+    }
+
+    public void setStartMin(Long start_min){
+	set_Attribute("start_min", start_min);
+    }
+
+    public Long getStartMin(){
+	return (Long)get_Attribute("start_min");
+    }
+
+    public void setEndMax(Long end_max){
+	set_Attribute("end_max", end_max);
+    }
+
+    public Long getEndMax(){
+	return (Long)get_Attribute("end_max");
+    }
+
+    public void setIsReversed(Boolean is_reversed){
+	set_Attribute("is_reversed", is_reversed);
+    }
+
+    public Boolean getIsReversed(){
+	return (Boolean)get_Attribute("is_reversed");
+    }
+
+    public void setScore(Double score){
+	set_Attribute("score", score);
+    }
+
+    public Double getScore(){
+	return (Double)get_Attribute("score");
+    }
+
+    // Parent Objects
+    public void setNaSequence(NASequence na_sequence_id){
+	setParent(na_sequence_id, "na_sequence_id");
+    }
+
+    public NASequence getNaSequence(boolean retrieveFromDb)
+	throws GUSNoConnectionException, GUSNoSuchRelationException, GUSObjectNotUniqueException{
+	return (NASequence)getParent("na_sequence_id", retrieveFromDb);
+    }
+
+    // ----------------------------------------------
+    // GUSRow abstract methods
+    // ----------------------------------------------
+    
+    protected void setAttributesFromHashtable_aux(Hashtable rowHash, Hashtable specialCases){
+	Number na_feature_id = (Number)rowHash.get("na_feature_id");
+	set_Retrieved("na_feature_id", na_feature_id != null ? new Long(na_feature_id.longValue()) : null);
+
+	set_Retrieved("name", (String)rowHash.get("name"));
+
+	set_Retrieved("source_id", (String)rowHash.get("source_id"));
+
+	Number start_min = (Number)rowHash.get("start_min");
+	set_Retrieved("start_min", start_min != null ? new Long(start_min.longValue()) : null);
+
+	Number end_max = (Number)rowHash.get("end_max");
+	set_Retrieved("end_max", end_max != null ? new Long(end_max.longValue()) : null);
+
+	Number is_reversed = (Number)rowHash.get("is_reversed");
+	set_Retrieved("is_reversed", is_reversed != null ? new Boolean(intToBool(is_reversed.intValue())) : null);
+
+	Number score = (Number)rowHash.get("score");
+	set_Retrieved("score", score != null ? new Double(score.doubleValue()) : null);
+
+	Number na_sequence_id = (Number)rowHash.get("na_sequence_id");
+	set_ParentRetrieved("na_sequence_id", GUSTable.getTableByName("Bench", "NASequence"),
+	    na_sequence_id != null ? new Long(na_sequence_id.longValue()) : null);
+
+	setOverheadFromHashtable(rowHash);
+    }
+
+    public GUSTable getTable() {
+	return GUSTable.getTableByName("Bench", "NAFeature");
+    }
+    
+    public long getPrimaryKeyValue(){
+	Long pkna_feature_id = getNaFeatureId();
+	if (pkna_feature_id == null){ return -1; }
+	return pkna_feature_id.longValue();
+    }
+
+    protected void setPrimaryKeyValue(Long pk)
+	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException{
+	set_Retrieved("na_feature_id", pk);
+    }
+
+} // NAFeature
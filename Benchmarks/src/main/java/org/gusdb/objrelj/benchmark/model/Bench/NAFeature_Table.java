@@ -0,0 +1,60 @@
+package org.gusdb.objrelj.benchmark.model.Bench;
+
+import java.util.*;
+import org.gusdb.objrelj.*;
+import org.gusdb.objrelj.benchmark.model.OverheadRow;
+
+public class NAFeature_Table extends GUSTable {
+
+    public NAFeature_Table () 
+    {
+	super("Bench", "NAFeature");
+        setDefaultParams();
+    }
+
+    public void setDefaultParams (){
+	// Attributes (columns) of the table
+	Hashtable tableAtts = new Hashtable();
+        try {
+	    tableAtts.put("na_feature_id", new GUSTableAttribute("na_feature_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	    tableAtts.put("na_sequence_id", new GUSTableAttribute("na_sequence_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	    tableAtts.put("name", new GUSTableAttribute("name", "VARCHAR2", "java.lang.String", -1, 30, -1, false, false) );
+	    tableAtts.put("source_id", new GUSTableAttribute("source_id", "VARCHAR2", "java.lang.String", -1, 50, -1, false, false) );
+	    tableAtts.put("start_min", new GUSTableAttribute("start_min", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	    tableAtts.put("end_max", new GUSTableAttribute("end_max", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	    tableAtts.put("is_reversed", new GUSTableAttribute("is_reversed", "NUMBER", "java.lang.Boolean", 1, 22, 0, false, false) );
+	    tableAtts.put("score", new GUSTableAttribute("score", "NUMBER", "java.lang.Double", 14, 22, 4, false, false) );
+	    OverheadRow.addOverheadAttributeInfo(tableAtts);
+        } catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+        this.attributeInfo = tableAtts;
+
+        // Child relationships (tables and views that reference this one) 
+        try {
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+
+        // Parent relationships (tables and views referenced by this one) 
+        try { 
+	    addParentRelation(new GUSTableRelation("Bench","NASequence","na_sequence_id","Bench","NAFeature","na_sequence_id"), "Bench", "NASequence", "na_sequence_id");
+	    addParentRelation(new GUSTableRelation("Core","UserInfo","user_id","Bench","NAFeature","row_user_id"), "Core", "UserInfo", "row_user_id");
+	    addParentRelation(new GUSTableRelation("Core","GroupInfo","group_id","Bench","NAFeature","row_group_id"), "Core", "GroupInfo", "row_group_id");
+	    addParentRelation(new GUSTableRelation("Core","ProjectInfo","project_id","Bench","NAFeature","row_project_id"), "Core", "ProjectInfo", "row_project_id");
+	    addParentRelation(new GUSTableRelation("Core","AlgorithmInvocation","algorithm_invocation_id","Bench","NAFeature","row_alg_invocation_id"), "Core", "AlgorithmInvocation", "row_alg_invocation_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+    // Other table properties
+    this.schemaName = "Bench";
+    this.tableName = "NAFeature";
+    this.isView = false;
+    this.hasSequence = true;
+    this.primaryKey = "na_feature_id";
+    this.tableId = 0;
+    }
+
+} // NAFeature_Table
@@ -0,0 +1,120 @@
+package org.gusdb.objrelj.benchmark.model.Bench;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+import org.gusdb.objrelj.benchmark.model.OverheadRow;
+
+/**
+ * NASequence.java
+ *
+ * Benchmark table modelled on DoTS.NASequence, written in the form of
+ * a generated row class.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class NASequence extends OverheadRow {
+
+    //Empty Constructor; used in GUSRow.createGUSRow()
+    public NASequence(){};
+
+    // Constructor that creates a new GUSRow that is not in the database but can be submitted there.
+    public NASequence(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    public Long getNaSequenceId(){
+	return (Long)get_Attribute("na_sequence_id");
+    }
+
+    public void setSourceId(String source_id){
+	set_Attribute("source_id", source_id);
+    }
+
+    public String getSourceId(){
+	return (String)get_Attribute("source_id");
+    }
+
+    public void setName(String name){
+	set_Attribute("name", name);
+    }
+
+    public String getName(){
+	return (String)get_Attribute("name");
+    }
+
+    public void setLength(Long length){
+	set_Attribute("length", length);
+    }
+
+    public Long getLength(){
+	return (Long)get_Attribute("length");
+    }
+
+    public void setGcContent(Float gc_content){
+	set_Attribute("gc_content", gc_content);
+    }
+
+    public Float getGcContent(){
+	return (Float)get_Attribute("gc_content");
+    }
+
+    public void setDescription(String description){
+	set_Attribute("description", description);
+    }
+
+    public String getDescription(){
+	return (String)get_Attribute("description");
+    }
+
+    //Child Objects
+    public void addNAFeature(NAFeature nafeature){
+	nafeature.setParent(this, "na_sequence_id");
+    }
+    public Vector getBenchNAFeatureList(boolean localOnly)
+	throws GUSNoConnectionException, GUSNoSuchRelationException, GUSObjectNotUniqueException{
+	GUSTable table = GUSTable.getTableByName("Bench", "NAFeature");
+	return getChildren("nafeature", table, "na_sequence_id", localOnly);
+    }
+
+    // ----------------------------------------------
+    // GUSRow abstract methods
+    // ----------------------------------------------
+    
+    protected void setAttributesFromHashtable_aux(Hashtable rowHash, Hashtable specialCases){
+	Number na_sequence_id = (Number)rowHash.get("na_sequence_id");
+	set_Retrieved("na_sequence_id", na_sequence_id != null ? new Long(na_sequence_id.longValue()) : null);
+
+	set_Retrieved("source_id", (String)rowHash.get("source_id"));
+
+	set_Retrieved("name", (String)rowHash.get("name"));
+
+	Number length = (Number)rowHash.get("length");
+	set_Retrieved("length", length != null ? new Long(length.longValue()) : null);
+
+	Number gc_content = (Number)rowHash.get("gc_content");
+	set_Retrieved("gc_content", gc_content != null ? new Float(gc_content.floatValue()) : null);
+
+	set_Retrieved("description", (String)rowHash.get("description"));
+
+	setOverheadFromHashtable(rowHash);
+    }
+
+    public GUSTable getTable() {
+	return GUSTable.getTableByName("Bench", "NASequence");
+    }
+    
+    public long getPrimaryKeyValue(){
+	Long pkna_sequence_id = getNaSequenceId();
+	if (pkna_sequence_id == null){ return -1; }
+	return pkna_sequence_id.longValue();
+    }
+
+    protected void setPrimaryKeyValue(Long pk)
+	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException{
+	set_Retrieved("na_sequence_id", pk);
+    }
+
+} // NASequence
@@ -0,0 +1,58 @@
+package org.gusdb.objrelj.benchmark.model.Bench;
+
+import java.util.*;
+import org.gusdb.objrelj.*;
+import org.gusdb.objrelj.benchmark.model.OverheadRow;
+
+public class NASequence_Table extends GUSTable {
+
+    public NASequence_Table () 
+    {
+	super("Bench", "NASequence");
+        setDefaultParams();
+    }
+
+    public void setDefaultParams (){
+	// Attributes (columns) of the table
+	Hashtable tableAtts = new Hashtable();
+        try {
+	    tableAtts.put("na_sequence_id", new GUSTableAttribute("na_sequence_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	    tableAtts.put("source_id", new GUSTableAttribute("source_id", "VARCHAR2", "java.lang.String", -1, 50, -1, false, false) );
+	    tableAtts.put("name", new GUSTableAttribute("name", "VARCHAR2", "java.lang.String", -1, 100, -1, false, false) );
+	    tableAtts.put("length", new GUSTableAttribute("length", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	    tableAtts.put("gc_content", new GUSTableAttribute("gc_content", "NUMBER", "java.lang.Float", 10, 22, 4, false, false) );
+	    tableAtts.put("description", new GUSTableAttribute("description", "VARCHAR2", "java.lang.String", -1, 255, -1, false, false) );
+	    OverheadRow.addOverheadAttributeInfo(tableAtts);
+        } catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+        this.attributeInfo = tableAtts;
+
+        // Child relationships (tables and views that reference this one) 
+        try {
+	    addChildRelation(new GUSTableRelation("Bench","NASequence","na_sequence_id","Bench","NAFeature","na_sequence_id"), "Bench", "NAFeature", "na_sequence_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+
+        // Parent relationships (tables and views referenced by this one) 
+        try { 
+	    addParentRelation(new GUSTableRelation("Core","UserInfo","user_id","Bench","NASequence","row_user_id"), "Core", "UserInfo", "row_user_id");
+	    addParentRelation(new GUSTableRelation("Core","GroupInfo","group_id","Bench","NASequence","row_group_id"), "Core", "GroupInfo", "row_group_id");
+	    addParentRelation(new GUSTableRelation("Core","ProjectInfo","project_id","Bench","NASequence","row_project_id"), "Core", "ProjectInfo", "row_project_id");
+	    addParentRelation(new GUSTableRelation("Core","AlgorithmInvocation","algorithm_invocation_id","Bench","NASequence","row_alg_invocation_id"), "Core", "AlgorithmInvocation", "row_alg_invocation_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+    // Other table properties
+    this.schemaName = "Bench";
+    this.tableName = "NASequence";
+    this.isView = false;
+    this.hasSequence = true;
+    this.primaryKey = "na_sequence_id";
+    this.tableId = 0;
+    }
+
+} // NASequence_Table
@@ -0,0 +1,56 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+
+/**
+ * AlgorithmInvocation.java
+ *
+ * Stand-in for the generated Core.AlgorithmInvocation row class, reduced to its primary
+ * key.  Benchmark rows only refer to this table through an overhead column,
+ * so its rows are never retrieved.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class AlgorithmInvocation extends GUSRow {
+
+    //Empty Constructor; used in GUSRow.createGUSRow()
+    public AlgorithmInvocation(){};
+
+    // Constructor that creates a new GUSRow that is not in the database but can be submitted there.
+    public AlgorithmInvocation(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    public Long getAlgorithmInvocationId(){
+	return (Long)get_Attribute("algorithm_invocation_id");
+    }
+
+    // ----------------------------------------------
+    // GUSRow abstract methods
+    // ----------------------------------------------
+    
+    protected void setAttributesFromHashtable_aux(Hashtable rowHash, Hashtable specialCases){
+	Number algorithm_invocation_id = (Number)rowHash.get("algorithm_invocation_id");
+	set_Retrieved("algorithm_invocation_id", algorithm_invocation_id != null ? new Long(algorithm_invocation_id.longValue()) : null);
+    }
+
+    public GUSTable getTable() {
+	return GUSTable.getTableByName("Core", "AlgorithmInvocation");
+    }
+    
+    public long getPrimaryKeyValue(){
+	Long pkalgorithm_invocation_id = getAlgorithmInvocationId();
+	if (pkalgorithm_invocation_id == null){ return -1; }
+	return pkalgorithm_invocation_id.longValue();
+    }
+
+    protected void setPrimaryKeyValue(Long pk)
+	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException{
+	set_Retrieved("algorithm_invocation_id", pk);
+    }
+
+} // AlgorithmInvocation
@@ -0,0 +1,48 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import org.gusdb.objrelj.*;
+
+public class AlgorithmInvocation_Table extends GUSTable {
+
+    public AlgorithmInvocation_Table () 
+    {
+	super("Core", "AlgorithmInvocation");
+        setDefaultParams();
+    }
+
+    public void setDefaultParams (){
+	// Attributes (columns) of the table
+	Hashtable tableAtts = new Hashtable();
+        try {
+	    tableAtts.put("algorithm_invocation_id", new GUSTableAttribute("algorithm_invocation_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+        } catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+        this.attributeInfo = tableAtts;
+
+        // Child relationships (tables and views that reference this one) 
+        try {
+	    addChildRelation(new GUSTableRelation("Core","AlgorithmInvocation","algorithm_invocation_id","Bench","NASequence","row_alg_invocation_id"), "Bench", "NASequence", "row_alg_invocation_id");
+	    addChildRelation(new GUSTableRelation("Core","AlgorithmInvocation","algorithm_invocation_id","Bench","NAFeature","row_alg_invocation_id"), "Bench", "NAFeature", "row_alg_invocation_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+
+        // Parent relationships (tables and views referenced by this one) 
+        try { 
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+    // Other table properties
+    this.schemaName = "Core";
+    this.tableName = "AlgorithmInvocation";
+    this.isView = false;
+    this.hasSequence = true;
+    this.primaryKey = "algorithm_invocation_id";
+    this.tableId = 0;
+    }
+
+} // AlgorithmInvocation_Table
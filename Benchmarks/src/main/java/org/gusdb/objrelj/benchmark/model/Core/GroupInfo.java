@@ -0,0 +1,56 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+
+/**
+ * GroupInfo.java
+ *
+ * Stand-in for the generated Core.GroupInfo row class, reduced to its primary
+ * key.  Benchmark rows only refer to this table through an overhead column,
+ * so its rows are never retrieved.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class GroupInfo extends GUSRow {
+
+    //Empty Constructor; used in GUSRow.createGUSRow()
+    public GroupInfo(){};
+
+    // Constructor that creates a new GUSRow that is not in the database but can be submitted there.
+    public GroupInfo(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    public Long getGroupId(){
+	return (Long)get_Attribute("group_id");
+    }
+
+    // ----------------------------------------------
+    // GUSRow abstract methods
+    // ----------------------------------------------
+    
+    protected void setAttributesFromHashtable_aux(Hashtable rowHash, Hashtable specialCases){
+	Number group_id = (Number)rowHash.get("group_id");
+	set_Retrieved("group_id", group_id != null ? new Long(group_id.longValue()) : null);
+    }
+
+    public GUSTable getTable() {
+	return GUSTable.getTableByName("Core", "GroupInfo");
+    }
+    
+    public long getPrimaryKeyValue(){
+	Long pkgroup_id = getGroupId();
+	if (pkgroup_id == null){ return -1; }
+	return pkgroup_id.longValue();
+    }
+
+    protected void setPrimaryKeyValue(Long pk)
+	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException{
+	set_Retrieved("group_id", pk);
+    }
+
+} // GroupInfo
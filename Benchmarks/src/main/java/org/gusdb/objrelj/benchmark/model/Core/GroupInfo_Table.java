@@ -0,0 +1,48 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import org.gusdb.objrelj.*;
+
+public class GroupInfo_Table extends GUSTable {
+
+    public GroupInfo_Table () 
+    {
+	super("Core", "GroupInfo");
+        setDefaultParams();
+    }
+
+    public void setDefaultParams (){
+	// Attributes (columns) of the table
+	Hashtable tableAtts = new Hashtable();
+        try {
+	    tableAtts.put("group_id", new GUSTableAttribute("group_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+        } catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+        this.attributeInfo = tableAtts;
+
+        // Child relationships (tables and views that reference this one) 
+        try {
+	    addChildRelation(new GUSTableRelation("Core","GroupInfo","group_id","Bench","NASequence","row_group_id"), "Bench", "NASequence", "row_group_id");
+	    addChildRelation(new GUSTableRelation("Core","GroupInfo","group_id","Bench","NAFeature","row_group_id"), "Bench", "NAFeature", "row_group_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+
+        // Parent relationships (tables and views referenced by this one) 
+        try { 
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+    // Other table properties
+    this.schemaName = "Core";
+    this.tableName = "GroupInfo";
+    this.isView = false;
+    this.hasSequence = true;
+    this.primaryKey = "group_id";
+    this.tableId = 0;
+    }
+
+} // GroupInfo_Table
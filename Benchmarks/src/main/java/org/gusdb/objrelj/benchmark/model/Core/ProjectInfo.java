@@ -0,0 +1,56 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+
+/**
+ * ProjectInfo.java
+ *
+ * Stand-in for the generated Core.ProjectInfo row class, reduced to its primary
+ * key.  Benchmark rows only refer to this table through an overhead column,
+ * so its rows are never retrieved.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class ProjectInfo extends GUSRow {
+
+    //Empty Constructor; used in GUSRow.createGUSRow()
+    public ProjectInfo(){};
+
+    // Constructor that creates a new GUSRow that is not in the database but can be submitted there.
+    public ProjectInfo(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    public Long getProjectId(){
+	return (Long)get_Attribute("project_id");
+    }
+
+    // ----------------------------------------------
+    // GUSRow abstract methods
+    // ----------------------------------------------
+    
+    protected void setAttributesFromHashtable_aux(Hashtable rowHash, Hashtable specialCases){
+	Number project_id = (Number)rowHash.get("project_id");
+	set_Retrieved("project_id", project_id != null ? new Long(project_id.longValue()) : null);
+    }
+
+    public GUSTable getTable() {
+	return GUSTable.getTableByName("Core", "ProjectInfo");
+    }
+    
+    public long getPrimaryKeyValue(){
+	Long pkproject_id = getProjectId();
+	if (pkproject_id == null){ return -1; }
+	return pkproject_id.longValue();
+    }
+
+    protected void setPrimaryKeyValue(Long pk)
+	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException{
+	set_Retrieved("project_id", pk);
+    }
+
+} // ProjectInfo
@@ -0,0 +1,48 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import org.gusdb.objrelj.*;
+
+public class ProjectInfo_Table extends GUSTable {
+
+    public ProjectInfo_Table () 
+    {
+	super("Core", "ProjectInfo");
+        setDefaultParams();
+    }
+
+    public void setDefaultParams (){
+	// Attributes (columns) of the table
+	Hashtable tableAtts = new Hashtable();
+        try {
+	    tableAtts.put("project_id", new GUSTableAttribute("project_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+        } catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+        this.attributeInfo = tableAtts;
+
+        // Child relationships (tables and views that reference this one) 
+        try {
+	    addChildRelation(new GUSTableRelation("Core","ProjectInfo","project_id","Bench","NASequence","row_project_id"), "Bench", "NASequence", "row_project_id");
+	    addChildRelation(new GUSTableRelation("Core","ProjectInfo","project_id","Bench","NAFeature","row_project_id"), "Bench", "NAFeature", "row_project_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+
+        // Parent relationships (tables and views referenced by this one) 
+        try { 
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+    // Other table properties
+    this.schemaName = "Core";
+    this.tableName = "ProjectInfo";
+    this.isView = false;
+    this.hasSequence = true;
+    this.primaryKey = "project_id";
+    this.tableId = 0;
+    }
+
+} // ProjectInfo_Table
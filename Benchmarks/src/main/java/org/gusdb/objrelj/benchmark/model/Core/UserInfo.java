@@ -0,0 +1,56 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+
+/**
+ * UserInfo.java
+ *
+ * Stand-in for the generated Core.UserInfo row class, reduced to its primary
+ * key.  Benchmark rows only refer to this table through an overhead column,
+ * so its rows are never retrieved.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class UserInfo extends GUSRow {
+
+    //Empty Constructor; used in GUSRow.createGUSRow()
+    public UserInfo(){};
+
+    // Constructor that creates a new GUSRow that is not in the database but can be submitted there.
+    public UserInfo(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    public Long getUserId(){
+	return (Long)get_Attribute("user_id");
+    }
+
+    // ----------------------------------------------
+    // GUSRow abstract methods
+    // ----------------------------------------------
+    
+    protected void setAttributesFromHashtable_aux(Hashtable rowHash, Hashtable specialCases){
+	Number user_id = (Number)rowHash.get("user_id");
+	set_Retrieved("user_id", user_id != null ? new Long(user_id.longValue()) : null);
+    }
+
+    public GUSTable getTable() {
+	return GUSTable.getTableByName("Core", "UserInfo");
+    }
+    
+    public long getPrimaryKeyValue(){
+	Long pkuser_id = getUserId();
+	if (pkuser_id == null){ return -1; }
+	return pkuser_id.longValue();
+    }
+
+    protected void setPrimaryKeyValue(Long pk)
+	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException{
+	set_Retrieved("user_id", pk);
+    }
+
+} // UserInfo
@@ -0,0 +1,48 @@
+package org.gusdb.objrelj.benchmark.model.Core;
+
+import java.util.*;
+import org.gusdb.objrelj.*;
+
+public class UserInfo_Table extends GUSTable {
+
+    public UserInfo_Table () 
+    {
+	super("Core", "UserInfo");
+        setDefaultParams();
+    }
+
+    public void setDefaultParams (){
+	// Attributes (columns) of the table
+	Hashtable tableAtts = new Hashtable();
+        try {
+	    tableAtts.put("user_id", new GUSTableAttribute("user_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+        } catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+        this.attributeInfo = tableAtts;
+
+        // Child relationships (tables and views that reference this one) 
+        try {
+	    addChildRelation(new GUSTableRelation("Core","UserInfo","user_id","Bench","NASequence","row_user_id"), "Bench", "NASequence", "row_user_id");
+	    addChildRelation(new GUSTableRelation("Core","UserInfo","user_id","Bench","NAFeature","row_user_id"), "Bench", "NAFeature", "row_user_id");
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+
+        // Parent relationships (tables and views referenced by this one) 
+        try { 
+        }
+        catch (Exception e) {System.err.println(e.getMessage());
+e.printStackTrace();
+}
+    // Other table properties
+    this.schemaName = "Core";
+    this.tableName = "UserInfo";
+    this.isView = false;
+    this.hasSequence = true;
+    this.primaryKey = "user_id";
+    this.tableId = 0;
+    }
+
+} // UserInfo_Table
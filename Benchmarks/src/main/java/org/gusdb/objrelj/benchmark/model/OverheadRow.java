@@ -0,0 +1,106 @@
+package org.gusdb.objrelj.benchmark.model;
+
+import java.util.*;
+import java.sql.*;
+import org.gusdb.objrelj.*;
+
+/**
+ * OverheadRow.java
+ *
+ * Superclass of the benchmark model rows that have the standard GUS
+ * overhead columns (modification_date, the six permission flags and
+ * the four row_*_id references to the Core tables.)  The generator
+ * writes these accessors into every _Row class; here they are shared
+ * so that the benchmark tables only have to declare their own columns.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public abstract class OverheadRow extends GUSRow {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    public static final String[] PERMISSION_ATTS = {
+	"user_read", "user_write", "group_read", "group_write", "other_read", "other_write"
+    };
+
+    /**
+     * Overhead foreign keys and the Core tables that they reference.
+     */
+    public static final String[][] OVERHEAD_PARENTS = {
+	{"row_user_id", "UserInfo"},
+	{"row_group_id", "GroupInfo"},
+	{"row_project_id", "ProjectInfo"},
+	{"row_alg_invocation_id", "AlgorithmInvocation"}
+    };
+
+    // ------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------
+
+    public OverheadRow(){}
+
+    public OverheadRow(ServerI server, String sessionId){
+	super(server, sessionId);
+    }
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    public java.sql.Date getModificationDate(){
+	return (java.sql.Date)get_Attribute("modification_date");
+    }
+
+    public Boolean getUserRead(){
+	return (Boolean)get_Attribute("user_read");
+    }
+
+    public GUSRow getRowUser(boolean retrieveFromDb){
+	return getParent("row_user_id", retrieveFromDb);
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Set the overhead columns from a row returned by the database.  H2
+     * returns DATE columns as Timestamps and NUMBER columns as BigDecimals,
+     * as Oracle does.
+     */
+    protected void setOverheadFromHashtable(Hashtable rowHash){
+	Object modDate = rowHash.get("modification_date");
+	set_Retrieved("modification_date", modDate != null ? new java.sql.Date(((java.util.Date)modDate).getTime()) : null);
+
+	for (int i = 0; i < PERMISSION_ATTS.length; ++i) {
+	    Number perm = (Number)rowHash.get(PERMISSION_ATTS[i]);
+	    set_Retrieved(PERMISSION_ATTS[i], perm != null ? new Boolean(intToBool(perm.intValue())) : null);
+	}
+
+	for (int i = 0; i < OVERHEAD_PARENTS.length; ++i) {
+	    Number fk = (Number)rowHash.get(OVERHEAD_PARENTS[i][0]);
+	    set_ParentRetrieved(OVERHEAD_PARENTS[i][0], GUSTable.getTableByName("Core", OVERHEAD_PARENTS[i][1]),
+				fk != null ? new Long(fk.longValue()) : null);
+	}
+    }
+
+    /**
+     * Add the attribute information for the overhead columns to a GUSTable's
+     * <code>attributeInfo</code>.
+     */
+    public static void addOverheadAttributeInfo(Hashtable tableAtts){
+	tableAtts.put("modification_date", new GUSTableAttribute("modification_date", "DATE", "java.sql.Date", -1, 7, -1, false, false) );
+	for (int i = 0; i < PERMISSION_ATTS.length; ++i) {
+	    tableAtts.put(PERMISSION_ATTS[i], new GUSTableAttribute(PERMISSION_ATTS[i], "NUMBER", "java.lang.Boolean", 1, 22, 0, false, false) );
+	}
+	tableAtts.put("row_user_id", new GUSTableAttribute("row_user_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+	tableAtts.put("row_group_id", new GUSTableAttribute("row_group_id", "NUMBER", "java.lang.Short", 4, 22, 0, false, false) );
+	tableAtts.put("row_project_id", new GUSTableAttribute("row_project_id", "NUMBER", "java.lang.Short", 4, 22, 0, false, false) );
+	tableAtts.put("row_alg_invocation_id", new GUSTableAttribute("row_alg_invocation_id", "NUMBER", "java.lang.Long", 12, 22, 0, false, false) );
+    }
+
+} // OverheadRow
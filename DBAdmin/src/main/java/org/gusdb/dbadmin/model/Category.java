@@ -47,5 +47,8 @@ public class Category {
 
     public void setName( String name ) {
         this.name = name;
+        if ( superCategory != null && superCategory.getDatabase( ) != null ) {
+            superCategory.getDatabase( ).categoriesChanged( );
+        }
     }
 }
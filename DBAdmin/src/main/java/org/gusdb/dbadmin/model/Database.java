@@ -1,6 +1,8 @@
 package org.gusdb.dbadmin.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.TreeSet;
 
@@ -21,6 +23,15 @@ public class Database extends DatabaseObject {
     private TreeSet<Schema>     schema          = new TreeSet<>( );
     private ArrayList<SuperCategory> superCategories = new ArrayList<SuperCategory>( );
 
+    private NameIndex<Schema>        schemasByName   = new NameIndex<Schema>( ) {
+        @Override
+        protected void renamed( Schema schema ) {
+            tablesChanged( );
+        }
+    };
+    private HashMap<String, Category> categoriesByName;
+    private List<GusTable>           gusTables;
+
     public TreeSet<Schema> getAllSchemas( ) {
         return schema;
     }
@@ -40,24 +51,23 @@ public class Database extends DatabaseObject {
 
         if ( !this.schema.contains( schema ) ) {
             this.schema.add( schema );
+            schemasByName.add( schema );
+            tablesChanged( );
             schema.setDatabase( this );
         }
     }
 
     public void removeSchema( Schema schema ) {
         boolean removed = this.schema.remove( schema );
-        if ( removed ) schema.setDatabase( (Database) null );
+        if ( removed ) {
+            schemasByName.remove( schema );
+            tablesChanged( );
+            schema.setDatabase( (Database) null );
+        }
     }
 
     public Schema getSchema( String name ) {
-        if ( name == null ) return null;
-
-        for ( Schema s : getAllSchemas( ) ) {
-            if ( s.getName( ).compareToIgnoreCase( name ) == 0 ) {
-                return s;
-            }
-        }
-        return null;
+        return schemasByName.get( name );
     }
 
     public float getVersion( ) {
@@ -81,10 +91,24 @@ public class Database extends DatabaseObject {
     }
 
     public Category getCategory( String name ) {
-        for ( Category cat : getCategories( ) ) {
-            if ( cat.getName( ) != null && cat.getName( ).equalsIgnoreCase( name ) ) return cat;
+        if ( name == null ) return null;
+        if ( categoriesByName == null ) {
+            categoriesByName = new HashMap<String, Category>( );
+            for ( Category cat : getCategories( ) ) {
+                if ( cat.getName( ) != null && !categoriesByName.containsKey( cat.getName( ).toUpperCase( ) ) ) {
+                    categoriesByName.put( cat.getName( ).toUpperCase( ), cat );
+                }
+            }
         }
-        return null;
+        return categoriesByName.get( name.toUpperCase( ) );
+    }
+
+    /**
+     * Called when a category or super category of this database is added,
+     * removed or renamed.
+     */
+    void categoriesChanged( ) {
+        categoriesByName = null;
     }
 
     public ArrayList<Category> getCategories( ) {
@@ -107,13 +131,17 @@ public class Database extends DatabaseObject {
     public void addSuperCategory( SuperCategory superCategory ) {
         if ( !this.superCategories.contains( superCategory ) ) {
             this.superCategories.add( superCategory );
+            categoriesChanged( );
             superCategory.setDatabase( this );
         }
     }
 
     public void removeSuperCategory( SuperCategory superCategory ) {
         boolean removed = this.superCategories.remove( superCategory );
-        if ( removed ) superCategory.setDatabase( (Database) null );
+        if ( removed ) {
+            categoriesChanged( );
+            superCategory.setDatabase( (Database) null );
+        }
     }
 
     public ArrayList<Table> getAllTables( ) {
@@ -124,15 +152,32 @@ public class Database extends DatabaseObject {
         return tables;
     }
 
+    /**
+     * @return the tables of all GUS schemas; the list is kept until a schema
+     *         or table is added, removed or renamed, and must not be modified
+     */
     public List<GusTable> getGusTables( ) {
-        ArrayList<GusTable> tables = new ArrayList<GusTable>( );
-        getGusSchemas()
-          .forEach(schema -> schema.getTables().stream()
-              .map(t -> (GusTable)t)
-              .forEach(tables::add));
+        List<GusTable> tables = gusTables;
+        if ( tables == null ) {
+            ArrayList<GusTable> newTables = new ArrayList<GusTable>( );
+            getGusSchemas()
+              .forEach(schema -> schema.getTables().stream()
+                  .map(t -> (GusTable)t)
+                  .forEach(newTables::add));
+            tables = Collections.unmodifiableList( newTables );
+            gusTables = tables;
+        }
         return tables;
     }
 
+    /**
+     * Called when a schema or table of this database is added, removed or
+     * renamed.
+     */
+    void tablesChanged( ) {
+        gusTables = null;
+    }
+
     public Table getTableFromRef( String ref ) {
       String[] path = ref.split( "/" );
       if ( path.length != 2 ) {
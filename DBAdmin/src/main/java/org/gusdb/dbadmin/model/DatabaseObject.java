@@ -1,6 +1,7 @@
 // $Id$
 package org.gusdb.dbadmin.model;
 
+import java.util.ArrayList;
 
 /**
  * @version $Revision$
@@ -10,6 +11,11 @@ abstract public class DatabaseObject implements Comparable {
 
     protected String           name;
 
+    /**
+     * The NameIndexes holding this object, which are told when it is renamed.
+     */
+    private ArrayList<NameIndex<?>> nameIndexes;
+
     /**
      * @return Object Name
      */
@@ -21,7 +27,22 @@ abstract public class DatabaseObject implements Comparable {
      * @param name New Object Name
      */
     public void setName( String name ) {
+        String oldName = this.name;
         this.name = name;
+        if ( nameIndexes != null ) {
+            for ( NameIndex<?> nameIndex : new ArrayList<NameIndex<?>>( nameIndexes ) ) {
+                nameIndex.rename( this, oldName );
+            }
+        }
+    }
+
+    void addNameIndex( NameIndex<?> nameIndex ) {
+        if ( nameIndexes == null ) nameIndexes = new ArrayList<NameIndex<?>>( 2 );
+        nameIndexes.add( nameIndex );
+    }
+
+    void removeNameIndex( NameIndex<?> nameIndex ) {
+        if ( nameIndexes != null ) nameIndexes.remove( nameIndex );
     }
 
     public boolean equals( DatabaseObject o ) {
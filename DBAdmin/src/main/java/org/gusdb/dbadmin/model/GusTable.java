@@ -1,7 +1,6 @@
 package org.gusdb.dbadmin.model;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.TreeSet;
 
 import org.apache.logging.log4j.LogManager;
@@ -24,6 +23,8 @@ public class GusTable extends Table {
     private TreeSet<Constraint> constraint            = new TreeSet<>();
     private ArrayList<Constraint> referentialConstraint = new ArrayList<>();
     private TreeSet<Index>      index                 = new TreeSet<>();
+    private NameIndex<Constraint> constraintsByName   = new NameIndex<>();
+    private NameIndex<Index>    indexesByName         = new NameIndex<>();
     private Sequence            sequence;
     private final String        sequenceSuffix        = "_SQ";
     private Constraint          primaryKey;
@@ -138,14 +139,17 @@ public class GusTable extends Table {
     public void addIndex( Index index ) {
         if ( !this.index.contains( index ) ) {
             this.index.add( index );
+            indexesByName.add( index );
             index.setTable( this );
         }
     }
 
     public void removeIndex( Index index ) {
+        Index indexed = indexesByName.get( index.getName( ) );
         boolean removed = this.index.remove( index );
 
         if ( removed ) {
+            if ( indexed != null ) indexesByName.remove( indexed );
             index.setTable( null );
         }
     }
@@ -209,7 +213,7 @@ public class GusTable extends Table {
         TreeSet<Constraint> constraints = constraint;
 
         if ( getPrimaryKey( ) != null ) {
-            constraints.add( getPrimaryKey( ) );
+            if ( constraints.add( getPrimaryKey( ) ) ) constraintsByName.add( getPrimaryKey( ) );
         }
         return constraints;
     }
@@ -221,6 +225,7 @@ public class GusTable extends Table {
         }
         if ( !this.constraint.contains( constraint ) ) {
             this.constraint.add( constraint );
+            constraintsByName.add( constraint );
             constraint.setConstrainedTable( this );
         }
     }
@@ -236,7 +241,9 @@ public class GusTable extends Table {
             }
         }
         else {
+            Constraint indexed = constraintsByName.get( constraint.getName( ) );
             removed = this.constraint.remove( constraint );
+            if ( removed && indexed != null ) constraintsByName.remove( indexed );
         }
         if ( removed ) {
             constraint.setConstrainedTable( null );
@@ -272,14 +279,16 @@ public class GusTable extends Table {
     }
 
     public Constraint getConstraint( String name ) {
-        for ( Iterator<Constraint> i = getConstraints( ).iterator( ); i.hasNext( ); ) {
-            Constraint constraint = i.next( );
-
-            if ( constraint.getName( ).compareToIgnoreCase( name ) == 0 ) {
-                return constraint;
-            }
+        if ( name == null ) return null;
+        Constraint pk = getPrimaryKey( );
+        if ( pk != null && pk.getName( ) != null && pk.getName( ).equalsIgnoreCase( name ) ) {
+            return pk;
         }
-        return null;
+        return constraintsByName.get( name );
+    }
+
+    public Index getIndex( String name ) {
+        return indexesByName.get( name );
     }
 
     @Override
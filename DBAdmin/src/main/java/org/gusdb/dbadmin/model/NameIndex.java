@@ -0,0 +1,78 @@
+package org.gusdb.dbadmin.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * A case-insensitive index of DatabaseObjects by name, kept alongside the
+ * collection that holds them by that collection's add and remove methods,
+ * and kept current when an indexed object is renamed. Objects without a name
+ * are held but not found. If several objects have the same name, get returns
+ * the one added first.
+ *
+ * @author msaffitz
+ * @version $Revision$ $Date$
+ */
+class NameIndex<T extends DatabaseObject> {
+
+    private HashMap<String, ArrayList<T>> byName = new HashMap<String, ArrayList<T>>( );
+
+    public T get( String name ) {
+        if ( name == null ) return null;
+        ArrayList<T> objects = byName.get( name.toUpperCase( ) );
+        return objects == null ? null : objects.get( 0 );
+    }
+
+    public void add( T object ) {
+        put( object, object.getName( ) );
+        object.addNameIndex( this );
+    }
+
+    public void remove( T object ) {
+        object.removeNameIndex( this );
+        take( object, object.getName( ) );
+    }
+
+    /**
+     * Called by DatabaseObject.setName for each index holding the object.
+     */
+    @SuppressWarnings( "unchecked" )
+    void rename( DatabaseObject object, String oldName ) {
+        take( (T) object, oldName );
+        put( (T) object, object.getName( ) );
+        renamed( (T) object );
+    }
+
+    /**
+     * Called after an indexed object has been renamed.
+     *
+     * @param object the object
+     */
+    protected void renamed( T object ) {}
+
+    private void put( T object, String name ) {
+        if ( name == null ) return;
+        String key = name.toUpperCase( );
+        ArrayList<T> objects = byName.get( key );
+        if ( objects == null ) {
+            objects = new ArrayList<T>( 1 );
+            byName.put( key, objects );
+        }
+        objects.add( object );
+    }
+
+    private void take( T object, String name ) {
+        if ( name == null ) return;
+        String key = name.toUpperCase( );
+        ArrayList<T> objects = byName.get( key );
+        if ( objects == null ) return;
+        for ( int i = 0; i < objects.size( ); i++ ) {
+            if ( objects.get( i ) == object ) {
+                objects.remove( i );
+                break;
+            }
+        }
+        if ( objects.isEmpty( ) ) byName.remove( key );
+    }
+
+}
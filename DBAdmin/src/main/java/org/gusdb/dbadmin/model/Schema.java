@@ -12,6 +12,13 @@ public abstract class Schema extends DatabaseObject {
     private Database       database;
     private TreeSet<Table> table     = new TreeSet<>( );
     private TreeSet<View>  view      = new TreeSet<>( );
+    private NameIndex<Table> tablesByName = new NameIndex<Table>( ) {
+        @Override
+        protected void renamed( Table table ) {
+            if ( database != null ) database.tablesChanged( );
+        }
+    };
+    private NameIndex<View> viewsByName = new NameIndex<>( );
     protected final String verSuffix = "Ver";
 
     public Database getDatabase( ) {
@@ -33,13 +40,19 @@ public abstract class Schema extends DatabaseObject {
     public void addTable( Table table ) {
         if ( !this.table.contains( table ) ) {
             this.table.add( table );
+            tablesByName.add( table );
+            if ( database != null ) database.tablesChanged( );
             table.setSchema( this );
         }
     }
 
     public void removeTable( Table table ) {
         boolean removed = this.table.remove( table );
-        if ( removed ) table.setSchema( null );
+        if ( removed ) {
+            tablesByName.remove( table );
+            if ( database != null ) database.tablesChanged( );
+            table.setSchema( null );
+        }
     }
 
     public TreeSet<View> getViews( ) {
@@ -49,23 +62,25 @@ public abstract class Schema extends DatabaseObject {
     public void addView( View view ) {
         if ( !this.view.contains( view ) ) {
             this.view.add( view );
+            viewsByName.add( view );
             view.setSchema( this );
         }
     }
 
     public void removeView( View view ) {
         boolean removed = this.view.remove( view );
-        if ( removed ) view.setSchema( null );
+        if ( removed ) {
+            viewsByName.remove( view );
+            view.setSchema( null );
+        }
     }
 
     public Table getTable( String name ) {
-        if ( name == null ) return null;
-        for ( Table table : getTables( ) ) {
-            if ( table.getName( ).compareToIgnoreCase( name ) == 0 ) {
-                return table;
-            }
-        }
-        return null;
+        return tablesByName.get( name );
+    }
+
+    public View getView( String name ) {
+        return viewsByName.get( name );
     }
 
 }
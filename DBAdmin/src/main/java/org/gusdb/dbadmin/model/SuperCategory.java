@@ -43,13 +43,17 @@ public class SuperCategory {
     public void addCategory( Category category ) {
         if ( !this.categories.contains( category ) ) {
             this.categories.add( category );
+            if ( database != null ) database.categoriesChanged( );
             category.setSuperCategory( this );
         }
     }
 
     public void removeCategory( Category category ) {
         boolean removed = this.categories.remove( category );
-        if ( removed ) category.setSuperCategory( (SuperCategory) null );
+        if ( removed ) {
+            if ( database != null ) database.categoriesChanged( );
+            category.setSuperCategory( (SuperCategory) null );
+        }
     }
 
     public Category getCategory( String name ) {
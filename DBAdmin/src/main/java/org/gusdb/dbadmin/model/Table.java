@@ -21,6 +21,8 @@ public abstract class Table extends DatabaseObject {
     private Schema                        schema;
     private ArrayList<Column>             column             = new ArrayList<>( );
     private ArrayList<HousekeepingColumn> housekeepingColumn = new ArrayList<>( );
+    private NameIndex<Column>             columnsByName      = new NameIndex<>( );
+    private NameIndex<HousekeepingColumn> housekeepingColumnsByName = new NameIndex<>( );
     private TreeSet<Table>                subclass           = new TreeSet<>( );
     private Table                         superclass;
 
@@ -69,13 +71,17 @@ public abstract class Table extends DatabaseObject {
             log.debug( "Adding Column: '" + column.getName( ) + "' to Table: '" + getName( ) + "' of Type: '"
                     + column.getType( ) + "'" );
             this.column.add( column );
+            columnsByName.add( column );
             column.setTable( this );
         }
     }
 
     public void removeColumn( Column column ) {
-        boolean removed = this.column.remove( column );
-        if ( removed ) column.setTable( null );
+        int i = this.column.indexOf( column );
+        if ( i >= 0 ) {
+            columnsByName.remove( this.column.remove( i ) );
+            column.setTable( null );
+        }
     }
 
     public ArrayList<HousekeepingColumn> getHousekeepingColumns( ) {
@@ -87,12 +93,16 @@ public abstract class Table extends DatabaseObject {
             log.debug( "Adding HousekeepingColumn: '" + housekeepingColumn.getName( ) + "' to Table: '" + getName( )
                     + "'" );
             this.housekeepingColumn.add( housekeepingColumn );
+            housekeepingColumnsByName.add( housekeepingColumn );
             housekeepingColumn.setTable( this );
         }
     }
 
     public void setHousekeepingColumns( ArrayList<HousekeepingColumn> housekeepingColumns ) {
         log.debug( "Setting HousekeepingColumns for Table: '" + getName( ) + "'" );
+        for ( HousekeepingColumn col : this.housekeepingColumn ) {
+            housekeepingColumnsByName.remove( col );
+        }
         this.housekeepingColumn.clear( );
         for ( HousekeepingColumn col : housekeepingColumns ) {
             addHousekeepingColumn( (HousekeepingColumn) col.clone( ) );
@@ -100,8 +110,11 @@ public abstract class Table extends DatabaseObject {
     }
 
     public void removeHousekeepingColumn( HousekeepingColumn housekeepingColumn ) {
-        boolean removed = this.housekeepingColumn.remove( housekeepingColumn );
-        if ( removed ) housekeepingColumn.setTable( null );
+        int i = this.housekeepingColumn.indexOf( housekeepingColumn );
+        if ( i >= 0 ) {
+            housekeepingColumnsByName.remove( this.housekeepingColumn.remove( i ) );
+            housekeepingColumn.setTable( null );
+        }
     }
 
     public TreeSet<Table> getSubclasss( ) {
@@ -150,15 +163,24 @@ public abstract class Table extends DatabaseObject {
         this.tablespace = tablespace;
     }
 
+    /**
+     * @param name column name, in any case
+     * @return the column with this name, looking first in any superclasses,
+     *         then in this table, then in its housekeeping columns
+     */
     public Column getColumn( String name ) {
         if ( name == null ) return null;
+        return getColumn( name, true );
+    }
 
-        for ( Column column : getColumnsIncludeSuperclass( true ) ) {
-            if ( column.getName( ).compareToIgnoreCase( name ) == 0 ) {
-                return column;
-            }
+    private Column getColumn( String name, boolean housekeeping ) {
+        if ( getSuperclass( ) != null ) {
+            Column column = getSuperclass( ).getColumn( name, false );
+            if ( column != null ) return column;
         }
-        return null;
+        Column column = columnsByName.get( name );
+        if ( column == null && housekeeping ) column = housekeepingColumnsByName.get( name );
+        return column;
     }
 
     public boolean isHousekeeping( ) {
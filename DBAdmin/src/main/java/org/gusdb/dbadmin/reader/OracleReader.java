@@ -12,7 +12,18 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,6 +35,7 @@ import org.gusdb.dbadmin.model.GusSchema;
 import org.gusdb.dbadmin.model.GusTable;
 import org.gusdb.dbadmin.model.HousekeepingColumn;
 import org.gusdb.dbadmin.model.Index;
+import org.gusdb.dbadmin.model.Schema;
 import org.gusdb.dbadmin.model.Table;
 import org.gusdb.dbadmin.util.DatabaseUtilities;
 
@@ -50,6 +62,22 @@ import org.gusdb.dbadmin.util.DatabaseUtilities;
  * public interface for OracleReader, and ensures that the setUp, tearDown, and
  * validation methods are called at the appropriate times.
  * </p>
+ * <p>
+ * By default the columns, constraints, indexes and documentation of each
+ * table, index and column are queried for separately. In bulk mode (the
+ * <code>bulkRead</code> property, or setBulkRead(true)) the data dictionary
+ * views and documentation tables are instead each queried once per schema,
+ * and the results are indexed in memory by table, index and constraint name.
+ * </p>
+ * <p>
+ * With more than one thread (the <code>readerThreads</code> property, or
+ * setThreads) each phase of the read is fanned out to a pool of threads, each
+ * with its own connection: tables are listed per schema, their columns and
+ * local constraints read per class hierarchy (a table and its subclasses),
+ * and indexes and documentation read per schema. Remote constraints, which
+ * link columns of different schemas, are resolved on the calling thread once
+ * every schema's tables and local constraints are complete.
+ * </p>
  * 
  * @version $Revision$ $Date: 2005-07-18 14:41:39 -0400 (Mon, 18 Jul
  *          2005) $
@@ -62,15 +90,26 @@ public class OracleReader extends SchemaReader {
 
     private Connection                    connection;
     private String                        CORE;
-    private ArrayList<Index>              generatedIndexes    = new ArrayList<Index>( );
-    private ArrayList<GusTable>           versionedTables     = new ArrayList<GusTable>( );
+    private List<Index>                   generatedIndexes    = new CopyOnWriteArrayList<Index>( );
+    private List<GusTable>                versionedTables     = new CopyOnWriteArrayList<GusTable>( );
 
-    private ArrayList<Table>              superClasses        = new ArrayList<Table>( );
-    private ArrayList<Table>              subClasses          = new ArrayList<Table>( );
+    private List<Table>                   superClasses        = new CopyOnWriteArrayList<Table>( );
+    private List<Table>                   subClasses          = new CopyOnWriteArrayList<Table>( );
     private String                        dsn;
     private String                        username;
     private String                        password;
 
+    private boolean                       bulkRead;
+    private boolean                       bulkReadSet;
+    private ConcurrentHashMap<String, SchemaDictionary> dictionaries = new ConcurrentHashMap<String, SchemaDictionary>( );
+
+    private int                           threads             = 1;
+    private boolean                       threadsSet;
+    private ExecutorService               executor;
+    private ThreadLocal<Connection>       threadConnection    = new ThreadLocal<Connection>( );
+    private List<Connection>              workerConnections   = Collections.synchronizedList( new ArrayList<Connection>( ) );
+    private HashMap<GusSchema, HashMap<String, GusTable>> constraintTables = new HashMap<GusSchema, HashMap<String, GusTable>>( );
+
     /**
      * Creates a new OracleReader object.
      * 
@@ -84,6 +123,30 @@ public class OracleReader extends SchemaReader {
         this.password = password;
     }
 
+    /**
+     * Sets whether to read the data dictionary of each schema with one query
+     * per view, rather than one query per table, index, constraint and column.
+     * Overrides the <code>bulkRead</code> property.
+     * 
+     * @param bulkRead true to read in bulk
+     */
+    public void setBulkRead( boolean bulkRead ) {
+        this.bulkRead = bulkRead;
+        this.bulkReadSet = true;
+    }
+
+    /**
+     * Sets the number of threads, and so connections, used to read the
+     * database; 1 reads on the calling thread only. Overrides the
+     * <code>readerThreads</code> property.
+     * 
+     * @param threads number of threads
+     */
+    public void setThreads( int threads ) {
+        this.threads = Math.max( 1, threads );
+        this.threadsSet = true;
+    }
+
     /**
      * DOCUMENT ME!
      * 
@@ -129,9 +192,57 @@ public class OracleReader extends SchemaReader {
             }
         }
 
+        ArrayList<Runnable> tasks = new ArrayList<Runnable>( );
+
         for ( GusSchema schema : db.getGusSchemas( ) ) {
-            addTables( schema );
+            tasks.add( ( ) -> addTables( schema ) );
         }
+
+        runTasks( tasks );
+        tasks.clear( );
+
+        for ( GusSchema schema : db.getGusSchemas( ) ) {
+            for ( List<GusTable> hierarchy : getHierarchies( schema ) ) {
+                tasks.add( ( ) -> {
+                    for ( GusTable table : hierarchy ) {
+                        addColumns( table );
+                        addLocalConstraints( table );
+                    }
+                } );
+            }
+        }
+
+        runTasks( tasks );
+    }
+
+    /**
+     * Groups the tables of <code>schema</code> whose columns and local
+     * constraints are read by class hierarchy, with each subclass in the group
+     * of its superclass, keeping their order within the schema.
+     * 
+     * @param schema the schema
+     * @return the tables, by hierarchy
+     */
+    private ArrayList<List<GusTable>> getHierarchies( GusSchema schema ) {
+        LinkedHashMap<GusTable, List<GusTable>> hierarchies = new LinkedHashMap<GusTable, List<GusTable>>( );
+
+        for ( GusTable table : toGusTables(schema.getTables()) ) {
+
+            if ( table.getClass( ) == GusTable.class ) {
+                GusTable root = ( isSubclass( table ) && table.getSuperclass( ) != null ) ? table.getSuperclass( )
+                        : table;
+                List<GusTable> hierarchy = hierarchies.get( root );
+
+                if ( hierarchy == null ) {
+                    hierarchy = new ArrayList<GusTable>( );
+                    hierarchies.put( root, hierarchy );
+                }
+
+                hierarchy.add( table );
+            }
+        }
+
+        return new ArrayList<List<GusTable>>( hierarchies.values( ) );
     }
 
     /**
@@ -150,7 +261,7 @@ public class OracleReader extends SchemaReader {
 
             try {
 
-                st = connection.createStatement( );
+                st = getConnection( ).createStatement( );
                 rs = st.executeQuery( "SELECT table_name, tablespace_name FROM all_tables WHERE owner=upper('"
                         + schema.getName( ) + "')" );
 
@@ -184,61 +295,27 @@ public class OracleReader extends SchemaReader {
             }
 
         }
-
-        for ( Iterator<GusTable> i = toGusTables(schema.getTables()).iterator( ); i.hasNext( ); ) {
-
-            GusTable table = i.next( );
-
-            if ( table.getClass( ) == GusTable.class ) {
-                addColumns( table );
-                addLocalConstraints( table );
-            }
-        }
     }
 
     /**
      * DOCUMENT ME!
      * 
      * @param table DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void addSubclasses( GusTable table ) {
         log.debug( "adding subclasses to table: " + table.getName( ) );
 
-        Statement st = null;
-        ResultSet rs = null;
-
-        try {
-
-            st = connection.createStatement( );
-            rs = st.executeQuery( "SELECT subt.name FROM core.tableinfo subt, core.tableinfo supert, "
-                    + "core.databaseinfo d " + "WHERE upper(d.name)=upper('" + table.getSchema( ).getName( ) + "')  "
-                    + "AND d.database_id=supert.database_id " + "AND upper(supert.name)=upper('" + table.getName( )
-                    + "') AND " + "supert.table_id=subt.superclass_table_id" );
+        ArrayList<String> names = bulkRead ? getDictionary( table.getSchema( ) ).getSubclassNames( table.getName( ) )
+                : querySubclassNames( table );
 
-            while ( rs.next( ) ) {
+        for ( String name : names ) {
 
-                GusTable subclass = new GusTable( );
-                subclass.setName( rs.getString( "name" ) );
-                subclass.setTablespace( table.getTablespace( ) );
-                subclass.setSchema( table.getSchema( ) );
-                subClasses.add( subclass );
-                table.addSubclass( subclass );
-            }
-        }
-        catch ( SQLException e ) {
-            log.error( "Error querying for subclasses: " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
-            }
-            catch ( SQLException ignored ) {}
+            GusTable subclass = new GusTable( );
+            subclass.setName( name );
+            subclass.setTablespace( table.getTablespace( ) );
+            subclass.setSchema( table.getSchema( ) );
+            subClasses.add( subclass );
+            table.addSubclass( subclass );
         }
     }
 
@@ -263,7 +340,6 @@ public class OracleReader extends SchemaReader {
      * 
      * @param table DOCUMENT ME!
      * @param okSubclass DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void addColumns( GusTable table, boolean okSubclass ) {
         log.debug( "adding columns to table: " + table.getName( ) );
@@ -273,63 +349,40 @@ public class OracleReader extends SchemaReader {
             return;
         }
 
-        Statement st = null;
-        ResultSet rs = null;
+        ArrayList<ColumnRow> rows = bulkRead ? getDictionary( table.getSchema( ) ).getColumns( table.getName( ) )
+                : queryColumns( table );
 
-        try {
+        for ( ColumnRow row : rows ) {
 
-            st = connection.createStatement( );
-            String table_name = table.getName( );
-            rs = st.executeQuery( "SELECT column_name, data_type, data_length, data_scale, data_precision, nullable "
-                    + "FROM all_tab_cols WHERE owner=upper('" + table.getSchema( ).getName( ) + "') "
-                    + "and table_name=upper('" + table_name + "') ORDER BY column_id ASC" );
+            if ( isHousekeeping( row.columnName ) ) {
+                table.setHousekeeping( true );
 
-            while ( rs.next( ) ) {
-
-                if ( isHousekeeping( rs.getString( "column_name" ) ) ) {
-                    table.setHousekeeping( true );
-
-                    continue;
-                }
+                continue;
+            }
 
-                if ( isSubclass( table ) && isSuperclassColumn( rs.getString( "column_name" ), table ) )
+            if ( isSubclass( table ) && isSuperclassColumn( row.columnName, table ) )
 
-                continue;
+            continue;
 
-                GusColumn col = new GusColumn( );
-                col.setName( rs.getString( "column_name" ) );
-                col.setType( getColumnType( rs.getString( "data_type" ) ) );
-                col.setNullable( stringToBoolean( rs.getString( "nullable" ) ) );
+            GusColumn col = new GusColumn( );
+            col.setName( row.columnName );
+            col.setType( getColumnType( row.dataType ) );
+            col.setNullable( stringToBoolean( row.nullable ) );
 
-                int length = getColumnLength( col.getType( ), rs.getInt( "data_length" ), rs.getInt( "data_precision" ) );
-                col.setLength( length );
-                col.setPrecision( rs.getInt( "data_scale" ) );
+            int length = getColumnLength( col.getType( ), row.dataLength, row.dataPrecision );
+            col.setLength( length );
+            col.setPrecision( row.dataScale );
 
-                if ( table.isHousekeeping( ) ) {
-                    if ( table.getClass( ) == GusTable.class ) {
-                        table.setHousekeepingColumns( verHousekeepingColumns );
-                    }
-                    else {
-                        table.setHousekeepingColumns( housekeepingColumns );
-                    }
+            if ( table.isHousekeeping( ) ) {
+                if ( table.getClass( ) == GusTable.class ) {
+                    table.setHousekeepingColumns( verHousekeepingColumns );
+                }
+                else {
+                    table.setHousekeepingColumns( housekeepingColumns );
                 }
-
-                table.addColumn( col );
-            }
-        }
-        catch ( SQLException e ) {
-            log.error( "Error querying for all columns: " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
             }
-            catch ( SQLException ignored ) {}
+
+            table.addColumn( col );
         }
     }
 
@@ -343,67 +396,45 @@ public class OracleReader extends SchemaReader {
         log.debug( "adding columns to index " + index.getName( ) );
 
         ArrayList<Column> columns = index.getTable( ).getColumnsExcludeSuperclass(false);
-        Statement st = null;
-        ResultSet rs = null;
+        ArrayList<KeyColumnRow> rows = bulkRead ? getDictionary( index.getTable( ).getSchema( ) ).getIndexColumns(
+                index.getName( ) ) : queryIndexColumns( index );
 
-        try {
+        for ( KeyColumnRow row : rows ) {
 
-            st = connection.createStatement( );
-            rs = st.executeQuery( "SELECT column_name, table_name FROM all_ind_columns WHERE index_owner=upper('"
-                    + index.getTable( ).getSchema( ).getName( ) + "') AND " + "index_name=upper('" + index.getName( )
-                    + "') ORDER BY column_position ASC" );
+            if ( !isHousekeeping( row.columnName ) ) {
 
-            while ( rs.next( ) ) {
+                GusColumn col = (GusColumn) getColumn( columns, row.columnName );
 
-                if ( !isHousekeeping( rs.getString( "column_name" ) ) ) {
+                if ( col != null ) {
+                    index.addColumn( col );
+                }
+                else {
 
-                    GusColumn col = (GusColumn) getColumn( columns, rs.getString( "column_name" ) );
+                    if ( row.tableName.endsWith( "IMP" ) ) {
+                        log.warn( "Index against a generic column " + row.columnName + " in " + "index "
+                                + index.getName( ) + ".  Skipped." );
+                        index.getTable( ).removeIndex( index );
 
-                    if ( col != null ) {
-                        index.addColumn( col );
+                        return;
                     }
                     else {
-
-                        if ( rs.getString( "table_name" ).endsWith( "IMP" ) ) {
-                            log.warn( "Index against a generic column " + rs.getString( "column_name" ) + " in "
-                                    + "index " + index.getName( ) + ".  Skipped." );
-                            index.getTable( ).removeIndex( index );
-
-                            return;
-                        }
-                        else {
-                            log.error( "Unable to locate bean column for column in database (" + index.getName( ) + " "
-                                    + rs.getString( "column_name" ) + ")" );
-                            throw new RuntimeException( "Invalid internal database state" );
-                        }
+                        log.error( "Unable to locate bean column for column in database (" + index.getName( ) + " "
+                                + row.columnName + ")" );
+                        throw new RuntimeException( "Invalid internal database state" );
                     }
                 }
-                else {
-                    log.warn( "Index against a housekeeping column " + rs.getString( "column_name" ) + " in "
-                            + "index " + index.getName( ) + ".  Skipped." );
-                    index.getTable( ).removeIndex( index );
-
-                    return;
-                }
             }
+            else {
+                log.warn( "Index against a housekeeping column " + row.columnName + " in " + "index "
+                        + index.getName( ) + ".  Skipped." );
+                index.getTable( ).removeIndex( index );
 
-            if ( generatedIndexes.contains( index ) ) {
-                index.setName( null );
+                return;
             }
         }
-        catch ( SQLException e ) {
-            log.error( "Error querying for index columns: " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
-            }
-            catch ( SQLException ignored ) {}
+
+        if ( generatedIndexes.contains( index ) ) {
+            index.setName( null );
         }
     }
 
@@ -416,58 +447,34 @@ public class OracleReader extends SchemaReader {
     private void addColumns( Constraint constraint ) {
         log.debug( "adding columns to constraint " + constraint.getName( ) );
 
-        Statement st = null;
-        ResultSet rs = null;
-
-        try {
+        String table_name = constraint.getConstrainedTable( ).getName( );
 
-            st = connection.createStatement( );
-            String table_name = constraint.getConstrainedTable( ).getName( );
-
-            if ( isSuperclass( constraint.getConstrainedTable( ) ) ) {
-                table_name += "IMP";
-            }
+        if ( isSuperclass( constraint.getConstrainedTable( ) ) ) {
+            table_name += "IMP";
+        }
 
-            rs = st.executeQuery( "SELECT column_name FROM all_cons_columns WHERE owner=upper('"
-                    + constraint.getConstrainedTable( ).getSchema( ).getName( ) + "') AND " + "constraint_name=upper('"
-                    + constraint.getName( ) + "') AND table_name=" + "upper('" + table_name
-                    + "') ORDER BY position ASC" );
+        ArrayList<String> columnNames = bulkRead ? getDictionary( constraint.getConstrainedTable( ).getSchema( ) )
+                .getConstraintColumnNames( table_name, constraint.getName( ) ) : queryConstraintColumnNames(
+                constraint, table_name );
 
-            while ( rs.next( ) ) {
+        for ( String columnName : columnNames ) {
 
-                if ( !isHousekeeping( rs.getString( "column_name" ) ) ) {
+            if ( !isHousekeeping( columnName ) ) {
 
-                    GusColumn col = (GusColumn) constraint.getConstrainedTable( ).getColumn(
-                            rs.getString( "column_name" ) );
+                GusColumn col = (GusColumn) constraint.getConstrainedTable( ).getColumn( columnName );
 
-                    if ( col != null ) {
-                        constraint.addConstrainedColumn( col );
-                    }
-                    else {
-                        log.error( "Unable to locate bean column for column in database (" + constraint.getName( )
-                                + " " + rs.getString( "column_name" ) + " "
-                                + constraint.getConstrainedTable( ).getName( ) + ")" );
-                        throw new RuntimeException( "Invalid internal database state" );
-                    }
+                if ( col != null ) {
+                    constraint.addConstrainedColumn( col );
                 }
                 else {
-                    log.debug( "Skipping housekeeping column: " + rs.getString( "column_name" ) );
+                    log.error( "Unable to locate bean column for column in database (" + constraint.getName( ) + " "
+                            + columnName + " " + constraint.getConstrainedTable( ).getName( ) + ")" );
+                    throw new RuntimeException( "Invalid internal database state" );
                 }
             }
-        }
-        catch ( SQLException e ) {
-            log.error( "Error querying for constraint columns: " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
+            else {
+                log.debug( "Skipping housekeeping column: " + columnName );
             }
-            catch ( SQLException ignored ) {}
         }
     }
 
@@ -478,9 +485,11 @@ public class OracleReader extends SchemaReader {
      */
     private void addIndexes( Database db ) {
         log.debug( "adding indexes to database " + db.getName( ) );
+        ArrayList<Runnable> tasks = new ArrayList<Runnable>( );
         for ( GusSchema schema : db.getGusSchemas() ) {
-             addIndexes( schema );
+             tasks.add( ( ) -> addIndexes( schema ) );
         }
+        runTasks( tasks );
     }
 
     /**
@@ -497,7 +506,7 @@ public class OracleReader extends SchemaReader {
 
         try {
 
-            st = connection.createStatement( );
+            st = getConnection( ).createStatement( );
             rs = st.executeQuery( "SELECT index_name, tablespace_name, table_name, table_owner, index_type, "
                     + "generated FROM all_indexes WHERE owner=upper('" + schema.getName( ) + "')" );
 
@@ -530,10 +539,15 @@ public class OracleReader extends SchemaReader {
 
                 if ( table == null ) {
                     log.error( "Unable to located table for index " + ind.getName( ) );
+
+                    continue;
                 }
 
-                ind.setTable( table );
-                addColumns( ind );
+                // the table may be in another schema, whose indexes another thread is adding
+                synchronized ( table ) {
+                    ind.setTable( table );
+                    addColumns( ind );
+                }
             }
         }
         catch ( SQLException e ) {
@@ -556,49 +570,26 @@ public class OracleReader extends SchemaReader {
      * DOCUMENT ME!
      * 
      * @param table DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void addLocalConstraints( GusTable table ) {
         log.debug( "adding local constraints to table: " + table.getSchema( ).getName( ) + "." + table.getName( ) );
 
-        Statement st = null;
-        ResultSet rs = null;
-
-        try {
+        String table_name = table.getName( );
 
-            st = connection.createStatement( );
-            String table_name = table.getName( );
+        if ( isSuperclass( table ) ) {
+            table_name += "IMP";
+        }
 
-            if ( isSuperclass( table ) ) {
-                table_name += "IMP";
-            }
+        ArrayList<ConstraintRow> rows = bulkRead ? getDictionary( table.getSchema( ) ).getLocalConstraints(
+                table_name ) : queryConstraints( table, table_name, "(constraint_type = 'P' OR constraint_type = 'U')" );
 
-            rs = st.executeQuery( "SELECT constraint_name, constraint_type FROM all_constraints WHERE "
-                    + "table_name=upper('" + table_name + "') AND owner=upper('" + table.getSchema( ).getName( )
-                    + "') " + "AND (constraint_type = 'P' OR constraint_type = 'U')" );
+        for ( ConstraintRow row : rows ) {
 
-            while ( rs.next( ) ) {
-
-                Constraint cons = new Constraint( );
-                cons.setName( rs.getString( "constraint_name" ) );
-                cons.setType( getConstraintType( rs.getString( "constraint_type" ) ) );
-                table.addConstraint( cons );
-                addColumns( cons );
-            }
-        }
-        catch ( SQLException e ) {
-            log.error( "Error querying for local constriants " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
-            }
-            catch ( SQLException ignored ) {}
+            Constraint cons = new Constraint( );
+            cons.setName( row.constraintName );
+            cons.setType( getConstraintType( row.constraintType ) );
+            table.addConstraint( cons );
+            addColumns( cons );
         }
     }
 
@@ -608,86 +599,73 @@ public class OracleReader extends SchemaReader {
      * @param db DOCUMENT ME!
      */
     private void addRemoteConstraints( Database db ) {
+        constraintTables.clear( );
+        for ( GusSchema schema : db.getGusSchemas() ) {
+            HashMap<String, GusTable> tables = new HashMap<String, GusTable>( );
+            for ( GusTable table : toGusTables(schema.getTables())) {
+                for ( Constraint constraint : table.getConstraints( ) ) {
+                    if ( constraint.getName( ) == null ) continue;
+                    String key = constraint.getName( ).toUpperCase( );
+                    if ( !tables.containsKey( key ) ) tables.put( key, table );
+                }
+            }
+            constraintTables.put( schema, tables );
+        }
         for ( GusSchema schema : db.getGusSchemas() ) {
             for ( GusTable table : toGusTables(schema.getTables())) {
                 addRemoteConstraints( table );
             }
         }
+        constraintTables.clear( );
     }
 
     /**
      * DOCUMENT ME!
      * 
      * @param table DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void addRemoteConstraints( GusTable table ) {
         log.debug( "adding remote constraints to table: " + table.getName( ) );
 
-        Statement st = null;
-        ResultSet rs = null;
-
-        try {
-
-            st = connection.createStatement( );
-            String table_name = table.getName( );
+        String table_name = table.getName( );
 
-            if ( isSuperclass( table ) ) {
-                table_name += "IMP";
-            }
+        if ( isSuperclass( table ) ) {
+            table_name += "IMP";
+        }
 
-            rs = st.executeQuery( "SELECT constraint_name, constraint_type, r_owner, r_constraint_name "
-                    + "FROM all_constraints WHERE table_name=upper('" + table_name + "') " + "AND owner=upper('"
-                    + table.getSchema( ).getName( ) + "') AND constraint_type='R'" );
+        ArrayList<ConstraintRow> rows = bulkRead ? getDictionary( table.getSchema( ) ).getRemoteConstraints(
+                table_name ) : queryConstraints( table, table_name, "constraint_type='R'" );
 
-            while ( rs.next( ) ) {
+        for ( ConstraintRow row : rows ) {
 
-                Constraint cons = new Constraint( );
-                cons.setName( rs.getString( "constraint_name" ) );
-                cons.setType( getConstraintType( rs.getString( "constraint_type" ) ) );
-                cons.setConstrainedTable( table );
+            Constraint cons = new Constraint( );
+            cons.setName( row.constraintName );
+            cons.setType( getConstraintType( row.constraintType ) );
+            cons.setConstrainedTable( table );
 
-                GusSchema r_owner = (GusSchema) table.getSchema( ).getDatabase( ).getSchema( rs.getString( "r_owner" ) );
+            GusSchema r_owner = (GusSchema) table.getSchema( ).getDatabase( ).getSchema( row.rOwner );
 
-                if ( r_owner == null ) {
-                    log.error( "Could not find Schema: '" + rs.getString( "r_owner" ) + "' in constraint '"
-                            + cons.getName( ) + "'" );
-                }
+            if ( r_owner == null ) {
+                log.error( "Could not find Schema: '" + row.rOwner + "' in constraint '" + cons.getName( ) + "'" );
+            }
 
-                cons.setReferencedTable( getTableFromSchemaConstraint( r_owner, rs.getString( "r_constraint_name" ) ) );
+            cons.setReferencedTable( getTableFromSchemaConstraint( r_owner, row.rConstraintName ) );
 
-                if ( cons.getReferencedTable( ) == null ) {
-                    log.fatal( "Could not find referenced table for constraint: '" + rs.getString( "constraint_name" )
-                            + "'" );
-                }
-
-                Constraint r_constraint = cons.getReferencedTable( )
-                        .getConstraint( rs.getString( "r_constraint_name" ) );
-                ArrayList<Column> r_columns = r_constraint.getConstrainedColumns( );
+            if ( cons.getReferencedTable( ) == null ) {
+                log.fatal( "Could not find referenced table for constraint: '" + row.constraintName + "'" );
+            }
 
-                for ( Iterator<Column> i = r_columns.iterator( ); i.hasNext( ); ) {
+            Constraint r_constraint = cons.getReferencedTable( ).getConstraint( row.rConstraintName );
+            ArrayList<Column> r_columns = r_constraint.getConstrainedColumns( );
 
-                    GusColumn col = (GusColumn) i.next( );
-                    cons.addReferencedColumn( col );
-                }
+            for ( Iterator<Column> i = r_columns.iterator( ); i.hasNext( ); ) {
 
-                table.addConstraint( cons );
-                addColumns( cons );
-            }
-        }
-        catch ( SQLException e ) {
-            log.error( "Error querying for local constriants " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
+                GusColumn col = (GusColumn) i.next( );
+                cons.addReferencedColumn( col );
             }
-            catch ( SQLException ignored ) {}
+
+            table.addConstraint( cons );
+            addColumns( cons );
         }
     }
 
@@ -699,52 +677,31 @@ public class OracleReader extends SchemaReader {
      * @param db DOCUMENT ME!
      */
     private void populate( Database db ) {
+        ArrayList<Runnable> tasks = new ArrayList<Runnable>( );
         for ( GusSchema schema : db.getGusSchemas() ) {
-            populate( schema );
+            tasks.add( ( ) -> populate( schema ) );
         }
+        runTasks( tasks );
     }
 
     /**
      * DOCUMENT ME!
      * 
      * @param schema DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void populate( GusSchema schema ) {
         log.debug( "populating schema: " + schema.getName( ) );
 
         if ( schema.getName( ) == null ) log.warn( "About to populate a gus schema without a name" );
 
-        Statement st = null;
-        ResultSet rs = null;
-
-        try {
-
-            st = connection.createStatement( );
-            rs = st.executeQuery( "SELECT description FROM " + CORE + ".databaseinfo WHERE " + "UPPER(name)=upper('"
-                    + schema.getName( ) + "')" );
-
-            if ( !rs.next( ) ) {
-                log.error( "databaseinfo row doesn't exist for " + schema.getName( ) );
-            }
-            else {
-                schema.setDocumentation( rs.getString( "description" ) );
-            }
+        ArrayList<String> descriptions = bulkRead ? getDictionary( schema ).getDescriptions( )
+                : queryDescriptions( schema );
 
+        if ( descriptions.isEmpty( ) ) {
+            log.error( "databaseinfo row doesn't exist for " + schema.getName( ) );
         }
-        catch ( SQLException e ) {
-            log.error( "Error querying for Schema attributes: " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
-            }
-            catch ( SQLException ignored ) {}
+        else {
+            schema.setDocumentation( descriptions.get( 0 ) );
         }
 
         for ( Iterator<GusTable> i = toGusTables(schema.getTables()).iterator( ); i.hasNext( ); ) {
@@ -756,53 +713,28 @@ public class OracleReader extends SchemaReader {
      * DOCUMENT ME!
      * 
      * @param table DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void populate( GusTable table ) {
         log.debug( "populating table: " + table.getName( ) );
 
         if ( table.getName( ) == null ) log.warn( "About to populate a gus table without a name" );
 
-        Statement st = null;
-        ResultSet rs = null;
-
-        try {
+        TableInfoRow row = bulkRead ? getDictionary( table.getSchema( ) ).getTableInfo( table.getName( ) )
+                : queryTableInfo( table );
 
-            st = connection.createStatement( );
-            rs = st.executeQuery( "SELECT t.is_updatable, d.html_documentation, is_versioned, t.name FROM " + CORE
-                    + ".tableinfo t LEFT JOIN " + CORE
-                    + ".databasedocumentation d ON t.table_id=d.table_id WHERE UPPER(t.name)=" + "upper('"
-                    + table.getName( ) + "') AND d.attribute_name IS NULL" );
-
-            if ( !rs.next( ) ) {
-                log.error( "tableinfo row doesn't exist for " + table.getName( ) );
-            }
-            else {
+        if ( row == null ) {
+            log.error( "tableinfo row doesn't exist for " + table.getName( ) );
+        }
+        else {
 
-                // This is needed to set the proper case on the table name
-                table.setName( rs.getString( "name" ) );
-                table.setUpdatable( rs.getBoolean( "is_updatable" ) );
-                table.setDocumentation( getStringFromClob( rs.getClob( "html_documentation" ) ) );
+            // This is needed to set the proper case on the table name
+            table.setName( row.name );
+            table.setUpdatable( row.isUpdatable );
+            table.setDocumentation( row.documentation );
 
-                if ( rs.getBoolean( "is_versioned" ) ) {
-                    versionedTables.add( table );
-                }
-            }
-
-        }
-        catch ( SQLException e ) {
-            log.error( "Error querying for Table attributes: " + e );
-            throw new RuntimeException( e );
-        }
-        finally {
-            if ( rs != null ) try {
-                rs.close( );
-            }
-            catch ( SQLException ignored ) {}
-            if ( st != null ) try {
-                st.close( );
+            if ( row.isVersioned ) {
+                versionedTables.add( table );
             }
-            catch ( SQLException ignored ) {}
         }
 
         for ( Column col : table.getColumnsExcludeSuperclass(false)) {
@@ -814,30 +746,124 @@ public class OracleReader extends SchemaReader {
      * DOCUMENT ME!
      * 
      * @param column DOCUMENT ME!
-     * @throws RuntimeException DOCUMENT ME!
      */
     private void populate( GusColumn column ) {
         log.debug( "populating column: " + column.getName( ) );
 
         if ( column.getName( ) == null ) log.warn( "About to populate a column without a name" );
 
+        if ( bulkRead ) {
+            column.setDocumentation( getDictionary( column.getTable( ).getSchema( ) ).getColumnDocumentation(
+                    column.getTable( ).getName( ), column.getName( ) ) );
+        }
+        else {
+            ArrayList<String> documentation = queryColumnDocumentation( column );
+
+            if ( !documentation.isEmpty( ) ) {
+                column.setDocumentation( documentation.get( 0 ) );
+            }
+        }
+    }
+
+    // ///////////// THREADING METHODS
+
+    /**
+     * Runs <code>tasks</code> on the reader's threads, or on the calling
+     * thread if there is only one, and waits for all of them to finish.
+     * 
+     * @param tasks tasks to run
+     * @throws RuntimeException if any task fails
+     */
+    private void runTasks( List<Runnable> tasks ) {
+
+        if ( executor == null ) {
+            for ( Runnable task : tasks ) {
+                task.run( );
+            }
+            return;
+        }
+
+        ArrayList<Future<?>> futures = new ArrayList<Future<?>>( );
+
+        for ( Runnable task : tasks ) {
+            futures.add( executor.submit( task ) );
+        }
+
+        RuntimeException failure = null;
+
+        for ( Future<?> future : futures ) {
+            try {
+                future.get( );
+            }
+            catch ( ExecutionException e ) {
+                if ( failure == null ) {
+                    failure = ( e.getCause( ) instanceof RuntimeException ) ? (RuntimeException) e.getCause( )
+                            : new RuntimeException( e.getCause( ) );
+                }
+            }
+            catch ( InterruptedException e ) {
+                Thread.currentThread( ).interrupt( );
+                throw new RuntimeException( e );
+            }
+        }
+
+        if ( failure != null ) throw failure;
+    }
+
+    /**
+     * Returns the connection of the current thread, opening one for a worker
+     * thread on its first query.
+     * 
+     * @return the connection
+     * @throws RuntimeException if a worker connection cannot be opened
+     */
+    private Connection getConnection( ) {
+
+        if ( executor == null ) return connection;
+
+        Connection workerConnection = threadConnection.get( );
+
+        if ( workerConnection == null ) {
+            try {
+                workerConnection = DriverManager.getConnection( this.dsn, this.username, this.password );
+            }
+            catch ( SQLException e ) {
+                log.error( "Could not connect to database with DSN: " + this.dsn + " due to " + e );
+                throw new RuntimeException( e );
+            }
+            threadConnection.set( workerConnection );
+            workerConnections.add( workerConnection );
+        }
+
+        return workerConnection;
+    }
+
+    // ///////////// PER-OBJECT QUERY METHODS
+
+    /**
+     * Runs <code>sql</code> and passes each row to <code>handler</code>.
+     * 
+     * @param sql query to run
+     * @param what what is being queried for, for the error message
+     * @param handler called for each row
+     * @throws RuntimeException if the query fails
+     */
+    private void query( String sql, String what, RowHandler handler ) {
+
         Statement st = null;
         ResultSet rs = null;
 
         try {
 
-            st = connection.createStatement( );
-            rs = st.executeQuery( "SELECT d.html_documentation FROM " + CORE + ".tableinfo t, " + CORE
-                    + ".databasedocumentation d " + "WHERE d.table_id=t.table_id AND upper(t.name)=upper('"
-                    + column.getTable( ).getName( ) + "') AND " + "upper(d.attribute_name)=upper('" + column.getName( )
-                    + "')" );
+            st = getConnection( ).createStatement( );
+            rs = st.executeQuery( sql );
 
-            if ( rs.next( ) ) {
-                column.setDocumentation( getStringFromClob( rs.getClob( "html_documentation" ) ) );
+            while ( rs.next( ) ) {
+                handler.handle( rs );
             }
         }
         catch ( SQLException e ) {
-            log.error( "Error querying for column documentation: " + e );
+            log.error( "Error querying for " + what + ": " + e );
             throw new RuntimeException( e );
         }
         finally {
@@ -852,6 +878,158 @@ public class OracleReader extends SchemaReader {
         }
     }
 
+    private ArrayList<String> querySubclassNames( GusTable table ) {
+        ArrayList<String> names = new ArrayList<String>( );
+        query( "SELECT subt.name FROM " + CORE + ".tableinfo subt, " + CORE + ".tableinfo supert, " + CORE
+                + ".databaseinfo d " + "WHERE upper(d.name)=upper('" + table.getSchema( ).getName( ) + "')  "
+                + "AND d.database_id=supert.database_id " + "AND upper(supert.name)=upper('" + table.getName( )
+                + "') AND " + "supert.table_id=subt.superclass_table_id", "subclasses",
+                rs -> names.add( rs.getString( "name" ) ) );
+        return names;
+    }
+
+    private ArrayList<ColumnRow> queryColumns( GusTable table ) {
+        ArrayList<ColumnRow> rows = new ArrayList<ColumnRow>( );
+        query( "SELECT column_name, data_type, data_length, data_scale, data_precision, nullable "
+                + "FROM all_tab_cols WHERE owner=upper('" + table.getSchema( ).getName( ) + "') "
+                + "and table_name=upper('" + table.getName( ) + "') ORDER BY column_id ASC", "all columns",
+                rs -> rows.add( new ColumnRow( rs ) ) );
+        return rows;
+    }
+
+    private ArrayList<KeyColumnRow> queryIndexColumns( Index index ) {
+        ArrayList<KeyColumnRow> rows = new ArrayList<KeyColumnRow>( );
+        query( "SELECT column_name, table_name FROM all_ind_columns WHERE index_owner=upper('"
+                + index.getTable( ).getSchema( ).getName( ) + "') AND " + "index_name=upper('" + index.getName( )
+                + "') ORDER BY column_position ASC", "index columns", rs -> rows.add( new KeyColumnRow( rs ) ) );
+        return rows;
+    }
+
+    private ArrayList<String> queryConstraintColumnNames( Constraint constraint, String table_name ) {
+        ArrayList<String> names = new ArrayList<String>( );
+        query( "SELECT column_name FROM all_cons_columns WHERE owner=upper('"
+                + constraint.getConstrainedTable( ).getSchema( ).getName( ) + "') AND " + "constraint_name=upper('"
+                + constraint.getName( ) + "') AND table_name=" + "upper('" + table_name + "') ORDER BY position ASC",
+                "constraint columns", rs -> names.add( rs.getString( "column_name" ) ) );
+        return names;
+    }
+
+    private ArrayList<ConstraintRow> queryConstraints( GusTable table, String table_name, String typeCondition ) {
+        ArrayList<ConstraintRow> rows = new ArrayList<ConstraintRow>( );
+        query( "SELECT constraint_name, constraint_type, r_owner, r_constraint_name FROM all_constraints WHERE "
+                + "table_name=upper('" + table_name + "') AND owner=upper('" + table.getSchema( ).getName( ) + "') "
+                + "AND " + typeCondition, "constraints", rs -> rows.add( new ConstraintRow( rs ) ) );
+        return rows;
+    }
+
+    private ArrayList<String> queryDescriptions( GusSchema schema ) {
+        ArrayList<String> descriptions = new ArrayList<String>( );
+        query( "SELECT description FROM " + CORE + ".databaseinfo WHERE " + "UPPER(name)=upper('" + schema.getName( )
+                + "')", "Schema attributes", rs -> descriptions.add( rs.getString( "description" ) ) );
+        return descriptions;
+    }
+
+    private TableInfoRow queryTableInfo( GusTable table ) {
+        ArrayList<TableInfoRow> rows = new ArrayList<TableInfoRow>( );
+        query( "SELECT t.is_updatable, d.html_documentation, is_versioned, t.name FROM " + CORE
+                + ".tableinfo t LEFT JOIN " + CORE
+                + ".databasedocumentation d ON t.table_id=d.table_id WHERE UPPER(t.name)=" + "upper('"
+                + table.getName( ) + "') AND d.attribute_name IS NULL", "Table attributes", rs -> {
+                    if ( rows.isEmpty( ) ) rows.add( new TableInfoRow( rs, getStringFromClob( rs.getClob( "html_documentation" ) ) ) );
+                } );
+        return rows.isEmpty( ) ? null : rows.get( 0 );
+    }
+
+    private ArrayList<String> queryColumnDocumentation( GusColumn column ) {
+        ArrayList<String> documentation = new ArrayList<String>( );
+        query( "SELECT d.html_documentation FROM " + CORE + ".tableinfo t, " + CORE + ".databasedocumentation d "
+                + "WHERE d.table_id=t.table_id AND upper(t.name)=upper('" + column.getTable( ).getName( ) + "') AND "
+                + "upper(d.attribute_name)=upper('" + column.getName( ) + "')", "column documentation", rs -> {
+                    if ( documentation.isEmpty( ) ) documentation.add( getStringFromClob( rs.getClob( "html_documentation" ) ) );
+                } );
+        return documentation;
+    }
+
+    // ///////////// BULK DATA DICTIONARY METHODS
+
+    /**
+     * Returns the data dictionary of <code>schema</code>, reading it on first use.
+     * 
+     * @param schema the schema
+     * @return its SchemaDictionary
+     */
+    private SchemaDictionary getDictionary( Schema schema ) {
+        String key = schema.getName( ).toUpperCase( );
+        return dictionaries.computeIfAbsent( key, k -> readDictionary( schema.getName( ) ) );
+    }
+
+    /**
+     * Reads everything the reader needs to know about the tables of a schema,
+     * with one query to each data dictionary view and documentation table,
+     * and indexes it by table, index and constraint name.
+     * 
+     * @param schemaName name of the schema
+     * @return the schema's data dictionary
+     */
+    private SchemaDictionary readDictionary( String schemaName ) {
+        log.info( "Reading data dictionary for schema: " + schemaName );
+
+        SchemaDictionary dictionary = new SchemaDictionary( );
+        String owner = "upper('" + schemaName + "')";
+
+        query( "SELECT supert.name AS superclass_name, subt.name FROM " + CORE + ".tableinfo subt, " + CORE
+                + ".tableinfo supert, " + CORE + ".databaseinfo d WHERE upper(d.name)=" + owner
+                + " AND d.database_id=supert.database_id AND supert.table_id=subt.superclass_table_id", "subclasses",
+                rs -> dictionary.add( dictionary.subclassNames, rs.getString( "superclass_name" ), rs.getString( "name" ) ) );
+
+        query( "SELECT table_name, column_name, data_type, data_length, data_scale, data_precision, nullable "
+                + "FROM all_tab_cols WHERE owner=" + owner + " ORDER BY table_name, column_id", "all columns",
+                rs -> dictionary.add( dictionary.columns, rs.getString( "table_name" ), new ColumnRow( rs ) ) );
+
+        query( "SELECT table_name, constraint_name, constraint_type, r_owner, r_constraint_name FROM all_constraints "
+                + "WHERE owner=" + owner + " AND constraint_type IN ('P', 'U', 'R')", "constraints", rs -> {
+                    ConstraintRow row = new ConstraintRow( rs );
+                    dictionary.add( row.constraintType.equals( "R" ) ? dictionary.remoteConstraints
+                            : dictionary.localConstraints, rs.getString( "table_name" ), row );
+                } );
+
+        query( "SELECT table_name, constraint_name, column_name FROM all_cons_columns WHERE owner=" + owner
+                + " ORDER BY table_name, constraint_name, position", "constraint columns",
+                rs -> dictionary.add( dictionary.constraintColumnNames, rs.getString( "table_name" ) + "."
+                        + rs.getString( "constraint_name" ), rs.getString( "column_name" ) ) );
+
+        query( "SELECT index_name, table_name, column_name FROM all_ind_columns WHERE index_owner=" + owner
+                + " ORDER BY index_name, column_position", "index columns",
+                rs -> dictionary.add( dictionary.indexColumns, rs.getString( "index_name" ), new KeyColumnRow( rs ) ) );
+
+        query( "SELECT description FROM " + CORE + ".databaseinfo WHERE upper(name)=" + owner, "Schema attributes",
+                rs -> dictionary.descriptions.add( rs.getString( "description" ) ) );
+
+        query( "SELECT t.is_updatable, dd.html_documentation, t.is_versioned, t.name FROM " + CORE + ".tableinfo t "
+                + "JOIN " + CORE + ".databaseinfo d ON t.database_id=d.database_id LEFT JOIN " + CORE
+                + ".databasedocumentation dd ON t.table_id=dd.table_id AND dd.attribute_name IS NULL "
+                + "WHERE upper(d.name)=" + owner, "Table attributes", rs -> {
+                    String key = rs.getString( "name" ).toUpperCase( );
+                    if ( !dictionary.tableInfo.containsKey( key ) ) {
+                        dictionary.tableInfo.put( key, new TableInfoRow( rs,
+                                getStringFromClob( rs.getClob( "html_documentation" ) ) ) );
+                    }
+                } );
+
+        query( "SELECT t.name, dd.attribute_name, dd.html_documentation FROM " + CORE + ".tableinfo t, " + CORE
+                + ".databaseinfo d, " + CORE + ".databasedocumentation dd WHERE t.database_id=d.database_id "
+                + "AND dd.table_id=t.table_id AND dd.attribute_name IS NOT NULL AND upper(d.name)=" + owner,
+                "column documentation", rs -> {
+                    String key = ( rs.getString( "name" ) + "." + rs.getString( "attribute_name" ) ).toUpperCase( );
+                    if ( !dictionary.columnDocumentation.containsKey( key ) ) {
+                        dictionary.columnDocumentation.put( key,
+                                getStringFromClob( rs.getClob( "html_documentation" ) ) );
+                    }
+                } );
+
+        return dictionary;
+    }
+
     // ///////////// HELPER METHODS
 
     /**
@@ -863,6 +1041,12 @@ public class OracleReader extends SchemaReader {
      */
     private GusTable getTableFromSchemaConstraint( GusSchema schema, String consName ) {
 
+        HashMap<String, GusTable> tables = constraintTables.get( schema );
+        if ( tables != null && consName != null ) {
+            GusTable table = tables.get( consName.toUpperCase( ) );
+            if ( table != null ) return table;
+        }
+
         for ( Iterator<GusTable> i = toGusTables(schema.getTables()).iterator( ); i.hasNext( ); ) {
 
             GusTable table = i.next( );
@@ -1140,6 +1324,26 @@ public class OracleReader extends SchemaReader {
             CORE = "CORE";
         }
 
+        if ( !bulkReadSet ) {
+            bulkRead = Boolean.parseBoolean( properties.getProperty( "bulkRead" ) );
+        }
+        dictionaries.clear( );
+
+        if ( !threadsSet && properties.getProperty( "readerThreads" ) != null ) {
+            threads = Math.max( 1, Integer.parseInt( properties.getProperty( "readerThreads" ).trim( ) ) );
+        }
+
+        if ( threads > 1 ) {
+            log.info( "Reading with " + threads + " threads" );
+            AtomicInteger threadCount = new AtomicInteger( );
+            executor = Executors.newFixedThreadPool( threads, runnable -> {
+                // daemon, so that a read that fails before tearDown does not keep the JVM alive
+                Thread thread = new Thread( runnable, "OracleReader-" + threadCount.incrementAndGet( ) );
+                thread.setDaemon( true );
+                return thread;
+            } );
+        }
+
         log.debug( "Getting housekeeping columns" );
 
         String[] housekeepingCols = properties.getProperty( "housekeepingColumns" ).split( "," );
@@ -1158,6 +1362,23 @@ public class OracleReader extends SchemaReader {
     @Override
     protected void tearDown( ) {
 
+        if ( executor != null ) {
+            executor.shutdown( );
+            executor = null;
+        }
+
+        synchronized ( workerConnections ) {
+            for ( Connection workerConnection : workerConnections ) {
+                try {
+                    workerConnection.close( );
+                }
+                catch ( Exception e ) {
+                    log.warn( "Error closing connection: " + e );
+                }
+            }
+            workerConnections.clear( );
+        }
+
         try {
             connection.close( );
         }
@@ -1165,4 +1386,151 @@ public class OracleReader extends SchemaReader {
             log.warn( "Error closing connection: " + e );
         }
     }
+
+    // ///////////// DATA DICTIONARY ROWS
+
+    /**
+     * Handles one row of a data dictionary query.
+     */
+    private interface RowHandler {
+        void handle( ResultSet rs ) throws SQLException;
+    }
+
+    /**
+     * A column, from all_tab_cols.
+     */
+    private static class ColumnRow {
+        String columnName;
+        String dataType;
+        int    dataLength;
+        int    dataScale;
+        int    dataPrecision;
+        String nullable;
+
+        ColumnRow( ResultSet rs ) throws SQLException {
+            columnName = rs.getString( "column_name" );
+            dataType = rs.getString( "data_type" );
+            dataLength = rs.getInt( "data_length" );
+            dataScale = rs.getInt( "data_scale" );
+            dataPrecision = rs.getInt( "data_precision" );
+            nullable = rs.getString( "nullable" );
+        }
+    }
+
+    /**
+     * A column of an index, from all_ind_columns.
+     */
+    private static class KeyColumnRow {
+        String columnName;
+        String tableName;
+
+        KeyColumnRow( ResultSet rs ) throws SQLException {
+            columnName = rs.getString( "column_name" );
+            tableName = rs.getString( "table_name" );
+        }
+    }
+
+    /**
+     * A primary key, unique or foreign key constraint, from all_constraints.
+     */
+    private static class ConstraintRow {
+        String constraintName;
+        String constraintType;
+        String rOwner;
+        String rConstraintName;
+
+        ConstraintRow( ResultSet rs ) throws SQLException {
+            constraintName = rs.getString( "constraint_name" );
+            constraintType = rs.getString( "constraint_type" );
+            rOwner = rs.getString( "r_owner" );
+            rConstraintName = rs.getString( "r_constraint_name" );
+        }
+    }
+
+    /**
+     * A table's row in tableinfo, with its documentation.
+     */
+    private static class TableInfoRow {
+        String  name;
+        boolean isUpdatable;
+        boolean isVersioned;
+        String  documentation;
+
+        TableInfoRow( ResultSet rs, String documentation ) throws SQLException {
+            name = rs.getString( "name" );
+            isUpdatable = rs.getBoolean( "is_updatable" );
+            isVersioned = rs.getBoolean( "is_versioned" );
+            this.documentation = documentation;
+        }
+    }
+
+    /**
+     * The data dictionary of one schema, as read in bulk by readDictionary.
+     * Lists are keyed on upper case table, index or constraint names.
+     */
+    private static class SchemaDictionary {
+        HashMap<String, ArrayList<String>>       subclassNames         = new HashMap<String, ArrayList<String>>( );
+        HashMap<String, ArrayList<ColumnRow>>    columns               = new HashMap<String, ArrayList<ColumnRow>>( );
+        HashMap<String, ArrayList<ConstraintRow>> localConstraints     = new HashMap<String, ArrayList<ConstraintRow>>( );
+        HashMap<String, ArrayList<ConstraintRow>> remoteConstraints    = new HashMap<String, ArrayList<ConstraintRow>>( );
+        HashMap<String, ArrayList<String>>       constraintColumnNames = new HashMap<String, ArrayList<String>>( );
+        HashMap<String, ArrayList<KeyColumnRow>> indexColumns          = new HashMap<String, ArrayList<KeyColumnRow>>( );
+        ArrayList<String>                        descriptions          = new ArrayList<String>( );
+        HashMap<String, TableInfoRow>            tableInfo             = new HashMap<String, TableInfoRow>( );
+        HashMap<String, String>                  columnDocumentation   = new HashMap<String, String>( );
+
+        <T> void add( HashMap<String, ArrayList<T>> map, String name, T value ) {
+            String key = name.toUpperCase( );
+            ArrayList<T> list = map.get( key );
+
+            if ( list == null ) {
+                list = new ArrayList<T>( );
+                map.put( key, list );
+            }
+
+            list.add( value );
+        }
+
+        <T> ArrayList<T> get( HashMap<String, ArrayList<T>> map, String name ) {
+            ArrayList<T> list = map.get( name.toUpperCase( ) );
+
+            return list == null ? new ArrayList<T>( ) : list;
+        }
+
+        ArrayList<String> getSubclassNames( String tableName ) {
+            return get( subclassNames, tableName );
+        }
+
+        ArrayList<ColumnRow> getColumns( String tableName ) {
+            return get( columns, tableName );
+        }
+
+        ArrayList<ConstraintRow> getLocalConstraints( String tableName ) {
+            return get( localConstraints, tableName );
+        }
+
+        ArrayList<ConstraintRow> getRemoteConstraints( String tableName ) {
+            return get( remoteConstraints, tableName );
+        }
+
+        ArrayList<String> getConstraintColumnNames( String tableName, String constraintName ) {
+            return get( constraintColumnNames, tableName + "." + constraintName );
+        }
+
+        ArrayList<KeyColumnRow> getIndexColumns( String indexName ) {
+            return get( indexColumns, indexName );
+        }
+
+        ArrayList<String> getDescriptions( ) {
+            return descriptions;
+        }
+
+        TableInfoRow getTableInfo( String tableName ) {
+            return tableInfo.get( tableName.toUpperCase( ) );
+        }
+
+        String getColumnDocumentation( String tableName, String columnName ) {
+            return columnDocumentation.get( ( tableName + "." + columnName ).toUpperCase( ) );
+        }
+    }
 }
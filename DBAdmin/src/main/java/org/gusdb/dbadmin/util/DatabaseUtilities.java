@@ -2,7 +2,7 @@
  */
 package org.gusdb.dbadmin.util;
 
-import java.util.ArrayList;
+import java.util.Collection;
 
 import org.gusdb.dbadmin.model.Database;
 import org.gusdb.dbadmin.model.GusTable;
@@ -23,7 +23,7 @@ public abstract class DatabaseUtilities {
      *@param  tableName   Description of the Parameter
      *@return             The tableFromCollection value
      */
-    public static Table getTableFromCollection( ArrayList<Table> tables, String schemaName, String tableName ) {
+    public static Table getTableFromCollection( Collection<? extends Table> tables, String schemaName, String tableName ) {
         for ( Table table : tables ) {
             if ( table.getSchema().getName().equalsIgnoreCase( schemaName )
                  && table.getName().equalsIgnoreCase( tableName ) ) {
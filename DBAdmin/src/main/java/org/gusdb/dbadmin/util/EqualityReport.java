@@ -54,7 +54,7 @@ public class EqualityReport {
         for ( Iterator<Table> i = comparator.findLeftRenamedTables( ).keySet( ).iterator( ); i.hasNext( ); ) {
             Table table = i.next( );
             writer.write( table.getSchema( ).getName( ) + "." + table.getName( ) + " renamed to " );
-            List<Table> newTables = comparator.findRenameMatches( table, 0 );
+            List<Table> newTables = comparator.findRenameMatches( table, comparator.getMaxModifiedColumns( ) );
             if ( newTables.isEmpty( ) ) {
                 writer.write( "ERROR:  No Table\n" );
             }
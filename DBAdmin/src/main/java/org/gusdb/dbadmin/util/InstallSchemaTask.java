@@ -22,7 +22,7 @@ import org.gusdb.dbadmin.model.GusTable;
 import org.gusdb.dbadmin.reader.XMLReader;
 import org.gusdb.dbadmin.writer.OracleWriter;
 import org.gusdb.dbadmin.writer.PostgresWriter;
-import org.gusdb.dbadmin.writer.SchemaWriter;
+import org.gusdb.dbadmin.writer.RelationalDatabaseWriter;
 
 /**
  * @author msaffitz
@@ -45,6 +45,9 @@ public class InstallSchemaTask extends Task {
     private String     dbUsername;
     private String     dbPassword;
     private String     tablespace;
+    private int        threads   = 1;
+    private boolean    deferIndexes = false;
+    private int        buildParallelism = 1;
 
     public void setGusHome( String gusHome ) {
         this.gusHome = gusHome;
@@ -58,13 +61,38 @@ public class InstallSchemaTask extends Task {
         this.skipRoles = skipRoles != null && skipRoles.equals("true");
     }
 
+    /**
+     * @param threads number of connections to install Oracle DDL over at once
+     *        (see ParallelDDLWriter); 1, the default, installs it serially
+     */
+    public void setThreads( int threads ) {
+        this.threads = threads;
+    }
+
+    /**
+     * @param deferIndexes true to create the tables bare, load the bootstrap
+     *        rows, and only then build the indexes and constraints, from
+     *        SchemaInstall-indexes.sql
+     */
+    public void setDeferIndexes( boolean deferIndexes ) {
+        this.deferIndexes = deferIndexes;
+    }
+
+    /**
+     * @param buildParallelism degree of parallelism for the database to build
+     *        each index with (see RelationalDatabaseWriter)
+     */
+    public void setBuildParallelism( int buildParallelism ) {
+        this.buildParallelism = buildParallelism;
+    }
+
     @Override
     public void execute( ) throws BuildException {
         try {
             initialize( );
 
             XMLReader xr = new XMLReader( schema );
-            SchemaWriter dbWriter = null;
+            RelationalDatabaseWriter dbWriter = null;
 
             if ( dbVendor.equalsIgnoreCase("Postgres" )) {
                 dbWriter = new PostgresWriter( );
@@ -77,6 +105,8 @@ public class InstallSchemaTask extends Task {
                 log.error( "Unknown DB Vendor: '" + dbVendor + "'" );
                 throw new BuildException( "Unknown DB Vendor: '" + dbVendor + "'" );
             }
+            dbWriter.setDeferIndexes( deferIndexes );
+            dbWriter.setBuildParallelism( buildParallelism );
 
             log.info( "Reading database from " + schema );
             db = xr.read( );
@@ -96,7 +126,7 @@ public class InstallSchemaTask extends Task {
             MetadataPopulator mp = new MetadataPopulator( rows, db, dbVendor );
 
             dbWriter.write( ddl, db );
-            dbWriter.write( rdbms, db );
+            writeDDL( dbWriter, rdbms, false );
 
             mp.writeDatabaseAndTableInfo( );
             mp.writeBootstrapData( );
@@ -108,6 +138,14 @@ public class InstallSchemaTask extends Task {
             mp.writeBootstrapData( );
             conditionalWriteVersion(mp, db);
 
+            if ( deferIndexes ) {
+                log.info( "Building indexes and constraints" );
+                FileWriter indexes = new FileWriter( gusHome + "/config/SchemaInstall-indexes.sql" );
+                dbWriter.writeIndexesAndConstraints( indexes, db );
+                indexes.close( );
+                writeDDL( dbWriter, rdbms, true );
+            }
+
             rows.close( );
             ddl.close( );
             rdbms.close( );
@@ -118,6 +156,29 @@ public class InstallSchemaTask extends Task {
         }
     }
 
+    /**
+     * Writes the DDL for db to the database, over a pool of threads
+     * connections for Oracle.
+     * 
+     * @param indexes true for the deferred indexes and constraints, false for
+     *        the rest
+     */
+    private void writeDDL( RelationalDatabaseWriter dbWriter, JDBCStreamWriter rdbms, boolean indexes )
+            throws IOException {
+        if ( threads > 1 && dbWriter instanceof OracleWriter ) {
+            ParallelDDLWriter parallelRdbms = new ParallelDDLWriter( dbDsn, dbUsername, dbPassword, threads );
+            if ( indexes ) dbWriter.writeIndexesAndConstraints( parallelRdbms, db );
+            else dbWriter.write( parallelRdbms, db );
+            parallelRdbms.close( );
+        }
+        else if ( indexes ) {
+            dbWriter.writeIndexesAndConstraints( rdbms, db );
+        }
+        else {
+            dbWriter.write( rdbms, db );
+        }
+    }
+
     private void conditionalWriteVersion( MetadataPopulator mp, Database db ) throws IOException {
         if ( db.getVersion() == 0.0f ) {
             log.error("Null version, skipping.  Note:  You will need to manually add a version number to the DB");
@@ -5,22 +5,42 @@ package org.gusdb.dbadmin.util;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
+ * Executes the SQL written to it, a statement at a time, each time it is
+ * flushed.  Statements are split out as the text is written (see
+ * SQLStatementSplitter); runs of INSERT, UPDATE and DELETE statements are
+ * sent as JDBC batches of up to batchSize statements when the driver
+ * supports it.
+ *
  *@author     msaffitz
  *@created    April 29, 2005
  *@version    $Revision$ $Date$
  */
 public class JDBCStreamWriter extends Writer {
 
+	private static final Logger log = LogManager.getLogger( JDBCStreamWriter.class );
+
+	private static final Pattern BATCHABLE = Pattern.compile( "^(INSERT|UPDATE|DELETE)\\b",
+		Pattern.CASE_INSENSITIVE );
+
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
 	private Connection connection;
-	private String currentBuf;
-	private ArrayList<String> sts          = new ArrayList<>();
+	private Statement statement;
+	private SQLStatementSplitter splitter = new SQLStatementSplitter();
+	private ArrayList<String> batch = new ArrayList<>();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private Boolean batchSupported;
 
 
 	public JDBCStreamWriter( Connection connection ) {
@@ -28,12 +48,24 @@ public class JDBCStreamWriter extends Writer {
 	}
 
 
+	/**
+	 *@param  batchSize  most statements to send in one batch; 1 or less
+	 *                   sends each statement on its own
+	 */
+	public void setBatchSize( int batchSize ) {
+		this.batchSize = batchSize;
+	}
+
+
 	@Override
   public void write( char[] cbuf, int off, int len ) throws IOException {
-		if ( currentBuf == null ) {
-			currentBuf = new String();
-		}
-		currentBuf = currentBuf.concat( String.copyValueOf( cbuf, off, len ) );
+		splitter.write( cbuf, off, len );
+	}
+
+
+	@Override
+  public void write( String str, int off, int len ) throws IOException {
+		splitter.write( str, off, len );
 	}
 
 
@@ -43,24 +75,17 @@ public class JDBCStreamWriter extends Writer {
 	 */
 	@Override
   public void flush() throws IOException {
-		extractStatements();
-
-		for ( Iterator<String> i = sts.iterator(); i.hasNext();  ) {
-
-		String sql  = i.next();
-
-			try {
-			Statement st  = connection.createStatement();
-
-				st.execute( sql );
-				st.close();
+		for ( String sql : splitter.takeStatements() ) {
+			if ( isBatchable( sql ) ) {
+				batch.add( sql );
+				if ( batch.size() >= batchSize ) executeBatch();
 			}
-			catch ( SQLException e ) {
-				throw new IOException( "Error executing SQL: '" + sql +
-					"' Error: " + e.getLocalizedMessage() );
+			else {
+				executeBatch();
+				execute( sql );
 			}
 		}
-		sts = new ArrayList<>();
+		executeBatch();
 	}
 
 
@@ -70,8 +95,14 @@ public class JDBCStreamWriter extends Writer {
 	 */
 	@Override
   public void close() throws IOException {
+		flush();
+		String rest = splitter.finish();
+		if ( rest != null ) {
+			log.warn( "Discarding incomplete SQL statement: '" + rest + "'" );
+		}
 		flush();
 		try {
+			if ( statement != null ) statement.close();
 			connection.close();
 		}
 		catch ( SQLException e ) {
@@ -80,39 +111,107 @@ public class JDBCStreamWriter extends Writer {
 	}
 
 
-	private void extractStatements() {
-		int sIndex         = 0;
-		boolean inComment  = false;
+	private boolean isBatchable( String sql ) throws IOException {
+		if ( batchSize <= 1 || !BATCHABLE.matcher( sql ).find() ) return false;
+		if ( batchSupported == null ) {
+			try {
+				batchSupported = connection.getMetaData().supportsBatchUpdates();
+			}
+			catch ( SQLException e ) {
+				throw new IOException( "Unable to get database metadata: " + e.getLocalizedMessage(), e );
+			}
+		}
+		return batchSupported;
+	}
 
-		for ( int i = 0; i < currentBuf.length() && sIndex < currentBuf.length(); i++ ) {
 
-			// Ignore all comments starting with --
-			if ( currentBuf.charAt( i ) == '-' &&
-				currentBuf.charAt( i + 1 ) == '-' ) {
-				inComment = true;
-			}
-			// New line terminates a comment
-			else if ( inComment &&
-				Character.getType( currentBuf.charAt( i ) ) == Character.CONTROL ) {
-				inComment = false;
-				sIndex = i + 1;
+	private Statement getStatement() throws SQLException {
+		if ( statement == null ) {
+			statement = connection.createStatement();
+		}
+		return statement;
+	}
+
+
+	private void execute( String sql ) throws IOException {
+		long start = System.currentTimeMillis();
+		try {
+			getStatement().execute( sql );
+		}
+		catch ( SQLException e ) {
+			throw new IOException( "Error executing SQL: '" + sql +
+				"' Error: " + e.getLocalizedMessage(), e );
+		}
+		if ( log.isDebugEnabled() ) {
+			log.debug( "Executed in " + ( System.currentTimeMillis() - start ) + " ms: " + summarize( sql ) );
+		}
+	}
+
+
+	private void executeBatch() throws IOException {
+		if ( batch.isEmpty() ) return;
+		if ( batch.size() == 1 ) {
+			String sql = batch.get( 0 );
+			batch.clear();
+			execute( sql );
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		try {
+			Statement st = getStatement();
+			for ( String sql : batch ) {
+				st.addBatch( sql );
 			}
-			// If we're not in a comment, and we reach a semi-colon, then extract the statement
-			else if ( !inComment &&
-				currentBuf.charAt( i ) == ';' ) {
-				sts.add( currentBuf.substring( sIndex, i ) );
-				sIndex = i + 1;
+			st.executeBatch();
+		}
+		catch ( SQLException e ) {
+			String sql = getFailedStatement( e );
+			batch.clear();
+			clearBatch();
+			throw new IOException( "Error executing SQL: '" + sql +
+				"' Error: " + e.getLocalizedMessage(), e );
+		}
+		if ( log.isDebugEnabled() ) {
+			log.debug( "Executed batch of " + batch.size() + " statements in " +
+				( System.currentTimeMillis() - start ) + " ms, from: " + summarize( batch.get( 0 ) ) );
+		}
+		batch.clear();
+	}
+
+
+	/**
+	 * Returns the statement of the failed batch that the driver reports as
+	 * failing, or all of them if it does not say.
+	 */
+	private String getFailedStatement( SQLException e ) {
+		if ( e instanceof BatchUpdateException ) {
+			int[] counts = ( (BatchUpdateException) e ).getUpdateCounts();
+			if ( counts != null ) {
+				for ( int i = 0; i < counts.length; i++ ) {
+					if ( counts[i] == Statement.EXECUTE_FAILED ) return batch.get( i );
+				}
+				if ( counts.length < batch.size() ) return batch.get( counts.length );
 			}
 		}
+		return String.join( ";\n", batch );
+	}
 
-		// Done extracting.  Flush statements from buffer
-		if ( sIndex >= currentBuf.length() ) {
-			currentBuf = new String();
+
+	private void clearBatch() {
+		if ( statement == null ) return;
+		try {
+			statement.clearBatch();
 		}
-		else {
-			currentBuf = currentBuf.substring( sIndex );
+		catch ( SQLException e ) {
+			log.warn( "Unable to clear batch: " + e.getLocalizedMessage() );
 		}
 	}
 
-}
 
+	private static String summarize( String sql ) {
+		String line = sql.replaceAll( "\\s+", " " );
+		return line.length() > 100 ? line.substring( 0, 100 ) + "..." : line;
+	}
+
+}
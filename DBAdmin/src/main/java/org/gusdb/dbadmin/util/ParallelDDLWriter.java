@@ -0,0 +1,444 @@
+package org.gusdb.dbadmin.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes the Oracle DDL written to it (by OracleWriter) over a pool of
+ * connections, running statements for different objects at the same time.
+ *
+ * The statements are collected as they are written and run when the writer
+ * is closed. Each is assigned to a node of a dependency graph by the object
+ * it creates or alters:
+ * <ul>
+ * <li>users, roles and quotas go in the first node, which all others follow;
+ * <li>a table node holds a CREATE TABLE and the grants, indexes and primary
+ * key on that table, in order; indexes, a primary key or grants on a table
+ * created before the last barrier, or elsewhere, get a table node of their
+ * own;
+ * <li>a sequence node holds a CREATE SEQUENCE and its grants;
+ * <li>a view node holds a CREATE VIEW and its grants, and follows every table
+ * and the view before it, as the tables a view uses are not known;
+ * <li>a constraint node holds the foreign key and unique constraints on one
+ * table.
+ * </ul>
+ * Table and constraint nodes lock the tables they alter, and a constraint
+ * node also locks the tables it references. Oracle fails DDL that cannot lock
+ * a table at once (ORA-00054), so each node also follows the node made
+ * before it that locks any of the same tables: a foreign key follows the
+ * nodes of the tables it references, and foreign keys on different tables
+ * that reference the same table run one after another.
+ * Any other statement is a barrier: it follows every node before it, and
+ * every node after it follows it. A node runs once the nodes it follows
+ * have, so the statements of one node run in the order written, and those of
+ * nodes with no path between them may run in any order.
+ *
+ * @author msaffitz
+ * @version $Revision$ $Date$
+ */
+public class ParallelDDLWriter extends Writer {
+
+    private static final Logger  log              = LogManager.getLogger( ParallelDDLWriter.class );
+
+    private static final String  NAME             = "([\\w$#]+(?:\\.[\\w$#]+)?)";
+    private static final int     FLAGS            = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
+
+    private static final Pattern PROLOGUE         = Pattern.compile( "^(CREATE\\s+(ROLE|USER)|ALTER\\s+USER)\\b", FLAGS );
+    private static final Pattern CREATE_TABLE     = Pattern.compile( "^CREATE\\s+TABLE\\s+" + NAME, FLAGS );
+    private static final Pattern CREATE_SEQUENCE  = Pattern.compile( "^CREATE\\s+SEQUENCE\\s+" + NAME, FLAGS );
+    private static final Pattern CREATE_VIEW      = Pattern.compile( "^CREATE\\s+(OR\\s+REPLACE\\s+)?VIEW\\s+" + NAME, FLAGS );
+    private static final Pattern CREATE_INDEX     = Pattern.compile( "^CREATE\\s+((UNIQUE|BITMAP)\\s+)?INDEX\\s+" + NAME
+                                                          + "\\s+ON\\s+" + NAME, FLAGS );
+    private static final Pattern ALTER_INDEX      = Pattern.compile( "^ALTER\\s+INDEX\\s+" + NAME, FLAGS );
+    private static final Pattern ADD_CONSTRAINT   = Pattern.compile( "^ALTER\\s+TABLE\\s+" + NAME
+                                                          + "\\s+ADD\\s+CONSTRAINT\\s+\\S+\\s+(PRIMARY\\s+KEY|UNIQUE|FOREIGN\\s+KEY)\\b",
+                                                          FLAGS );
+    private static final Pattern REFERENCES       = Pattern.compile( "\\bREFERENCES\\s+" + NAME, FLAGS );
+    private static final Pattern GRANT            = Pattern.compile( "^GRANT\\s+.+?\\s+ON\\s+" + NAME + "\\s+TO\\b", FLAGS );
+
+    private String               dsn;
+    private String               username;
+    private String               password;
+    private int                  threads;
+
+    private SQLStatementSplitter splitter         = new SQLStatementSplitter( );
+
+    private ArrayList<Node>      nodes            = new ArrayList<Node>( );
+    private Node                 barrier;
+    private ArrayList<Node>      sinceBarrier     = new ArrayList<Node>( );
+    private ArrayList<Node>      tableNodes       = new ArrayList<Node>( );
+    private Node                 lastView;
+    private HashMap<String, Node> objectNodes     = new HashMap<String, Node>( );
+    private HashMap<String, Node> tableNodesByName = new HashMap<String, Node>( );
+    private HashMap<String, Node> constraintNodes = new HashMap<String, Node>( );
+    private HashMap<String, TreeMap<Integer, Node>> lockingNodes = new HashMap<String, TreeMap<Integer, Node>>( );
+
+    private ThreadLocal<Connection> threadConnection = new ThreadLocal<Connection>( );
+    private List<Connection>     workerConnections = Collections.synchronizedList( new ArrayList<Connection>( ) );
+
+    /**
+     * One or more statements run in order on one connection.
+     */
+    private static class Node {
+        final int                  ordinal;
+        final ArrayList<String>    statements = new ArrayList<String>( );
+        final LinkedHashSet<Node>  follows    = new LinkedHashSet<Node>( );
+        final ArrayList<Node>      followers  = new ArrayList<Node>( );
+        int                        waiting;
+
+        Node( int ordinal ) {
+            this.ordinal = ordinal;
+        }
+    }
+
+    public ParallelDDLWriter( String dsn, String username, String password, int threads ) {
+        this.dsn = dsn;
+        this.username = username;
+        this.password = password;
+        this.threads = Math.max( 1, threads );
+        this.barrier = newNode( );
+    }
+
+    @Override
+    public void write( char[] cbuf, int off, int len ) throws IOException {
+        splitter.write( cbuf, off, len );
+    }
+
+    @Override
+    public void write( String str, int off, int len ) throws IOException {
+        splitter.write( str, off, len );
+    }
+
+    /**
+     * Adds the statements completed so far to the graph; they are not run
+     * until the writer is closed.
+     */
+    @Override
+    public void flush( ) throws IOException {
+        for ( String sql : splitter.takeStatements( ) ) {
+            add( sql );
+        }
+    }
+
+    /**
+     * Runs the statements written, and closes the connections used.
+     *
+     * @throws IOException if a statement fails; statements of other nodes
+     *         already running are finished, and no more are started
+     */
+    @Override
+    public void close( ) throws IOException {
+        flush( );
+        String rest = splitter.finish( );
+        if ( rest != null ) {
+            log.warn( "Discarding incomplete SQL statement: '" + rest + "'" );
+        }
+        try {
+            run( );
+        }
+        finally {
+            synchronized ( workerConnections ) {
+                for ( Connection connection : workerConnections ) {
+                    try {
+                        connection.close( );
+                    }
+                    catch ( SQLException e ) {
+                        log.warn( "Unable to close connection: " + e.getLocalizedMessage( ) );
+                    }
+                }
+                workerConnections.clear( );
+            }
+        }
+    }
+
+    private void add( String sql ) {
+        Matcher m;
+
+        if ( PROLOGUE.matcher( sql ).find( ) ) {
+            // needs only the users and tablespaces made before the barrier
+            barrier.statements.add( sql );
+        }
+        else if ( ( m = CREATE_TABLE.matcher( sql ) ).find( ) ) {
+            Node node = newNode( );
+            node.statements.add( sql );
+            objectNodes.put( key( m.group( 1 ) ), node );
+            tableNodesByName.put( key( m.group( 1 ) ), node );
+            tableNodes.add( node );
+            lock( node, key( m.group( 1 ) ) );
+        }
+        else if ( ( m = CREATE_SEQUENCE.matcher( sql ) ).find( ) ) {
+            Node node = newNode( );
+            node.statements.add( sql );
+            objectNodes.put( key( m.group( 1 ) ), node );
+        }
+        else if ( ( m = CREATE_VIEW.matcher( sql ) ).find( ) ) {
+            Node node = newNode( );
+            node.statements.add( sql );
+            node.follows.addAll( tableNodes );
+            if ( lastView != null ) node.follows.add( lastView );
+            lastView = node;
+            objectNodes.put( key( m.group( 2 ) ), node );
+        }
+        else if ( ( m = CREATE_INDEX.matcher( sql ) ).find( ) ) {
+            Node node = getTableNode( key( m.group( 4 ) ) );
+            node.statements.add( sql );
+            objectNodes.put( key( m.group( 3 ) ), node );
+        }
+        else if ( ( m = ALTER_INDEX.matcher( sql ) ).find( ) && isOpen( objectNodes.get( key( m.group( 1 ) ) ) ) ) {
+            objectNodes.get( key( m.group( 1 ) ) ).statements.add( sql );
+        }
+        else if ( ( m = ADD_CONSTRAINT.matcher( sql ) ).find( ) ) {
+            addConstraint( sql, key( m.group( 1 ) ), m.group( 2 ).toUpperCase( ).startsWith( "PRIMARY" ) );
+        }
+        else if ( ( m = GRANT.matcher( sql ) ).find( ) && ( isOpen( objectNodes.get( key( m.group( 1 ) ) ) )
+                || tableNodesByName.containsKey( key( m.group( 1 ) ) ) ) ) {
+            String object = key( m.group( 1 ) );
+            Node node = isOpen( objectNodes.get( object ) ) ? objectNodes.get( object ) : getTableNode( object );
+            node.statements.add( sql );
+        }
+        else {
+            addBarrier( sql );
+        }
+    }
+
+    private void addConstraint( String sql, String table, boolean primaryKey ) {
+        if ( primaryKey && !isOpen( constraintNodes.get( table ) ) ) {
+            getTableNode( table ).statements.add( sql );
+            return;
+        }
+
+        Node node = constraintNodes.get( table );
+        if ( !isOpen( node ) ) {
+            node = newNode( );
+            constraintNodes.put( table, node );
+            lock( node, table );
+        }
+        node.statements.add( sql );
+
+        // also orders the node after the referenced table's creation and
+        // after any earlier constraint node adding the unique key referenced
+        Matcher m = REFERENCES.matcher( sql );
+        if ( m.find( ) ) {
+            lock( node, key( m.group( 1 ) ) );
+        }
+    }
+
+    /**
+     * Records that <code>node</code> locks <code>table</code>, and orders it
+     * between the nodes made before and after it that lock the table too, so
+     * that no two of them run at the same time.
+     */
+    private void lock( Node node, String table ) {
+        TreeMap<Integer, Node> locking = lockingNodes.get( table );
+        if ( locking == null ) {
+            locking = new TreeMap<Integer, Node>( );
+            lockingNodes.put( table, locking );
+        }
+        if ( locking.put( node.ordinal, node ) != null ) return;
+
+        Map.Entry<Integer, Node> before = locking.lowerEntry( node.ordinal );
+        if ( before != null ) node.follows.add( before.getValue( ) );
+        Map.Entry<Integer, Node> after = locking.higherEntry( node.ordinal );
+        if ( after != null ) after.getValue( ).follows.add( node );
+    }
+
+    private void addBarrier( String sql ) {
+        if ( sinceBarrier.isEmpty( ) ) {
+            barrier.statements.add( sql );
+            return;
+        }
+        Node node = new Node( nodes.size( ) );
+        nodes.add( node );
+        node.follows.add( barrier );
+        node.follows.addAll( sinceBarrier );
+        node.statements.add( sql );
+        barrier = node;
+        sinceBarrier.clear( );
+        // nodes made before the barrier have run before any node after it
+        lockingNodes.clear( );
+    }
+
+    /**
+     * Returns the open node of <code>table</code>, making one if the table
+     * was created before the last barrier or is not known. A node made here
+     * locks the table, so a deferred index or primary key runs before any
+     * foreign key written after it that is on or references the table.
+     */
+    private Node getTableNode( String table ) {
+        Node node = tableNodesByName.get( table );
+        if ( !isOpen( node ) ) {
+            node = newNode( );
+            objectNodes.put( table, node );
+            tableNodesByName.put( table, node );
+            tableNodes.add( node );
+            lock( node, table );
+        }
+        return node;
+    }
+
+    private Node newNode( ) {
+        Node node = new Node( nodes.size( ) );
+        nodes.add( node );
+        if ( barrier != null ) {
+            node.follows.add( barrier );
+            sinceBarrier.add( node );
+        }
+        return node;
+    }
+
+    /**
+     * Returns whether statements may still be added to <code>node</code>:
+     * those added to a node made before the last barrier would run before it.
+     */
+    private boolean isOpen( Node node ) {
+        return node != null && node.ordinal > barrier.ordinal;
+    }
+
+    private static String key( String name ) {
+        return name.toUpperCase( );
+    }
+
+    /**
+     * Runs the nodes, each once all it follows have run.
+     */
+    private void run( ) throws IOException {
+        log.info( "Running " + nodes.size( ) + " groups of DDL statements with " + threads + " threads" );
+        long start = System.currentTimeMillis( );
+
+        ArrayList<Node> ready = new ArrayList<Node>( );
+        for ( Node node : nodes ) {
+            node.waiting = node.follows.size( );
+            for ( Node followed : node.follows ) {
+                followed.followers.add( node );
+            }
+            if ( node.waiting == 0 ) ready.add( node );
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger( );
+        ExecutorService executor = Executors.newFixedThreadPool( threads, runnable -> {
+            Thread thread = new Thread( runnable, "ParallelDDLWriter-" + threadNumber.incrementAndGet( ) );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        ExecutorCompletionService<Node> completion = new ExecutorCompletionService<Node>( executor );
+
+        IOException failure = null;
+        int running = 0;
+        int done = 0;
+
+        try {
+            for ( Node node : ready ) {
+                submit( completion, node );
+                running++;
+            }
+            while ( running > 0 ) {
+                Node node;
+                try {
+                    node = completion.take( ).get( );
+                }
+                catch ( ExecutionException e ) {
+                    running--;
+                    if ( failure == null ) {
+                        failure = e.getCause( ) instanceof IOException ? (IOException) e.getCause( )
+                                : new IOException( e.getCause( ) );
+                    }
+                    continue;
+                }
+                catch ( InterruptedException e ) {
+                    Thread.currentThread( ).interrupt( );
+                    throw new IOException( e );
+                }
+                running--;
+                done++;
+                if ( failure != null ) continue;
+                for ( Node follower : node.followers ) {
+                    if ( --follower.waiting == 0 ) {
+                        submit( completion, follower );
+                        running++;
+                    }
+                }
+            }
+        }
+        finally {
+            executor.shutdown( );
+        }
+
+        if ( failure != null ) throw failure;
+        if ( done < nodes.size( ) ) {
+            throw new IOException( "Unable to order DDL statements: " + ( nodes.size( ) - done ) + " groups not run" );
+        }
+        log.info( "Ran DDL in " + ( System.currentTimeMillis( ) - start ) + " ms" );
+    }
+
+    private void submit( ExecutorCompletionService<Node> completion, Node node ) {
+        completion.submit( ( ) -> {
+            execute( node );
+            return node;
+        } );
+    }
+
+    private void execute( Node node ) throws IOException {
+        Statement st = null;
+        String sql = null;
+        try {
+            st = getConnection( ).createStatement( );
+            for ( int i = 0; i < node.statements.size( ); i++ ) {
+                sql = node.statements.get( i );
+                long start = System.currentTimeMillis( );
+                st.execute( sql );
+                if ( log.isDebugEnabled( ) ) {
+                    log.debug( "Executed in " + ( System.currentTimeMillis( ) - start ) + " ms: "
+                            + sql.replaceAll( "\\s+", " " ) );
+                }
+            }
+        }
+        catch ( SQLException e ) {
+            throw new IOException( "Error executing SQL: '" + sql + "' Error: " + e.getLocalizedMessage( ), e );
+        }
+        finally {
+            if ( st != null ) {
+                try {
+                    st.close( );
+                }
+                catch ( SQLException e ) {
+                    log.warn( "Unable to close statement: " + e.getLocalizedMessage( ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the connection of the current thread, opening it on first use.
+     */
+    private Connection getConnection( ) throws SQLException {
+        Connection connection = threadConnection.get( );
+        if ( connection == null ) {
+            connection = DriverManager.getConnection( dsn, username, password );
+            threadConnection.set( connection );
+            workerConnections.add( connection );
+        }
+        return connection;
+    }
+
+}
@@ -0,0 +1,244 @@
+package org.gusdb.dbadmin.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a stream of SQL text into statements as it is written, a chunk at a
+ * time, so that each character is looked at once however the text is broken
+ * up.
+ *
+ * Statements end with a semicolon, which is not part of the statement. A
+ * semicolon in a quoted string or identifier, a comment, or a PostgreSQL
+ * dollar-quoted string does not end a statement. Line comments (--) are
+ * dropped; block comments are kept, as they may be Oracle hints.
+ *
+ * A PL/SQL block (a statement starting with DECLARE or BEGIN, or creating a
+ * function, procedure, package, package or type body, library or trigger)
+ * holds semicolons of its own, so it ends, as in SQL*Plus, at a line
+ * holding only a slash, and keeps its semicolons. A PostgreSQL function whose
+ * body is dollar-quoted ends at the semicolon after the body, and a
+ * transaction's BEGIN is an ordinary statement.
+ *
+ * @author msaffitz
+ * @version $Revision$ $Date$
+ */
+public class SQLStatementSplitter {
+
+    private enum State {
+        NORMAL, LINE_COMMENT, BLOCK_COMMENT, SINGLE_QUOTE, DOUBLE_QUOTE, DOLLAR_TAG, DOLLAR_QUOTE
+    }
+
+    private static final Pattern BLOCK_START = Pattern.compile(
+            "^(DECLARE\\b|BEGIN\\b(?!\\s*((WORK|TRANSACTION|ISOLATION)\\b.*)?$)"
+                    + "|CREATE\\s+(OR\\s+REPLACE\\s+)?((NON)?EDITIONABLE\\s+)?"
+                    + "(FUNCTION|PROCEDURE|PACKAGE|TRIGGER|TYPE\\s+BODY|LIBRARY)\\b)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL );
+
+    private StringBuilder     statement  = new StringBuilder( 1024 );
+    private ArrayList<String> statements = new ArrayList<String>( );
+
+    private State             state      = State.NORMAL;
+    // start of the text written since the state was last NORMAL
+    private int               normalFrom;
+    // start of the current line of the statement
+    private int               lineStart;
+    // start of a block comment, or of the tag of a dollar quote
+    private int               tokenStart;
+    private String            dollarDelimiter;
+    private boolean           dollarQuoted;
+    private boolean           block;
+
+    public void write( char[] cbuf, int off, int len ) {
+        for ( int i = off; i < off + len; i++ ) {
+            write( cbuf[i] );
+        }
+    }
+
+    public void write( CharSequence sql, int off, int len ) {
+        for ( int i = off; i < off + len; i++ ) {
+            write( sql.charAt( i ) );
+        }
+    }
+
+    /**
+     * @return the statements completed since the last call, in order
+     */
+    public List<String> takeStatements( ) {
+        List<String> taken = statements;
+        statements = new ArrayList<String>( );
+        return taken;
+    }
+
+    /**
+     * Ends the stream, completing a PL/SQL block whose closing slash is not
+     * followed by a new line.
+     *
+     * @return the text of any statement left incomplete, or null
+     */
+    public String finish( ) {
+        if ( state == State.NORMAL && block && isSlash( statement.length( ) ) ) {
+            complete( statement.substring( 0, lineStart ) );
+        }
+        String rest = statement.toString( ).trim( );
+        reset( );
+        return rest.length( ) == 0 ? null : rest;
+    }
+
+    private void write( char c ) {
+        switch ( state ) {
+            case NORMAL:
+                writeNormal( c );
+                break;
+            case LINE_COMMENT:
+                if ( c == '\n' ) {
+                    state = State.NORMAL;
+                    normalFrom = statement.length( );
+                    writeNormal( c );
+                }
+                break;
+            case BLOCK_COMMENT:
+                append( c );
+                if ( c == '/' && statement.length( ) - tokenStart >= 4
+                        && statement.charAt( statement.length( ) - 2 ) == '*' ) {
+                    toNormal( );
+                }
+                break;
+            case SINGLE_QUOTE:
+                append( c );
+                if ( c == '\'' ) toNormal( );
+                break;
+            case DOUBLE_QUOTE:
+                append( c );
+                if ( c == '"' ) toNormal( );
+                break;
+            case DOLLAR_TAG:
+                if ( c == '$' ) {
+                    append( c );
+                    dollarDelimiter = statement.substring( tokenStart );
+                    dollarQuoted = true;
+                    state = State.DOLLAR_QUOTE;
+                }
+                else if ( Character.isLetter( c ) || c == '_'
+                        || ( Character.isDigit( c ) && statement.length( ) > tokenStart + 1 ) ) {
+                    append( c );
+                }
+                else {
+                    // not a dollar quote after all
+                    state = State.NORMAL;
+                    writeNormal( c );
+                }
+                break;
+            case DOLLAR_QUOTE:
+                append( c );
+                if ( c == '$' && statement.length( ) >= tokenStart + 2 * dollarDelimiter.length( )
+                        && endsWith( dollarDelimiter ) ) {
+                    toNormal( );
+                }
+                break;
+        }
+    }
+
+    private void writeNormal( char c ) {
+        int length = statement.length( );
+        char last = length > normalFrom ? statement.charAt( length - 1 ) : 0;
+
+        switch ( c ) {
+            case '\'':
+                append( c );
+                state = State.SINGLE_QUOTE;
+                break;
+            case '"':
+                append( c );
+                state = State.DOUBLE_QUOTE;
+                break;
+            case '-':
+                if ( last == '-' ) {
+                    statement.setLength( length - 1 );
+                    state = State.LINE_COMMENT;
+                }
+                else {
+                    append( c );
+                }
+                break;
+            case '*':
+                append( c );
+                if ( last == '/' ) {
+                    tokenStart = length - 1;
+                    state = State.BLOCK_COMMENT;
+                }
+                break;
+            case '$':
+                append( c );
+                if ( !( Character.isLetterOrDigit( last ) || last == '_' || last == '$' ) ) {
+                    tokenStart = length;
+                    state = State.DOLLAR_TAG;
+                }
+                break;
+            case ';':
+                if ( !block && !dollarQuoted && BLOCK_START.matcher( statement ).find( ) ) {
+                    block = true;
+                }
+                if ( block ) {
+                    append( c );
+                }
+                else {
+                    complete( statement.toString( ) );
+                }
+                break;
+            case '\n':
+                if ( block && isSlash( length ) ) {
+                    complete( statement.substring( 0, lineStart ) );
+                }
+                else {
+                    append( c );
+                }
+                break;
+            default:
+                append( c );
+        }
+    }
+
+    private void append( char c ) {
+        if ( statement.length( ) == 0 && Character.isWhitespace( c ) ) {
+            normalFrom = 0;
+            return;
+        }
+        statement.append( c );
+        if ( c == '\n' ) lineStart = statement.length( );
+    }
+
+    private void toNormal( ) {
+        state = State.NORMAL;
+        normalFrom = statement.length( );
+    }
+
+    private boolean isSlash( int end ) {
+        return statement.substring( lineStart, end ).trim( ).equals( "/" );
+    }
+
+    private boolean endsWith( String suffix ) {
+        int start = statement.length( ) - suffix.length( );
+        for ( int i = 0; i < suffix.length( ); i++ ) {
+            if ( statement.charAt( start + i ) != suffix.charAt( i ) ) return false;
+        }
+        return true;
+    }
+
+    private void complete( String sql ) {
+        sql = sql.trim( );
+        if ( sql.length( ) > 0 ) statements.add( sql );
+        reset( );
+    }
+
+    private void reset( ) {
+        statement.setLength( 0 );
+        state = State.NORMAL;
+        normalFrom = 0;
+        lineStart = 0;
+        dollarQuoted = false;
+        block = false;
+    }
+
+}
@@ -3,7 +3,8 @@ package org.gusdb.dbadmin.util;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.ArrayList;
 
@@ -28,6 +29,7 @@ public class SchemaComparator {
     private Database           rightDatabase;
 
     private List<Table>         leftIdenticalTables         = new ArrayList<>( );
+    private Set<Table>          leftIdenticalTableSet       = new HashSet<>( );
 
     private HashMap<Table,List<Table>>          leftRenamedTables           = new HashMap<>( );
 
@@ -39,16 +41,33 @@ public class SchemaComparator {
 
     private List<Table>         rightAddedTables            = new ArrayList<>( );
     private List<Table>         potentialRightRenameTargets = new ArrayList<>( );
+    private Set<Table>          potentialRightRenameTargetSet = new HashSet<>( );
 
     private HashMap<Table,List<Table>>            potentialRenameMatches      = new HashMap<>( );
 
+    private boolean             leftIdenticalTablesFound;
+    private boolean             leftRenamedTablesFound;
+    private boolean             leftColChangedTablesFound;
+    private boolean             leftIndChangedTablesFound;
+    private boolean             leftConChangedTablesFound;
+    private boolean             leftDroppedTablesFound;
+    private boolean             rightAddedTablesFound;
+
+    private int                 maxModifiedColumns          = 0;
+
+    // Column names of the right tables, for findRenameMatches
+    private List<GusTable>      rightTables;
+    private int[]               rightColumnCounts;
+    private List<Set<String>>   rightColumnNames;
+    private HashMap<String,List<Integer>> rightTablesByColumnName;
+
     public SchemaComparator( Database leftDatabase, Database rightDatabase ) {
         this.leftDatabase = leftDatabase;
         this.rightDatabase = rightDatabase;
     }
 
     public List<Table> findLeftIdenticalTables( ) {
-        if ( ! leftIdenticalTables.isEmpty( ) ) return leftIdenticalTables;
+        if ( leftIdenticalTablesFound ) return leftIdenticalTables;
         log.info("finding identical tables");
         
         for ( GusTable table : leftDatabase.getGusTables() ) {
@@ -63,32 +82,41 @@ public class SchemaComparator {
             if ( !table.constraintsEqual( rightTable ) ) continue;
             if ( !table.indexesEqual( rightTable ) ) continue;
             leftIdenticalTables.add( table );
+            leftIdenticalTableSet.add( table );
         }
+        leftIdenticalTablesFound = true;
         return leftIdenticalTables;
     }
 
+    private boolean isLeftIdentical( Table table ) {
+        findLeftIdenticalTables( );
+        return leftIdenticalTableSet.contains( table );
+    }
+
     public Map<Table,List<Table>> findLeftRenamedTables( ) {
-        if ( !leftRenamedTables.isEmpty( ) ) return leftRenamedTables;
+        if ( leftRenamedTablesFound ) return leftRenamedTables;
         log.info("finding renamed tables");
         for ( GusTable table : leftDatabase.getGusTables() ) {
-            if ( findLeftIdenticalTables( ).contains( table ) ) continue;
+            if ( isLeftIdentical( table ) ) continue;
             if ( rightDatabase.getSchema( table.getSchema( ).getName( ) ) != null
                     && rightDatabase.getSchema( table.getSchema( ).getName( ) ).getTable( table.getName( ) ) != null ) continue;
-            List<Table> renamedTables = findRenameMatches( table, 0 );
+            List<Table> renamedTables = findRenameMatches( table, maxModifiedColumns );
             if ( !renamedTables.isEmpty( ) ) {
                 potentialRightRenameTargets.addAll( renamedTables );
+                potentialRightRenameTargetSet.addAll( renamedTables );
                 leftRenamedTables.put( table, renamedTables );
             }
         }
 
+        leftRenamedTablesFound = true;
         return leftRenamedTables;
     }
 
     public Map<GusTable,List<String>> findLeftColChangedTables( ) {
-        if ( !leftColChangedTables.isEmpty( ) ) return leftColChangedTables;
+        if ( leftColChangedTablesFound ) return leftColChangedTables;
         log.info("finding tables with changed column sets");
         for ( GusTable table : leftDatabase.getGusTables() ) {
-            if ( findLeftIdenticalTables( ).contains( table ) ) continue;
+            if ( isLeftIdentical( table ) ) continue;
             if ( findLeftRenamedTables( ).get( table ) != null ) continue;
             if ( rightDatabase.getSchema( table.getSchema( ).getName( ) ) == null
                     || rightDatabase.getSchema( table.getSchema( ).getName( ) ).getTable( table.getName( ) ) == null ) continue;
@@ -100,14 +128,15 @@ public class SchemaComparator {
                 leftColChangedTables.put( table, colCompareResults );
             }
         }
+        leftColChangedTablesFound = true;
         return leftColChangedTables;
     }
 
     public Map<GusTable, List<String>> findLeftIndChangedTables( ) {
-        if ( !leftIndChangedTables.isEmpty( ) ) return leftIndChangedTables;
+        if ( leftIndChangedTablesFound ) return leftIndChangedTables;
         log.info("finding tables with changed indexes");
         for ( GusTable table : leftDatabase.getGusTables() ) {
-            if ( findLeftIdenticalTables( ).contains( table ) ) continue;
+            if ( isLeftIdentical( table ) ) continue;
             if ( findLeftRenamedTables( ).get( table ) != null ) continue;
             if ( rightDatabase.getSchema( table.getSchema( ).getName( ) ) == null
                     || rightDatabase.getSchema( table.getSchema( ).getName( ) ).getTable( table.getName( ) ) == null ) continue;
@@ -118,14 +147,15 @@ public class SchemaComparator {
                 leftIndChangedTables.put( table, new ArrayList<>( ) );
             }
         }
+        leftIndChangedTablesFound = true;
         return leftIndChangedTables;
     }
 
     public Map<GusTable, List<String>> findLeftConChangedTables( ) {
-        if ( !leftConChangedTables.isEmpty( ) ) return leftConChangedTables;
+        if ( leftConChangedTablesFound ) return leftConChangedTables;
         log.info("finding tables with changed constraints ");
         for ( GusTable table : leftDatabase.getGusTables() ) {
-            if ( findLeftIdenticalTables( ).contains( table ) ) continue;
+            if ( isLeftIdentical( table ) ) continue;
             if ( findLeftRenamedTables( ).get( table ) != null ) continue;
             if ( rightDatabase.getSchema( table.getSchema( ).getName( ) ) == null
                     || rightDatabase.getSchema( table.getSchema( ).getName( ) ).getTable( table.getName( ) ) == null ) continue;
@@ -136,62 +166,164 @@ public class SchemaComparator {
                 leftConChangedTables.put( table, getConstraintDifferences( table, rightTable ) );
             }
         }
+        leftConChangedTablesFound = true;
         return leftConChangedTables;
     }
 
     public List<Table> findLeftDroppedTables( ) {
-        if ( !leftDroppedTables.isEmpty( ) ) return leftDroppedTables;
+        if ( leftDroppedTablesFound ) return leftDroppedTables;
         log.info("finding tables that have been dropped");
         for ( GusTable table : leftDatabase.getGusTables() ) {
-            if ( findLeftIdenticalTables( ).contains( table ) ) continue;
+            if ( isLeftIdentical( table ) ) continue;
             if ( findLeftRenamedTables( ).get( table ) != null ) continue;
             if ( findLeftColChangedTables( ).get( table ) != null ) continue;
             if ( findLeftIndChangedTables( ).get( table ) != null ) continue;
             if ( findLeftConChangedTables( ).get( table ) != null ) continue;
             leftDroppedTables.add( table );
         }
+        leftDroppedTablesFound = true;
         return leftDroppedTables;
     }
 
     public List<Table> findRightAddedTables( ) {
         // Need a side affect of this for below
-        if ( !rightAddedTables.isEmpty( ) ) return rightAddedTables;
+        if ( rightAddedTablesFound ) return rightAddedTables;
         log.info("finding added tables");
         findLeftRenamedTables( );
         for ( GusTable table : rightDatabase.getGusTables() ) {
             if ( leftDatabase.getSchema( table.getSchema( ).getName( ) ) != null
                     && leftDatabase.getSchema( table.getSchema( ).getName( ) ).getTable( table.getName( ) ) != null ) continue;
-            if ( potentialRightRenameTargets.contains( table ) ) continue;
+            if ( potentialRightRenameTargetSet.contains( table ) ) continue;
             rightAddedTables.add( table );
         }
+        rightAddedTablesFound = true;
         return rightAddedTables;
     }
 
+    public int getMaxModifiedColumns( ) {
+        return maxModifiedColumns;
+    }
+
+    /**
+     * @param maxModifiedColumns the number of columns a right table may
+     *        differ from a left table by and still be reported as its rename
+     *        target (default 0)
+     */
+    public void setMaxModifiedColumns( int maxModifiedColumns ) {
+        this.maxModifiedColumns = maxModifiedColumns;
+    }
+
+    /**
+     * Finds the right tables differing from <code>table</code> by no more
+     * than <code>maxModifiedColumns</code> columns: a column of
+     * <code>table</code> whose name the right table lacks counts as modified,
+     * as does each column the right table has beyond the number in
+     * <code>table</code>.
+     *
+     * Each right table is reduced once to the set of its column names. A
+     * match must have at least one of any <code>maxModifiedColumns + 1</code>
+     * of the left table's column names, so only the right tables having one
+     * of its rarest names are compared in full.
+     *
+     * @param table left table
+     * @param maxModifiedColumns number of columns that may differ
+     * @return matching right tables, in the order of the right database
+     */
     public List<Table> findRenameMatches( Table table, int maxModifiedColumns ) {
-        if ( potentialRenameMatches.get( table ) != null ) return potentialRenameMatches.get( table );
+        boolean cached = maxModifiedColumns == this.maxModifiedColumns;
+        if ( cached && potentialRenameMatches.get( table ) != null ) return potentialRenameMatches.get( table );
+        indexRightTables( );
+
+        List<Column> columns = table.getColumnsIncludeSuperclass( false );
+        ArrayList<String> keys = new ArrayList<>( );
+        for ( Column column : columns ) {
+            keys.add( getColumnKey( column ) );
+        }
+
+        TreeSet<Integer> candidates = new TreeSet<>( );
+        if ( columns.size( ) <= maxModifiedColumns ) {
+            // even a right table sharing no columns may match
+            for ( int i = 0; i < rightTables.size( ); i++ ) {
+                candidates.add( i );
+            }
+        }
+        else {
+            ArrayList<String> prefix = new ArrayList<>( new HashSet<>( keys ) );
+            prefix.sort( ( a, b ) -> Integer.compare( getRightTableCount( a ), getRightTableCount( b ) ) );
+            for ( int i = 0; i < prefix.size( ) && i <= maxModifiedColumns; i++ ) {
+                List<Integer> tables = rightTablesByColumnName.get( prefix.get( i ) );
+                if ( tables != null ) candidates.addAll( tables );
+            }
+        }
 
         List<Table> potentialMatches = new ArrayList<>( );
 
-        for ( GusTable targetTable : rightDatabase.getGusTables() ) {
+        for ( int i : candidates ) {
+            GusTable targetTable = rightTables.get( i );
             if ( targetTable.getSchema( ).getName( ) == table.getSchema( ).getName( )
                     && targetTable.getName( ) == table.getName( ) ) continue;
 
-            int foundModifiedColumns = targetTable.getColumnsIncludeSuperclass( false ).size( )
-                    - table.getColumnsIncludeSuperclass( false ).size( );
+            int foundModifiedColumns = rightColumnCounts[i] - columns.size( );
             if ( foundModifiedColumns < 0 ) foundModifiedColumns = 0;
 
-            for ( Iterator<Column> k = table.getColumnsIncludeSuperclass( false ).iterator( ); k.hasNext( ); ) {
-                Column column = k.next( );
-                if ( targetTable.getColumn( column.getName( ) ) == null ) foundModifiedColumns++;
-                else if ( !column.equals( targetTable.getColumn( column.getName( ) ) ) ) foundModifiedColumns++;
+            Set<String> targetKeys = rightColumnNames.get( i );
+            for ( String key : keys ) {
+                if ( !targetKeys.contains( key ) ) foundModifiedColumns++;
             }
             if ( foundModifiedColumns > maxModifiedColumns ) continue;
             potentialMatches.add( targetTable );
         }
-        potentialRenameMatches.put( table, potentialMatches );
+        if ( cached ) potentialRenameMatches.put( table, potentialMatches );
         return potentialMatches;
     }
 
+    /**
+     * Reduces each right table to the names of the columns its getColumn
+     * finds, and indexes the tables by column name.
+     */
+    private void indexRightTables( ) {
+        if ( rightTables != null ) return;
+        log.info("indexing right table columns");
+
+        rightTables = new ArrayList<>( rightDatabase.getGusTables( ) );
+        rightColumnCounts = new int[rightTables.size( )];
+        rightColumnNames = new ArrayList<>( rightTables.size( ) );
+        rightTablesByColumnName = new HashMap<>( );
+
+        for ( int i = 0; i < rightTables.size( ); i++ ) {
+            GusTable rightTable = rightTables.get( i );
+            rightColumnCounts[i] = rightTable.getColumnsIncludeSuperclass( false ).size( );
+
+            Set<String> keys = new HashSet<>( );
+            for ( Column column : rightTable.getColumnsIncludeSuperclass( true ) ) {
+                String key = getColumnKey( column );
+                if ( key == null || !keys.add( key ) ) continue;
+                List<Integer> tables = rightTablesByColumnName.get( key );
+                if ( tables == null ) {
+                    tables = new ArrayList<>( );
+                    rightTablesByColumnName.put( key, tables );
+                }
+                tables.add( i );
+            }
+            rightColumnNames.add( keys );
+        }
+    }
+
+    private int getRightTableCount( String key ) {
+        List<Integer> tables = rightTablesByColumnName.get( key );
+        return tables == null ? 0 : tables.size( );
+    }
+
+    /**
+     * @return a String that is the same for two named columns exactly when
+     *         getColumn would find one by the name of the other, or null for
+     *         a column without a name
+     */
+    private static String getColumnKey( Column column ) {
+        if ( column.getName( ) == null ) return null;
+        return column.getName( ).toUpperCase( );
+    }
+
     public static <C extends Column> boolean compareColumnSetNames( List<C> leftColumns, List<C> rightColumns ) {
         Object[] leftColumnsA = leftColumns.toArray( );
         Object[] rightColumnsA = rightColumns.toArray( );
@@ -65,15 +65,9 @@ public class OracleWriter extends RelationalDatabaseWriter {
             writeViews( schema );
         }
         oStream.flush( );
-        oStream.write( "\n-- Foreign Key Constraints\n\n" );
-        for ( GusSchema schema : db.getGusSchemas( ) ) {
-            for ( GusTable table : GusSchema.toGusTables(schema.getTables()) ) {
-                if ( schema.getClass( ) == GusSchema.class ) {
-                    writeFKConstraints( table );
-                    writeUQConstraints( table );
-                    oStream.write( "\n" );
-                }
-            }
+        if ( !deferIndexes ) {
+            oStream.write( "\n-- Foreign Key Constraints\n\n" );
+            writeConstraints( db );
         }
         oStream.flush( );
         oStream.write( "\n-- Sequences\n\n" );
@@ -87,6 +81,33 @@ public class OracleWriter extends RelationalDatabaseWriter {
         written = new ArrayList<DatabaseObject>( );
     }
 
+    @Override
+    protected void writeIndexesAndConstraints( Database db ) throws IOException {
+        log.debug( "Writing indexes and constraints" );
+        oStream.write( "-- Automatically generated by GusDBA.\n" );
+        oStream.write( "-- GUS indexes and constraints for Oracle\n" );
+        if ( db.getName( ) != null ) {
+            oStream.write( "-- Generated for " + db.getName( ) + "\n" );
+        }
+        oStream.write( "\n-- Indexes and Primary Key Constraints\n\n" );
+        writeIndexesAndPKConstraints( db );
+        oStream.write( "\n-- Foreign Key Constraints\n\n" );
+        writeConstraints( db );
+        oStream.write( "\n\n--EOF\n" );
+    }
+
+    private void writeConstraints( Database db ) throws IOException {
+        for ( GusSchema schema : db.getGusSchemas( ) ) {
+            for ( GusTable table : GusSchema.toGusTables(schema.getTables()) ) {
+                if ( schema.getClass( ) == GusSchema.class ) {
+                    writeFKConstraints( table );
+                    writeUQConstraints( table );
+                    oStream.write( "\n" );
+                }
+            }
+        }
+    }
+
     public void setSkipRoles (boolean skipRoles) {
 	this.skipRoles = skipRoles;
     }
@@ -126,7 +147,7 @@ public class OracleWriter extends RelationalDatabaseWriter {
         oStream.write( "\n\n" );
         oStream.flush( );
         written.add( table );
-        if ( table.getClass( ) == GusTable.class ) {
+        if ( table.getClass( ) == GusTable.class && !deferIndexes ) {
             writeIndexes( (GusTable) table );
             oStream.write( "\n" );
             writePKConstraint( (GusTable) table );
@@ -182,7 +203,14 @@ public class OracleWriter extends RelationalDatabaseWriter {
         if ( index.getTablespace( ) != null ) {
             oStream.write( "TABLESPACE " + index.getTablespace( ) );
         }
+        if ( buildParallelism > 1 ) {
+            oStream.write( " PARALLEL " + buildParallelism );
+        }
         oStream.write( ";\n" );
+        if ( buildParallelism > 1 ) {
+            // so that queries are not run in parallel through the index
+            oStream.write( "ALTER INDEX " + table.getSchema( ).getName( ) + "." + index.getName( ) + " NOPARALLEL;\n" );
+        }
         oStream.flush( );
     }
 
@@ -79,14 +79,10 @@ public class PostgresWriter extends RelationalDatabaseWriter {
         }
 
         oStream.flush( );
-        oStream.write( "\n-- Foreign Key Constraints\n\n" );
 
-        for ( GusSchema schema : db.getGusSchemas( ) ) {
-            for ( GusTable table : toGusTables(schema.getTables()) ) {
-                writeFKConstraints( table );
-                writeUQConstraints( table );
-                oStream.write( "\n" );
-            }
+        if ( !deferIndexes ) {
+            oStream.write( "\n-- Foreign Key Constraints\n\n" );
+            writeConstraints( db );
         }
 
         oStream.flush( );
@@ -104,6 +100,50 @@ public class PostgresWriter extends RelationalDatabaseWriter {
         written = new ArrayList<DatabaseObject>( );
     }
 
+    /**
+     * Writes the indexes and constraints left out of writeDatabase, in a
+     * transaction of their own.
+     * 
+     * @param db Database written
+     * @throws IOException
+     */
+    @Override
+    protected void writeIndexesAndConstraints( Database db ) throws IOException {
+        log.debug( "Writing indexes and constraints" );
+        oStream.write( "-- Automatically generated by GusDBA.\n" );
+        oStream.write( "-- GUS indexes and constraints for PostgreSQL.\n" );
+
+        if ( db.getName( ) != null ) {
+            oStream.write( "-- Generated for " + db.getName( ) + "\n" );
+        }
+
+        oStream.write( "\n\n" );
+        oStream.write( "BEGIN;\n\n" );
+        oStream.write( "SET ROLE GUS_W;\n\n" );
+
+        if ( buildParallelism > 1 ) {
+            oStream.write( "SET LOCAL max_parallel_maintenance_workers TO " + ( buildParallelism - 1 ) + ";\n\n" );
+        }
+
+        oStream.write( "-- Indexes and Primary Key Constraints\n\n" );
+        writeIndexesAndPKConstraints( db );
+        oStream.write( "\n-- Foreign Key Constraints\n\n" );
+        writeConstraints( db );
+
+        oStream.write( "\n\nCOMMIT;\n\n" );
+        oStream.write( "--EOF\n" );
+    }
+
+    private void writeConstraints( Database db ) throws IOException {
+        for ( GusSchema schema : db.getGusSchemas( ) ) {
+            for ( GusTable table : toGusTables(schema.getTables()) ) {
+                writeFKConstraints( table );
+                writeUQConstraints( table );
+                oStream.write( "\n" );
+            }
+        }
+    }
+
     /**
      * Uses the superclass's writeView method, and then writes the appropriate
      * rules for the given view
@@ -4,6 +4,7 @@
 package org.gusdb.dbadmin.writer;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -13,6 +14,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.gusdb.dbadmin.model.Column;
 import org.gusdb.dbadmin.model.Constraint;
+import org.gusdb.dbadmin.model.Database;
 import org.gusdb.dbadmin.model.DatabaseObject;
 import org.gusdb.dbadmin.model.GusTable;
 import org.gusdb.dbadmin.model.Index;
@@ -32,6 +34,66 @@ public abstract class RelationalDatabaseWriter extends SchemaWriter {
 
     protected Random         random;
     protected ArrayList<DatabaseObject> written = new ArrayList<>( );
+    protected boolean        deferIndexes;
+    protected int            buildParallelism = 1;
+
+    /**
+     * @param deferIndexes true to leave indexes and constraints out of
+     *        <code>write</code>, to be written by
+     *        <code>writeIndexesAndConstraints</code> once the tables are loaded
+     */
+    public void setDeferIndexes( boolean deferIndexes ) {
+        this.deferIndexes = deferIndexes;
+    }
+
+    /**
+     * @param buildParallelism degree of parallelism for the database to build
+     *        each index with, where it supports one; 1, the default, leaves
+     *        it to the database
+     */
+    public void setBuildParallelism( int buildParallelism ) {
+        this.buildParallelism = buildParallelism;
+    }
+
+    /**
+     * Writes the indexes, primary keys and other constraints of the database,
+     * which <code>write</code> leaves out when deferIndexes is set.
+     * 
+     * @param oStream stream to write to
+     * @param db database written
+     * @throws IOException if unable to write
+     */
+    public final void writeIndexesAndConstraints( Writer oStream, Database db ) throws IOException {
+        this.oStream = oStream;
+        setUp( );
+        log.info( "Writing Indexes and Constraints" );
+        writeIndexesAndConstraints( db );
+        oStream.flush( );
+        tearDown( );
+    }
+
+    protected abstract void writeIndexesAndConstraints( Database db ) throws IOException;
+
+    /**
+     * Writes the indexes and primary key of each table, as writeTable does
+     * when indexes are not deferred.
+     * 
+     * @param db database written
+     * @throws IOException if unable to write
+     */
+    protected void writeIndexesAndPKConstraints( Database db ) throws IOException {
+        for ( Schema schema : db.getAllSchemas( ) ) {
+            for ( Table table : schema.getTables( ) ) {
+                if ( table.getClass( ) == GusTable.class ) {
+                    writeIndexes( (GusTable) table );
+                    oStream.write( "\n" );
+                    writePKConstraint( (GusTable) table );
+                    oStream.write( "\n" );
+                }
+            }
+        }
+        oStream.flush( );
+    }
 
     /**
      * DOCUMENT ME!
@@ -69,7 +131,7 @@ public abstract class RelationalDatabaseWriter extends SchemaWriter {
         oStream.flush( );
         written.add( table );
 
-        if ( table.getClass( ) == GusTable.class ) {
+        if ( table.getClass( ) == GusTable.class && !deferIndexes ) {
             writeIndexes( (GusTable) table );
             oStream.write( "\n" );
             writePKConstraint( (GusTable) table );
@@ -38,6 +38,9 @@ public interface AssocConverterI {
      * Object is then returned.  As the Object may have other objects that it relies on 
      * (for example, an Association and its Instances), a Vector is returned.  The API
      * of the implementing class should detail the order of the objects within the vector.
+     * The Instances should be read with <code>Association.instanceIterator</code>
+     * rather than <code>getInstances</code>, which makes and keeps every
+     * propogated Instance.
      */
 
     //dtb: maybe make an object that can track different objects (assocs, instances) instead
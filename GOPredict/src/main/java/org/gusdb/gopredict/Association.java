@@ -19,8 +19,12 @@
  */
 package org.gusdb.gopredict;
 
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Vector;
 
 public class Association  {
@@ -46,6 +50,12 @@ public class Association  {
     public static final int UNREVIEWED_ID = 0;
     public static final int REVIEWED_ID = 1;
     public static final int NEEDS_REVIEW_ID = 5;
+
+    /**
+     * Flags kept for each propogated Instance until it is materialized.
+     */
+    private static final byte PROPOGATED_IS_NOT = 1;
+    private static final byte PROPOGATED_DEPRECATED = 2;
     
     
     // ------------------------------------------------------------------
@@ -70,6 +80,19 @@ public class Association  {
      */
     private Vector<Instance> instances;
 
+    /**
+     * Instances cached from primary descendants by <code>cacheDescendantInstances</code>.
+     * Rather than cloning every descendant Instance at every ancestor, each
+     * ancestor keeps a reference to the descendant's Instance and a byte
+     * of flags (the cached copy is never primary, and its 'is not' and
+     * deprecated state are its own).  The copies are only made, after
+     * the Instances in <code>instances</code>, when something asks for the
+     * whole list of Instances or adds another Instance.
+     */
+    private Instance[] propogatedSources;
+    private byte[] propogatedFlags;
+    private int propogatedCount;
+
     /**
      * Object for which this class is a container.
      */
@@ -223,9 +246,43 @@ public class Association  {
     }
 
     public Vector<Instance> getInstances(){
+	materializePropogatedInstances();
 	return instances;
     }
 
+    /**
+     * Returns the number of Instances <code>getInstances</code> would return,
+     * without making the propogated ones.
+     */
+    public int getInstanceCount(){
+	return instances.size() + propogatedCount;
+    }
+
+    /**
+     * Returns the Instances in the order <code>getInstances</code> would,
+     * without making and keeping the propogated ones: each of those is
+     * made when the Iterator reaches it and is not retained, so changes
+     * to it are lost.  Converters that only read the Instances should use
+     * this rather than <code>getInstances</code>.
+     */
+    public Iterator<Instance> instanceIterator(){
+	return new Iterator<Instance>(){
+	    private int next = 0;
+
+	    public boolean hasNext(){
+		return next < getInstanceCount();
+	    }
+
+	    public Instance next(){
+		if (hasNext() == false){
+		    throw new NoSuchElementException();
+		}
+		int i = next++;
+		return i < instances.size() ? instances.get(i) : makePropogatedInstance(i - instances.size());
+	    }
+	};
+    }
+
     /**
      * This accessor represents whether this Association 
      * is the lowest in a branch of the AssociationGraph to 
@@ -275,6 +332,7 @@ public class Association  {
      * Add this Instance to my list of Instances.
      */
     public void addInstance(Instance instance){
+	materializePropogatedInstances();
 	instances.add(instance);
     }
 
@@ -294,8 +352,9 @@ public class Association  {
 	myself = myself.concat(tab + "primary:      " + getIsPrimary() + "\n");
 	myself = myself.concat(tab + "isNot:        " + isNot + " assocId: " + associationId + "\n");
 	myself = myself.concat(tab + "reviewStatus: " + reviewStatusId + " defining:  " + isDefining + "\n");
-	for (int i = 0; i < instances.size(); i++){
-	    Instance nextInstance = instances.get(i);
+	Iterator<Instance> allInstances = instanceIterator();
+	while (allInstances.hasNext()){
+	    Instance nextInstance = allInstances.next();
 	    myself = myself.concat(nextInstance.toString(tab));
 	}
 	for (int i = 0; i < children.size(); i++){
@@ -473,7 +532,7 @@ public class Association  {
 	    Vector<Instance> nextInstanceList = cachedEvidenceSets.get(goId);
 	    for (int i = 0; i < nextInstanceList.size(); i++){
 		Instance instance = nextInstanceList.elementAt(i);
-		instances.add(instance);
+		addInstance(instance);
 	    }
 	}
 	cachedEvidenceSets = new Hashtable<>();
@@ -482,6 +541,7 @@ public class Association  {
 
     /**
      * Returns true if this Association has one or more primary Instances.
+     * (Propogated Instances are never primary.)
      */
     public boolean getIsPrimary(){
 
@@ -507,21 +567,30 @@ public class Association  {
 		deprecate = false;
 	    }
 	}
+	for (int i = 0; i < propogatedCount; i++){
+	    if ((propogatedFlags[i] & PROPOGATED_DEPRECATED) == 0){
+		deprecate = false;
+	    }
+	}
 	setIsDeprecated(deprecate);
     }
 
     /**
-     * Recursive function that determines and sets the 'onIsPath' 
-     * instance variable for this Association and its children.
+     * Determines and sets the 'onIsPath' instance variable for this
+     * Association and its descendants: it is set for every descendant
+     * reachable through a path of Associations that are not 'is not'.
+     * Each descendant is visited once, however many paths lead to it.
      */
     public void initializeOnIsPath(){
 
-	if (getIsNot() == false){
-	    setOnIsPath(true);
-	    
-	    for (int i = 0; i < children.size(); i++){
-		Association nextAssoc = children.get(i);
-		nextAssoc.initializeOnIsPath();
+	IdentityHashMap<Association, Boolean> visited = new IdentityHashMap<>();
+	Vector<Association> stack = new Vector<>();
+	stack.add(this);
+	while (stack.size() > 0){
+	    Association nextAssoc = stack.remove(stack.size() - 1);
+	    if (nextAssoc.getIsNot() == false && visited.put(nextAssoc, Boolean.TRUE) == null){
+		nextAssoc.setOnIsPath(true);
+		stack.addAll(nextAssoc.getChildren());
 	    }
 	}
     }
@@ -574,16 +643,12 @@ public class Association  {
 	    while (descendantGoIds.hasMoreElements()){
 		String nextGoId = descendantGoIds.nextElement();
 		Vector<Instance> descendantInstances = instanceInfoHash.get(nextGoId);
-		Vector<Instance> instancesToCache;
-		if (hasNoIsDescendants() == true){ 
+		boolean noIsDescendants = hasNoIsDescendants();
+		if (noIsDescendants == true){ 
 		    //cache 'is not' instances if have no other 'is' descendants.
-		    instancesToCache = descendantInstances;
 		    setIsNot(true);
 		}
-		else{
-		    instancesToCache = stripIsNotInstances(descendantInstances);
-		}
-		cachedInstances.put(nextGoId, instancesToCache);
+		prepareDescendantInstancesToCache(nextGoId, descendantInstances, noIsDescendants);
 	    }
 	    for (int j = 0; j < parents.size(); j++){
 		Association nextParent = parents.get(j);
@@ -592,9 +657,29 @@ public class Association  {
 	}
     }
 
+    /**
+     * Adds a primary descendant's Instances to the list of Instances that
+     * <code>cacheDescendantInstances</code> will cache.  Used by
+     * <code>propogateInstances</code> and by AssociationGraph.
+     *
+     * @param includeIsNots  Whether to cache 'is not' Instances too; true only
+     *                       when this Association has no 'is' descendants.
+     */
+    public void prepareDescendantInstancesToCache(String descendantGoId, Vector<Instance> descendantInstances,
+						  boolean includeIsNots){
+	if (includeIsNots){
+	    cachedInstances.put(descendantGoId, descendantInstances);
+	}
+	else{
+	    cachedInstances.put(descendantGoId, stripIsNotInstances(descendantInstances));
+	}
+    }
+
     /**
      * Having built up a list of instances to cache, go ahead and do 
      * it.  The cached instances altered so as not to be primary.
+     * They are kept as references to the descendant Instances until
+     * <code>getInstances</code> needs them (see <code>propogatedSources</code>).
      */
     public void cacheDescendantInstances(){
 
@@ -603,39 +688,53 @@ public class Association  {
 	    String nextDescendantId = descendantIds.nextElement();
 	    Vector<Instance> descendantInstances = cachedInstances.get(nextDescendantId);
 	    for (int i = 0; i < descendantInstances.size(); i++){
-		Instance nextInstance = descendantInstances.get(i);
-		Instance newInstance = nextInstance.cloneNotPrimary();
-	        //newInstance.setObject(undef);
-		addInstance(newInstance);
+		addPropogatedInstance(descendantInstances.get(i));
 	    }
 	}
 	cachedInstances.clear();
     }
     
     /**
-     * A recursive method which sets the Association to be defining according to the rules
-     * laid out in AssociationGraph.java (in the setDefiningLeaves method).
+     * Sets this Association and its descendants to be defining according to the rules
+     * laid out in AssociationGraph.java (in the setDefiningLeaves method).  Returns
+     * true if this Association or any of its descendants is defining.
+     *
+     * Descendants are processed children first with an explicit stack, and the
+     * answer for each is remembered, so a descendant shared by several paths
+     * is only examined once.
      */
     public boolean determineAndSetDefining(){
 
-	boolean haveDefiningChildren = false;
-	for (int i = 0; i < children.size(); i++){
-	    Association child = children.get(i);
-	    if (child.determineAndSetDefining() == true){
-		haveDefiningChildren = true;
+	IdentityHashMap<Association, Boolean> haveDefining = new IdentityHashMap<>();
+	Vector<Association> stack = new Vector<>();
+	stack.add(this);
+	while (stack.size() > 0){
+	    Association nextAssoc = stack.lastElement();
+	    if (haveDefining.containsKey(nextAssoc)){
+		stack.remove(stack.size() - 1);
+		continue;
+	    }
+	    Vector<Association> nextChildren = nextAssoc.getChildren();
+	    boolean childrenDone = true;
+	    for (int i = 0; i < nextChildren.size(); i++){
+		if (!haveDefining.containsKey(nextChildren.get(i))){
+		    stack.add(nextChildren.get(i));
+		    childrenDone = false;
+		}
+	    }
+	    if (childrenDone){
+		stack.remove(stack.size() - 1);
+		boolean haveDefiningChildren = false;
+		for (int i = 0; i < nextChildren.size(); i++){
+		    if (haveDefining.get(nextChildren.get(i)).booleanValue()){
+			haveDefiningChildren = true;
+		    }
+		}
+		haveDefining.put(nextAssoc, Boolean.valueOf(haveDefiningChildren ||
+							    nextAssoc.setDefiningIfLeaf()));
 	    }
 	}
-	if (haveDefiningChildren == true){
-	    return true;
-	}
-	if (getIsDeprecated() == true || 
-	    getIsNot() == true ||
-	    getIsPrimary() == false){
-	    
-	    return false;
-	}
-	setIsDefining(true);
-	return true;
+	return haveDefining.get(this).booleanValue();
     }
 
     public void deprecatePredictedInstances(){
@@ -646,6 +745,76 @@ public class Association  {
 		nextInstance.setIsDeprecated(true); 
 	    }
 	}
+	for (int i = 0; i < propogatedCount; i++){
+	    if (propogatedSources[i].getLOEId() == CBIL_PREDICT_LOE){
+		propogatedFlags[i] |= PROPOGATED_DEPRECATED;
+	    }
+	}
+    }
+
+    /**
+     * Returns the state that this Association and its Instances would write
+     * back to their objects: the 'is not', review status, deprecated and
+     * defining flags of the Association and of each Instance, and each
+     * Instance's primary flag and level of evidence.  Two states are equal
+     * (by <code>Arrays.equals</code>) if nothing would be written differently.
+     * The propogated Instances are read from their sources and flags rather
+     * than made, so that comparing states does not undo the savings of
+     * <code>propogatedSources</code>.
+     */
+    int[] getState(){
+
+	int[] state = new int[4 + 3 * getInstanceCount()];
+	state[0] = isNot ? 1 : 0;
+	state[1] = reviewStatusId;
+	state[2] = isDeprecated ? 1 : 0;
+	state[3] = isDefining ? 1 : 0;
+	int next = 4;
+	for (int i = 0; i < instances.size(); i++){
+	    Instance instance = instances.get(i);
+	    state[next++] = (instance.getIsNot() ? 1 : 0) | (instance.getIsDeprecated() ? 2 : 0) |
+		(instance.getIsPrimary() ? 4 : 0);
+	    state[next++] = instance.getReviewStatusId();
+	    state[next++] = instance.getLOEId();
+	}
+	for (int i = 0; i < propogatedCount; i++){
+	    //a propogated Instance is never primary
+	    state[next++] = ((propogatedFlags[i] & PROPOGATED_IS_NOT) != 0 ? 1 : 0) |
+		((propogatedFlags[i] & PROPOGATED_DEPRECATED) != 0 ? 2 : 0);
+	    state[next++] = propogatedSources[i].getReviewStatusId();
+	    state[next++] = propogatedSources[i].getLOEId();
+	}
+	return state;
+    }
+
+    /**
+     * Accessors for PredictionOutcome, which records and replays the
+     * Instances added to an Association by prediction without making the
+     * propogated ones.
+     */
+    int getMadeInstanceCount(){
+	return instances.size();
+    }
+
+    Instance getMadeInstance(int i){
+	return instances.get(i);
+    }
+
+    int getPropogatedCount(){
+	return propogatedCount;
+    }
+
+    Instance getPropogatedSource(int i){
+	return propogatedSources[i];
+    }
+
+    byte getPropogatedFlags(int i){
+	return propogatedFlags[i];
+    }
+
+    void addPropogatedInstance(Instance source, byte flags){
+	addPropogatedInstance(source);
+	propogatedFlags[propogatedCount - 1] = flags;
     }
 
     public void absorbStateFromAssociation(Association assoc){
@@ -682,27 +851,96 @@ public class Association  {
 	this.cachedEvidenceSets = new Hashtable<>();
     }
 
+    /**
+     * Records a non-primary copy of a descendant's Instance without making it.
+     */
+    private void addPropogatedInstance(Instance source){
+
+	if (propogatedSources == null){
+	    propogatedSources = new Instance[4];
+	    propogatedFlags = new byte[4];
+	}
+	else if (propogatedCount == propogatedSources.length){
+	    propogatedSources = Arrays.copyOf(propogatedSources, propogatedCount * 2);
+	    propogatedFlags = Arrays.copyOf(propogatedFlags, propogatedCount * 2);
+	}
+	propogatedSources[propogatedCount] = source;
+	propogatedFlags[propogatedCount] = source.getIsNot() ? PROPOGATED_IS_NOT : 0;
+	propogatedCount++;
+    }
+
+    /**
+     * Makes the Instances recorded by <code>addPropogatedInstance</code>
+     * and appends them to <code>instances</code>.
+     */
+    private void materializePropogatedInstances(){
+
+	for (int i = 0; i < propogatedCount; i++){
+	    instances.add(makePropogatedInstance(i));
+	}
+	propogatedSources = null;
+	propogatedFlags = null;
+	propogatedCount = 0;
+    }
+
+    /**
+     * Makes the i'th Instance recorded by <code>addPropogatedInstance</code>,
+     * exactly as <code>Instance.cloneNotPrimary</code> would have at the
+     * time it was cached.
+     */
+    private Instance makePropogatedInstance(int i){
+
+	Instance newInstance = propogatedSources[i].cloneNotPrimary();
+	newInstance.setIsNot((propogatedFlags[i] & PROPOGATED_IS_NOT) != 0);
+	newInstance.setIsDeprecated((propogatedFlags[i] & PROPOGATED_DEPRECATED) != 0);
+	return newInstance;
+    }
+
     /**
      * Returns true if this Association has no descendants that are not
      * 'is not'.  Used when determining whether 'is not' Instances should
      * be propogated to this Association (which happens if this method 
      * returns true to ensure that all Associations have Instances).
+     * Each descendant is checked at most once.
      */
     private boolean hasNoIsDescendants(){
 
-	if (getIsPrimary() == true && getIsNot() == false){
-	    return false;
-	}//base case
-
-	for (int i = 0; i < children.size(); i++){
-	    Association nextChild = children.get(i);
-	    if (nextChild.hasNoIsDescendants() == false){
+	IdentityHashMap<Association, Boolean> visited = new IdentityHashMap<>();
+	Vector<Association> stack = new Vector<>();
+	stack.add(this);
+	visited.put(this, Boolean.TRUE);
+	while (stack.size() > 0){
+	    Association nextAssoc = stack.remove(stack.size() - 1);
+	    if (nextAssoc.getIsPrimary() == true && nextAssoc.getIsNot() == false){
 		return false;
 	    }
+	    Vector<Association> nextChildren = nextAssoc.getChildren();
+	    for (int i = 0; i < nextChildren.size(); i++){
+		if (visited.put(nextChildren.get(i), Boolean.TRUE) == null){
+		    stack.add(nextChildren.get(i));
+		}
+	    }
 	}
 	return true;
     }
 
+    /**
+     * Sets this Association to be defining, and returns true, if it is primary
+     * and neither deprecated nor 'is not'.  Only called for Associations that
+     * have no defining children.
+     */
+    private boolean setDefiningIfLeaf(){
+
+	if (getIsDeprecated() == true || 
+	    getIsNot() == true ||
+	    getIsPrimary() == false){
+	    
+	    return false;
+	}
+	setIsDefining(true);
+	return true;
+    }
+
     /**
      * Given an instance list, remove all of those that are 'is not'.
      */
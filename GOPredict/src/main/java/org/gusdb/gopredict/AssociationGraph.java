@@ -17,7 +17,9 @@
  * AssociationGraph knows which association in its set is 
  * with the root of the Molecular Function branch of the GO     
  * Ontology, thus forming a complete graph that can be traversed 
- * or searched recursively.
+ * or searched recursively.  If the GoGraph holds several branches,
+ * the AssociationGraph knows the root Association of each branch
+ * its Associations are in, and predicts across all of them.
 
  *
  * Created: Tue Jul 15 16:55:30 2003
@@ -26,8 +28,12 @@
  */
 package org.gusdb.gopredict;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Vector;
 
 
@@ -40,22 +46,25 @@ public class AssociationGraph  {
     // ------------------------------------------------------------------
     
     /**
-     * The root Association for this AssociationGraph
+     * The root Associations for this AssociationGraph: one for the root of
+     * each branch of the GoGraph that the Associations are in, in
+     * <code>GoGraph.getBranchRoots</code> order.  For a GoGraph of one
+     * branch there is one, the root of the Molecular Function branch.
      */
-    private Association rootAssoc;
+    private Vector<Association> rootAssocs;
 
     /**
      * The Hashtable that tracks all Associations; keyed on the GO Ids (i.e. GO:XXXXXX) 
      * of the Go Term of each Association
      */
     private Hashtable<String, Association> associationHash;
-    
+
     /**
-     * Hashtable that tracks Associations that have been added in the graftAssociation
-     * method to prevent a duplicate Association being added when there are multiple
-     * paths to that Association from a descendant.
+     * The state (see Association.getState) of each Association that came
+     * from an application object, as it was when this AssociationGraph was
+     * built; used to find the Associations that have changed since.
      */
-    private Hashtable<Association, String> alreadyAdded;
+    private IdentityHashMap<Association, int[]> initialStates;
      
     
     // ------------------------------------------------------------------
@@ -70,6 +79,7 @@ public class AssociationGraph  {
 	init();
 	growBasicGraph(assoc);
 	setRoot(goGraph);
+	recordInitialStates();
 
     }
 
@@ -84,15 +94,17 @@ public class AssociationGraph  {
 	    
 	    //create initial AssociationGraph with the first association
 	    growBasicGraph(firstAssoc);
-	    setRoot(goGraph);  
-	    //one difference from perl version; perl uses other constructor which sets root implicitly
 	    Vector<Association> remainingAssociations = new Vector<>();
 	    for (int i = 1; i < assocList.size(); i++){
 		remainingAssociations.add(assocList.get(i));
 	    }
 	    //add the rest with addAssociations method
-	    addAssociations(remainingAssociations, goGraph);
+	    addAssociations(remainingAssociations);
+	    //one difference from perl version; perl uses other constructor which sets root implicitly.
+	    //Set after all are added, as they may be in more than one GO branch
+	    setRoot(goGraph);  
 	}
+	recordInitialStates();
     }
 
     // ------------------------------------------------------------------
@@ -143,7 +155,9 @@ public class AssociationGraph  {
      *    indicating needs to be rereviewed.   
      */
     public void adjustIsNots(){
-	rootAssoc.initializeOnIsPath();
+	for (int i = 0; i < rootAssocs.size(); i++){
+	    rootAssocs.get(i).initializeOnIsPath();
+	}
 	Enumeration<Association> assocEnum = getAsList();
 	while (assocEnum.hasMoreElements()){
 	    Association nextAssoc = assocEnum.nextElement();
@@ -159,7 +173,9 @@ public class AssociationGraph  {
      * that comprise the graph.
      */
     public void setDefiningLeaves(){
-	rootAssoc.determineAndSetDefining();
+	for (int i = 0; i < rootAssocs.size(); i++){
+	    rootAssocs.get(i).determineAndSetDefining();
+	}
     }
 
     /* Copies all primary instances for each primary Association Ap
@@ -172,9 +188,21 @@ public class AssociationGraph  {
      *    this case, B is set to 'is not' as well.  
      * 4. Once cached, the Instance is no longer primary.  It gets its 
      *    own GUS Instance object and has no Evidence.
+     *
+     * This gives the same result as calling Association.propogateInstances
+     * for each primary Association in turn, but visits each ancestor once,
+     * in a single pass from the leaves up, rather than once per path.  Each
+     * Association accumulates the set of primary descendants whose Instances
+     * reach it and passes that set on to its parents.  An 'is not' Association
+     * passes nothing on.  An Association with no 'is' descendants is set to
+     * 'is not' by the first primary descendant to reach it, so it caches and
+     * passes on only that descendant, the first in getAsList() order.
      */
     public void cachePrimaryInstances(){
 	
+	Vector<Association> primaryAssocs = new Vector<>();
+	Vector<Vector<Instance>> primaryInstanceLists = new Vector<>();
+	IdentityHashMap<Association, Integer> primaryRanks = new IdentityHashMap<>();
 	Enumeration<Association> assocEnum = getAsList();
 	while (assocEnum.hasMoreElements()){
 	    Association nextAssoc = assocEnum.nextElement();
@@ -194,16 +222,61 @@ public class AssociationGraph  {
 			instanceList.add(nextInstance);
 		    }
 		}
-		//initialize hashtable of instances to cache
-		Hashtable<String,Vector<Instance>> instanceInfoHash = new Hashtable<>();
-		instanceInfoHash.put(nextAssoc.getGoTerm().getRealId(), instanceList);
+		primaryRanks.put(nextAssoc, Integer.valueOf(primaryAssocs.size()));
+		primaryAssocs.add(nextAssoc);
+		primaryInstanceLists.add(instanceList);
+	    }
+	}
+
+	//bits are ranks of primary descendants whose instances reach each Association
+	IdentityHashMap<Association, BitSet> reaching = new IdentityHashMap<>();
+	IdentityHashMap<Association, Boolean> noIsDescendants = new IdentityHashMap<>();
+	Vector<Association> leavesFirst = getClosureInOrder(primaryAssocs, true);
+	for (int i = 0; i < leavesFirst.size(); i++){
+	    Association nextAssoc = leavesFirst.get(i);
+	    BitSet passing = reaching.remove(nextAssoc);
+
+	    if (passing != null){
+		if (nextAssoc.getIsNot() == true){ //Do not propogate or add 'is not' instances
+		    passing = null;
+		}
+		else{
+		    boolean includeIsNots = hasNoIsDescendants(nextAssoc, noIsDescendants);
+		    if (includeIsNots){
+			//first descendant to arrive sets this Association to 'is not' and blocks the rest
+			int first = passing.nextSetBit(0);
+			passing.clear();
+			passing.set(first);
+			nextAssoc.setIsNot(true);
+		    }
+		    for (int rank = passing.nextSetBit(0); rank >= 0; rank = passing.nextSetBit(rank + 1)){
+			nextAssoc.prepareDescendantInstancesToCache(primaryAssocs.get(rank).getGoTerm().getRealId(),
+								    primaryInstanceLists.get(rank), includeIsNots);
+		    }
+		}
+	    }
+
+	    //primary Associations pass their own instances on whether or not they are 'is not'
+	    Integer rank = primaryRanks.get(nextAssoc);
+	    if (rank != null){
+		passing = (passing == null) ? new BitSet() : passing;
+		passing.set(rank.intValue());
+	    }
+	    if (passing != null){
 		Vector<Association> parents = nextAssoc.getParents();
 		for (int j = 0; j < parents.size(); j++){
 		    Association parent = parents.get(j);
-		    parent.propogateInstances(instanceInfoHash);
+		    BitSet parentReaching = reaching.get(parent);
+		    if (parentReaching == null){
+			reaching.put(parent, (BitSet)passing.clone());
+		    }
+		    else{
+			parentReaching.or(passing);
+		    }
 		}
 	    }
 	}
+
 	Enumeration<Association> assocEnumCache = getAsList();
 	while (assocEnumCache.hasMoreElements()){
 	    Association nextAssoc = assocEnumCache.nextElement();
@@ -212,18 +285,67 @@ public class AssociationGraph  {
 	}
     }
     
+    /**
+     * Returns the Associations that must be written back: those created by
+     * this AssociationGraph (which have no application object) and those
+     * whose state, or whose Instances' state, has changed since the
+     * AssociationGraph was built.
+     */
+    public Vector<Association> getChangedAssociations(){
+
+	Vector<Association> changed = new Vector<>();
+	Enumeration<Association> assocEnum = getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    int[] initialState = initialStates.get(nextAssoc);
+	    if (nextAssoc.getObject() == null || initialState == null ||
+		!Arrays.equals(initialState, nextAssoc.getState())){
+		changed.add(nextAssoc);
+	    }
+	}
+	return changed;
+    }
+
+    /**
+     * Hands all changed Associations (see <code>getChangedAssociations</code>),
+     * with their Instances, to <code>converter</code> in one call and returns
+     * the updated objects, in the same order.
+     */
+    public Vector<Object> exportChangedAssociations(BulkAssocConverterI converter){
+
+	Vector<Association> changed = getChangedAssociations();
+	if (changed.size() == 0){
+	    return new Vector<>();
+	}
+	return converter.updateAndGetObjectsFromAssocs(changed);
+    }
+
     /**
      * Return the Association whose GO Term is the root of the GO Molecular 
-     * Function branch.
+     * Function branch, or, if this AssociationGraph has no Associations in
+     * that branch, the root of the first other branch it is in (see
+     * <code>getRoots</code>).  Returns null if it has no Associations.
      */
     public Association getRoot(){
-	return rootAssoc;
+	return (rootAssocs.size() == 0) ? null : rootAssocs.get(0);
+    }
+
+    /**
+     * Return the Associations whose GO Terms are the roots of the GO branches
+     * that this AssociationGraph's Associations are in.
+     */
+    public Vector<Association> getRoots(){
+	return rootAssocs;
     }
     
     @Override
     public String toString(){
 	
-	return "AssociationGraph: " + rootAssoc.toString("\t");
+	String myself = "AssociationGraph: ";
+	for (int i = 0; i < rootAssocs.size(); i++){
+	    myself = myself.concat(rootAssocs.get(i).toString("\t"));
+	}
+	return myself;
     }
 
     public void addGoTerms(Vector<Integer> addedGoIds, GoGraph goGraph) throws IllegalHierarchyException{
@@ -239,21 +361,21 @@ public class AssociationGraph  {
 
 	    newAssociations.add(assoc);
 	}
-	if (rootAssoc == null){  //AssociationGraph currently has no entries in it; create a new one
+	if (rootAssocs.size() == 0){  //AssociationGraph currently has no entries in it; create a new one
 	    growBasicGraph(newAssociations.get(0));
-	    setRoot(goGraph);
 	    if (newAssociations.size() > 1){
 		Vector<Association> remainingAssociations = new Vector<>();
 		for (int i = 1; i < newAssociations.size(); i++){
 		    remainingAssociations.add(newAssociations.get(i));
 		}
 		//add the rest with addAssociations method
-		addAssociations(remainingAssociations, goGraph);
+		addAssociations(remainingAssociations);
 	    }
 	}
 	else{  //simply add associations onto current graph
-	    addAssociations(newAssociations, goGraph);
+	    addAssociations(newAssociations);
 	}
+	setRoot(goGraph);  //new associations may be in another GO branch
 	for (int i = 0; i < newAssociations.size(); i++){
 	    Association nextNewAssociation = newAssociations.elementAt(i);
 	    nextNewAssociation.propogateVerifiedUp(nextNewAssociation.getGoTerm().getRealId());
@@ -372,7 +494,8 @@ public class AssociationGraph  {
 
     /**
      * Set the Association that is to the root of the Molecular Function branch of 
-     * the GO Hierarchy as the root Association of this AssociationGraph.
+     * the GO Hierarchy as the root Association of this AssociationGraph, along with
+     * the Associations to the roots of any other GO branches in the GoGraph.
      */
     private void setRoot(GoGraph goGraph){
 	if (goGraph == null){
@@ -385,10 +508,14 @@ public class AssociationGraph  {
 	    System.err.println("no root real id");
 	}
 
-	String rootGoId = goGraph.getRootTerm().getRealId();
-	Association assocForRoot = find(rootGoId);
-	//exception if not found
-	rootAssoc = assocForRoot;
+	rootAssocs.clear();
+	Vector<GoTerm> branchRoots = goGraph.getBranchRoots();
+	for (int i = 0; i < branchRoots.size(); i++){
+	    Association assocForRoot = find(branchRoots.get(i).getRealId());
+	    if (assocForRoot != null){  //no Associations in this branch
+		rootAssocs.add(assocForRoot);
+	    }
+	}
     }
 
     /**
@@ -416,24 +543,52 @@ public class AssociationGraph  {
      * Simple method to initialize instance objects.
      */
     private void init(){
-	alreadyAdded = new Hashtable<>();
 	associationHash = new Hashtable<>();
+	initialStates = new IdentityHashMap<>();
+	rootAssocs = new Vector<>();
     }
     
+    private void recordInitialStates(){
+
+	Enumeration<Association> assocEnum = getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    if (nextAssoc.getObject() != null){
+		initialStates.put(nextAssoc, nextAssoc.getState());
+	    }
+	}
+    }
+
     /**
-     * Given a list of Associations, add them to this AssociationGraph.
+     * Given a list of Associations, add them to this AssociationGraph.  If an
+     * Association's GO Term is already in the graph, its Instances (and, if it
+     * contains an object, its state) are merged into the existing Association.
+     * Otherwise it is added and linked to the Associations for the parents of
+     * its GO Term, creating those as necessary; since every Association in the
+     * graph already has all of its ancestors, the climb towards the root stops
+     * at the first ancestor found, so the cost is proportional to the number
+     * of Associations added.
      */
-    private void addAssociations(Vector<Association> assocList, GoGraph goGraph){
+    private void addAssociations(Vector<Association> assocList){
 	
-	Association nextAssoc;
 	for(int i = 0; i < assocList.size(); i++){
-	    nextAssoc = assocList.get(i);
-	    //create separate AssociationGraph with the next Association and graft it 
-	    //to this AssociationGraph.
-	    @SuppressWarnings("unused")
-	    AssociationGraph tempAssocGraph = new AssociationGraph(nextAssoc, goGraph);
-	    graftAssociation(nextAssoc, null);
-	    //not worrying about memory leaks with temporary Association Graphs, for now
+	    Association nextAssoc = assocList.get(i);
+	    Association prevAssoc = find(nextAssoc.getGoTerm().getRealId());
+
+	    if (prevAssoc == null){
+		growBasicGraph(nextAssoc);
+	    }
+	    else if (prevAssoc != nextAssoc){
+		//assoc is in there but with incorrect state; it exists only by virtue
+		//of a descendant association
+		Vector<Instance> instances = nextAssoc.getInstances();
+		for (int j = 0; j < instances.size(); j++){
+		    prevAssoc.addInstance(instances.get(j));
+		}
+		if (nextAssoc.getObject() != null){
+		    prevAssoc.absorbStateFromAssociation(nextAssoc);
+		}
+	    }
 	}
     }
 
@@ -442,18 +597,16 @@ public class AssociationGraph  {
      * on the path to the root to also be manually reviewed and verified, and then propogate
      * the evidence used to verify the Association to its ancestors. Throws an 
      * Exception if a rejected Association is encountered on the path to the root.
+     *
+     * All evidence sets are applied together: each ancestor is visited once however
+     * many verified descendants it has and however many paths lead to it.
      */
     private void propogateVerifiedEvidenceUp(Vector<AssocEvidenceSet> verifiedAssocEvidenceSets, GoGraph goGraph) 
 	throws IllegalHierarchyException{
 
-	for (int i = 0; i < verifiedAssocEvidenceSets.size(); i++){
-	    AssocEvidenceSet nextAssocEvidenceSet = verifiedAssocEvidenceSets.elementAt(i);
-	    String realGoId = goGraph.getGoTermFromGusGoId(nextAssocEvidenceSet.getModifiedGoTermId()).getRealId();
-	    Association verifiedAssoc = find(realGoId);
-
-	    verifiedAssoc.propogateVerifiedUp(realGoId);
-	    verifiedAssoc.propogateVerifiedInstancesUp(nextAssocEvidenceSet);
-	}
+	Vector<Association> verifiedAssocs = findEvidenceSetAssocs(verifiedAssocEvidenceSets, goGraph);
+	propogateVerifiedStatusUp(verifiedAssocs);
+	prepareEvidenceSetInstances(verifiedAssocEvidenceSets, verifiedAssocs, true, false);
 	cacheAllPropogatedInstances();
     }
 
@@ -475,13 +628,10 @@ public class AssociationGraph  {
     private void propogateRejectedEvidenceDown(Vector<AssocEvidenceSet> rejectedAssocEvidenceSets, 
 					       boolean ignoreVerifiedDescendants,
 					       GoGraph goGraph) throws IllegalHierarchyException{
-	for (int i = 0; i < rejectedAssocEvidenceSets.size(); i++){
-	    AssocEvidenceSet nextAssocEvidenceSet = rejectedAssocEvidenceSets.elementAt(i);
-	    String realGoId = goGraph.getGoTermFromGusGoId(nextAssocEvidenceSet.getModifiedGoTermId()).getRealId();
-	    Association rejectedAssoc = find(realGoId);
-	    rejectedAssoc.propogateIsNotDown(ignoreVerifiedDescendants, realGoId);
-	    rejectedAssoc.propogateRejectedInstancesDown(nextAssocEvidenceSet);
-	}
+
+	Vector<Association> rejectedAssocs = findEvidenceSetAssocs(rejectedAssocEvidenceSets, goGraph);
+	propogateIsNotDown(rejectedAssocs, ignoreVerifiedDescendants);
+	prepareEvidenceSetInstances(rejectedAssocEvidenceSets, rejectedAssocs, false, false);
 	cacheAllPropogatedInstances();
     }
 
@@ -491,13 +641,210 @@ public class AssociationGraph  {
      */
     private void propogateRejectedEvidenceUp(Vector<AssocEvidenceSet> rejectedAssocEvidenceSets, GoGraph goGraph){
 
-	for (int i = 0; i < rejectedAssocEvidenceSets.size(); i++){
-	    AssocEvidenceSet nextAssocEvidenceSet = rejectedAssocEvidenceSets.elementAt(i);
+	Vector<Association> rejectedAssocs = findEvidenceSetAssocs(rejectedAssocEvidenceSets, goGraph);
+	prepareEvidenceSetInstances(rejectedAssocEvidenceSets, rejectedAssocs, true, true);
+	cacheAllPropogatedInstances();
+    }
+
+    /**
+     * Returns the Association for the GO Term modified by each evidence set.
+     */
+    private Vector<Association> findEvidenceSetAssocs(Vector<AssocEvidenceSet> assocEvidenceSets, GoGraph goGraph){
+
+	Vector<Association> assocs = new Vector<>(assocEvidenceSets.size());
+	for (int i = 0; i < assocEvidenceSets.size(); i++){
+	    AssocEvidenceSet nextAssocEvidenceSet = assocEvidenceSets.elementAt(i);
 	    String realGoId = goGraph.getGoTermFromGusGoId(nextAssocEvidenceSet.getModifiedGoTermId()).getRealId();
-	    Association rejectedAssoc = find(realGoId);
-	    rejectedAssoc.propogateRejectedInstancesUp(nextAssocEvidenceSet);
+	    assocs.add(find(realGoId));
+	}
+	return assocs;
+    }
+
+    /**
+     * Does the work of Association.propogateVerifiedUp for all of <code>verifiedAssocs</code>
+     * at once, depth first with an explicit stack.  Ancestors already reached from
+     * an earlier verified Association have had all of their own ancestors checked,
+     * so they are not climbed again; ancestors are checked in the same order, so the
+     * same Exception is thrown.
+     */
+    private void propogateVerifiedStatusUp(Vector<Association> verifiedAssocs) throws IllegalHierarchyException{
+
+	IdentityHashMap<Association, Boolean> visited = new IdentityHashMap<>();
+	Vector<Iterator<Association>> stack = new Vector<>();
+	for (int i = 0; i < verifiedAssocs.size(); i++){
+	    Association verifiedAssoc = verifiedAssocs.get(i);
+	    if (visited.put(verifiedAssoc, Boolean.TRUE) != null){
+		continue;
+	    }
+	    String initialRealGoId = verifiedAssoc.getGoTerm().getRealId();
+	    setVerified(verifiedAssoc);
+	    stack.add(verifiedAssoc.getParents().iterator());
+	    while (stack.size() > 0){
+		Iterator<Association> parents = stack.lastElement();
+		if (!parents.hasNext()){
+		    stack.remove(stack.size() - 1);
+		    continue;
+		}
+		Association nextParent = parents.next();
+		if (nextParent.getReviewStatusId() != Association.UNREVIEWED_ID && nextParent.getIsNot() == true){
+		    System.err.println("Association: new hierarchy exception");
+		    String badGoId = nextParent.getGoTerm().getRealId();
+		    String error = "Error:  User attempted to assign an Association (GO ID: " + badGoId + ") to be 'is not' as the ancestor of an Association (GO ID: " + initialRealGoId + ") that is manually reviewed and verified";
+		    throw new IllegalHierarchyException(error);
+		}
+		if (visited.put(nextParent, Boolean.TRUE) == null){
+		    setVerified(nextParent);
+		    stack.add(nextParent.getParents().iterator());
+		}
+	    }
+	}
+    }
+
+    private void setVerified(Association assoc){
+	if (assoc.getReviewStatusId() != Association.REVIEWED_ID){
+	    assoc.setReviewStatusId(Association.REVIEWED_ID);
+	    assoc.setIsNot(false);
+	}
+    }
+
+    /**
+     * Does the work of Association.propogateIsNotDown for all of <code>rejectedAssocs</code>
+     * at once, in the same way as <code>propogateVerifiedStatusUp</code>.
+     */
+    private void propogateIsNotDown(Vector<Association> rejectedAssocs, boolean ignoreVerifiedDescendants)
+	throws IllegalHierarchyException{
+
+	IdentityHashMap<Association, Boolean> visited = new IdentityHashMap<>();
+	Vector<Iterator<Association>> stack = new Vector<>();
+	for (int i = 0; i < rejectedAssocs.size(); i++){
+	    Association rejectedAssoc = rejectedAssocs.get(i);
+	    if (visited.put(rejectedAssoc, Boolean.TRUE) != null){
+		continue;
+	    }
+	    String initialRealGoId = rejectedAssoc.getGoTerm().getRealId();
+	    setRejected(rejectedAssoc);
+	    stack.add(rejectedAssoc.getChildren().iterator());
+	    while (stack.size() > 0){
+		Iterator<Association> children = stack.lastElement();
+		if (!children.hasNext()){
+		    stack.remove(stack.size() - 1);
+		    continue;
+		}
+		Association nextChild = children.next();
+		if (ignoreVerifiedDescendants == false &&
+		    nextChild.getReviewStatusId() != Association.UNREVIEWED_ID &&
+		    nextChild.getIsNot() != true){
+		    System.err.println("PropogateIsNotDown: throwing new illegal hierarchy exception");
+		    String badGoId = nextChild.getGoTerm().getRealId();
+		    String error = "Error:  User attempted to assign an Association (GO ID: " + initialRealGoId + ") to be 'is not' as the ancestor of an Association (GO ID: " + badGoId + ") that is manually reviewed and verified";
+		    throw new IllegalHierarchyException(error);
+		}
+		if (visited.put(nextChild, Boolean.TRUE) == null){
+		    setRejected(nextChild);
+		    stack.add(nextChild.getChildren().iterator());
+		}
+	    }
+	}
+    }
+
+    private void setRejected(Association assoc){
+	if (assoc.getReviewStatusId() == Association.UNREVIEWED_ID){
+	    System.err.println ("propogating is not = true to " + assoc.getGoTerm().getRealId());
+	    assoc.setReviewStatusId(Association.REVIEWED_ID);
+	    assoc.setIsNot(true);
+	}
+    }
+
+    /**
+     * Prepares copies of the Instances of each evidence set for caching at the
+     * ancestors (<code>upwards</code>) or descendants of the Association it
+     * modifies, as Association.propogateVerifiedInstancesUp,
+     * propogateRejectedInstancesDown and propogateRejectedInstancesUp do for
+     * one evidence set.  The closure of all the Associations is walked once in
+     * topological order, passing on the set of evidence sets that reach each
+     * Association, so each Association gets one copy of each evidence set that
+     * reaches it however many paths lead there.  Copies are prepared in
+     * evidence set order.
+     *
+     * @param toFirstVerified  If true, evidence sets stop at (and are only
+     *                         prepared at) the first verified Association on
+     *                         each path, and the copies are marked as coming
+     *                         from a rejected child.
+     */
+    private void prepareEvidenceSetInstances(Vector<AssocEvidenceSet> assocEvidenceSets, Vector<Association> assocs,
+					     boolean upwards, boolean toFirstVerified){
+
+	//bits are the indexes of the evidence sets that start at or reach each Association
+	IdentityHashMap<Association, BitSet> starting = new IdentityHashMap<>();
+	for (int i = 0; i < assocs.size(); i++){
+	    BitSet bits = starting.get(assocs.get(i));
+	    if (bits == null){
+		bits = new BitSet();
+		starting.put(assocs.get(i), bits);
+	    }
+	    bits.set(i);
+	}
+	IdentityHashMap<Association, BitSet> reaching = new IdentityHashMap<>();
+
+	Vector<Association> ordered = getClosureInOrder(assocs, upwards);
+	for (int i = 0; i < ordered.size(); i++){
+	    Association nextAssoc = ordered.get(i);
+	    BitSet passing = reaching.remove(nextAssoc);
+
+	    if (passing != null){
+		boolean verified = (nextAssoc.getReviewStatusId() != Association.UNREVIEWED_ID &&
+				    nextAssoc.getIsNot() != true);
+		if (toFirstVerified == false || verified){
+		    for (int set = passing.nextSetBit(0); set >= 0; set = passing.nextSetBit(set + 1)){
+			AssocEvidenceSet assocEvidenceSet = assocEvidenceSets.get(set);
+			Vector<Instance> evidenceSetInstances = assocEvidenceSet.getInstances();
+			if (toFirstVerified && evidenceSetInstances.size() == 0){
+			    //propogateRejectedInstancesUp only prepares Instances it has, so an
+			    //empty set does not replace another set for the same GO Term
+			    continue;
+			}
+			Vector<Instance> processedInstances = new Vector<>(evidenceSetInstances.size());
+			for (int j = 0; j < evidenceSetInstances.size(); j++){
+			    Instance nextInstance = evidenceSetInstances.elementAt(j);
+			    Instance copiedInstance = nextInstance.cloneInstance();
+			    copiedInstance.setEvidenceObject(nextInstance.getEvidenceObject());
+			    if (toFirstVerified){
+				copiedInstance.setIsFromRejectedChild();
+				copiedInstance.setIsNot(false);
+			    }
+			    processedInstances.add(copiedInstance);
+			}
+			nextAssoc.prepareInstancesToCache(assocEvidenceSet.getModifiedGoTermId(), processedInstances);
+		    }
+		    if (toFirstVerified){
+			passing = null;
+		    }
+		}
+	    }
+
+	    BitSet own = starting.get(nextAssoc);
+	    if (own != null){
+		if (passing == null){
+		    passing = own;
+		}
+		else{
+		    passing.or(own);
+		}
+	    }
+	    if (passing != null){
+		Vector<Association> links = upwards ? nextAssoc.getParents() : nextAssoc.getChildren();
+		for (int j = 0; j < links.size(); j++){
+		    Association next = links.get(j);
+		    BitSet nextReaching = reaching.get(next);
+		    if (nextReaching == null){
+			reaching.put(next, (BitSet)passing.clone());
+		    }
+		    else{
+			nextReaching.or(passing);
+		    }
+		}
+	    }
 	}
-	cacheAllPropogatedInstances();
     }
 
     private void cacheAllPropogatedInstances(){
@@ -509,56 +856,98 @@ public class AssociationGraph  {
 	}
     }
 
-    private void graftAssociation(Association assoc, Association childAssoc){
-	
-	String realGoId = assoc.getGoTerm().getRealId();
-
-	//determine if the Association to be grafted already exists in this AssociationGraph
-	Association prevAssoc = find(realGoId);
-	
-	//if the same Association object already exists, return here.
-	if (prevAssoc == assoc &&
-	    prevAssoc.getGoTerm().getRealId().equals(assoc.getGoTerm().getRealId())){
-	    return;
-	}
-
-	//if the Association already exists in this AssociationGraph, and the child's
-	//link has not been made with it, then make the link (replacing the parent
-	//in the temporary AssociationGraph with the parent in this AssociationGraph)
-	if (childAssoc != null && prevAssoc != null){
-	    childAssoc.replaceParent(prevAssoc);
-	}
-
-	//check to see if this Association is already in this AssociationGraph
-	//(note:  this is the way it was in the perl version; I think there's a good
-	//reason we're not using find() to do this but can't remember right now)
-	// FIXME: This is broken; looking up String value in a map with Association keys
-	if (alreadyAdded.get(assoc.getGoTerm().getRealId()) != null){
-	    return;
-	}
-	alreadyAdded.put(assoc, new String("1"));
-	Association needsLink = null;
-	if (prevAssoc != null){  
-	    //assoc is in there but with incorrect state; it exists only by virtue
-	    //of a descendant association
-	    
-	    Vector<Instance> instances = assoc.getInstances();
-	    for (int i = 0; i < instances.size(); i++){
-		prevAssoc.addInstance(instances.get(i));
+    /**
+     * Returns the given Associations and all of their ancestors (if
+     * <code>upwards</code>) or descendants, ordered so that every Association
+     * comes before all of its parents (or children).
+     */
+    private Vector<Association> getClosureInOrder(Vector<Association> assocs, boolean upwards){
+
+	//count, for each Association in the closure, the links that lead to it
+	IdentityHashMap<Association, Integer> pendingLinks = new IdentityHashMap<>();
+	Vector<Association> stack = new Vector<>();
+	for (int i = 0; i < assocs.size(); i++){
+	    if (!pendingLinks.containsKey(assocs.get(i))){
+		pendingLinks.put(assocs.get(i), Integer.valueOf(0));
+		stack.add(assocs.get(i));
+	    }
+	}
+	while (stack.size() > 0){
+	    Association nextAssoc = stack.remove(stack.size() - 1);
+	    Vector<Association> links = upwards ? nextAssoc.getParents() : nextAssoc.getChildren();
+	    for (int j = 0; j < links.size(); j++){
+		Association next = links.get(j);
+		Integer pending = pendingLinks.get(next);
+		if (pending == null){
+		    stack.add(next);
+		    pendingLinks.put(next, Integer.valueOf(1));
+		}
+		else{
+		    pendingLinks.put(next, Integer.valueOf(pending.intValue() + 1));
+		}
 	    }
-	    if (assoc.getObject() != null){
-		prevAssoc.absorbStateFromAssociation(assoc);
+	}
+
+	Vector<Association> ordered = new Vector<>(pendingLinks.size());
+	for (Association assoc : pendingLinks.keySet()){
+	    if (pendingLinks.get(assoc).intValue() == 0){
+		ordered.add(assoc);
 	    }
 	}
-	else{
-	    setAssocByRealGoId(assoc);
-	    needsLink = assoc;
+	for (int i = 0; i < ordered.size(); i++){
+	    Vector<Association> links = upwards ? ordered.get(i).getParents() : ordered.get(i).getChildren();
+	    for (int j = 0; j < links.size(); j++){
+		Association next = links.get(j);
+		int pending = pendingLinks.get(next).intValue() - 1;
+		pendingLinks.put(next, Integer.valueOf(pending));
+		if (pending == 0){
+		    ordered.add(next);
+		}
+	    }
 	}
-	Vector<Association> parents = assoc.getParents();
-	//do the same for all parents; pass current assoc if a relationship needs to be created
-	for (int i = 0; i < parents.size(); i ++){
-	    graftAssociation(parents.get(i), needsLink);
+	return ordered;
+    }
+
+    /**
+     * Returns true if <code>assoc</code> has no descendants that are primary and
+     * 'is' (see Association.hasNoIsDescendants), remembering the answer for
+     * every Association checked so that shared descendants are checked once.
+     * Descendants are processed children first with an explicit stack.
+     */
+    private boolean hasNoIsDescendants(Association assoc, IdentityHashMap<Association, Boolean> known){
+
+	Vector<Association> stack = new Vector<>();
+	stack.add(assoc);
+	while (stack.size() > 0){
+	    Association nextAssoc = stack.lastElement();
+	    if (known.containsKey(nextAssoc)){
+		stack.remove(stack.size() - 1);
+		continue;
+	    }
+	    if (nextAssoc.getIsPrimary() == true && nextAssoc.getIsNot() == false){
+		stack.remove(stack.size() - 1);
+		known.put(nextAssoc, Boolean.FALSE);
+		continue;
+	    }
+	    Vector<Association> children = nextAssoc.getChildren();
+	    boolean childrenDone = true;
+	    boolean noIs = true;
+	    for (int i = 0; i < children.size(); i++){
+		Boolean childNoIs = known.get(children.get(i));
+		if (childNoIs == null){
+		    stack.add(children.get(i));
+		    childrenDone = false;
+		}
+		else if (childNoIs.booleanValue() == false){
+		    noIs = false;
+		}
+	    }
+	    if (childrenDone || noIs == false){
+		stack.remove(stack.size() - 1);
+		known.put(nextAssoc, Boolean.valueOf(noIs));
+	    }
 	}
+	return known.get(assoc).booleanValue();
     }
 
 }
@@ -0,0 +1,37 @@
+package org.gusdb.gopredict;
+
+import java.util.Vector;
+
+/**
+ * BulkAssocConverterI.java
+ *
+ * An AssocConverterI that also converts a set of objects at a time, so
+ * that an implementation backed by GUS tables can read or submit all of
+ * them with a few batched statements rather than one per Association.
+ *
+ * GoPredictionEngine uses the bulk methods when its converter implements
+ * this interface, calling each once for all of the gene products it is
+ * given; <code>AssociationGraph.exportChangedAssociations</code> hands a
+ * single AssociationGraph's changed Associations over in one call.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+public interface BulkAssocConverterI extends AssocConverterI {
+
+    /**
+     * As <code>createAssociationFromObject</code>, for each of <code>objects</code>;
+     * the returned Vector has the Association for each object at the same position.
+     */
+    public Vector<Association> createAssociationsFromObjects(Vector<Object> objects);
+
+    /**
+     * As <code>updateAndGetObjectFromAssoc</code>, for each of <code>assocs</code>
+     * (with their Instances); the returned Vector has the Object for each
+     * Association at the same position.  Implementations should read the
+     * Instances with <code>Association.instanceIterator</code>, which does
+     * not keep a copy of every propogated Instance at every Association.
+     */
+    public Vector<Object> updateAndGetObjectsFromAssocs(Vector<Association> assocs);
+
+}
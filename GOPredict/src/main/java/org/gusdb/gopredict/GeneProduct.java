@@ -0,0 +1,147 @@
+/**
+ * GeneProduct.java
+ *
+ * The input and output of GoPredictionEngine for one gene product (for
+ * instance, a protein): the application objects for its existing and newly
+ * predicted Associations, any GO Terms an annotator has added, verified or
+ * rejected, and after prediction the resulting AssociationGraph and the
+ * objects returned for it by the AssocConverterI.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.util.Vector;
+
+public class GeneProduct {
+
+    // ------------------------------------------------------------------
+    // Instance Variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Application identifier for this gene product; not used by GOPredict.
+     */
+    private Object id;
+
+    /**
+     * Objects to be converted to Associations with
+     * <code>AssocConverterI.createAssociationFromObject</code>.
+     */
+    private Vector<Object> assocObjects;
+
+    /**
+     * Arguments for the corresponding AssociationGraph methods.
+     */
+    private Vector<Integer> addedGoIds;
+    private Vector<AssocEvidenceSet> verifiedAssocEvidenceSets;
+    private Vector<AssocEvidenceSet> rejectedAssocEvidenceSets;
+
+    /**
+     * Results of prediction: the Associations converted from <code>assocObjects</code>,
+     * the AssociationGraph built from them and the converted-back objects.
+     */
+    private Vector<Association> associations;
+    private AssociationGraph associationGraph;
+    private Vector<Object> updatedObjects;
+    private Exception error;
+
+    // ------------------------------------------------------------------
+    // Constructor
+    // ------------------------------------------------------------------
+
+    public GeneProduct(Object id){
+	this.id = id;
+	assocObjects = new Vector<>();
+	addedGoIds = new Vector<>();
+	verifiedAssocEvidenceSets = new Vector<>();
+	rejectedAssocEvidenceSets = new Vector<>();
+	updatedObjects = new Vector<>();
+    }
+
+    // ------------------------------------------------------------------
+    // Data Accessors
+    // ------------------------------------------------------------------
+
+    public Object getId(){
+	return id;
+    }
+
+    public void addAssocObject(Object assocObject){
+	assocObjects.add(assocObject);
+    }
+
+    public Vector<Object> getAssocObjects(){
+	return assocObjects;
+    }
+
+    public void addGoTerm(int gusGoId){
+	addedGoIds.add(Integer.valueOf(gusGoId));
+    }
+
+    public Vector<Integer> getAddedGoIds(){
+	return addedGoIds;
+    }
+
+    public void addVerifiedAssocEvidenceSet(AssocEvidenceSet assocEvidenceSet){
+	verifiedAssocEvidenceSets.add(assocEvidenceSet);
+    }
+
+    public Vector<AssocEvidenceSet> getVerifiedAssocEvidenceSets(){
+	return verifiedAssocEvidenceSets;
+    }
+
+    public void addRejectedAssocEvidenceSet(AssocEvidenceSet assocEvidenceSet){
+	rejectedAssocEvidenceSets.add(assocEvidenceSet);
+    }
+
+    public Vector<AssocEvidenceSet> getRejectedAssocEvidenceSets(){
+	return rejectedAssocEvidenceSets;
+    }
+
+    /**
+     * Returns the Associations created from this gene product's assocObjects,
+     * or null if they have not been converted yet.
+     */
+    public Vector<Association> getAssociations(){
+	return associations;
+    }
+
+    public void setAssociations(Vector<Association> associations){
+	this.associations = associations;
+    }
+
+    /**
+     * Returns the AssociationGraph built for this gene product, or null if
+     * prediction has not run or failed.
+     */
+    public AssociationGraph getAssociationGraph(){
+	return associationGraph;
+    }
+
+    public void setAssociationGraph(AssociationGraph associationGraph){
+	this.associationGraph = associationGraph;
+    }
+
+    /**
+     * Returns the objects returned by <code>AssocConverterI.updateAndGetObjectFromAssoc</code>
+     * for each Association in the AssociationGraph.
+     */
+    public Vector<Object> getUpdatedObjects(){
+	return updatedObjects;
+    }
+
+    /**
+     * Returns the Exception that stopped prediction for this gene product
+     * (usually an IllegalHierarchyException), or null if there was none.
+     */
+    public Exception getError(){
+	return error;
+    }
+
+    public void setError(Exception error){
+	this.error = error;
+    }
+
+}
@@ -0,0 +1,459 @@
+/**
+ * GoDag.java
+ *
+ * An immutable, array-based view of the GO Hierarchy held by a GoGraph.
+ *
+ * Each GO Term is given a dense int index, assigned in topological order
+ * so that every term has a higher index than all of its ancestors.  Parent
+ * and child relationships are stored in compressed sparse row (CSR) form:
+ * the parents of term <code>i</code> are
+ * <code>parentIndexes[parentOffsets[i] .. parentOffsets[i+1]-1]</code>, and
+ * likewise for children.
+ *
+ * The transitive closure of the parent relation is precomputed for every
+ * term as a compressed bitset over term indexes.  Only the non-zero 64-bit
+ * words of each bitset are stored, along with their word numbers, so
+ * that the closure of a GO release (some tens of thousands of terms, each
+ * with a few dozen ancestors) takes a few megabytes rather than the
+ * hundreds a dense matrix would need.  Testing whether one term is an
+ * ancestor of another is then a search of a handful of words, and
+ * combining the ancestor sets of several terms is done a word at a time.
+ *
+ * A GoDag is a snapshot; it does not see GO Terms or relationships added
+ * to its GoGraph after it was built (see <code>GoGraph.getDag</code>).
+ * Since it is never modified it can be shared freely between threads.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Vector;
+
+public class GoDag {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Returned by the <code>getIndex</code> methods for terms not in the GoDag.
+     */
+    public static final int NO_TERM = -1;
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    /**
+     * GUS Id and real GO Id (null if never set) of each term, by index.
+     */
+    int[] gusIds;
+    String[] realIds;
+
+    /**
+     * GUS Ids in ascending order, and the index of the term with each, for
+     * binary search by GUS Id.
+     */
+    int[] sortedGusIds;
+    int[] sortedGusIdIndexes;
+
+    /**
+     * Index of each term with a real GO Id.
+     */
+    HashMap<String, Integer> realIdIndexes;
+
+    /**
+     * CSR parent and child relationships.
+     */
+    int[] parentOffsets;
+    int[] parentIndexes;
+    int[] childOffsets;
+    int[] childIndexes;
+
+    /**
+     * The ancestor closure.  The non-zero words of the ancestor bitset of
+     * term <code>i</code> are <code>ancestorWords[ancestorOffsets[i] .. ancestorOffsets[i+1]-1]</code>,
+     * and <code>ancestorWordNumbers</code> holds the position of each of those words
+     * in the uncompressed bitset, in ascending order.
+     */
+    int[] ancestorOffsets;
+    int[] ancestorWordNumbers;
+    long[] ancestorWords;
+    int[] ancestorCounts;
+
+    /**
+     * Index of the GoGraph's root term, or NO_TERM if it has none.
+     */
+    int rootIndex;
+
+    /**
+     * Indexes of the GoGraph's branch roots, in <code>GoGraph.getBranchRoots</code>
+     * order; the first is <code>rootIndex</code>.
+     */
+    int[] branchRootIndexes;
+
+    // ------------------------------------------------------------------
+    // Constructor
+    // ------------------------------------------------------------------
+
+    /**
+     * Build a GoDag from the GO Terms currently in <code>goGraph</code>.
+     *
+     * @throws IllegalHierarchyException if the parent/child relationships contain a cycle.
+     */
+    public GoDag(GoGraph goGraph) throws IllegalHierarchyException{
+
+	Collection<GoTerm> allTerms = goGraph.getAllGoTerms();
+	int n = allTerms.size();
+
+	//sort by GUS Id so that indexes do not depend on Hashtable order
+	GoTerm[] terms = allTerms.toArray(new GoTerm[n]);
+	Arrays.sort(terms, (a, b) -> Integer.compare(a.getGusId(), b.getGusId()));
+
+	sortedGusIds = new int[n];
+	for (int i = 0; i < n; i++){
+	    sortedGusIds[i] = terms[i].getGusId();
+	}
+
+	int[] order = topologicalOrder(terms);
+	sortedGusIdIndexes = new int[n];
+	gusIds = new int[n];
+	realIds = new String[n];
+	realIdIndexes = new HashMap<>(n * 2);
+	for (int i = 0; i < n; i++){
+	    GoTerm goTerm = terms[order[i]];
+	    gusIds[i] = goTerm.getGusId();
+	    realIds[i] = goTerm.getRealId();
+	    if (realIds[i] != null){
+		realIdIndexes.put(realIds[i], Integer.valueOf(i));
+	    }
+	    sortedGusIdIndexes[order[i]] = i;
+	}
+
+	parentOffsets = new int[n + 1];
+	childOffsets = new int[n + 1];
+	for (int i = 0; i < n; i++){
+	    GoTerm goTerm = terms[order[i]];
+	    parentOffsets[i + 1] = parentOffsets[i] + goTerm.getParents().size();
+	    childOffsets[i + 1] = childOffsets[i] + goTerm.getChildren().size();
+	}
+	parentIndexes = new int[parentOffsets[n]];
+	childIndexes = new int[childOffsets[n]];
+	for (int i = 0; i < n; i++){
+	    GoTerm goTerm = terms[order[i]];
+	    fillIndexes(goTerm.getParents(), parentIndexes, parentOffsets[i], sortedGusIdIndexes);
+	    fillIndexes(goTerm.getChildren(), childIndexes, childOffsets[i], sortedGusIdIndexes);
+	}
+
+	buildAncestorClosure();
+
+	GoTerm rootTerm = goGraph.getRootTerm();
+	rootIndex = (rootTerm == null) ? NO_TERM : getIndex(rootTerm);
+	Vector<GoTerm> branchRoots = goGraph.getBranchRoots();
+	branchRootIndexes = new int[branchRoots.size()];
+	for (int i = 0; i < branchRootIndexes.length; i++){
+	    branchRootIndexes[i] = getIndex(branchRoots.get(i));
+	}
+    }
+
+    /**
+     * Rebuild a GoDag from its arrays, as read by GoGraphSnapshot.  Terms
+     * must already be in topological order; the first of
+     * <code>branchRootIndexes</code>, if any, is the root.  If
+     * <code>ancestorOffsets</code> is null the ancestor closure is recomputed.
+     */
+    GoDag(int[] gusIds, String[] realIds, int[] branchRootIndexes,
+	  int[] parentOffsets, int[] parentIndexes, int[] childOffsets, int[] childIndexes,
+	  int[] ancestorOffsets, int[] ancestorWordNumbers, long[] ancestorWords){
+
+	int n = gusIds.length;
+	this.gusIds = gusIds;
+	this.realIds = realIds;
+	this.rootIndex = (branchRootIndexes.length == 0) ? NO_TERM : branchRootIndexes[0];
+	this.branchRootIndexes = branchRootIndexes;
+	this.parentOffsets = parentOffsets;
+	this.parentIndexes = parentIndexes;
+	this.childOffsets = childOffsets;
+	this.childIndexes = childIndexes;
+
+	long[] keyed = new long[n];
+	for (int i = 0; i < n; i++){
+	    keyed[i] = ((long)gusIds[i] << 32) | i;
+	}
+	Arrays.sort(keyed);
+	sortedGusIds = new int[n];
+	sortedGusIdIndexes = new int[n];
+	for (int i = 0; i < n; i++){
+	    sortedGusIds[i] = (int)(keyed[i] >> 32);
+	    sortedGusIdIndexes[i] = (int)keyed[i];
+	}
+
+	realIdIndexes = new HashMap<>(n * 2);
+	for (int i = 0; i < n; i++){
+	    if (realIds[i] != null){
+		realIdIndexes.put(realIds[i], Integer.valueOf(i));
+	    }
+	}
+
+	if (ancestorOffsets == null){
+	    buildAncestorClosure();
+	}
+	else{
+	    this.ancestorOffsets = ancestorOffsets;
+	    this.ancestorWordNumbers = ancestorWordNumbers;
+	    this.ancestorWords = ancestorWords;
+	    ancestorCounts = new int[n];
+	    for (int i = 0; i < n; i++){
+		for (int w = ancestorOffsets[i]; w < ancestorOffsets[i + 1]; w++){
+		    ancestorCounts[i] += Long.bitCount(ancestorWords[w]);
+		}
+	    }
+	}
+    }
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Returns the number of GO Terms; indexes run from 0 to <code>size() - 1</code>.
+     */
+    public int size(){
+	return gusIds.length;
+    }
+
+    public int getRootIndex(){
+	return rootIndex;
+    }
+
+    /**
+     * Returns the indexes of the branch roots; the first is the root.
+     */
+    public int[] getBranchRootIndexes(){
+	return branchRootIndexes.clone();
+    }
+
+    public int getIndex(int gusGoId){
+	int pos = Arrays.binarySearch(sortedGusIds, gusGoId);
+	return (pos < 0) ? NO_TERM : sortedGusIdIndexes[pos];
+    }
+
+    public int getIndex(String realGoId){
+	Integer index = realIdIndexes.get(realGoId);
+	return (index == null) ? NO_TERM : index.intValue();
+    }
+
+    public int getIndex(GoTerm goTerm){
+	return getIndex(goTerm.getGusId());
+    }
+
+    public int getGusId(int index){
+	return gusIds[index];
+    }
+
+    public String getRealId(int index){
+	return realIds[index];
+    }
+
+    public int getParentCount(int index){
+	return parentOffsets[index + 1] - parentOffsets[index];
+    }
+
+    /**
+     * Returns the index of the <code>k</code>th parent of the term at <code>index</code>.
+     */
+    public int getParent(int index, int k){
+	return parentIndexes[parentOffsets[index] + k];
+    }
+
+    public int getChildCount(int index){
+	return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    /**
+     * Returns the index of the <code>k</code>th child of the term at <code>index</code>.
+     */
+    public int getChild(int index, int k){
+	return childIndexes[childOffsets[index] + k];
+    }
+
+    /**
+     * Returns true if the term at <code>ancestor</code> is a proper ancestor
+     * of the term at <code>descendant</code>.
+     */
+    public boolean isAncestor(int ancestor, int descendant){
+
+	if (ancestor >= descendant){  //ancestors always have lower indexes
+	    return false;
+	}
+	int pos = findWord(descendant, ancestor >>> 6);
+	return pos >= 0 && (ancestorWords[pos] & (1L << ancestor)) != 0;
+    }
+
+    /**
+     * Returns the number of proper ancestors of the term at <code>index</code>.
+     */
+    public int getAncestorCount(int index){
+	return ancestorCounts[index];
+    }
+
+    /**
+     * Returns the indexes of all proper ancestors of the term at <code>index</code>,
+     * in ascending (and therefore topological) order.
+     */
+    public int[] getAncestors(int index){
+
+	int[] ancestors = new int[ancestorCounts[index]];
+	int a = 0;
+	for (int w = ancestorOffsets[index]; w < ancestorOffsets[index + 1]; w++){
+	    long word = ancestorWords[w];
+	    int base = ancestorWordNumbers[w] << 6;
+	    while (word != 0){
+		ancestors[a++] = base + Long.numberOfTrailingZeros(word);
+		word &= word - 1;
+	    }
+	}
+	return ancestors;
+    }
+
+    /**
+     * Sets the bits of all proper ancestors of the term at <code>index</code> in
+     * <code>bits</code>, an uncompressed bitset at least <code>newBitSet()</code> long.
+     */
+    public void addAncestors(int index, long[] bits){
+	for (int w = ancestorOffsets[index]; w < ancestorOffsets[index + 1]; w++){
+	    bits[ancestorWordNumbers[w]] |= ancestorWords[w];
+	}
+    }
+
+    /**
+     * Returns an empty uncompressed bitset with one bit per term, for use with
+     * <code>addAncestors</code>.
+     */
+    public long[] newBitSet(){
+	return new long[(size() + 63) >>> 6];
+    }
+
+    // ------------------------------------------------------------------
+    // Private Methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Returns the positions in <code>terms</code> in an order in which every
+     * term comes after all of its parents.  Ties are broken by position, so
+     * the order is deterministic.
+     */
+    private int[] topologicalOrder(GoTerm[] terms) throws IllegalHierarchyException{
+
+	int n = terms.length;
+	int[] pendingParents = new int[n];
+	for (int i = 0; i < n; i++){
+	    pendingParents[i] = terms[i].getParents().size();
+	}
+
+	int[] order = new int[n];
+	int head = 0;
+	int tail = 0;
+	for (int i = 0; i < n; i++){
+	    if (pendingParents[i] == 0){
+		order[tail++] = i;
+	    }
+	}
+	while (head < tail){
+	    Vector<GoTerm> children = terms[order[head++]].getChildren();
+	    for (int c = 0; c < children.size(); c++){
+		int child = Arrays.binarySearch(sortedGusIds, children.get(c).getGusId());
+		if (--pendingParents[child] == 0){
+		    order[tail++] = child;
+		}
+	    }
+	}
+	if (tail < n){
+	    for (int i = 0; i < n; i++){
+		if (pendingParents[i] > 0){
+		    throw new IllegalHierarchyException("Error: GO Term (GUS ID: " + terms[i].getGusId() +
+							") is its own ancestor");
+		}
+	    }
+	}
+	return order;
+    }
+
+    private void fillIndexes(Vector<GoTerm> related, int[] indexes, int offset, int[] sortedIndexes){
+	for (int k = 0; k < related.size(); k++){
+	    int pos = Arrays.binarySearch(sortedGusIds, related.get(k).getGusId());
+	    indexes[offset + k] = sortedIndexes[pos];
+	}
+	Arrays.sort(indexes, offset, offset + related.size());
+    }
+
+    /**
+     * Computes the compressed ancestor bitset of every term in one pass in
+     * index order; since parents come first, the ancestors of a term are just
+     * its parents plus the already-computed ancestors of each parent.
+     */
+    private void buildAncestorClosure(){
+
+	int n = size();
+	long[] scratch = newBitSet();
+	int[] touched = new int[scratch.length];
+
+	ancestorOffsets = new int[n + 1];
+	ancestorCounts = new int[n];
+	int[] wordNumbers = new int[Math.max(16, n)];
+	long[] words = new long[wordNumbers.length];
+	int used = 0;
+
+	for (int i = 0; i < n; i++){
+	    int touchedCount = 0;
+	    for (int p = parentOffsets[i]; p < parentOffsets[i + 1]; p++){
+		int parent = parentIndexes[p];
+		touchedCount = setWord(scratch, touched, touchedCount, parent >>> 6, 1L << parent);
+		for (int w = ancestorOffsets[parent]; w < ancestorOffsets[parent + 1]; w++){
+		    touchedCount = setWord(scratch, touched, touchedCount, wordNumbers[w], words[w]);
+		}
+	    }
+	    Arrays.sort(touched, 0, touchedCount);
+
+	    if (used + touchedCount > words.length){
+		int newLength = Math.max(words.length * 2, used + touchedCount);
+		wordNumbers = Arrays.copyOf(wordNumbers, newLength);
+		words = Arrays.copyOf(words, newLength);
+	    }
+	    int count = 0;
+	    for (int t = 0; t < touchedCount; t++){
+		int wordNumber = touched[t];
+		wordNumbers[used] = wordNumber;
+		words[used++] = scratch[wordNumber];
+		count += Long.bitCount(scratch[wordNumber]);
+		scratch[wordNumber] = 0;
+	    }
+	    ancestorCounts[i] = count;
+	    ancestorOffsets[i + 1] = used;
+	}
+	ancestorWordNumbers = Arrays.copyOf(wordNumbers, used);
+	ancestorWords = Arrays.copyOf(words, used);
+    }
+
+    private static int setWord(long[] scratch, int[] touched, int touchedCount, int wordNumber, long bits){
+	if (scratch[wordNumber] == 0){
+	    touched[touchedCount++] = wordNumber;
+	}
+	scratch[wordNumber] |= bits;
+	return touchedCount;
+    }
+
+    /**
+     * Returns the position in <code>ancestorWords</code> of word <code>wordNumber</code>
+     * of the ancestor bitset of the term at <code>index</code>, or -1 if that word is zero.
+     */
+    private int findWord(int index, int wordNumber){
+	int pos = Arrays.binarySearch(ancestorWordNumbers, ancestorOffsets[index], ancestorOffsets[index + 1], wordNumber);
+	return (pos < 0) ? -1 : pos;
+    }
+
+}
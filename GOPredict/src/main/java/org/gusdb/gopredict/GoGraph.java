@@ -8,7 +8,9 @@
 
 package org.gusdb.gopredict;
 
+import java.util.Collection;
 import java.util.Hashtable;
+import java.util.Vector;
 
 public class GoGraph {
 
@@ -40,6 +42,19 @@ public class GoGraph {
      */
     GoTerm rootTerm;
 
+    /**
+     * Root GoTerms of all of the GO branches (Molecular Function, Biological
+     * Process, Cellular Component) held in this GoGraph; the first is
+     * <code>rootTerm</code>.  A GoGraph made for one branch has one.
+     */
+    Vector<GoTerm> branchRoots;
+
+    /**
+     * Compact, immutable copy of this GoGraph with its ancestor closure;
+     * built on first use and discarded whenever a GoTerm is added.
+     */
+    private volatile GoDag dag;
+
 
     // ------------------------------------------------------------------
     // Constructor
@@ -54,6 +69,7 @@ public class GoGraph {
 
 	realIdHash = new Hashtable<>();
 	gusIdHash = new Hashtable<>();
+	branchRoots = new Vector<>();
 
 	for (int i = 0; i < grs.size(); i ++){
 
@@ -71,8 +87,57 @@ public class GoGraph {
 	    }
 	}
     }
-		   
 
+    /**
+     * Make a Go Graph holding several GO branches from the given GoResultSet,
+     * which has the terms of all of them, so that the branches share one
+     * table of GoTerms and one load.  The first of <code>branchRootGoIds</code>
+     * becomes the root term; AssociationGraphs made from this GoGraph have an
+     * Association for the root of each branch they touch (see
+     * <code>AssociationGraph.getRoots</code>).
+     */
+    public GoGraph(GoResultSet grs, String[] branchRootGoIds){
+
+	this(grs, (String)null);
+	for (int i = 0; i < branchRootGoIds.length; i++){
+	    GoTerm branchRoot = getGoTermFromRealGoId(branchRootGoIds[i]);
+	    if (branchRoot == null){
+		System.err.println("no GO Term for branch root " + branchRootGoIds[i]);
+	    }
+	    else{
+		addBranchRoot(branchRoot);
+	    }
+	}
+    }
+
+    /**
+     * Make a Go Graph from a GoDag, e.g. one loaded by <code>GoGraphSnapshot</code>.
+     * The GoDag is kept as this GoGraph's compact copy, so it is not rebuilt
+     * by <code>getDag</code>.
+     */
+    public GoGraph(GoDag goDag){
+
+	int n = goDag.size();
+	realIdHash = new Hashtable<>(n * 2);
+	gusIdHash = new Hashtable<>(n * 2);
+	branchRoots = new Vector<>();
+
+	GoTerm[] terms = new GoTerm[n];
+	for (int i = 0; i < n; i++){
+	    terms[i] = new GoTerm(goDag.getRealId(i), goDag.getGusId(i));
+	    addGoTerm(terms[i]);
+	}
+	for (int i = 0; i < n; i++){
+	    for (int k = 0; k < goDag.getChildCount(i); k++){
+		terms[i].addChild(terms[goDag.getChild(i, k)]);
+	    }
+	}
+	int[] branchRootIndexes = goDag.getBranchRootIndexes();
+	for (int i = 0; i < branchRootIndexes.length; i++){
+	    addBranchRoot(terms[branchRootIndexes[i]]);
+	}
+	dag = goDag;
+    }
 
     // ------------------------------------------------------------------
     // Public Methods
@@ -133,17 +198,95 @@ public class GoGraph {
 	    realIdHash.put(realId, goTerm);
 	}
 	gusIdHash.put(gusId, goTerm);
+	invalidateDag();
     
     }
 
+    /**
+     * Returns all GoTerms in this GoGraph, including child terms whose real
+     * GO Id has not been set.
+     */
+    public Collection<GoTerm> getAllGoTerms(){
+	return gusIdHash.values();
+    }
+
+    /**
+     * Returns a compact, immutable copy of this GoGraph, building it if
+     * necessary.  The copy is rebuilt after GoTerms are added with
+     * <code>makeGoTerm</code> or <code>addGoTerm</code>; callers that link
+     * GoTerms directly with <code>GoTerm.addChild</code> after the copy was
+     * built must call <code>invalidateDag</code> themselves.
+     * Once built, the copy is returned without locking.
+     *
+     * @throws IllegalHierarchyException if a GoTerm is its own ancestor.
+     */
+    public GoDag getDag() throws IllegalHierarchyException{
+	GoDag goDag = dag;
+	if (goDag == null){
+	    synchronized (this){
+		goDag = dag;
+		if (goDag == null){
+		    goDag = new GoDag(this);
+		    dag = goDag;
+		}
+	    }
+	}
+	return goDag;
+    }
+
+    public synchronized void invalidateDag(){
+	dag = null;
+    }
+
+    /**
+     * Returns true if <code>ancestor</code> is a proper ancestor of
+     * <code>descendant</code> in the GO Hierarchy.
+     */
+    public boolean isAncestor(GoTerm ancestor, GoTerm descendant) throws IllegalHierarchyException{
+	GoDag goDag = getDag();
+	int ancestorIndex = goDag.getIndex(ancestor);
+	int descendantIndex = goDag.getIndex(descendant);
+	if (ancestorIndex == GoDag.NO_TERM || descendantIndex == GoDag.NO_TERM){
+	    return false;
+	}
+	return goDag.isAncestor(ancestorIndex, descendantIndex);
+    }
+
+    /**
+     * Sets the root term, which replaces the first branch root.
+     */
     public void setRootTerm(GoTerm root){
 	this.rootTerm = root;
+	if (branchRoots.size() == 0){
+	    branchRoots.add(root);
+	}
+	else{
+	    branchRoots.set(0, root);
+	}
     }
     
     public GoTerm getRootTerm(){
 	return rootTerm;
     }
 
+    /**
+     * Adds the root of another GO branch; the first branch root added
+     * becomes the root term.
+     */
+    public void addBranchRoot(GoTerm branchRoot){
+	if (branchRoots.contains(branchRoot)){
+	    return;
+	}
+	if (branchRoots.size() == 0){
+	    rootTerm = branchRoot;
+	}
+	branchRoots.add(branchRoot);
+    }
+
+    public Vector<GoTerm> getBranchRoots(){
+	return branchRoots;
+    }
+
 
     @Override
     public String toString(){
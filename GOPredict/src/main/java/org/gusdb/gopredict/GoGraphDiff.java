@@ -0,0 +1,227 @@
+/**
+ * GoGraphDiff.java
+ *
+ * The differences between two versions of a GoGraph (usually two GO
+ * releases), and the GO Terms whose Associations they can affect.
+ *
+ * GO Terms are matched between versions by real GO Id.  A term is
+ * <i>changed</i> if it is in both versions but its GUS Id or the real GO Ids
+ * of its parents differ.  An AssociationGraph contains an Association for
+ * each annotated term and all of its ancestors, so the AssociationGraph for
+ * a gene product can differ between versions only if one of its annotated
+ * terms is new, or it or one of its ancestors in the old version was
+ * removed or changed; such terms are <i>affected</i>.  (If no old ancestor
+ * of a term has different parents, by induction its ancestors are the
+ * same in the new version.)  If the root term, or any branch root,
+ * differs every term is affected.
+ *
+ * GoPredictionEngine uses a GoGraphDiff to re-run prediction for only the
+ * gene products with affected terms.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+public class GoGraphDiff {
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    private GoGraph oldGraph;
+    private GoGraph newGraph;
+
+    private GoDag oldDag;
+    private GoDag newDag;
+
+    /**
+     * Real GO Ids of the terms only in the new version, only in the old
+     * version, and in both but changed, each in GoDag index order.
+     */
+    private Vector<String> addedGoIds;
+    private Vector<String> removedGoIds;
+    private Vector<String> changedGoIds;
+
+    private boolean rootChanged;
+
+    /**
+     * Whether each term in the old version, by GoDag index, is affected.
+     */
+    private boolean[] affected;
+
+    // ------------------------------------------------------------------
+    // Constructor
+    // ------------------------------------------------------------------
+
+    public GoGraphDiff(GoGraph oldGraph, GoGraph newGraph) throws IllegalHierarchyException{
+
+	this.oldGraph = oldGraph;
+	this.newGraph = newGraph;
+	oldDag = oldGraph.getDag();
+	newDag = newGraph.getDag();
+	addedGoIds = new Vector<>();
+	removedGoIds = new Vector<>();
+	changedGoIds = new Vector<>();
+
+	boolean[] removedOrChanged = new boolean[oldDag.size()];
+	for (int i = 0; i < oldDag.size(); i++){
+	    String realGoId = oldDag.getRealId(i);
+	    if (realGoId == null){
+		continue;
+	    }
+	    int newIndex = newDag.getIndex(realGoId);
+	    if (newIndex == GoDag.NO_TERM){
+		removedGoIds.add(realGoId);
+		removedOrChanged[i] = true;
+	    }
+	    else if (oldDag.getGusId(i) != newDag.getGusId(newIndex) ||
+		     !Arrays.equals(getParentGoIds(oldDag, i), getParentGoIds(newDag, newIndex))){
+		changedGoIds.add(realGoId);
+		removedOrChanged[i] = true;
+	    }
+	}
+	for (int i = 0; i < newDag.size(); i++){
+	    String realGoId = newDag.getRealId(i);
+	    if (realGoId != null && oldDag.getIndex(realGoId) == GoDag.NO_TERM){
+		addedGoIds.add(realGoId);
+	    }
+	}
+
+	rootChanged = !getBranchRootGoIds(oldGraph).equals(getBranchRootGoIds(newGraph));
+
+	//parents have lower indexes, so each term is seen after all of its ancestors
+	affected = new boolean[oldDag.size()];
+	for (int i = 0; i < oldDag.size(); i++){
+	    boolean isAffected = rootChanged || removedOrChanged[i];
+	    for (int k = 0; !isAffected && k < oldDag.getParentCount(i); k++){
+		isAffected = affected[oldDag.getParent(i, k)];
+	    }
+	    affected[i] = isAffected;
+	}
+    }
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    public GoGraph getOldGraph(){
+	return oldGraph;
+    }
+
+    public GoGraph getNewGraph(){
+	return newGraph;
+    }
+
+    public Vector<String> getAddedGoIds(){
+	return addedGoIds;
+    }
+
+    public Vector<String> getRemovedGoIds(){
+	return removedGoIds;
+    }
+
+    public Vector<String> getChangedGoIds(){
+	return changedGoIds;
+    }
+
+    public boolean getRootChanged(){
+	return rootChanged;
+    }
+
+    /**
+     * Returns true if the two versions have the same terms, GUS Ids,
+     * relationships and root.
+     */
+    public boolean isEmpty(){
+	return !rootChanged && addedGoIds.size() == 0 && removedGoIds.size() == 0 && changedGoIds.size() == 0;
+    }
+
+    /**
+     * Returns true if an Association with the term with this real GO Id may
+     * be different in the new version; terms not in the old version are
+     * always affected.
+     */
+    public boolean isAffected(String realGoId){
+
+	int oldIndex = (realGoId == null) ? GoDag.NO_TERM : oldDag.getIndex(realGoId);
+	return oldIndex == GoDag.NO_TERM || affected[oldIndex];
+    }
+
+    /**
+     * Returns true if the AssociationGraph for <code>geneProduct</code> may be
+     * different in the new version: if any of its Associations, or any of the
+     * GO Terms added, verified or rejected for it (whose GUS Ids are those of
+     * the new version), is affected.  The gene product's assocObjects must
+     * already have been converted to Associations.
+     */
+    public boolean isAffected(GeneProduct geneProduct){
+
+	Vector<Association> associations = geneProduct.getAssociations();
+	for (int i = 0; i < associations.size(); i++){
+	    GoTerm goTerm = associations.get(i).getGoTerm();
+	    if (goTerm == null || isAffected(goTerm.getRealId())){
+		return true;
+	    }
+	}
+	Vector<Integer> addedGusIds = geneProduct.getAddedGoIds();
+	for (int i = 0; i < addedGusIds.size(); i++){
+	    if (isAffectedGusId(addedGusIds.get(i).intValue())){
+		return true;
+	    }
+	}
+	return isAffected(geneProduct.getVerifiedAssocEvidenceSets()) ||
+	    isAffected(geneProduct.getRejectedAssocEvidenceSets());
+    }
+
+    @Override
+    public String toString(){
+	return "GoGraphDiff: " + addedGoIds.size() + " added, " + removedGoIds.size() + " removed, " +
+	    changedGoIds.size() + " changed GO Terms" + (rootChanged ? "; root changed" : "");
+    }
+
+    // ------------------------------------------------------------------
+    // Private Methods
+    // ------------------------------------------------------------------
+
+    private boolean isAffected(Vector<AssocEvidenceSet> assocEvidenceSets){
+	for (int i = 0; i < assocEvidenceSets.size(); i++){
+	    if (isAffectedGusId(assocEvidenceSets.get(i).getModifiedGoTermId())){
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    private boolean isAffectedGusId(int newGusGoId){
+	int newIndex = newDag.getIndex(newGusGoId);
+	return newIndex == GoDag.NO_TERM || isAffected(newDag.getRealId(newIndex));
+    }
+
+    private static Vector<String> getBranchRootGoIds(GoGraph goGraph){
+	Vector<String> branchRootGoIds = new Vector<>();
+	Vector<GoTerm> branchRoots = goGraph.getBranchRoots();
+	for (int i = 0; i < branchRoots.size(); i++){
+	    branchRootGoIds.add(branchRoots.get(i).getRealId());
+	}
+	return branchRootGoIds;
+    }
+
+    /**
+     * Returns the real GO Ids of the parents of the term at <code>index</code>, sorted.
+     */
+    private static String[] getParentGoIds(GoDag goDag, int index){
+
+	String[] parentGoIds = new String[goDag.getParentCount(index)];
+	for (int k = 0; k < parentGoIds.length; k++){
+	    String realGoId = goDag.getRealId(goDag.getParent(index, k));
+	    parentGoIds[k] = (realGoId == null) ? "" : realGoId;
+	}
+	Arrays.sort(parentGoIds);
+	return parentGoIds;
+    }
+
+}
@@ -0,0 +1,249 @@
+/**
+ * GoGraphSnapshot.java
+ *
+ * Reads and writes a GoGraph in a versioned binary format, so that a GO
+ * release can be loaded without querying GUS for a GoResultSet and
+ * building the graph a row at a time.
+ *
+ * A snapshot holds a GoDag: the term table (GUS Ids and real GO Ids, the
+ * latter as offsets into a pool of UTF-8 bytes), the CSR parent and child
+ * arrays and, optionally, the compressed ancestor closure.  All values are
+ * big-endian and every array starts on a 4-byte boundary (8 for longs), so
+ * the file is read by memory-mapping it and copying each array out in bulk.
+ * The layout, after a header of ten ints
+ * (MAGIC, VERSION, flags, terms, parent edges, child edges, branch roots,
+ * pool bytes, closure words, padding), is:
+ *
+ * <pre>
+ *   int[branch roots] indexes of the branch roots, the root term first
+ *   int[terms]       GUS Ids, in GoDag index order
+ *   int[terms + 1]   offsets of each real GO Id in the string pool (equal offsets = no real Id)
+ *   int[terms + 1]   parent offsets       int[parent edges]   parent indexes
+ *   int[terms + 1]   child offsets        int[child edges]    child indexes
+ *   byte[pool]       string pool, padded to a multiple of 8 bytes
+ *   int[terms + 1]   ancestor offsets     int[closure words]  ancestor word numbers  (if HAS_CLOSURE)
+ *   long[closure words]                   ancestor words, after padding to 8 bytes   (if HAS_CLOSURE)
+ * </pre>
+ *
+ * Version 1 snapshots, which held only the root term's index in place of
+ * the number of branch roots and had no branch root indexes, are still read.
+ *
+ * See GoGraphSnapshotWriter for a tool that writes snapshots from a
+ * tab-delimited GoResultSet or an OBO file.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+public class GoGraphSnapshot {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    /**
+     * "GOGS"
+     */
+    public static final int MAGIC = 0x474F4753;
+
+    public static final int VERSION = 2;
+
+    /**
+     * The version that stored only the root term's index.
+     */
+    private static final int ROOT_ONLY_VERSION = 1;
+
+    /**
+     * Flag set when the snapshot includes the ancestor closure.
+     */
+    public static final int HAS_CLOSURE = 1;
+
+    private static final int HEADER_INTS = 10;
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Load a GoGraph from a snapshot file.
+     */
+    public static GoGraph read(File file) throws IOException{
+	return new GoGraph(readDag(file));
+    }
+
+    /**
+     * Load just the GoDag from a snapshot file, for callers that do not need
+     * GoTerm objects.  If the snapshot has no ancestor closure it is computed.
+     */
+    public static GoDag readDag(File file) throws IOException{
+
+	try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+	     FileChannel channel = raf.getChannel()){
+
+	    MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	    buf.order(ByteOrder.BIG_ENDIAN);
+
+	    if (buf.remaining() < HEADER_INTS * 4 || buf.getInt() != MAGIC){
+		throw new IOException("Error: " + file + " is not a GoGraph snapshot");
+	    }
+	    int version = buf.getInt();
+	    if (version != VERSION && version != ROOT_ONLY_VERSION){
+		throw new IOException("Error: " + file + " is GoGraph snapshot version " + version +
+				      "; this reader supports versions " + ROOT_ONLY_VERSION + " to " + VERSION);
+	    }
+	    int flags = buf.getInt();
+	    int n = buf.getInt();
+	    int parentEdges = buf.getInt();
+	    int childEdges = buf.getInt();
+	    int branchRoots = buf.getInt();
+	    int poolBytes = buf.getInt();
+	    int closureWords = buf.getInt();
+	    buf.getInt();
+
+	    int[] branchRootIndexes;
+	    if (version == ROOT_ONLY_VERSION){
+		branchRootIndexes = (branchRoots == GoDag.NO_TERM) ? new int[0] : new int[] { branchRoots };
+	    }
+	    else{
+		branchRootIndexes = readInts(buf, branchRoots);
+	    }
+
+	    int[] gusIds = readInts(buf, n);
+	    int[] realIdOffsets = readInts(buf, n + 1);
+	    int[] parentOffsets = readInts(buf, n + 1);
+	    int[] parentIndexes = readInts(buf, parentEdges);
+	    int[] childOffsets = readInts(buf, n + 1);
+	    int[] childIndexes = readInts(buf, childEdges);
+
+	    byte[] pool = new byte[poolBytes];
+	    buf.get(pool);
+	    skipToAlignment(buf, 8);
+	    String[] realIds = new String[n];
+	    for (int i = 0; i < n; i++){
+		int length = realIdOffsets[i + 1] - realIdOffsets[i];
+		if (length > 0){
+		    realIds[i] = new String(pool, realIdOffsets[i], length, StandardCharsets.UTF_8);
+		}
+	    }
+
+	    int[] ancestorOffsets = null;
+	    int[] ancestorWordNumbers = null;
+	    long[] ancestorWords = null;
+	    if ((flags & HAS_CLOSURE) != 0){
+		ancestorOffsets = readInts(buf, n + 1);
+		ancestorWordNumbers = readInts(buf, closureWords);
+		skipToAlignment(buf, 8);
+		ancestorWords = new long[closureWords];
+		buf.asLongBuffer().get(ancestorWords);
+	    }
+
+	    return new GoDag(gusIds, realIds, branchRootIndexes,
+			     parentOffsets, parentIndexes, childOffsets, childIndexes,
+			     ancestorOffsets, ancestorWordNumbers, ancestorWords);
+	}
+    }
+
+    /**
+     * Write a snapshot of <code>goGraph</code> to <code>file</code>.
+     *
+     * @param includeClosure  Whether to store the ancestor closure, which makes
+     *                        the file larger but saves computing it on load.
+     */
+    public static void write(GoGraph goGraph, File file, boolean includeClosure)
+	throws IOException, IllegalHierarchyException{
+	write(goGraph.getDag(), file, includeClosure);
+    }
+
+    public static void write(GoDag goDag, File file, boolean includeClosure) throws IOException{
+
+	int n = goDag.size();
+	int[] realIdOffsets = new int[n + 1];
+	byte[][] realIdBytes = new byte[n][];
+	for (int i = 0; i < n; i++){
+	    String realId = goDag.getRealId(i);
+	    realIdBytes[i] = (realId == null) ? new byte[0] : realId.getBytes(StandardCharsets.UTF_8);
+	    realIdOffsets[i + 1] = realIdOffsets[i] + realIdBytes[i].length;
+	}
+	int closureWords = includeClosure ? goDag.ancestorWords.length : 0;
+
+	try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))){
+
+	    out.writeInt(MAGIC);
+	    out.writeInt(VERSION);
+	    out.writeInt(includeClosure ? HAS_CLOSURE : 0);
+	    out.writeInt(n);
+	    out.writeInt(goDag.parentIndexes.length);
+	    out.writeInt(goDag.childIndexes.length);
+	    out.writeInt(goDag.branchRootIndexes.length);
+	    out.writeInt(realIdOffsets[n]);
+	    out.writeInt(closureWords);
+	    out.writeInt(0);
+
+	    writeInts(out, goDag.branchRootIndexes);
+	    writeInts(out, goDag.gusIds);
+	    writeInts(out, realIdOffsets);
+	    writeInts(out, goDag.parentOffsets);
+	    writeInts(out, goDag.parentIndexes);
+	    writeInts(out, goDag.childOffsets);
+	    writeInts(out, goDag.childIndexes);
+
+	    for (int i = 0; i < n; i++){
+		out.write(realIdBytes[i]);
+	    }
+	    padToAlignment(out, 8);
+
+	    if (includeClosure){
+		writeInts(out, goDag.ancestorOffsets);
+		writeInts(out, goDag.ancestorWordNumbers);
+		padToAlignment(out, 8);
+		for (int w = 0; w < closureWords; w++){
+		    out.writeLong(goDag.ancestorWords[w]);
+		}
+	    }
+	}
+    }
+
+    // ------------------------------------------------------------------
+    // Private Methods
+    // ------------------------------------------------------------------
+
+    private static int[] readInts(ByteBuffer buf, int count){
+	int[] values = new int[count];
+	buf.asIntBuffer().get(values);
+	buf.position(buf.position() + count * 4);
+	return values;
+    }
+
+    private static void skipToAlignment(ByteBuffer buf, int alignment){
+	int extra = buf.position() % alignment;
+	if (extra != 0){
+	    buf.position(buf.position() + alignment - extra);
+	}
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException{
+	for (int i = 0; i < values.length; i++){
+	    out.writeInt(values[i]);
+	}
+    }
+
+    private static void padToAlignment(DataOutputStream out, int alignment) throws IOException{
+	while (out.size() % alignment != 0){
+	    out.writeByte(0);
+	}
+    }
+
+}
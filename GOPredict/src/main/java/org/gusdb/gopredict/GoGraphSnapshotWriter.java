@@ -0,0 +1,221 @@
+/**
+ * GoGraphSnapshotWriter.java
+ *
+ * Command line tool that writes a GoGraphSnapshot from either
+ *
+ * <ul>
+ * <li>a tab-delimited dump of the GoResultSet query (one row per line:
+ *     GO Id, GUS GO term Id and, if the term has a child, the child's GUS
+ *     GO term Id), or</li>
+ * <li>a Gene Ontology OBO file.  OBO files have no GUS Ids, so each term's
+ *     GUS Id is taken to be the number in its GO Id (GO:0003674 becomes
+ *     3674).  Both 'is_a' and 'part_of' relationships are loaded, as by
+ *     the LoadGoOntology plugin; obsolete terms are skipped.</li>
+ * </ul>
+ *
+ * Usage: GoGraphSnapshotWriter (-tab file | -obo file) -root GO:XXXXXXX[,GO:XXXXXXX...] -out file [-noClosure]
+ *
+ * Each GO Id given with <code>-root</code> (comma-separated, or with
+ * <code>-root</code> repeated) is the root of a GO branch; the first is the
+ * root term.  All of them are stored in the snapshot.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Vector;
+
+public class GoGraphSnapshotWriter {
+
+    // ------------------------------------------------------------------
+    // Main
+    // ------------------------------------------------------------------
+
+    public static void main(String[] args) throws IOException, IllegalHierarchyException{
+
+	String tabFile = null;
+	String oboFile = null;
+	Vector<String> rootGoIds = new Vector<>();
+	String outFile = null;
+	boolean includeClosure = true;
+
+	for (int i = 0; i < args.length; i++){
+	    if (args[i].equals("-tab") && i + 1 < args.length){
+		tabFile = args[++i];
+	    }
+	    else if (args[i].equals("-obo") && i + 1 < args.length){
+		oboFile = args[++i];
+	    }
+	    else if (args[i].equals("-root") && i + 1 < args.length){
+		String[] goIds = args[++i].split(",");
+		for (int j = 0; j < goIds.length; j++){
+		    if (goIds[j].trim().length() > 0){
+			rootGoIds.add(goIds[j].trim());
+		    }
+		}
+	    }
+	    else if (args[i].equals("-out") && i + 1 < args.length){
+		outFile = args[++i];
+	    }
+	    else if (args[i].equals("-noClosure")){
+		includeClosure = false;
+	    }
+	    else{
+		usage();
+	    }
+	}
+	if ((tabFile == null) == (oboFile == null) || rootGoIds.size() == 0 || outFile == null){
+	    usage();
+	}
+
+	GoResultSet grs;
+	try (Reader in = new InputStreamReader(new FileInputStream(tabFile != null ? tabFile : oboFile),
+					       StandardCharsets.UTF_8)){
+	    grs = (tabFile != null) ? readTabDelimited(in) : readObo(in);
+	}
+
+	long start = System.currentTimeMillis();
+	GoGraph goGraph = new GoGraph(grs, rootGoIds.toArray(new String[rootGoIds.size()]));
+	for (int i = 0; i < rootGoIds.size(); i++){
+	    if (goGraph.getGoTermFromRealGoId(rootGoIds.get(i)) == null){
+		System.err.println("Error: root term " + rootGoIds.get(i) + " not found");
+		System.exit(1);
+	    }
+	}
+	GoDag goDag = goGraph.getDag();
+	GoGraphSnapshot.write(goDag, new File(outFile), includeClosure);
+	System.err.println("Wrote " + goDag.size() + " GO Terms to " + outFile + " in " +
+			   (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Read a GoResultSet from tab-delimited rows of GO Id, GUS Id and
+     * (optionally empty) child GUS Id.
+     */
+    public static GoResultSet readTabDelimited(Reader in) throws IOException{
+
+	GoResultSet grs = new GoResultSet();
+	BufferedReader reader = new BufferedReader(in);
+	String line;
+	while ((line = reader.readLine()) != null){
+	    if (line.trim().length() == 0){
+		continue;
+	    }
+	    String[] fields = line.split("\t", -1);
+	    if (fields.length < 2){
+		throw new IOException("Error: expected GO Id, GUS Id and child GUS Id in line '" + line + "'");
+	    }
+	    int childGusId = GoResultSet.NULL_CHILD_ID;
+	    if (fields.length > 2 && fields[2].trim().length() > 0){
+		childGusId = Integer.parseInt(fields[2].trim());
+	    }
+	    grs.addGoTermInfo(fields[0].trim(), Integer.parseInt(fields[1].trim()), childGusId);
+	}
+	return grs;
+    }
+
+    /**
+     * Read a GoResultSet from the [Term] stanzas of an OBO file.
+     */
+    public static GoResultSet readObo(Reader in) throws IOException{
+
+	GoResultSet grs = new GoResultSet();
+	BufferedReader reader = new BufferedReader(in);
+
+	boolean inTerm = false;
+	String id = null;
+	boolean obsolete = false;
+	Vector<String> parentIds = new Vector<>();
+
+	String line;
+	while ((line = reader.readLine()) != null){
+	    line = stripComment(line).trim();
+	    if (line.startsWith("[")){
+		addOboTerm(grs, inTerm, id, obsolete, parentIds);
+		inTerm = line.equals("[Term]");
+		id = null;
+		obsolete = false;
+		parentIds.clear();
+	    }
+	    else if (inTerm){
+		if (line.startsWith("id:")){
+		    id = line.substring(3).trim();
+		}
+		else if (line.startsWith("is_a:")){
+		    parentIds.add(line.substring(5).trim());
+		}
+		else if (line.startsWith("relationship:")){
+		    String[] fields = line.substring(13).trim().split("\\s+");
+		    if (fields.length >= 2 && fields[0].equals("part_of")){
+			parentIds.add(fields[1]);
+		    }
+		}
+		else if (line.equals("is_obsolete: true")){
+		    obsolete = true;
+		}
+	    }
+	}
+	addOboTerm(grs, inTerm, id, obsolete, parentIds);
+	return grs;
+    }
+
+    // ------------------------------------------------------------------
+    // Private Methods
+    // ------------------------------------------------------------------
+
+    private static void addOboTerm(GoResultSet grs, boolean inTerm, String id, boolean obsolete,
+				   Vector<String> parentIds) throws IOException{
+	if (!inTerm || id == null || obsolete){
+	    return;
+	}
+	int gusId = gusIdFromGoId(id);
+	grs.addGoTermInfo(id, gusId, GoResultSet.NULL_CHILD_ID);
+	for (int i = 0; i < parentIds.size(); i++){
+	    String parentId = parentIds.get(i);
+	    grs.addGoTermInfo(parentId, gusIdFromGoId(parentId), gusId);
+	}
+    }
+
+    private static int gusIdFromGoId(String goId) throws IOException{
+	int colon = goId.indexOf(':');
+	try{
+	    return Integer.parseInt(goId.substring(colon + 1));
+	}
+	catch (NumberFormatException e){
+	    throw new IOException("Error: cannot make a GUS Id from GO Id '" + goId + "'");
+	}
+    }
+
+    /**
+     * Removes an OBO trailing modifier or comment ('{...}' or '! ...').
+     */
+    private static String stripComment(String line){
+	int bang = line.indexOf(" !");
+	if (bang >= 0){
+	    line = line.substring(0, bang);
+	}
+	int brace = line.indexOf(" {");
+	if (brace >= 0){
+	    line = line.substring(0, brace);
+	}
+	return line;
+    }
+
+    private static void usage(){
+	System.err.println("Usage: GoGraphSnapshotWriter (-tab file | -obo file) -root GO:XXXXXXX[,GO:XXXXXXX...] -out file [-noClosure]");
+	System.exit(1);
+    }
+
+}
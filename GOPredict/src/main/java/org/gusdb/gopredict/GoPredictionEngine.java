@@ -0,0 +1,344 @@
+/**
+ * GoPredictionEngine.java
+ *
+ * Runs GO prediction for many gene products at once.  Each gene product
+ * gets its own AssociationGraph, and AssociationGraphs share nothing but
+ * the GoGraph they are built from, so gene products are processed in
+ * parallel on a ForkJoinPool against a single GoGraph.
+ *
+ * For each gene product the engine builds an AssociationGraph from its
+ * Associations and then runs, in order, <code>addGoTerms</code>,
+ * <code>verifyGoAssociations</code>, <code>rejectGoAssociations</code> and
+ * the scrub performed by GoManager.pm (<code>cachePrimaryInstances</code>,
+ * <code>deprecateAssociations</code>, <code>adjustIsNots</code> and
+ * <code>setDefiningLeaves</code>).
+ *
+ * The AssocConverterI is called only from the thread that calls
+ * <code>predict</code>: all application objects are converted to
+ * Associations before the parallel phase, and all Associations are
+ * converted back after it, so converters backed by a database session
+ * need not be thread-safe.  The GoGraph must not be modified while
+ * <code>predict</code> is running.
+ *
+ * If the converter is a BulkAssocConverterI, the objects of all gene
+ * products are converted with one call, and the Associations of all gene
+ * products converted back with another.  With
+ * <code>setUpdateChangedOnly</code> only the Associations that have
+ * changed (see <code>AssociationGraph.getChangedAssociations</code>) are
+ * converted back, with either kind of converter.
+ *
+ * When a new GO release is loaded, <code>predict</code> can be given a
+ * GoGraphDiff from the previous release so that only the gene products
+ * whose AssociationGraphs it can change are predicted again.
+ *
+ * Many gene products have exactly the same annotations.  The engine keeps
+ * a bounded cache of what the scrub did to the AssociationGraph for each
+ * set of annotations it has seen (see PredictionOutcome), and replays it
+ * on the AssociationGraphs of later gene products with the same
+ * annotations instead of scrubbing them again.  Only gene products with
+ * no GO Terms added, verified or rejected are looked up in the cache.
+ * The cache is emptied by <code>setOutcomeCacheSize</code>, which must be
+ * called if the GoGraph is modified between calls to <code>predict</code>.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class GoPredictionEngine {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Number of gene products below which a task is not split further.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    /**
+     * Number of distinct sets of annotations whose prediction outcome is kept.
+     */
+    public static final int DEFAULT_OUTCOME_CACHE_SIZE = 1024;
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    private GoGraph goGraph;
+
+    private AssocConverterI converter;
+
+    private ForkJoinPool pool;
+
+    private int batchSize;
+
+    private boolean updateChangedOnly;
+
+    private PredictionOutcomeCache outcomeCache;
+
+    // ------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------
+
+    /**
+     * Make an engine that runs on the common ForkJoinPool.
+     */
+    public GoPredictionEngine(GoGraph goGraph, AssocConverterI converter){
+	this(goGraph, converter, ForkJoinPool.commonPool());
+    }
+
+    public GoPredictionEngine(GoGraph goGraph, AssocConverterI converter, ForkJoinPool pool){
+	this.goGraph = goGraph;
+	this.converter = converter;
+	this.pool = pool;
+	this.batchSize = DEFAULT_BATCH_SIZE;
+	setOutcomeCacheSize(DEFAULT_OUTCOME_CACHE_SIZE);
+    }
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    public void setBatchSize(int batchSize){
+	this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Empty the cache of prediction outcomes and bound it to <code>outcomeCacheSize</code>
+     * sets of annotations; 0 turns the cache off.
+     */
+    public void setOutcomeCacheSize(int outcomeCacheSize){
+	this.outcomeCache = (outcomeCacheSize > 0) ? new PredictionOutcomeCache(outcomeCacheSize) : null;
+    }
+
+    /**
+     * Whether to convert back only the Associations that prediction added or
+     * changed, rather than all Associations in each AssociationGraph.
+     */
+    public void setUpdateChangedOnly(boolean updateChangedOnly){
+	this.updateChangedOnly = updateChangedOnly;
+    }
+
+    /**
+     * Run prediction for all of <code>geneProducts</code>.  On return each
+     * GeneProduct has either its AssociationGraph and updated objects or,
+     * if prediction failed for it, an error; a failure for one gene product
+     * does not affect the others.
+     */
+    public void predict(List<GeneProduct> geneProducts){
+
+	convertAssocObjects(geneProducts);
+
+	pool.invoke(new PredictTask(geneProducts, 0, geneProducts.size()));
+
+	updateAssocObjects(geneProducts);
+    }
+
+    /**
+     * Run prediction again, against this engine's GoGraph (which must be the
+     * new graph of <code>goGraphDiff</code>), for those of <code>geneProducts</code>
+     * that are affected by the differences between the two GO releases (see
+     * <code>GoGraphDiff.isAffected</code>).  Every gene product's assocObjects are
+     * converted, since that is how its GO Terms are found, but only the
+     * affected gene products are predicted and passed to
+     * <code>AssocConverterI.updateAndGetObjectFromAssoc</code>; the others are
+     * left without an AssociationGraph or updated objects.
+     *
+     * @return the affected gene products, in their order in <code>geneProducts</code>.
+     */
+    public List<GeneProduct> predict(List<GeneProduct> geneProducts, GoGraphDiff goGraphDiff){
+
+	if (goGraphDiff.getNewGraph() != goGraph){
+	    throw new IllegalArgumentException("Error: GoGraphDiff is not to this GoPredictionEngine's GoGraph");
+	}
+	convertAssocObjects(geneProducts);
+	List<GeneProduct> affected = new ArrayList<>();
+	for (GeneProduct geneProduct : geneProducts){
+	    if (goGraphDiff.isAffected(geneProduct)){
+		affected.add(geneProduct);
+	    }
+	}
+
+	pool.invoke(new PredictTask(affected, 0, affected.size()));
+
+	updateAssocObjects(affected);
+	return affected;
+    }
+
+    /**
+     * Build and scrub the AssociationGraph for one gene product whose
+     * Associations have already been converted.  Safe to call concurrently
+     * for different gene products.
+     */
+    public void predictGeneProduct(GeneProduct geneProduct){
+
+	try{
+	    PredictionOutcomeCache cache = outcomeCache;
+	    String signature = null;
+	    if (cache != null && geneProduct.getAddedGoIds().size() == 0 &&
+		geneProduct.getVerifiedAssocEvidenceSets().size() == 0 &&
+		geneProduct.getRejectedAssocEvidenceSets().size() == 0){
+		signature = PredictionOutcomeCache.getSignature(geneProduct.getAssociations());
+	    }
+	    AssociationGraph associationGraph = new AssociationGraph(geneProduct.getAssociations(), goGraph);
+	    if (signature != null){
+		PredictionOutcome outcome = cache.get(signature);
+		if (outcome != null && outcome.apply(associationGraph)){
+		    geneProduct.setAssociationGraph(associationGraph);
+		    return;
+		}
+	    }
+	    Hashtable<String, Integer> initialInstanceCounts =
+		(signature == null) ? null : PredictionOutcome.countInstances(associationGraph);
+	    if (geneProduct.getAddedGoIds().size() > 0){
+		associationGraph.addGoTerms(geneProduct.getAddedGoIds(), goGraph);
+	    }
+	    if (geneProduct.getVerifiedAssocEvidenceSets().size() > 0){
+		associationGraph.verifyGoAssociations(geneProduct.getVerifiedAssocEvidenceSets(), goGraph);
+	    }
+	    if (geneProduct.getRejectedAssocEvidenceSets().size() > 0){
+		associationGraph.rejectGoAssociations(geneProduct.getRejectedAssocEvidenceSets(), goGraph);
+	    }
+	    if (associationGraph.getRoot() != null){  //no Associations at all for this gene product
+		associationGraph.cachePrimaryInstances();
+		associationGraph.deprecateAssociations();
+		associationGraph.adjustIsNots();
+		associationGraph.setDefiningLeaves();
+	    }
+	    if (signature != null){
+		cache.put(signature, PredictionOutcome.record(associationGraph, initialInstanceCounts));
+	    }
+	    geneProduct.setAssociationGraph(associationGraph);
+	}
+	catch (IllegalHierarchyException | RuntimeException e){
+	    geneProduct.setError(e);
+	}
+    }
+
+    // ------------------------------------------------------------------
+    // Private Methods
+    // ------------------------------------------------------------------
+
+    private void convertAssocObjects(List<GeneProduct> geneProducts){
+
+	if (converter instanceof BulkAssocConverterI){
+	    Vector<Object> allAssocObjects = new Vector<>();
+	    for (GeneProduct geneProduct : geneProducts){
+		allAssocObjects.addAll(geneProduct.getAssocObjects());
+	    }
+	    Vector<Association> allAssociations = ((BulkAssocConverterI)converter).createAssociationsFromObjects(allAssocObjects);
+	    int next = 0;
+	    for (GeneProduct geneProduct : geneProducts){
+		int count = geneProduct.getAssocObjects().size();
+		geneProduct.setAssociations(new Vector<>(allAssociations.subList(next, next + count)));
+		next += count;
+	    }
+	    return;
+	}
+	for (GeneProduct geneProduct : geneProducts){
+	    Vector<Object> assocObjects = geneProduct.getAssocObjects();
+	    Vector<Association> associations = new Vector<>(assocObjects.size());
+	    for (int i = 0; i < assocObjects.size(); i++){
+		associations.add(converter.createAssociationFromObject(assocObjects.get(i)));
+	    }
+	    geneProduct.setAssociations(associations);
+	}
+    }
+
+    private void updateAssocObjects(List<GeneProduct> geneProducts){
+
+	Vector<Vector<Association>> assocLists = new Vector<>(geneProducts.size());
+	for (GeneProduct geneProduct : geneProducts){
+	    assocLists.add(getAssociationsToUpdate(geneProduct));
+	}
+
+	if (converter instanceof BulkAssocConverterI){
+	    Vector<Association> allAssociations = new Vector<>();
+	    for (int i = 0; i < assocLists.size(); i++){
+		allAssociations.addAll(assocLists.get(i));
+	    }
+	    if (allAssociations.size() == 0){
+		return;
+	    }
+	    Vector<Object> allObjects = ((BulkAssocConverterI)converter).updateAndGetObjectsFromAssocs(allAssociations);
+	    int next = 0;
+	    for (int i = 0; i < assocLists.size(); i++){
+		int count = assocLists.get(i).size();
+		geneProducts.get(i).getUpdatedObjects().addAll(allObjects.subList(next, next + count));
+		next += count;
+	    }
+	    return;
+	}
+	for (int i = 0; i < assocLists.size(); i++){
+	    Vector<Association> assocs = assocLists.get(i);
+	    Vector<Object> updatedObjects = geneProducts.get(i).getUpdatedObjects();
+	    for (int j = 0; j < assocs.size(); j++){
+		updatedObjects.add(converter.updateAndGetObjectFromAssoc(assocs.get(j)));
+	    }
+	}
+    }
+
+    /**
+     * Returns the Associations of <code>geneProduct</code> to be converted back:
+     * none if prediction failed, otherwise all of them or only the changed ones.
+     */
+    private Vector<Association> getAssociationsToUpdate(GeneProduct geneProduct){
+
+	AssociationGraph associationGraph = geneProduct.getAssociationGraph();
+	if (associationGraph == null){
+	    return new Vector<>();
+	}
+	if (updateChangedOnly){
+	    return associationGraph.getChangedAssociations();
+	}
+	Vector<Association> assocs = new Vector<>();
+	Enumeration<Association> assocEnum = associationGraph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    assocs.add(assocEnum.nextElement());
+	}
+	return assocs;
+    }
+
+    /**
+     * Predicts gene products <code>start</code> to <code>end - 1</code>,
+     * splitting in half until at most <code>batchSize</code> remain.
+     */
+    private class PredictTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<GeneProduct> geneProducts;
+	private final int start;
+	private final int end;
+
+	PredictTask(List<GeneProduct> geneProducts, int start, int end){
+	    this.geneProducts = geneProducts;
+	    this.start = start;
+	    this.end = end;
+	}
+
+	@Override
+	protected void compute(){
+	    if (end - start <= batchSize){
+		for (int i = start; i < end; i++){
+		    predictGeneProduct(geneProducts.get(i));
+		}
+	    }
+	    else{
+		int middle = (start + end) >>> 1;
+		invokeAll(new PredictTask(geneProducts, start, middle),
+			  new PredictTask(geneProducts, middle, end));
+	    }
+	}
+    }
+
+}
@@ -0,0 +1,181 @@
+/**
+ * PredictionOutcome.java
+ *
+ * What the scrub performed by GoPredictionEngine (cachePrimaryInstances,
+ * deprecateAssociations, adjustIsNots and setDefiningLeaves) did to an
+ * AssociationGraph, recorded so that it can be replayed on the
+ * AssociationGraph of another gene product with the same input
+ * Associations (see PredictionOutcomeCache.getSignature).
+ *
+ * The scrub never changes or removes the Instances an Association starts
+ * with; it sets the Association's flags and adds Instances after them.
+ * The Instances it adds have no contained object or evidence (they are
+ * copies of descendants' Instances made by <code>cloneNotPrimary</code>,
+ * or new Instances made by adjustIsNots), so they are recorded as
+ * prototypes holding only their field values, and replayed as copies of
+ * those prototypes.  Propogated Instances that have not been made yet are
+ * replayed as propogated Instances of the prototypes of their sources,
+ * which give the same Instances when they are made.  Nothing refers to
+ * the gene product the outcome was recorded from.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+
+class PredictionOutcome {
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Outcome for each Association, keyed on the real GO Id of its GO Term.
+     */
+    private Hashtable<String, AssocOutcome> assocOutcomes;
+
+    private static class AssocOutcome {
+	boolean isNot;
+	int reviewStatusId;
+	boolean isDeprecated;
+	boolean isDefining;
+	boolean onIsPath;
+	int initialInstanceCount;
+	Instance[] madeInstances;
+	Instance[] propogatedSources;
+	byte[] propogatedFlags;
+    }
+
+    // ------------------------------------------------------------------
+    // Constructor
+    // ------------------------------------------------------------------
+
+    private PredictionOutcome(){
+	assocOutcomes = new Hashtable<>();
+    }
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Returns the number of Instances of each Association in <code>associationGraph</code>,
+     * keyed on real GO Id; called before the scrub, for <code>record</code>.
+     */
+    static Hashtable<String, Integer> countInstances(AssociationGraph associationGraph){
+
+	Hashtable<String, Integer> counts = new Hashtable<>();
+	Enumeration<Association> assocEnum = associationGraph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    counts.put(nextAssoc.getGoTerm().getRealId(), Integer.valueOf(nextAssoc.getInstanceCount()));
+	}
+	return counts;
+    }
+
+    /**
+     * Records the outcome of the scrub of <code>associationGraph</code>, whose
+     * Associations had <code>initialInstanceCounts</code> Instances before it.
+     */
+    static PredictionOutcome record(AssociationGraph associationGraph, Hashtable<String, Integer> initialInstanceCounts){
+
+	PredictionOutcome outcome = new PredictionOutcome();
+	IdentityHashMap<Instance, Instance> prototypes = new IdentityHashMap<>();
+	Enumeration<Association> assocEnum = associationGraph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    AssocOutcome assocOutcome = new AssocOutcome();
+	    assocOutcome.isNot = nextAssoc.getIsNot();
+	    assocOutcome.reviewStatusId = nextAssoc.getReviewStatusId();
+	    assocOutcome.isDeprecated = nextAssoc.getIsDeprecated();
+	    assocOutcome.isDefining = nextAssoc.getIsDefining();
+	    assocOutcome.onIsPath = nextAssoc.getOnIsPath();
+
+	    int initialCount = initialInstanceCounts.get(nextAssoc.getGoTerm().getRealId()).intValue();
+	    assocOutcome.initialInstanceCount = initialCount;
+	    assocOutcome.madeInstances = new Instance[nextAssoc.getMadeInstanceCount() - initialCount];
+	    for (int i = 0; i < assocOutcome.madeInstances.length; i++){
+		assocOutcome.madeInstances[i] = makePrototype(nextAssoc.getMadeInstance(initialCount + i));
+	    }
+	    int propogatedCount = nextAssoc.getPropogatedCount();
+	    assocOutcome.propogatedSources = new Instance[propogatedCount];
+	    assocOutcome.propogatedFlags = new byte[propogatedCount];
+	    for (int i = 0; i < propogatedCount; i++){
+		Instance source = nextAssoc.getPropogatedSource(i);
+		Instance prototype = prototypes.get(source);
+		if (prototype == null){
+		    prototype = makePrototype(source);
+		    prototypes.put(source, prototype);
+		}
+		assocOutcome.propogatedSources[i] = prototype;
+		assocOutcome.propogatedFlags[i] = nextAssoc.getPropogatedFlags(i);
+	    }
+	    outcome.assocOutcomes.put(nextAssoc.getGoTerm().getRealId(), assocOutcome);
+	}
+	return outcome;
+    }
+
+    /**
+     * Replays this outcome on <code>associationGraph</code>, which must not
+     * have been scrubbed.  Returns false, without changing anything, if its
+     * Associations or their numbers of Instances are not those the outcome
+     * was recorded from.
+     */
+    boolean apply(AssociationGraph associationGraph){
+
+	int assocCount = 0;
+	Enumeration<Association> assocEnum = associationGraph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    AssocOutcome assocOutcome = assocOutcomes.get(nextAssoc.getGoTerm().getRealId());
+	    if (assocOutcome == null || assocOutcome.initialInstanceCount != nextAssoc.getInstanceCount()){
+		return false;
+	    }
+	    assocCount++;
+	}
+	if (assocCount != assocOutcomes.size()){
+	    return false;
+	}
+
+	assocEnum = associationGraph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    AssocOutcome assocOutcome = assocOutcomes.get(nextAssoc.getGoTerm().getRealId());
+	    nextAssoc.setIsNot(assocOutcome.isNot);
+	    nextAssoc.setReviewStatusId(assocOutcome.reviewStatusId);
+	    nextAssoc.setIsDeprecated(assocOutcome.isDeprecated);
+	    nextAssoc.setIsDefining(assocOutcome.isDefining);
+	    nextAssoc.setOnIsPath(assocOutcome.onIsPath);
+	    for (int i = 0; i < assocOutcome.madeInstances.length; i++){
+		nextAssoc.addInstance(makePrototype(assocOutcome.madeInstances[i]));
+	    }
+	    for (int i = 0; i < assocOutcome.propogatedSources.length; i++){
+		nextAssoc.addPropogatedInstance(assocOutcome.propogatedSources[i], assocOutcome.propogatedFlags[i]);
+	    }
+	}
+	return true;
+    }
+
+    // ------------------------------------------------------------------
+    // Private Methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Returns a new Instance with the field values, but not the contained
+     * object or evidence, of <code>instance</code>.
+     */
+    private static Instance makePrototype(Instance instance){
+
+	Instance prototype = instance.cloneInstance();
+	prototype.setIsDeprecated(instance.getIsDeprecated());
+	if (instance.isFromRejectedChild()){
+	    prototype.setIsFromRejectedChild();
+	}
+	return prototype;
+    }
+
+}
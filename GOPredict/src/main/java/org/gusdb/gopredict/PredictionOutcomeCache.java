@@ -0,0 +1,91 @@
+/**
+ * PredictionOutcomeCache.java
+ *
+ * A bounded, least-recently-used cache of PredictionOutcomes, keyed on the
+ * signature of the Associations a gene product's AssociationGraph is
+ * built from.  Many gene products have the same annotations, so
+ * GoPredictionEngine scrubs the AssociationGraph of the first of them and
+ * replays the outcome on the rest.  Safe for use by several threads.
+ *
+ * Created: Mon Oct 19 2026
+ */
+
+package org.gusdb.gopredict;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+
+class PredictionOutcomeCache {
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    private LinkedHashMap<String, PredictionOutcome> outcomes;
+
+    // ------------------------------------------------------------------
+    // Constructor
+    // ------------------------------------------------------------------
+
+    PredictionOutcomeCache(final int maxSize){
+	outcomes = new LinkedHashMap<String, PredictionOutcome>(16, 0.75f, true){
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<String, PredictionOutcome> eldest){
+		return size() > maxSize;
+	    }
+	};
+    }
+
+    // ------------------------------------------------------------------
+    // Public Methods
+    // ------------------------------------------------------------------
+
+    synchronized PredictionOutcome get(String signature){
+	return outcomes.get(signature);
+    }
+
+    synchronized void put(String signature, PredictionOutcome outcome){
+	outcomes.put(signature, outcome);
+    }
+
+    /**
+     * Returns a String that is the same for two lists of Associations exactly
+     * when AssociationGraphs built from them are scrubbed the same way: the
+     * real GO Id and flags of each Association, whether it has a contained
+     * object, and the field values of each of its Instances, in order.  (The
+     * order matters, as it decides the order in which the AssociationGraph
+     * lists its Associations, and so which descendant an 'is not' ancestor
+     * takes its Instances from.)
+     */
+    static String getSignature(Vector<Association> assocList){
+
+	StringBuilder signature = new StringBuilder();
+	for (int i = 0; i < assocList.size(); i++){
+	    Association assoc = assocList.get(i);
+	    signature.append(assoc.getGoTerm().getRealId()).append(':')
+		.append(assoc.getIsNot() ? 'N' : 'n')
+		.append(assoc.getIsDeprecated() ? 'D' : 'd')
+		.append(assoc.getIsDefining() ? 'F' : 'f')
+		.append(assoc.getOnIsPath() ? 'P' : 'p')
+		.append(assoc.getObject() != null ? 'O' : 'o')
+		.append(assoc.getReviewStatusId());
+	    Vector<Instance> instances = assoc.getInstances();
+	    for (int j = 0; j < instances.size(); j++){
+		Instance instance = instances.get(j);
+		signature.append('(')
+		    .append(instance.getIsPrimary() ? 'P' : 'p')
+		    .append(instance.getIsNot() ? 'N' : 'n')
+		    .append(instance.getIsDeprecated() ? 'D' : 'd')
+		    .append(instance.isFromRejectedChild() ? 'R' : 'r')
+		    .append(instance.getReviewStatusId()).append(',')
+		    .append(instance.getLOEId()).append(')');
+	    }
+	    signature.append(';');
+	}
+	return signature.toString();
+    }
+
+}
@@ -0,0 +1,808 @@
+package org.gusdb.gopredict;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.junit.Test;
+
+/**
+ * PropagationDifferentialTest.java
+ *
+ * Runs random GO DAGs and Association sets through the iterative,
+ * single-pass scrub (AssociationGraph.cachePrimaryInstances,
+ * deprecateAssociations, adjustIsNots and setDefiningLeaves) and through
+ * the recursive algorithms it replaced, and checks that every Association
+ * ends up in the same state with the same Instances.
+ *
+ * The recursive algorithms are copied below from the versions that
+ * preceded the single-pass ones: per-primary-Association propogation with
+ * eagerly cloned Instances, recursive hasNoIsDescendants,
+ * initializeOnIsPath and determineAndSetDefining, and AssociationGraphs
+ * built by grafting a temporary AssociationGraph for each Association.
+ * The graft is the one fix made to them: it iterated over a parent list
+ * that replaceParent was changing, which could leave an Association linked
+ * to a parent outside the graph, and so it now iterates over a copy.
+ *
+ * verifyGoAssociations and rejectGoAssociations, which apply all of their
+ * evidence sets in one pass, are likewise checked against the loops over
+ * evidence sets that they replaced, which use the per-set Association
+ * methods that are still there.  A scrub replayed from a PredictionOutcome
+ * is checked against scrubbing the same Associations afresh.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class PropagationDifferentialTest {
+
+    private static final int TRIALS = 2000;
+
+    private static final String ROOT_GO_ID = "GO:0000000";
+
+    private static final int[] LOE_IDS = { Association.CBIL_PREDICT_LOE, Association.ANNOTATOR_LOE,
+					   Association.OBSOLETE_LOE, Association.SCRUBBER_LOE, 1 };
+
+    private static final int[] REVIEW_STATUS_IDS = { Association.UNREVIEWED_ID, Association.REVIEWED_ID,
+						     Association.NEEDS_REVIEW_ID };
+
+    // ------------------------------------------------------------------
+    // Tests
+    // ------------------------------------------------------------------
+
+    /**
+     * The whole scrub, as GoPredictionEngine runs it, on graphs built from
+     * the same Associations both ways.
+     */
+    @Test
+    public void scrubMatchesRecursiveScrub(){
+
+	for (long seed = 1; seed <= TRIALS; seed++){
+	    Random random = new Random(seed);
+	    GoGraph goGraph = makeGoGraph(random, 2 + random.nextInt(30), 1 + random.nextInt(3));
+	    long assocSeed = random.nextLong();
+	    int numAssocs = 1 + random.nextInt(10);
+
+	    Hashtable<String, Association> expected =
+		buildGraftedGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs), goGraph);
+	    Association expectedRoot = expected.get(ROOT_GO_ID);
+	    recursiveCachePrimaryInstances(expected);
+	    deprecateAssociations(expected);
+	    recursiveInitializeOnIsPath(expectedRoot);
+	    setIsNotsFromIsPath(expected);
+	    boolean expectedDefining = recursiveDetermineAndSetDefining(expectedRoot);
+
+	    AssociationGraph actual = new AssociationGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs),
+							   goGraph);
+	    actual.cachePrimaryInstances();
+	    actual.deprecateAssociations();
+	    actual.adjustIsNots();
+	    boolean actualDefining = actual.getRoot().determineAndSetDefining();
+	    actual.setDefiningLeaves();
+
+	    assertEquals("seed " + seed, expectedDefining, actualDefining);
+	    assertSameAssociations("seed " + seed, expected, actual);
+	}
+    }
+
+    /**
+     * Association.propogateInstances, which AssociationGraph no longer uses,
+     * against the recursive version it was before hasNoIsDescendants was
+     * made iterative.
+     */
+    @Test
+    public void propogateInstancesMatchesRecursive(){
+
+	for (long seed = 1; seed <= TRIALS; seed++){
+	    Random random = new Random(seed);
+	    GoGraph goGraph = makeGoGraph(random, 2 + random.nextInt(30), 1 + random.nextInt(3));
+	    long assocSeed = random.nextLong();
+	    int numAssocs = 1 + random.nextInt(10);
+
+	    Hashtable<String, Association> expected =
+		buildGraftedGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs), goGraph);
+	    recursiveCachePrimaryInstances(expected);
+
+	    Hashtable<String, Association> actual =
+		buildGraftedGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs), goGraph);
+	    Enumeration<Association> assocEnum = actual.elements();
+	    while (assocEnum.hasMoreElements()){
+		Association nextAssoc = assocEnum.nextElement();
+		if (nextAssoc.getIsPrimary()){
+		    Hashtable<String, Vector<Instance>> instanceInfoHash = new Hashtable<>();
+		    instanceInfoHash.put(nextAssoc.getGoTerm().getRealId(), getInstancesToCache(nextAssoc));
+		    for (int j = 0; j < nextAssoc.getParents().size(); j++){
+			nextAssoc.getParents().get(j).propogateInstances(instanceInfoHash);
+		    }
+		}
+	    }
+	    assocEnum = actual.elements();
+	    while (assocEnum.hasMoreElements()){
+		assocEnum.nextElement().cacheDescendantInstances();
+	    }
+
+	    assertSameStates("seed " + seed, expected, actual);
+	}
+    }
+
+    /**
+     * getState, getInstanceCount and instanceIterator on scrubbed graphs,
+     * which must read the propogated Instances without making them, against
+     * the Instances that getInstances then makes.
+     */
+    @Test
+    public void instanceViewsMatchMadeInstances(){
+
+	int propogated = 0;
+	for (long seed = 1; seed <= TRIALS; seed++){
+	    Random random = new Random(seed);
+	    GoGraph goGraph = makeGoGraph(random, 2 + random.nextInt(30), 1 + random.nextInt(3));
+	    AssociationGraph graph = new AssociationGraph(makeAssociations(random, goGraph, 1 + random.nextInt(10)),
+							  goGraph);
+	    graph.cachePrimaryInstances();
+	    graph.deprecateAssociations();
+	    graph.adjustIsNots();
+	    graph.setDefiningLeaves();
+
+	    Enumeration<Association> assocEnum = graph.getAsList();
+	    while (assocEnum.hasMoreElements()){
+		Association nextAssoc = assocEnum.nextElement();
+		String message = "seed " + seed + ": " + nextAssoc.getGoTerm().getRealId();
+		int propogatedCount = nextAssoc.getPropogatedCount();
+		int[] state = nextAssoc.getState();
+		int instanceCount = nextAssoc.getInstanceCount();
+		Vector<Instance> viewed = new Vector<>();
+		Iterator<Instance> instanceIter = nextAssoc.instanceIterator();
+		while (instanceIter.hasNext()){
+		    viewed.add(instanceIter.next());
+		}
+		assertEquals(message + ": made by a view", propogatedCount, nextAssoc.getPropogatedCount());
+		propogated += propogatedCount;
+
+		Vector<Instance> made = nextAssoc.getInstances();
+		assertEquals(message + ": propogated after getInstances", 0, nextAssoc.getPropogatedCount());
+		assertArrayEquals(message + ": state", nextAssoc.getState(), state);
+		assertEquals(message + ": count", made.size(), instanceCount);
+		assertEquals(message + ": iterated", made.size(), viewed.size());
+		for (int i = 0; i < made.size(); i++){
+		    Instance expectedInstance = made.get(i);
+		    Instance actualInstance = viewed.get(i);
+		    assertEquals(message + ": isNot " + i, expectedInstance.getIsNot(), actualInstance.getIsNot());
+		    assertEquals(message + ": primary " + i, expectedInstance.getIsPrimary(), actualInstance.getIsPrimary());
+		    assertEquals(message + ": deprecated " + i, expectedInstance.getIsDeprecated(),
+				 actualInstance.getIsDeprecated());
+		    assertEquals(message + ": review status " + i, expectedInstance.getReviewStatusId(),
+				 actualInstance.getReviewStatusId());
+		    assertEquals(message + ": LOE " + i, expectedInstance.getLOEId(), actualInstance.getLOEId());
+		}
+	    }
+	}
+	assertTrue("no Instances were propogated", propogated > 0);
+    }
+
+    /**
+     * verifyGoAssociations and rejectGoAssociations, which apply all of the
+     * evidence sets in one pass, against applying them one at a time with
+     * the per-set Association methods.  The evidence sets are random, and
+     * often conflict with each other or with the reviewed Associations, so
+     * both the Exceptions and the states they leave behind are compared.
+     */
+    @Test
+    public void evidenceSetsMatchPerSetPropogation(){
+
+	int failures = 0;
+	for (long seed = 1; seed <= TRIALS; seed++){
+	    Random random = new Random(seed);
+	    GoGraph goGraph = makeGoGraph(random, 2 + random.nextInt(30), 1 + random.nextInt(3));
+	    long assocSeed = random.nextLong();
+	    long evidenceSeed = random.nextLong();
+	    int numAssocs = 1 + random.nextInt(10);
+	    String message = "seed " + seed;
+
+	    AssociationGraph expected = new AssociationGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs),
+							     goGraph);
+	    Vector<AssocEvidenceSet> expectedVerified = makeEvidenceSets(new Random(evidenceSeed), expected);
+	    Vector<AssocEvidenceSet> expectedRejected = makeEvidenceSets(new Random(~evidenceSeed), expected);
+	    String expectedError = null;
+	    try{
+		perSetVerifyGoAssociations(expected, expectedVerified, goGraph);
+		perSetRejectGoAssociations(expected, expectedRejected, goGraph);
+	    }
+	    catch (IllegalHierarchyException e){
+		expectedError = e.getMessage();
+		failures++;
+	    }
+
+	    AssociationGraph actual = new AssociationGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs),
+							   goGraph);
+	    Vector<AssocEvidenceSet> actualVerified = makeEvidenceSets(new Random(evidenceSeed), actual);
+	    Vector<AssocEvidenceSet> actualRejected = makeEvidenceSets(new Random(~evidenceSeed), actual);
+	    String actualError = null;
+	    try{
+		actual.verifyGoAssociations(actualVerified, goGraph);
+		actual.rejectGoAssociations(actualRejected, goGraph);
+	    }
+	    catch (IllegalHierarchyException e){
+		actualError = e.getMessage();
+	    }
+
+	    assertEquals(message + ": Exception", expectedError, actualError);
+	    Hashtable<String, Association> expectedHash = getAssociationHash(expected);
+	    Hashtable<String, Association> actualHash = getAssociationHash(actual);
+	    assertSameStates(message, expectedHash, actualHash);
+	    assertSameEvidence(message, expectedHash, actualHash);
+	}
+	assertTrue("no evidence sets conflicted", failures > 0);
+	assertTrue("all evidence sets conflicted", failures < TRIALS);
+    }
+
+    /**
+     * A scrub replayed from a PredictionOutcome against scrubbing the same
+     * Associations afresh.  Before the outcome is recorded, and again after
+     * each scrub or replay, the Instances of random Associations are made,
+     * so that the outcome holds a mix of made and propogated Instances and
+     * each graph is compared in a different mix.
+     */
+    @Test
+    public void replayedOutcomeMatchesFreshScrub(){
+
+	int propogated = 0;
+	for (long seed = 1; seed <= TRIALS; seed++){
+	    Random random = new Random(seed);
+	    GoGraph goGraph = makeGoGraph(random, 2 + random.nextInt(30), 1 + random.nextInt(3));
+	    long assocSeed = random.nextLong();
+	    int numAssocs = 1 + random.nextInt(10);
+	    String message = "seed " + seed;
+	    PredictionOutcomeCache cache = new PredictionOutcomeCache(1);
+
+	    Vector<Association> recordedAssocs = makeAssociations(new Random(assocSeed), goGraph, numAssocs);
+	    String signature = PredictionOutcomeCache.getSignature(recordedAssocs);
+	    AssociationGraph recorded = new AssociationGraph(recordedAssocs, goGraph);
+	    Hashtable<String, Integer> initialInstanceCounts = PredictionOutcome.countInstances(recorded);
+	    scrub(recorded);
+	    makeRandomInstances(random, recorded);
+	    cache.put(signature, PredictionOutcome.record(recorded, initialInstanceCounts));
+
+	    AssociationGraph expected = new AssociationGraph(makeAssociations(new Random(assocSeed), goGraph, numAssocs),
+							     goGraph);
+	    scrub(expected);
+	    makeRandomInstances(random, expected);
+
+	    Vector<Association> replayedAssocs = makeAssociations(new Random(assocSeed), goGraph, numAssocs);
+	    assertEquals(message + ": signature", signature, PredictionOutcomeCache.getSignature(replayedAssocs));
+	    AssociationGraph actual = new AssociationGraph(replayedAssocs, goGraph);
+	    PredictionOutcome outcome = cache.get(signature);
+	    assertNotNull(message + ": outcome", outcome);
+	    assertTrue(message + ": outcome applied", outcome.apply(actual));
+	    makeRandomInstances(random, actual);
+
+	    Enumeration<Association> assocEnum = actual.getAsList();
+	    while (assocEnum.hasMoreElements()){
+		propogated += assocEnum.nextElement().getPropogatedCount();
+	    }
+	    Hashtable<String, Association> expectedHash = getAssociationHash(expected);
+	    Hashtable<String, Association> actualHash = getAssociationHash(actual);
+	    assertEquals(message + ": order", getGoIds(expected.getAsList()), getGoIds(actual.getAsList()));
+	    Enumeration<String> goIds = expectedHash.keys();
+	    while (goIds.hasMoreElements()){
+		String goId = goIds.nextElement();
+		assertEquals(message + ": onIsPath of " + goId, expectedHash.get(goId).getOnIsPath(),
+			     actualHash.get(goId).getOnIsPath());
+	    }
+	    assertSameStates(message, expectedHash, actualHash);
+	    assertSameEvidence(message, expectedHash, actualHash);
+	    assertSameStates(message + " (all made)", expectedHash, actualHash);
+	}
+	assertTrue("no propogated Instances were replayed", propogated > 0);
+    }
+
+    // ------------------------------------------------------------------
+    // Random GO DAGs and Associations
+    // ------------------------------------------------------------------
+
+    /**
+     * Returns a GoGraph of <code>numTerms</code> terms, GO:0000000 (the root)
+     * to GO:(numTerms-1), in which every other term has between 1 and
+     * maxParents parents with lower numbers.
+     */
+    private static GoGraph makeGoGraph(Random random, int numTerms, int maxParents){
+
+	GoResultSet grs = new GoResultSet();
+	grs.addGoTermInfo(ROOT_GO_ID, 0, GoResultSet.NULL_CHILD_ID);
+	for (int i = 1; i < numTerms; i++){
+	    grs.addGoTermInfo(getGoId(i), i, GoResultSet.NULL_CHILD_ID);
+	    int numParents = 1 + random.nextInt(Math.min(i, maxParents));
+	    boolean[] isParent = new boolean[i];
+	    for (int k = 0; k < numParents; k++){
+		int parent = random.nextInt(i);
+		if (!isParent[parent]){
+		    isParent[parent] = true;
+		    grs.addGoTermInfo(getGoId(parent), parent, i);
+		}
+	    }
+	}
+	return new GoGraph(grs, ROOT_GO_ID);
+    }
+
+    private static String getGoId(int i){
+	return String.format("GO:%07d", Integer.valueOf(i));
+    }
+
+    /**
+     * Returns <code>numAssocs</code> Associations with random state and
+     * Instances; some may share a GO Term.  The same Random state gives
+     * equal Associations.
+     */
+    private static Vector<Association> makeAssociations(Random random, GoGraph goGraph, int numAssocs){
+
+	int numTerms = goGraph.getAllGoTerms().size();
+	Vector<Association> assocs = new Vector<>();
+	for (int i = 0; i < numAssocs; i++){
+	    Association assoc = new Association(goGraph.getGoTermFromGusGoId(random.nextInt(numTerms)));
+	    if (random.nextInt(4) > 0){
+		assoc.setObject(Integer.valueOf(i));
+	    }
+	    assoc.setIsNot(random.nextInt(5) == 0);
+	    assoc.setReviewStatusId(REVIEW_STATUS_IDS[random.nextInt(REVIEW_STATUS_IDS.length)]);
+	    assoc.setIsDeprecated(random.nextInt(6) == 0);
+	    int numInstances = random.nextInt(4);
+	    for (int j = 0; j < numInstances; j++){
+		Instance instance = new Instance();
+		instance.setIsPrimary(random.nextInt(5) > 0);
+		instance.setIsNot(random.nextInt(4) == 0);
+		instance.setIsDeprecated(random.nextInt(6) == 0);
+		instance.setLOEId(LOE_IDS[random.nextInt(LOE_IDS.length)]);
+		instance.setReviewStatusId(REVIEW_STATUS_IDS[random.nextInt(REVIEW_STATUS_IDS.length)]);
+		assoc.addInstance(instance);
+	    }
+	    assocs.add(assoc);
+	}
+	return assocs;
+    }
+
+    /**
+     * Returns up to four evidence sets for random GO Terms of <code>graph</code>,
+     * each with up to three Instances; some may share a GO Term.  The same
+     * Random state gives equal evidence sets for graphs with the same GO Terms.
+     */
+    private static Vector<AssocEvidenceSet> makeEvidenceSets(Random random, AssociationGraph graph){
+
+	Vector<Association> assocs = new Vector<>();
+	Enumeration<Association> assocEnum = graph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    assocs.add(assocEnum.nextElement());
+	}
+	Vector<AssocEvidenceSet> assocEvidenceSets = new Vector<>();
+	int numSets = random.nextInt(5);
+	for (int i = 0; i < numSets; i++){
+	    Association assoc = assocs.get(random.nextInt(assocs.size()));
+	    AssocEvidenceSet assocEvidenceSet = new AssocEvidenceSet(assoc.getGoTerm().getGusId());
+	    int numInstances = random.nextInt(4);
+	    for (int j = 0; j < numInstances; j++){
+		Instance instance = new Instance();
+		instance.setIsPrimary(true);
+		instance.setIsNot(random.nextBoolean());
+		instance.setLOEId(LOE_IDS[random.nextInt(LOE_IDS.length)]);
+		instance.setReviewStatusId(Association.REVIEWED_ID);
+		instance.setEvidenceObject("evidence " + i + "." + j);
+		assocEvidenceSet.addInstance(instance);
+	    }
+	    assocEvidenceSets.add(assocEvidenceSet);
+	}
+	return assocEvidenceSets;
+    }
+
+    /**
+     * The scrub, as GoPredictionEngine runs it.
+     */
+    private static void scrub(AssociationGraph graph){
+
+	graph.cachePrimaryInstances();
+	graph.deprecateAssociations();
+	graph.adjustIsNots();
+	graph.setDefiningLeaves();
+    }
+
+    /**
+     * Makes the propogated Instances of about a third of the Associations of
+     * <code>graph</code>.
+     */
+    private static void makeRandomInstances(Random random, AssociationGraph graph){
+
+	Enumeration<Association> assocEnum = graph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    if (random.nextInt(3) == 0){
+		nextAssoc.getInstances();
+	    }
+	}
+    }
+
+    // ------------------------------------------------------------------
+    // Comparison
+    // ------------------------------------------------------------------
+
+    private static void assertSameAssociations(String message, Hashtable<String, Association> expected,
+					       AssociationGraph actual){
+
+	Hashtable<String, Association> actualHash = getAssociationHash(actual);
+	assertEquals(message + ": GO Ids", expected.keySet(), actualHash.keySet());
+	assertEquals(message + ": order", getGoIds(expected.elements()), getGoIds(actual.getAsList()));
+
+	Enumeration<String> goIds = expected.keys();
+	while (goIds.hasMoreElements()){
+	    String goId = goIds.nextElement();
+	    Association expectedAssoc = expected.get(goId);
+	    Association actualAssoc = actualHash.get(goId);
+	    //the graft's replaceParent moved parents to the end of the list; no result depends on link order
+	    assertEquals(message + ": parents of " + goId, new TreeSet<>(getGoIds(expectedAssoc.getParents().elements())),
+			 new TreeSet<>(getGoIds(actualAssoc.getParents().elements())));
+	    assertEquals(message + ": children of " + goId, new TreeSet<>(getGoIds(expectedAssoc.getChildren().elements())),
+			 new TreeSet<>(getGoIds(actualAssoc.getChildren().elements())));
+	    assertEquals(message + ": object of " + goId, expectedAssoc.getObject(), actualAssoc.getObject());
+	    assertEquals(message + ": onIsPath of " + goId, expectedAssoc.getOnIsPath(), actualAssoc.getOnIsPath());
+	}
+	assertSameStates(message, expected, actualHash);
+    }
+
+    private static void assertSameStates(String message, Hashtable<String, Association> expected,
+					 Hashtable<String, Association> actual){
+
+	assertEquals(message + ": GO Ids", expected.keySet(), actual.keySet());
+	Enumeration<String> goIds = expected.keys();
+	while (goIds.hasMoreElements()){
+	    String goId = goIds.nextElement();
+	    assertNotNull(message + ": " + goId, actual.get(goId));
+	    assertArrayEquals(message + ": state of " + goId, expected.get(goId).getState(),
+			      actual.get(goId).getState());
+	}
+    }
+
+    /**
+     * Compares what getState leaves out: the evidence of each Instance and
+     * whether it came from a rejected child.
+     */
+    private static void assertSameEvidence(String message, Hashtable<String, Association> expected,
+					   Hashtable<String, Association> actual){
+
+	Enumeration<String> goIds = expected.keys();
+	while (goIds.hasMoreElements()){
+	    String goId = goIds.nextElement();
+	    Vector<Instance> expectedInstances = expected.get(goId).getInstances();
+	    Vector<Instance> actualInstances = actual.get(goId).getInstances();
+	    for (int i = 0; i < expectedInstances.size(); i++){
+		assertEquals(message + ": evidence of " + goId + " Instance " + i,
+			     expectedInstances.get(i).getEvidenceObject(), actualInstances.get(i).getEvidenceObject());
+		assertEquals(message + ": rejected child of " + goId + " Instance " + i,
+			     expectedInstances.get(i).isFromRejectedChild(), actualInstances.get(i).isFromRejectedChild());
+	    }
+	}
+    }
+
+    private static Hashtable<String, Association> getAssociationHash(AssociationGraph graph){
+
+	Hashtable<String, Association> assocHash = new Hashtable<>();
+	Enumeration<Association> assocEnum = graph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    assocHash.put(nextAssoc.getGoTerm().getRealId(), nextAssoc);
+	}
+	return assocHash;
+    }
+
+    private static Vector<String> getGoIds(Enumeration<Association> assocEnum){
+
+	Vector<String> goIds = new Vector<>();
+	while (assocEnum.hasMoreElements()){
+	    goIds.add(assocEnum.nextElement().getGoTerm().getRealId());
+	}
+	return goIds;
+    }
+
+    // ------------------------------------------------------------------
+    // Recursive algorithms
+    // ------------------------------------------------------------------
+
+    /**
+     * AssociationGraph.verifyGoAssociations as it was, propogating each
+     * evidence set on its own with Association.propogateVerifiedUp and
+     * propogateVerifiedInstancesUp.
+     */
+    private static void perSetVerifyGoAssociations(AssociationGraph graph, Vector<AssocEvidenceSet> verifiedAssocEvidenceSets,
+						   GoGraph goGraph) throws IllegalHierarchyException{
+
+	for (int i = 0; i < verifiedAssocEvidenceSets.size(); i++){
+	    AssocEvidenceSet nextAssocEvidenceSet = verifiedAssocEvidenceSets.elementAt(i);
+	    Association verifiedAssoc = findEvidenceSetAssoc(graph, nextAssocEvidenceSet, goGraph);
+	    verifiedAssoc.setReviewStatusId(Association.REVIEWED_ID);
+	    verifiedAssoc.setIsNot(false);
+	    Vector<Instance> evidenceSetInstances = nextAssocEvidenceSet.getInstances();
+	    for (int j = 0; j < evidenceSetInstances.size(); j++){
+		verifiedAssoc.addInstance(evidenceSetInstances.elementAt(j));
+	    }
+	}
+	for (int i = 0; i < verifiedAssocEvidenceSets.size(); i++){
+	    AssocEvidenceSet nextAssocEvidenceSet = verifiedAssocEvidenceSets.elementAt(i);
+	    Association verifiedAssoc = findEvidenceSetAssoc(graph, nextAssocEvidenceSet, goGraph);
+	    verifiedAssoc.propogateVerifiedUp(verifiedAssoc.getGoTerm().getRealId());
+	    verifiedAssoc.propogateVerifiedInstancesUp(nextAssocEvidenceSet);
+	}
+	addAllPropogatedInstances(graph);
+    }
+
+    /**
+     * AssociationGraph.rejectGoAssociations as it was, propogating each
+     * evidence set on its own with Association.propogateIsNotDown,
+     * propogateRejectedInstancesDown and propogateRejectedInstancesUp.
+     */
+    private static void perSetRejectGoAssociations(AssociationGraph graph, Vector<AssocEvidenceSet> rejectedAssocEvidenceSets,
+						   GoGraph goGraph) throws IllegalHierarchyException{
+
+	for (int i = 0; i < rejectedAssocEvidenceSets.size(); i++){
+	    AssocEvidenceSet nextAssocEvidenceSet = rejectedAssocEvidenceSets.elementAt(i);
+	    Association rejectedAssoc = findEvidenceSetAssoc(graph, nextAssocEvidenceSet, goGraph);
+	    rejectedAssoc.setReviewStatusId(Association.REVIEWED_ID);
+	    rejectedAssoc.setIsNot(true);
+	    Vector<Instance> evidenceSetInstances = nextAssocEvidenceSet.getInstances();
+	    for (int j = 0; j < evidenceSetInstances.size(); j++){
+		rejectedAssoc.addInstance(evidenceSetInstances.elementAt(j));
+	    }
+	}
+	for (int i = 0; i < rejectedAssocEvidenceSets.size(); i++){
+	    AssocEvidenceSet nextAssocEvidenceSet = rejectedAssocEvidenceSets.elementAt(i);
+	    Association rejectedAssoc = findEvidenceSetAssoc(graph, nextAssocEvidenceSet, goGraph);
+	    rejectedAssoc.propogateIsNotDown(false, rejectedAssoc.getGoTerm().getRealId());
+	    rejectedAssoc.propogateRejectedInstancesDown(nextAssocEvidenceSet);
+	}
+	addAllPropogatedInstances(graph);
+	for (int i = 0; i < rejectedAssocEvidenceSets.size(); i++){
+	    AssocEvidenceSet nextAssocEvidenceSet = rejectedAssocEvidenceSets.elementAt(i);
+	    findEvidenceSetAssoc(graph, nextAssocEvidenceSet, goGraph).propogateRejectedInstancesUp(nextAssocEvidenceSet);
+	}
+	addAllPropogatedInstances(graph);
+    }
+
+    private static Association findEvidenceSetAssoc(AssociationGraph graph, AssocEvidenceSet assocEvidenceSet,
+						    GoGraph goGraph){
+	return getAssociationHash(graph).get(goGraph.getGoTermFromGusGoId(assocEvidenceSet.getModifiedGoTermId()).getRealId());
+    }
+
+    private static void addAllPropogatedInstances(AssociationGraph graph){
+
+	Enumeration<Association> assocEnum = graph.getAsList();
+	while (assocEnum.hasMoreElements()){
+	    assocEnum.nextElement().addPropogatedInstances();
+	}
+    }
+
+    /**
+     * AssociationGraph(Vector, GoGraph) as it was: the first Association's
+     * graph is grown and the rest are each grown into a temporary
+     * AssociationGraph that is then grafted on.
+     */
+    private static Hashtable<String, Association> buildGraftedGraph(Vector<Association> assocList, GoGraph goGraph){
+
+	Hashtable<String, Association> associationHash = new Hashtable<>();
+	growBasicGraph(assocList.get(0), associationHash);
+	IdentityHashMap<Association, String> alreadyAdded = new IdentityHashMap<>();
+	for (int i = 1; i < assocList.size(); i++){
+	    Association nextAssoc = assocList.get(i);
+	    growBasicGraph(nextAssoc, new Hashtable<String, Association>());
+	    graftAssociation(nextAssoc, null, associationHash, alreadyAdded);
+	}
+	return associationHash;
+    }
+
+    private static void growBasicGraph(Association assoc, Hashtable<String, Association> associationHash){
+
+	associationHash.put(assoc.getGoTerm().getRealId(), assoc);
+	Vector<GoTerm> goParents = assoc.getGoTerm().getParents();
+	for (int i = 0; i < goParents.size(); i++){
+	    GoTerm currentGoParent = goParents.get(i);
+	    Association parent = associationHash.get(currentGoParent.getRealId());
+	    if (parent == null){
+		parent = new Association(currentGoParent);
+		growBasicGraph(parent, associationHash);
+	    }
+	    parent.addChild(assoc);
+	}
+    }
+
+    private static void graftAssociation(Association assoc, Association childAssoc,
+					 Hashtable<String, Association> associationHash,
+					 IdentityHashMap<Association, String> alreadyAdded){
+
+	Association prevAssoc = associationHash.get(assoc.getGoTerm().getRealId());
+	if (prevAssoc == assoc){
+	    return;
+	}
+	if (childAssoc != null && prevAssoc != null){
+	    childAssoc.replaceParent(prevAssoc);
+	}
+	if (alreadyAdded.put(assoc, "1") != null){
+	    return;
+	}
+	Association needsLink = null;
+	if (prevAssoc != null){
+	    Vector<Instance> instances = assoc.getInstances();
+	    for (int i = 0; i < instances.size(); i++){
+		prevAssoc.addInstance(instances.get(i));
+	    }
+	    if (assoc.getObject() != null){
+		prevAssoc.absorbStateFromAssociation(assoc);
+	    }
+	}
+	else{
+	    associationHash.put(assoc.getGoTerm().getRealId(), assoc);
+	    needsLink = assoc;
+	}
+	Vector<Association> parents = new Vector<>(assoc.getParents());
+	for (int i = 0; i < parents.size(); i++){
+	    graftAssociation(parents.get(i), needsLink, associationHash, alreadyAdded);
+	}
+    }
+
+    /**
+     * AssociationGraph.cachePrimaryInstances as it was, with
+     * Association.propogateInstances and cacheDescendantInstances as they
+     * were: each primary Association's Instances are propogated up every
+     * path, and cached as clones.
+     */
+    private static void recursiveCachePrimaryInstances(Hashtable<String, Association> associationHash){
+
+	IdentityHashMap<Association, Hashtable<String, Vector<Instance>>> cachedInstances = new IdentityHashMap<>();
+	Enumeration<Association> assocEnum = associationHash.elements();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    if (nextAssoc.getIsPrimary()){
+		Hashtable<String, Vector<Instance>> instanceInfoHash = new Hashtable<>();
+		instanceInfoHash.put(nextAssoc.getGoTerm().getRealId(), getInstancesToCache(nextAssoc));
+		Vector<Association> parents = nextAssoc.getParents();
+		for (int j = 0; j < parents.size(); j++){
+		    recursivePropogateInstances(parents.get(j), instanceInfoHash, cachedInstances);
+		}
+	    }
+	}
+	assocEnum = associationHash.elements();
+	while (assocEnum.hasMoreElements()){
+	    Association nextAssoc = assocEnum.nextElement();
+	    Hashtable<String, Vector<Instance>> assocCachedInstances = cachedInstances.get(nextAssoc);
+	    if (assocCachedInstances == null){
+		continue;
+	    }
+	    Enumeration<String> descendantIds = assocCachedInstances.keys();
+	    while (descendantIds.hasMoreElements()){
+		Vector<Instance> descendantInstances = assocCachedInstances.get(descendantIds.nextElement());
+		for (int i = 0; i < descendantInstances.size(); i++){
+		    nextAssoc.addInstance(descendantInstances.get(i).cloneNotPrimary());
+		}
+	    }
+	}
+    }
+
+    private static Vector<Instance> getInstancesToCache(Association assoc){
+
+	Vector<Instance> instanceList = new Vector<>();
+	Vector<Instance> assocInstances = assoc.getInstances();
+	for (int i = 0; i < assocInstances.size(); i++){
+	    Instance nextInstance = assocInstances.get(i);
+	    if (nextInstance.getIsPrimary() &&
+		nextInstance.getIsDeprecated() == false &&
+		nextInstance.getIsNot() == false &&
+		nextInstance.getLOEId() != Association.CBIL_PREDICT_LOE &&
+		nextInstance.getLOEId() != Association.SCRUBBER_LOE &&
+		nextInstance.getLOEId() != Association.OBSOLETE_LOE){
+
+		instanceList.add(nextInstance);
+	    }
+	}
+	return instanceList;
+    }
+
+    private static void recursivePropogateInstances(Association assoc, Hashtable<String, Vector<Instance>> instanceInfoHash,
+						    IdentityHashMap<Association, Hashtable<String, Vector<Instance>>> cachedInstances){
+
+	if (assoc.getIsNot() == false){
+	    Hashtable<String, Vector<Instance>> assocCachedInstances = cachedInstances.get(assoc);
+	    if (assocCachedInstances == null){
+		assocCachedInstances = new Hashtable<>();
+		cachedInstances.put(assoc, assocCachedInstances);
+	    }
+	    Enumeration<String> descendantGoIds = instanceInfoHash.keys();
+	    while (descendantGoIds.hasMoreElements()){
+		String nextGoId = descendantGoIds.nextElement();
+		Vector<Instance> descendantInstances = instanceInfoHash.get(nextGoId);
+		Vector<Instance> instancesToCache;
+		if (recursiveHasNoIsDescendants(assoc) == true){
+		    instancesToCache = descendantInstances;
+		    assoc.setIsNot(true);
+		}
+		else{
+		    instancesToCache = new Vector<>();
+		    for (int i = 0; i < descendantInstances.size(); i++){
+			if (descendantInstances.get(i).getIsNot() == false){
+			    instancesToCache.add(descendantInstances.get(i));
+			}
+		    }
+		}
+		assocCachedInstances.put(nextGoId, instancesToCache);
+	    }
+	    Vector<Association> parents = assoc.getParents();
+	    for (int j = 0; j < parents.size(); j++){
+		recursivePropogateInstances(parents.get(j), instanceInfoHash, cachedInstances);
+	    }
+	}
+    }
+
+    private static boolean recursiveHasNoIsDescendants(Association assoc){
+
+	if (assoc.getIsPrimary() == true && assoc.getIsNot() == false){
+	    return false;
+	}
+	Vector<Association> children = assoc.getChildren();
+	for (int i = 0; i < children.size(); i++){
+	    if (recursiveHasNoIsDescendants(children.get(i)) == false){
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    private static void deprecateAssociations(Hashtable<String, Association> associationHash){
+
+	Enumeration<Association> assocEnum = associationHash.elements();
+	while (assocEnum.hasMoreElements()){
+	    assocEnum.nextElement().deprecateIfInstancesDeprecated();
+	}
+    }
+
+    private static void recursiveInitializeOnIsPath(Association assoc){
+
+	if (assoc.getIsNot() == false){
+	    assoc.setOnIsPath(true);
+	    Vector<Association> children = assoc.getChildren();
+	    for (int i = 0; i < children.size(); i++){
+		recursiveInitializeOnIsPath(children.get(i));
+	    }
+	}
+    }
+
+    private static void setIsNotsFromIsPath(Hashtable<String, Association> associationHash){
+
+	Enumeration<Association> assocEnum = associationHash.elements();
+	while (assocEnum.hasMoreElements()){
+	    assocEnum.nextElement().setIsNotFromIsPath();
+	}
+    }
+
+    private static boolean recursiveDetermineAndSetDefining(Association assoc){
+
+	boolean haveDefiningChildren = false;
+	Vector<Association> children = assoc.getChildren();
+	for (int i = 0; i < children.size(); i++){
+	    if (recursiveDetermineAndSetDefining(children.get(i)) == true){
+		haveDefiningChildren = true;
+	    }
+	}
+	if (haveDefiningChildren == true){
+	    return true;
+	}
+	if (assoc.getIsDeprecated() == true ||
+	    assoc.getIsNot() == true ||
+	    assoc.getIsPrimary() == false){
+
+	    return false;
+	}
+	assoc.setIsDefining(true);
+	return true;
+    }
+}
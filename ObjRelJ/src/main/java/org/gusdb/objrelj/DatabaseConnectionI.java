@@ -95,6 +95,31 @@ public interface DatabaseConnectionI {
     public SubmitResult submitGUSRow(GUSRow obj)
 	throws RemoteException;
 
+    /**
+     * Generate a block of new primary key values for a table.
+     *
+     * @param table       The table for which new primary key values are needed.
+     * @param n           The number of values to generate.
+     * @return An array of <code>n</code> unused primary key values, or null if they
+     *         could not be generated.
+     */
+    public long[] getNewPrimaryKeys(GUSTable table, int n)
+	throws RemoteException;
+
+    /**
+     * Insert a set of new rows using a single batch of SQL statements.  Each row
+     * must already have been assigned its primary key value (e.g. by using
+     * <code>getNewPrimaryKeys</code>), and any rows that it references must 
+     * either precede it in <code>rows</code> or already be in the database.
+     * As with <code>submitGUSRow</code> the GUSRow objects themselves will
+     * <b>not</b> be modified.
+     *
+     * @param rows        A Vector of GUSRows to insert.
+     * @return The result of the inserts.
+     */
+    public SubmitResult insertGUSRows(Vector rows)
+	throws RemoteException;
+
     /**
      * Retrieve a row (parent) referenced by another.
      *
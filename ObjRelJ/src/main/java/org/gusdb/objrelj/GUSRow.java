@@ -563,8 +563,15 @@ public abstract class GUSRow implements java.io.Serializable {
         return xml.toString();
     }
     
+    /**
+     * Dump the current values of this row's local children in XML.  For large
+     * object graphs use <code>GUSRowXMLWriter</code> instead, which streams the
+     * rows rather than building a single String.
+     *
+     * @return An XML string that represents the children of this row.
+     */
     public String childrenToXML(){
-	String allChildren = "All children for this GUSRow: ";
+	StringBuffer allChildren = new StringBuffer("All children for this GUSRow: ");
 	Enumeration childKeys = children.keys();
 	while (childKeys.hasMoreElements()){
 	    String nextChildKey = (String)childKeys.nextElement();
@@ -573,10 +580,10 @@ public abstract class GUSRow implements java.io.Serializable {
 	    for (int i = 0; i < nextChildList.size(); i++){
 		    
 		GUSRow nextChild = (GUSRow)nextChildList.elementAt(i);
-		allChildren = allChildren + nextChild.toXML();
+		allChildren.append(nextChild.toXML());
 	    }
 	}
-	return allChildren;
+	return allChildren.toString();
     }
 
 
@@ -707,6 +714,15 @@ public abstract class GUSRow implements java.io.Serializable {
     protected abstract void setPrimaryKeyValue(Long newId) 
 	throws ClassNotFoundException,InstantiationException, IllegalAccessException, SQLException;
 
+    /**
+     * Forget a primary key value assigned to a new row that was never
+     * inserted, so that the row is new (<code>getPrimaryKeyValue() == -1</code>)
+     * again.
+     */
+    protected void clearPrimaryKeyValue() {
+	attributeValues.remove(getTable().getPrimaryKeyName());
+    }
+
     /**
      * Sets the database value of an attribute to a particular value.
      * Called by a GUSRow subclass to initialize <code>attributeValues</code> with 
@@ -1,5 +1,7 @@
 package org.gusdb.objrelj;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.Vector;
@@ -46,6 +48,24 @@ public class GUSRowFactory implements java.io.Serializable {
      */
     private int maxObjects;
 
+    /**
+     * Optional second tier to which clean rows are moved when the factory
+     * is full.  Not serialized: a deserialized factory has no spill cache.
+     */
+    private transient GUSRowSpillCache spillCache;
+
+    /**
+     * Weak references to the rows that have been spilled, keyed as in
+     * <code>objects</code>.  A spilled row that is still referenced elsewhere
+     * (by the application, or as the child of a row in the factory) is put
+     * back in the factory as it is when it is next looked up, instead of
+     * being rehydrated as a second GUSRow for the same row.  Entries whose
+     * rows have been garbage collected are dropped through
+     * <code>spilledQueue</code>.
+     */
+    private transient Hashtable<String,SpilledRow> spilled;
+    private transient ReferenceQueue<GUSRow> spilledQueue;
+
     // ------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------
@@ -97,24 +117,51 @@ public class GUSRowFactory implements java.io.Serializable {
 	return this.maxObjects;
     }
     
+    /**
+     * Set (or, if null, remove) the cache to which clean rows are moved when
+     * the factory is full.  With a spill cache, <code>add</code> only fails if
+     * the factory is full of new or modified rows.
+     */
+    public void setSpillCache(GUSRowSpillCache spillCache) {
+	this.spillCache = spillCache;
+	this.spilled = new Hashtable<>();
+	this.spilledQueue = new ReferenceQueue<>();
+    }
+
+    public GUSRowSpillCache getSpillCache() {
+	return this.spillCache;
+    }
+
     /**
      * Clear the factory.
      */
     public void clear() {
 	this.objects.clear();
+	if (spillCache != null) {
+	    spillCache.clear();
+	    spilled.clear();
+	}
     }
     
     /**
-     * Add a single GUSRow object to the factory.
+     * Add a single GUSRow object to the factory.  Any copy of the row in the
+     * spill cache is dropped once <code>obj</code> has been added.
      * 
      * @param obj   GUSRow object to add to the factory.
      */
     public void add(GUSRow obj) {
+	if ((this.maxObjects > 0) && (getNumObjs() + 1 > this.maxObjects) && (spillCache != null)) {
+	    spillCleanRows(this.maxObjects / 2);
+	}
 	if ((this.maxObjects > 0) && (getNumObjs() + 1 > this.maxObjects)) {
 	    throw new IllegalArgumentException("GUSRowFactory: factory is full");
 	}
 	String key = getKey(obj);
 	this.objects.put(key, obj);
+	if (spillCache != null) {
+	    spilled.remove(key);
+	    spillCache.remove(obj.getTable(), obj.getPrimaryKeyValue());
+	}
     }
 
     /**
@@ -127,7 +174,11 @@ public class GUSRowFactory implements java.io.Serializable {
      */
     public GUSRow get(String owner, String tname, long pk) {
 	String obj_key = getKey(owner, tname, pk);
-	return (GUSRow)objects.get(obj_key);
+	GUSRow row = (GUSRow)objects.get(obj_key);
+	if (row == null && spillCache != null) {
+	    row = unspill(obj_key, GUSTable.getTableByName(owner, tname), pk);
+	}
+	return row;
     }
     
     /**
@@ -140,7 +191,11 @@ public class GUSRowFactory implements java.io.Serializable {
 	if (obj == null) return null;
 	String obj_key = getKey(obj);
 	System.err.println("GUSRowFactory.get: attempting to retrieve gusrow using object key " + obj_key);
-	return (GUSRow)objects.get(obj_key);
+	GUSRow row = (GUSRow)objects.get(obj_key);
+	if (row == null && spillCache != null) {
+	    row = unspill(obj_key, obj.getTable(), obj.getPrimaryKeyValue());
+	}
+	return row;
     }
     
     /**
@@ -202,6 +257,10 @@ public class GUSRowFactory implements java.io.Serializable {
      */    
     public GUSRow remove(String owner, String tname, long pk) {
 	String obj_key = this.getKey(owner, tname, pk);
+	if (spillCache != null) {
+	    spilled.remove(obj_key);
+	    spillCache.remove(GUSTable.getTableByName(owner, tname), pk);
+	}
 	return (GUSRow)(this.objects.remove(obj_key));
     }
     
@@ -212,6 +271,10 @@ public class GUSRowFactory implements java.io.Serializable {
      */
     public GUSRow remove(GUSRow obj){
 	String obj_key = this.getKey(obj);
+	if (spillCache != null) {
+	    spilled.remove(obj_key);
+	    spillCache.remove(obj.getTable(), obj.getPrimaryKeyValue());
+	}
 	return (GUSRow)(this.objects.remove(obj_key));
     }
 
@@ -219,6 +282,69 @@ public class GUSRowFactory implements java.io.Serializable {
     // Protected methods
     // ------------------------------------------------------------------
 
+    /**
+     * Move clean rows to the spill cache until at most <code>target</code>
+     * rows remain in memory (or no clean rows remain.)  A row with changes
+     * that have not been submitted is never spilled.
+     *
+     * @return The number of rows spilled.
+     */
+    protected int spillCleanRows(int target) {
+	expungeSpilled();
+	int numSpilled = 0;
+	Enumeration keys = objects.keys();
+	while (keys.hasMoreElements() && getNumObjs() > target) {
+	    String key = (String)keys.nextElement();
+	    GUSRow row = (GUSRow)objects.get(key);
+	    try {
+		if (spillCache.spill(row)) {
+		    objects.remove(key);
+		    spilled.put(key, new SpilledRow(key, row, spilledQueue));
+		    ++numSpilled;
+		}
+	    }
+	    catch (java.io.IOException ioe) {
+		ioe.printStackTrace();
+		break;
+	    }
+	}
+	return numSpilled;
+    }
+
+    /**
+     * Put a spilled row back in the factory: the GUSRow that was spilled, if
+     * it is still referenced elsewhere, or else a new one rehydrated from the
+     * spill cache.  The row is dropped from the spill cache only once it has
+     * been added, so if the factory is full it stays there.
+     *
+     * @return The row, or null if it has not been spilled.
+     */
+    protected GUSRow unspill(String key, GUSTable table, long pk) {
+	expungeSpilled();
+	SpilledRow ref = spilled.get(key);
+	GUSRow row = (ref == null) ? null : ref.get();
+	if (row == null) {
+	    if (table == null) return null;
+	    row = spillCache.get(table, pk);
+	    if (row == null) return null;
+	}
+	add(row);
+	return row;
+    }
+
+    /**
+     * Drop the spilled rows that have been garbage collected from
+     * <code>spilled</code>; they are now only in the spill cache.
+     */
+    protected void expungeSpilled() {
+	SpilledRow ref;
+	while ((ref = (SpilledRow)spilledQueue.poll()) != null) {
+	    if (spilled.get(ref.key) == ref) {
+		spilled.remove(ref.key);
+	    }
+	}
+    }
+
     /**
      * @param owner    Owner of the GUSRow's table.
      * @param tname    The GUSRow's table.
@@ -239,6 +365,22 @@ public class GUSRowFactory implements java.io.Serializable {
 	return getKey(t.getSchemaName(), t.getTableName(), obj.getPrimaryKeyValue());
     }
 
+    // ------------------------------------------------------------------
+    // SpilledRow
+    // ------------------------------------------------------------------
+
+    /**
+     * A weak reference to a spilled row, which knows the row's key.
+     */
+    private static class SpilledRow extends WeakReference<GUSRow> {
+	final String key;
+
+	SpilledRow(String key, GUSRow row, ReferenceQueue<GUSRow> queue) {
+	    super(row, queue);
+	    this.key = key;
+	}
+    }
+
 } //GUSRowFactory
 
 
@@ -0,0 +1,561 @@
+package org.gusdb.objrelj;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+
+/**
+ * GUSRowSpillCache.java
+ *
+ * A second, disk-based tier for <code>GUSRowFactory</code>.  Clean rows
+ * (i.e., rows that have been retrieved from the database and not modified
+ * since) are written to a memory-mapped file in a compact binary encoding
+ * and dropped from the factory.  <code>GUSRowFactory</code> keeps a weak
+ * reference to each spilled row, so a row still referenced elsewhere is
+ * put back as it is, and only a row that has been garbage collected is
+ * rehydrated into a new GUSRow object when it is next looked up.  The index that maps (table, primary key)
+ * to a position in the file is an open-addressing hash table held in a
+ * direct (off-heap) buffer, so the heap used by the cache does not grow
+ * with the number of rows spilled.
+ *
+ * Only attribute values are stored: children are not, and foreign key
+ * attributes are stored as (table, primary key) and rehydrated as lazy
+ * parents through the <code>ServerI</code>.  The file is append-only; space
+ * used by rows that have been rehydrated or removed is reclaimed only by
+ * <code>clear()</code>.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class GUSRowSpillCache {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Size of each region of the file that is mapped into memory.  No row
+     * larger than this will be spilled.
+     */
+    static private int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static private int INITIAL_INDEX_CAPACITY = 1 << 16;
+
+    /**
+     * Index entry layout: pk (long), table index + 1 (int; 0 = empty, -1 = removed),
+     * record length (int), record offset (long).
+     */
+    static private int ENTRY_SIZE = 24;
+
+    // Value type tags
+    static private final byte T_NULL = 0;
+    static private final byte T_STRING = 1;
+    static private final byte T_BOOLEAN = 2;
+    static private final byte T_SHORT = 3;
+    static private final byte T_INTEGER = 4;
+    static private final byte T_LONG = 5;
+    static private final byte T_FLOAT = 6;
+    static private final byte T_DOUBLE = 7;
+    static private final byte T_BIGDECIMAL = 8;
+    static private final byte T_DATE = 9;
+    static private final byte T_TIME = 10;
+    static private final byte T_TIMESTAMP = 11;
+    static private final byte T_CHARS = 12;
+    static private final byte T_BYTES = 13;
+    static private final byte T_PARENT = 14;
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Server and session used to create rehydrated rows and their parents.
+     */
+    protected ServerI server;
+    protected String sessionId;
+
+    /**
+     * Backing file and its channel.
+     */
+    protected File file;
+    protected boolean deleteOnClose;
+    protected RandomAccessFile raf;
+    protected FileChannel channel;
+
+    /**
+     * Mapped regions of the file, each <code>SEGMENT_SIZE</code> bytes long.
+     */
+    protected ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * Offset in the file at which the next record will be written.
+     */
+    protected long writeOffset = 0;
+
+    /**
+     * Tables seen so far; the position of a table in this list is the
+     * table id stored in the file and in the index.
+     */
+    protected ArrayList<GUSTable> tables = new ArrayList<>();
+    protected IdentityHashMap<GUSTable,Integer> tableIds = new IdentityHashMap<>();
+
+    /**
+     * Off-heap hash table from (table id, primary key) to record.
+     */
+    protected ByteBuffer index;
+    protected int indexCapacity;
+    protected int indexUsed;   // live and removed entries
+    protected int numObjs;     // live entries
+
+    /**
+     * Buffer in which each record is encoded before being copied to the file.
+     */
+    protected ByteBuffer encodeBuf = ByteBuffer.allocate(4096);
+
+    // ------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------
+
+    /**
+     * Create a spill cache backed by a temporary file that is deleted when
+     * the cache is closed.
+     *
+     * @param server     Server used to retrieve the parents of rehydrated rows.
+     * @param sessionId  Session to which rehydrated rows will belong.
+     */
+    public GUSRowSpillCache(ServerI server, String sessionId) throws IOException {
+	this(server, sessionId, File.createTempFile("gusrows", ".spill"), true);
+    }
+
+    /**
+     * @param server         Server used to retrieve the parents of rehydrated rows.
+     * @param sessionId      Session to which rehydrated rows will belong.
+     * @param file           File in which to store the spilled rows; any existing contents are discarded.
+     * @param deleteOnClose  Whether to delete <code>file</code> when the cache is closed.
+     */
+    public GUSRowSpillCache(ServerI server, String sessionId, File file, boolean deleteOnClose)
+	throws IOException
+    {
+	this.server = server;
+	this.sessionId = sessionId;
+	this.file = file;
+	this.deleteOnClose = deleteOnClose;
+	if (deleteOnClose) file.deleteOnExit();
+	this.raf = new RandomAccessFile(file, "rw");
+	this.raf.setLength(0);
+	this.channel = raf.getChannel();
+	allocateIndex(INITIAL_INDEX_CAPACITY);
+    }
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    /**
+     * @return Whether <code>row</code> may be spilled, i.e. whether it has been
+     * retrieved from the database and not modified or marked for deletion since.
+     */
+    public static boolean isClean(GUSRow row) {
+	return row.isEager() && !row.hasChangedAtts() && !row.isDeleted() && (row.getPrimaryKeyValue() != -1);
+    }
+
+    /**
+     * Write a clean row to the cache.  The caller is responsible for dropping
+     * its own reference to the row.
+     *
+     * @param row   The row to spill.
+     * @return Whether the row was spilled; false if it is not clean or if one
+     *         of its attribute values has a type that can't be encoded.
+     */
+    public synchronized boolean spill(GUSRow row) throws IOException {
+	if (!isClean(row)) return false;
+
+	int tableId = getTableId(row.getTable());
+	long pk = row.getPrimaryKeyValue();
+	if (!encode(row, tableId, pk)) return false;
+
+	int len = encodeBuf.position();
+	if (len > SEGMENT_SIZE) return false;
+
+	// Records never straddle two segments
+	//
+	long segStart = (writeOffset / SEGMENT_SIZE) * SEGMENT_SIZE;
+	if (writeOffset + len > segStart + SEGMENT_SIZE) {
+	    writeOffset = segStart + SEGMENT_SIZE;
+	}
+	ByteBuffer seg = getSegment((int)(writeOffset / SEGMENT_SIZE)).duplicate();
+	seg.position((int)(writeOffset % SEGMENT_SIZE));
+	encodeBuf.flip();
+	seg.put(encodeBuf);
+
+	put(tableId, pk, writeOffset, len);
+	writeOffset += len;
+	return true;
+    }
+
+    /**
+     * Rehydrate a row.  The row is left in the cache: the caller removes it
+     * once the rehydrated row has a home.
+     *
+     * @param table  The row's table.
+     * @param pk     The row's primary key value.
+     * @return A new, eager GUSRow, or null if the row is not in the cache.
+     */
+    public synchronized GUSRow get(GUSTable table, long pk) {
+	Integer tableId = tableIds.get(table);
+	if (tableId == null) return null;
+	int slot = find(tableId.intValue(), pk);
+	if (slot < 0) return null;
+
+	long offset = index.getLong(slot + 16);
+	int len = index.getInt(slot + 12);
+	ByteBuffer rec = segments.get((int)(offset / SEGMENT_SIZE)).duplicate();
+	rec.position((int)(offset % SEGMENT_SIZE));
+	rec.limit(rec.position() + len);
+
+	// Hide the entry while decoding, since retrieving parents may re-enter
+	// the factory, and then put it back (the index may have been rehashed)
+	//
+	index.putInt(slot + 8, -1);
+	--numObjs;
+	try {
+	    return decode(rec);
+	}
+	finally {
+	    put(tableId.intValue(), pk, offset, len);
+	}
+    }
+
+    /**
+     * @return Whether the specified row is in the cache.
+     */
+    public synchronized boolean contains(GUSTable table, long pk) {
+	Integer tableId = tableIds.get(table);
+	return (tableId != null) && (find(tableId.intValue(), pk) >= 0);
+    }
+
+    /**
+     * Remove a row from the cache without rehydrating it.
+     *
+     * @return Whether the row was in the cache.
+     */
+    public synchronized boolean remove(GUSTable table, long pk) {
+	Integer tableId = tableIds.get(table);
+	if (tableId == null) return false;
+	int slot = find(tableId.intValue(), pk);
+	if (slot < 0) return false;
+	index.putInt(slot + 8, -1);
+	--numObjs;
+	return true;
+    }
+
+    /**
+     * @return The number of rows currently in the cache.
+     */
+    public synchronized int getNumObjs() {
+	return numObjs;
+    }
+
+    /**
+     * @return The number of bytes of the backing file used so far.
+     */
+    public synchronized long getBytesUsed() {
+	return writeOffset;
+    }
+
+    /**
+     * Discard all the rows in the cache and reuse the backing file from the start.
+     */
+    public synchronized void clear() {
+	allocateIndex(INITIAL_INDEX_CAPACITY);
+	writeOffset = 0;
+    }
+
+    /**
+     * Release the backing file.
+     */
+    public synchronized void close() {
+	segments.clear();
+	index = null;
+	try {
+	    channel.close();
+	    raf.close();
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+	if (deleteOnClose) file.delete();
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    protected int getTableId(GUSTable table) {
+	Integer id = tableIds.get(table);
+	if (id == null) {
+	    id = Integer.valueOf(tables.size());
+	    tables.add(table);
+	    tableIds.put(table, id);
+	}
+	return id.intValue();
+    }
+
+    protected MappedByteBuffer getSegment(int n) throws IOException {
+	while (segments.size() <= n) {
+	    long start = (long)segments.size() * SEGMENT_SIZE;
+	    segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE));
+	}
+	return segments.get(n);
+    }
+
+    // ------------------------------------------------------------------
+    // Index
+    // ------------------------------------------------------------------
+
+    protected void allocateIndex(int capacity) {
+	index = ByteBuffer.allocateDirect(capacity * ENTRY_SIZE);
+	indexCapacity = capacity;
+	indexUsed = 0;
+	numObjs = 0;
+    }
+
+    protected int hash(int tableId, long pk) {
+	long h = (pk * 0x9E3779B97F4A7C15L) ^ ((long)tableId * 0xC2B2AE3D27D4EB4FL);
+	return (int)(h ^ (h >>> 32)) & (indexCapacity - 1);
+    }
+
+    /**
+     * @return The byte offset in <code>index</code> of the live entry for
+     * (tableId, pk), or -1 if there is none.
+     */
+    protected int find(int tableId, long pk) {
+	int i = hash(tableId, pk);
+	while (true) {
+	    int slot = i * ENTRY_SIZE;
+	    int t = index.getInt(slot + 8);
+	    if (t == 0) return -1;
+	    if (t == tableId + 1 && index.getLong(slot) == pk) return slot;
+	    i = (i + 1) & (indexCapacity - 1);
+	}
+    }
+
+    protected void put(int tableId, long pk, long offset, int len) {
+	int existing = find(tableId, pk);
+	if (existing >= 0) {
+	    index.putInt(existing + 8, -1);
+	    --numObjs;
+	}
+	if ((indexUsed + 1) * 4 > indexCapacity * 3) {
+	    rehash(numObjs * 4 > indexCapacity ? indexCapacity * 2 : indexCapacity);
+	}
+	int i = hash(tableId, pk);
+	while (index.getInt(i * ENTRY_SIZE + 8) != 0) {
+	    i = (i + 1) & (indexCapacity - 1);
+	}
+	int slot = i * ENTRY_SIZE;
+	index.putLong(slot, pk);
+	index.putInt(slot + 8, tableId + 1);
+	index.putInt(slot + 12, len);
+	index.putLong(slot + 16, offset);
+	++indexUsed;
+	++numObjs;
+    }
+
+    /**
+     * Copy the live entries into a new table, dropping removed entries.
+     */
+    protected void rehash(int newCapacity) {
+	ByteBuffer old = index;
+	int oldCapacity = indexCapacity;
+	allocateIndex(newCapacity);
+	for (int i = 0; i < oldCapacity; ++i) {
+	    int slot = i * ENTRY_SIZE;
+	    int t = old.getInt(slot + 8);
+	    if (t > 0) {
+		put(t - 1, old.getLong(slot), old.getLong(slot + 16), old.getInt(slot + 12));
+	    }
+	}
+    }
+
+    // ------------------------------------------------------------------
+    // Encoding
+    // ------------------------------------------------------------------
+
+    /**
+     * Encode a row into <code>encodeBuf</code>.
+     *
+     * @return false if one of the row's values can't be encoded.
+     */
+    protected boolean encode(GUSRow row, int tableId, long pk) {
+	Hashtable atts = row.getAttributeValues();
+	String attNames[] = row.getTable().getAttributeNames();
+
+	encodeBuf.clear();
+	ensure(14);
+	encodeBuf.putInt(tableId);
+	encodeBuf.putLong(pk);
+	encodeBuf.putShort((short)atts.size());
+
+	Enumeration keys = atts.keys();
+	while (keys.hasMoreElements()) {
+	    String key = (String)keys.nextElement();
+	    int col = indexOf(attNames, key);
+	    ensure(2);
+	    encodeBuf.putShort((short)col);
+	    if (col < 0) putString(key);
+	    if (!putValue(((GUSRowAttribute)atts.get(key)).getCurrentValue())) return false;
+	}
+	return true;
+    }
+
+    protected boolean putValue(Object v) {
+	ensure(13);
+	if (v == null) { encodeBuf.put(T_NULL); }
+	else if (v instanceof String) { encodeBuf.put(T_STRING); putString((String)v); }
+	else if (v instanceof Boolean) { encodeBuf.put(T_BOOLEAN); encodeBuf.put((byte)(((Boolean)v).booleanValue() ? 1 : 0)); }
+	else if (v instanceof Short) { encodeBuf.put(T_SHORT); encodeBuf.putShort(((Short)v).shortValue()); }
+	else if (v instanceof Integer) { encodeBuf.put(T_INTEGER); encodeBuf.putInt(((Integer)v).intValue()); }
+	else if (v instanceof Long) { encodeBuf.put(T_LONG); encodeBuf.putLong(((Long)v).longValue()); }
+	else if (v instanceof Float) { encodeBuf.put(T_FLOAT); encodeBuf.putFloat(((Float)v).floatValue()); }
+	else if (v instanceof Double) { encodeBuf.put(T_DOUBLE); encodeBuf.putDouble(((Double)v).doubleValue()); }
+	else if (v instanceof BigDecimal) {
+	    BigDecimal bd = (BigDecimal)v;
+	    encodeBuf.put(T_BIGDECIMAL);
+	    encodeBuf.putInt(bd.scale());
+	    putBytes(bd.unscaledValue().toByteArray());
+	}
+	else if (v instanceof java.sql.Timestamp) {
+	    encodeBuf.put(T_TIMESTAMP);
+	    encodeBuf.putLong(((java.sql.Timestamp)v).getTime());
+	    encodeBuf.putInt(((java.sql.Timestamp)v).getNanos());
+	}
+	else if (v instanceof java.sql.Time) { encodeBuf.put(T_TIME); encodeBuf.putLong(((java.sql.Time)v).getTime()); }
+	else if (v instanceof java.util.Date) { encodeBuf.put(T_DATE); encodeBuf.putLong(((java.util.Date)v).getTime()); }
+	else if (v instanceof char[]) { encodeBuf.put(T_CHARS); putString(new String((char[])v)); }
+	else if (v instanceof byte[]) { encodeBuf.put(T_BYTES); putBytes((byte[])v); }
+	else if (v instanceof GUSRow) {
+	    GUSRow parent = (GUSRow)v;
+	    if (parent.getPrimaryKeyValue() == -1) return false;
+	    encodeBuf.put(T_PARENT);
+	    encodeBuf.putInt(getTableId(parent.getTable()));
+	    encodeBuf.putLong(parent.getPrimaryKeyValue());
+	}
+	else {
+	    return false;
+	}
+	return true;
+    }
+
+    protected void putString(String s) {
+	putBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected void putBytes(byte[] b) {
+	ensure(4 + b.length);
+	encodeBuf.putInt(b.length);
+	encodeBuf.put(b);
+    }
+
+    protected void ensure(int n) {
+	if (encodeBuf.remaining() < n) {
+	    int cap = Math.max(encodeBuf.capacity() * 2, encodeBuf.position() + n);
+	    ByteBuffer bigger = ByteBuffer.allocate(cap);
+	    encodeBuf.flip();
+	    bigger.put(encodeBuf);
+	    encodeBuf = bigger;
+	}
+    }
+
+    /**
+     * Create a new row from an encoded record.
+     */
+    protected GUSRow decode(ByteBuffer rec) {
+	GUSTable table = tables.get(rec.getInt());
+	long pk = rec.getLong();
+	int nAtts = rec.getShort();
+	String attNames[] = table.getAttributeNames();
+
+	GUSRow row = GUSRow.createGUSRow(table);
+	if (row == null) return null;
+	row.setServer(server);
+	row.setSessionId(sessionId);
+	try {
+	    row.setPrimaryKeyValue(Long.valueOf(pk));
+	}
+	catch (Exception e) {
+	    e.printStackTrace();
+	    return null;
+	}
+
+	for (int i = 0; i < nAtts; ++i) {
+	    int col = rec.getShort();
+	    String att = (col >= 0) ? attNames[col] : getString(rec);
+	    byte type = rec.get();
+	    if (type == T_PARENT) {
+		GUSTable parentTable = tables.get(rec.getInt());
+		row.set_ParentRetrieved(att, parentTable, Long.valueOf(rec.getLong()));
+	    }
+	    else {
+		row.set_Retrieved(att, getValue(type, rec));
+	    }
+	}
+	row.setIsEager(true);
+	return row;
+    }
+
+    protected Object getValue(byte type, ByteBuffer rec) {
+	switch (type) {
+	case T_STRING: return getString(rec);
+	case T_BOOLEAN: return Boolean.valueOf(rec.get() != 0);
+	case T_SHORT: return Short.valueOf(rec.getShort());
+	case T_INTEGER: return Integer.valueOf(rec.getInt());
+	case T_LONG: return Long.valueOf(rec.getLong());
+	case T_FLOAT: return Float.valueOf(rec.getFloat());
+	case T_DOUBLE: return Double.valueOf(rec.getDouble());
+	case T_BIGDECIMAL: {
+	    int scale = rec.getInt();
+	    return new BigDecimal(new BigInteger(getBytes(rec)), scale);
+	}
+	case T_DATE: return new java.sql.Date(rec.getLong());
+	case T_TIME: return new java.sql.Time(rec.getLong());
+	case T_TIMESTAMP: {
+	    java.sql.Timestamp ts = new java.sql.Timestamp(rec.getLong());
+	    ts.setNanos(rec.getInt());
+	    return ts;
+	}
+	case T_CHARS: return getString(rec).toCharArray();
+	case T_BYTES: return getBytes(rec);
+	default: return null;
+	}
+    }
+
+    protected String getString(ByteBuffer rec) {
+	return new String(getBytes(rec), StandardCharsets.UTF_8);
+    }
+
+    protected byte[] getBytes(ByteBuffer rec) {
+	byte b[] = new byte[rec.getInt()];
+	rec.get(b);
+	return b;
+    }
+
+    private static int indexOf(String names[], String name) {
+	if (names == null) return -1;
+	for (int i = 0; i < names.length; ++i) {
+	    if (names[i].equals(name)) return i;
+	}
+	return -1;
+    }
+
+} //GUSRowSpillCache
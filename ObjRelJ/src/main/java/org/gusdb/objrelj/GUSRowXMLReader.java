@@ -0,0 +1,380 @@
+package org.gusdb.objrelj;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * GUSRowXMLReader.java
+ *
+ * Loads rows from the XML format written by <code>GUSRowXMLWriter</code>
+ * (and, for single-parent rows, by <code>GUSRow.toXML(int, int[])</code>)
+ * into the database.  The document is read incrementally using StAX; each
+ * row element becomes a new GUSRow, and rows are handed to
+ * <code>ServerI.submitGUSRows</code> in batches of <code>batchSize</code>,
+ * so that a large document needs neither a DOM nor a database round-trip
+ * per row.
+ *
+ * Every row is inserted as a new row: primary key columns in the document
+ * are ignored.  Foreign key columns that carry a <code>parent</code> attribute
+ * are set to the row with that <code>xml_id</code>, which must appear earlier
+ * in the document.  Only the rows of the current batch are held; once a
+ * batch has been submitted, a later reference to one of its rows is set
+ * from the primary key that the row was given.  Row-level <code>parent</code> references that are not
+ * matched by a column are resolved to the column with the same name as the
+ * parent table's primary key, which is the GUS naming convention for foreign
+ * keys.  Column values of <code>NULL</code> are skipped, as in
+ * <code>GUSRow.toXML</code>.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class GUSRowXMLReader {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    static private int DEFAULT_BATCH_SIZE = 1000;
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Server through which the rows are created and submitted.
+     */
+    protected ServerI server;
+
+    /**
+     * Session identifier returned by <code>server.openConnection</code>
+     */
+    protected String sessionId;
+
+    /**
+     * Maximum number of rows submitted in a single batch.
+     */
+    protected int batchSize;
+
+    /**
+     * Schema used for row elements that have no <code>schema</code> attribute.
+     */
+    protected String defaultSchema;
+
+    /**
+     * Rows that have been read but not yet submitted, keyed by their <code>xml_id</code>.
+     */
+    protected HashMap<Integer,GUSRow> pendingByXmlId = new HashMap<>();
+
+    /**
+     * Table and primary key of each row submitted so far, keyed by its <code>xml_id</code>.
+     */
+    protected HashMap<Integer,RowKey> keysByXmlId = new HashMap<>();
+
+    /**
+     * Rows that have been read but not yet submitted.
+     */
+    protected Vector pending = new Vector();
+
+    /**
+     * Aggregate result of all the batches submitted so far.
+     */
+    protected SubmitResult result = new SubmitResult(true, 0, 0, 0, new Vector());
+
+    // ------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------
+
+    /**
+     * Constructor.
+     *
+     * @param server         Server through which the rows are submitted.
+     * @param sessionId      A session identifier returned by <code>server.openConnection</code>
+     * @param batchSize      Maximum number of rows to submit at once.
+     * @param defaultSchema  Schema for row elements without a <code>schema</code> attribute; may be null.
+     */
+    public GUSRowXMLReader(ServerI server, String sessionId, int batchSize, String defaultSchema) {
+	this.server = server;
+	this.sessionId = sessionId;
+	this.batchSize = (batchSize > 0) ? batchSize : DEFAULT_BATCH_SIZE;
+	this.defaultSchema = defaultSchema;
+    }
+
+    public GUSRowXMLReader(ServerI server, String sessionId) {
+	this(server, sessionId, DEFAULT_BATCH_SIZE, null);
+    }
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Read an XML document and insert all of the rows that it contains.  Each
+     * batch is committed as soon as it has been submitted.
+     *
+     * @param in   Stream from which to read the document.
+     * @return The aggregate result of all the submits.
+     */
+    public SubmitResult load(InputStream in) throws XMLStreamException, GUSException {
+	XMLStreamReader xr = XMLInputFactory.newInstance().createXMLStreamReader(in);
+	try {
+	    load(xr);
+	}
+	finally {
+	    xr.close();
+	}
+	return result;
+    }
+
+    /**
+     * @return The aggregate result of all the batches submitted so far.
+     */
+    public SubmitResult getSubmitResult() {
+	return result;
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    protected void load(XMLStreamReader xr) throws XMLStreamException, GUSException {
+	int depth = 0;
+	int rowDepth = 1;
+
+	GUSRow row = null;
+	List<Integer> rowParents = null;
+	List<Integer> resolvedParents = null;
+
+	String col = null;
+	String colParent = null;
+	String colEncoding = null;
+	StringBuilder text = new StringBuilder();
+
+	while (xr.hasNext()) {
+	    int event = xr.next();
+
+	    if (event == XMLStreamConstants.START_ELEMENT) {
+		++depth;
+		String name = xr.getLocalName();
+
+		// Either a document of rows or a single row as written by GUSRow.toXML
+		//
+		if (depth == 1) {
+		    rowDepth = name.equals(GUSRowXMLWriter.ROOT_ELEMENT) ? 2 : 1;
+		}
+
+		if (depth == rowDepth) {
+		    row = startRow(xr, name);
+		    rowParents = parseIds(xr.getAttributeValue(null, "parent"));
+		    resolvedParents = new ArrayList<>();
+		}
+		else if (depth == rowDepth + 1) {
+		    col = name;
+		    colParent = xr.getAttributeValue(null, "parent");
+		    colEncoding = xr.getAttributeValue(null, "encoding");
+		    text.setLength(0);
+		}
+	    }
+	    else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+		if (col != null) {
+		    text.append(xr.getTextCharacters(), xr.getTextStart(), xr.getTextLength());
+		}
+	    }
+	    else if (event == XMLStreamConstants.END_ELEMENT) {
+		if (depth == rowDepth + 1 && row != null) {
+		    if (colParent != null) {
+			Integer parentId = Integer.valueOf(colParent.trim());
+			row.set_Attribute(col, getReference(parentId));
+			resolvedParents.add(parentId);
+		    }
+		    else {
+			setColumn(row, col, text.toString(), colEncoding);
+		    }
+		    col = null;
+		}
+		else if (depth == rowDepth && row != null) {
+		    endRow(row, rowParents, resolvedParents);
+		    row = null;
+		}
+		--depth;
+	    }
+	}
+	flush();
+    }
+
+    /**
+     * Create the row for a row element and record its <code>xml_id</code>.
+     */
+    protected GUSRow startRow(XMLStreamReader xr, String tname) throws GUSException {
+	String schema = xr.getAttributeValue(null, "schema");
+	if (schema == null) schema = defaultSchema;
+	if (schema == null) {
+	    throw new GUSException("GUSRowXMLReader: no schema given for " + tname + " at " + xr.getLocation());
+	}
+
+	GUSTable table = GUSTable.getTableByName(schema, tname);
+	if (table == null) {
+	    throw new GUSException("GUSRowXMLReader: unknown table " + schema + "." + tname);
+	}
+
+	GUSRow row = server.createGUSRow(sessionId, table);
+	row.setServer(server);
+	row.setSessionId(sessionId);
+
+	String xmlId = xr.getAttributeValue(null, "xml_id");
+	if (xmlId != null) {
+	    pendingByXmlId.put(Integer.valueOf(xmlId.trim()), row);
+	}
+	return row;
+    }
+
+    /**
+     * Resolve any row-level parents not already set through a column and
+     * queue the row for submission.
+     */
+    protected void endRow(GUSRow row, List<Integer> rowParents, List<Integer> resolvedParents)
+	throws GUSException
+    {
+	GUSTable table = row.getTable();
+	for (Integer parentId : rowParents) {
+	    if (resolvedParents.contains(parentId)) continue;
+	    Object parent = getReference(parentId);
+	    GUSTable parentTable = (parent instanceof GUSRow) ? ((GUSRow)parent).getTable() : keysByXmlId.get(parentId).table;
+	    String fk = parentTable.getPrimaryKeyName();
+	    if (!table.isValidAtt(fk)) {
+		throw new GUSException("GUSRowXMLReader: can't tell which column of " + table +
+				       " references parent " + parentId + " (" + parentTable + ")");
+	    }
+	    row.set_Attribute(fk, parent);
+	}
+
+	pending.addElement(row);
+	if (pending.size() >= batchSize) {
+	    flush();
+	}
+    }
+
+    /**
+     * Submit the pending rows, and keep only the table and primary key of
+     * each.  If the submit fails the rows are left pending, without the
+     * primary keys they were given.
+     */
+    protected void flush() throws GUSException {
+	if (pending.size() == 0) return;
+
+	SubmitResult sr = server.submitGUSRows(sessionId, pending, true);
+	result.update(sr);
+	if (!sr.submitSucceeded()) {
+	    throw new GUSException("GUSRowXMLReader: failed to submit batch of " + pending.size() +
+				   " rows: " + sr.getMessage());
+	}
+	for (Map.Entry<Integer,GUSRow> entry : pendingByXmlId.entrySet()) {
+	    GUSRow row = entry.getValue();
+	    keysByXmlId.put(entry.getKey(), new RowKey(row.getTable(), row.getPrimaryKeyValue()));
+	}
+	pendingByXmlId.clear();
+	pending = new Vector();
+    }
+
+    /**
+     * @return The value to set a column referencing the row with the specified
+     *         <code>xml_id</code> to: the row itself if it has not been submitted,
+     *         and its primary key if it has.
+     */
+    protected Object getReference(Integer xmlId) throws GUSException {
+	GUSRow row = pendingByXmlId.get(xmlId);
+	if (row != null) return row;
+
+	RowKey key = keysByXmlId.get(xmlId);
+	if (key == null) {
+	    throw new GUSException("GUSRowXMLReader: reference to xml_id " + xmlId + " before it was defined");
+	}
+	return Long.valueOf(key.pk);
+    }
+
+    /**
+     * Set a (non-reference) column from its text value, converting it to the
+     * Java type recorded for the column in the row's GUSTable.
+     */
+    protected void setColumn(GUSRow row, String col, String value, String encoding) {
+	GUSTable table = row.getTable();
+	if (col.equalsIgnoreCase(table.getPrimaryKeyName()) || value.equals("NULL")) {
+	    return;
+	}
+	GUSTableAttribute info = table.getAttributeInfo(col);
+	String javaType = (info == null) ? "java.lang.String" : info.getJavaType();
+	row.set_Attribute(col.toLowerCase(), convertValue(javaType, value, encoding));
+    }
+
+    /**
+     * Convert the text of a column element to an object of the named Java type.
+     *
+     * @param javaType   A value returned by <code>GUSTableAttribute.getJavaType()</code>
+     * @param value      Text of the column element.
+     * @param encoding   Value of the element's <code>encoding</code> attribute, if any.
+     */
+    protected Object convertValue(String javaType, String value, String encoding) {
+	String type = javaType.substring(javaType.lastIndexOf('.') + 1);
+
+	if ("base64".equals(encoding)) {
+	    return Base64.getDecoder().decode(value.trim());
+	}
+	if (type.equals("String")) return value;
+	if (type.equals("Clob")) return value.toCharArray();
+
+	String v = value.trim();
+	if (type.equals("Boolean")) return Boolean.valueOf(v.equals("1") || v.equalsIgnoreCase("true"));
+	if (type.equals("Short")) return Short.valueOf(v);
+	if (type.equals("Integer")) return Integer.valueOf(v);
+	if (type.equals("Long")) return Long.valueOf(v);
+	if (type.equals("Float")) return Float.valueOf(v);
+	if (type.equals("Double")) return Double.valueOf(v);
+	if (type.equals("BigDecimal")) return new BigDecimal(v);
+	if (type.equals("Date")) return java.sql.Date.valueOf(v.length() > 10 ? v.substring(0, 10) : v);
+	if (type.equals("Time")) return java.sql.Time.valueOf(v);
+	if (type.equals("Timestamp")) return java.sql.Timestamp.valueOf(v);
+	return value;
+    }
+
+    /**
+     * Parse a space-separated list of <code>xml_id</code>s.
+     */
+    protected List<Integer> parseIds(String ids) {
+	List<Integer> result = new ArrayList<>();
+	if (ids == null) return result;
+	String[] parts = ids.trim().split("\\s+");
+	for (int i = 0; i < parts.length; ++i) {
+	    if (parts[i].length() > 0) result.add(Integer.valueOf(parts[i]));
+	}
+	return result;
+    }
+
+    // ------------------------------------------------------------------
+    // RowKey
+    // ------------------------------------------------------------------
+
+    /**
+     * The table and primary key of a row that has been submitted.
+     */
+    protected static class RowKey {
+	final GUSTable table;
+	final long pk;
+
+	RowKey(GUSTable table, long pk) {
+	    this.table = table;
+	    this.pk = pk;
+	}
+    }
+
+} //GUSRowXMLReader
@@ -0,0 +1,323 @@
+package org.gusdb.objrelj;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Vector;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * GUSRowXMLWriter.java
+ *
+ * Writes a GUSRow and the rows reachable from it (its local children
+ * and, optionally, its parents) to an XML stream using StAX.  Unlike
+ * <code>GUSRow.toXML()</code> the document text is not accumulated in
+ * memory; each row is written as soon as it is visited, so the size of
+ * the resulting document does not matter.  The writer does keep one
+ * <code>xml_id</code> entry per row written (see <code>xmlIds</code>),
+ * so its own memory use grows linearly with the number of rows; this is
+ * small next to the rows themselves, which the caller's object graph
+ * already holds.
+ *
+ * The output uses the same row elements as <code>GUSRow.toXML(int, int[])</code>,
+ * wrapped in a single <code>gusRows</code> document element:
+ *
+ * <pre>
+ *   &lt;gusRows&gt;
+ *     &lt;NASequence schema="DoTS" xml_id="1"&gt;
+ *       &lt;na_sequence_id&gt;12&lt;/na_sequence_id&gt;
+ *       ...
+ *     &lt;/NASequence&gt;
+ *     &lt;NAFeature schema="DoTS" xml_id="2" parent="1"&gt;
+ *       &lt;na_sequence_id parent="1"&gt;12&lt;/na_sequence_id&gt;
+ *       ...
+ *     &lt;/NAFeature&gt;
+ *   &lt;/gusRows&gt;
+ * </pre>
+ *
+ * Every row is given an <code>xml_id</code> that is unique within the
+ * document.  A row is never written before the parents that it references,
+ * so the row-level <code>parent</code> attribute (a space-separated list
+ * of <code>xml_id</code>s) and the column-level <code>parent</code> attribute
+ * on foreign key columns always refer to rows that appear earlier in the
+ * stream.  Each row is written at most once, so cycles in the object graph
+ * (e.g. self-referencing tables) are harmless.
+ *
+ * Null-valued attributes are omitted; CLOB values are written as character
+ * data and BLOB values as base64-encoded character data with an
+ * <code>encoding="base64"</code> attribute.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class GUSRowXMLWriter {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    /**
+     * Name of the document element.
+     */
+    public static final String ROOT_ELEMENT = "gusRows";
+
+    // ------------------------------------------------------------------
+    // Instance variables
+    // ------------------------------------------------------------------
+
+    /**
+     * The stream to which the XML is written.
+     */
+    protected XMLStreamWriter xml;
+
+    /**
+     * Whether the local children of each row should also be written.
+     */
+    protected boolean writeChildren;
+
+    /**
+     * Whether the parents of each row should also be written.  Only parents
+     * that are new or have already been retrieved from the database are
+     * written; lazy parents are referenced by their primary key value only,
+     * so that exporting a graph never causes additional database queries.
+     */
+    protected boolean writeParents;
+
+    /**
+     * Maps each row that has been written to its <code>xml_id</code>.  Rows
+     * whose parents are still being written are mapped to the negated id.
+     * Keyed by identity, not by primary key, since new rows all have a
+     * primary key value of -1.
+     *
+     * Entries are never removed: any row written later may name any earlier
+     * row as a parent (not just its ancestors on the current path), and a
+     * row reachable along two paths must map to the same id so that it is
+     * written only once.  The map therefore grows linearly with the number
+     * of rows written; split very large exports into several documents if
+     * that matters.
+     */
+    protected IdentityHashMap<GUSRow,Integer> xmlIds = new IdentityHashMap<>();
+
+    /**
+     * The next <code>xml_id</code> to be assigned.
+     */
+    protected int nextXmlId = 1;
+
+    // ------------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------------
+
+    /**
+     * Constructor.
+     *
+     * @param out             Stream to which the (UTF-8 encoded) XML will be written.
+     * @param writeChildren   Whether to write the local children of each row.
+     * @param writeParents    Whether to write the new or retrieved parents of each row.
+     */
+    public GUSRowXMLWriter(OutputStream out, boolean writeChildren, boolean writeParents)
+	throws XMLStreamException
+    {
+	this(XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8"), writeChildren, writeParents);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param xml             StAX writer to which the rows will be written.
+     * @param writeChildren   Whether to write the local children of each row.
+     * @param writeParents    Whether to write the new or retrieved parents of each row.
+     */
+    public GUSRowXMLWriter(XMLStreamWriter xml, boolean writeChildren, boolean writeParents) {
+	this.xml = xml;
+	this.writeChildren = writeChildren;
+	this.writeParents = writeParents;
+    }
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Write the XML declaration and open the document element.
+     */
+    public void writeStartDocument() throws XMLStreamException {
+	xml.writeStartDocument("UTF-8", "1.0");
+	xml.writeCharacters("\n");
+	xml.writeStartElement(ROOT_ELEMENT);
+	xml.writeCharacters("\n");
+    }
+
+    /**
+     * Write a row along with all of the rows reachable from it that have
+     * not already been written.
+     *
+     * @param row   The row to write.
+     * @return The <code>xml_id</code> assigned to <code>row</code>.
+     */
+    public int write(GUSRow row) throws XMLStreamException {
+	Integer id = xmlIds.get(row);
+	if (id != null) return Math.abs(id.intValue());
+
+	int xmlId = nextXmlId++;
+	xmlIds.put(row, Integer.valueOf(-xmlId));
+
+	// Parents first, so that every reference points backwards in the stream
+	//
+	Hashtable atts = row.getAttributeValues();
+	if (writeParents) {
+	    Enumeration keys = atts.keys();
+	    while (keys.hasMoreElements()) {
+		GUSRowAttribute att = (GUSRowAttribute)atts.get(keys.nextElement());
+		Object value = att.getCurrentValue();
+		if (value instanceof GUSRow && isExportable((GUSRow)value)) {
+		    write((GUSRow)value);
+		}
+	    }
+	}
+
+	writeRow(row, xmlId, atts);
+	xmlIds.put(row, Integer.valueOf(xmlId));
+
+	if (writeChildren) {
+	    Hashtable children = row.getAllChildren();
+	    if (children != null) {
+		Enumeration childKeys = children.keys();
+		while (childKeys.hasMoreElements()) {
+		    Vector childList = (Vector)children.get(childKeys.nextElement());
+		    int nChildren = childList.size();
+		    for (int i = 0; i < nChildren; ++i) {
+			write((GUSRow)childList.elementAt(i));
+		    }
+		}
+	    }
+	}
+	return xmlId;
+    }
+
+    /**
+     * Close the document element and flush the underlying stream.  Does not
+     * close the <code>OutputStream</code>.
+     */
+    public void writeEndDocument() throws XMLStreamException {
+	xml.writeEndElement();
+	xml.writeCharacters("\n");
+	xml.writeEndDocument();
+	xml.flush();
+    }
+
+    /**
+     * @return The number of rows written so far.
+     */
+    public int getNumRowsWritten() {
+	return nextXmlId - 1;
+    }
+
+    /**
+     * Convenience method that writes a complete document containing
+     * <code>row</code> and everything reachable from it.
+     *
+     * @param row             The row to write.
+     * @param out             Stream to which the XML will be written.
+     * @param writeChildren   Whether to write the local children of each row.
+     * @param writeParents    Whether to write the new or retrieved parents of each row.
+     * @return The number of rows written.
+     */
+    public static int writeDocument(GUSRow row, OutputStream out, boolean writeChildren, boolean writeParents)
+	throws XMLStreamException
+    {
+	GUSRowXMLWriter w = new GUSRowXMLWriter(out, writeChildren, writeParents);
+	w.writeStartDocument();
+	w.write(row);
+	w.writeEndDocument();
+	w.xml.close();
+	return w.getNumRowsWritten();
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    /**
+     * @return Whether <code>row</code> should be written when it is reached as a parent.
+     */
+    protected boolean isExportable(GUSRow row) {
+	return row.isEager() || (row.getPrimaryKeyValue() == -1);
+    }
+
+    /**
+     * Write the element for a single row.  Only references to rows that have
+     * already been written are recorded, so a cycle among parents is broken
+     * at the row where it was entered.
+     */
+    protected void writeRow(GUSRow row, int xmlId, Hashtable atts) throws XMLStreamException {
+	GUSTable table = row.getTable();
+
+	// Collect references to parents that appear in this document
+	//
+	List<String> refAtts = new ArrayList<>();
+	StringBuilder parentIds = new StringBuilder();
+	Enumeration keys = atts.keys();
+	while (keys.hasMoreElements()) {
+	    String key = (String)keys.nextElement();
+	    Object value = ((GUSRowAttribute)atts.get(key)).getCurrentValue();
+	    if (value instanceof GUSRow) {
+		Integer parentId = xmlIds.get(value);
+		if (parentId != null && parentId.intValue() > 0) {
+		    if (parentIds.length() > 0) parentIds.append(' ');
+		    parentIds.append(parentId);
+		    refAtts.add(key);
+		}
+	    }
+	}
+
+	xml.writeCharacters("  ");
+	xml.writeStartElement(table.getTableName());
+	xml.writeAttribute("schema", table.getSchemaName());
+	xml.writeAttribute("xml_id", Integer.toString(xmlId));
+	if (parentIds.length() > 0) {
+	    xml.writeAttribute("parent", parentIds.toString());
+	}
+	xml.writeCharacters("\n");
+
+	keys = atts.keys();
+	while (keys.hasMoreElements()) {
+	    String key = (String)keys.nextElement();
+	    GUSRowAttribute att = (GUSRowAttribute)atts.get(key);
+	    Object current = att.getCurrentValue();
+	    Object value = att.getSubmitValue();
+	    if (value == null) continue;
+
+	    xml.writeCharacters("    ");
+	    xml.writeStartElement(key);
+	    if (refAtts.contains(key)) {
+		xml.writeAttribute("parent", xmlIds.get(current).toString());
+	    }
+	    if (value instanceof char[]) {
+		char[] chars = (char[])value;
+		xml.writeCharacters(chars, 0, chars.length);
+	    }
+	    else if (value instanceof byte[]) {
+		xml.writeAttribute("encoding", "base64");
+		xml.writeCharacters(Base64.getEncoder().encodeToString((byte[])value));
+	    }
+	    else {
+		xml.writeCharacters(value.toString());
+	    }
+	    xml.writeEndElement();
+	    xml.writeCharacters("\n");
+	}
+
+	xml.writeCharacters("  ");
+	xml.writeEndElement();
+	xml.writeCharacters("\n");
+    }
+
+} //GUSRowXMLWriter
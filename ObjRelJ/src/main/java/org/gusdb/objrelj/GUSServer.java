@@ -4,7 +4,9 @@ import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -145,6 +147,9 @@ public class GUSServer implements ServerI {
 	    try {
 		this.conn.close();
 	    } catch (RemoteException re) {}
+	    if (this.factory.getSpillCache() != null) {
+		this.factory.getSpillCache().close();
+	    }
 	    this.history = null;
 	    this.factory = null;
 	}
@@ -266,7 +271,7 @@ public class GUSServer implements ServerI {
 	throws GUSNoConnectionException 
     {
         Session s = getSession(session);
-	sessions.remove(s);
+	sessions.remove(session);
 	s.destroy();
     }
 
@@ -453,6 +458,123 @@ public class GUSServer implements ServerI {
 
     }
 
+    @Override
+    public SubmitResult submitGUSRows(String session, Vector rows, boolean startTransaction)
+	throws GUSNoConnectionException
+    {
+	SubmitResult sr = new SubmitResult(true, 0, 0, 0, new Vector());
+	Session s = getSession(session);
+	int nRows = rows.size();
+
+	// Split the new rows (grouped by table) from the rest
+	//
+	Vector newRows = new Vector();
+	Vector otherRows = new Vector();
+	LinkedHashMap<GUSTable,Vector> newRowsByTable = new LinkedHashMap<>();
+
+	for (int i = 0; i < nRows; ++i) {
+	    GUSRow gusRow = (GUSRow)rows.elementAt(i);
+	    if (gusRow.getPrimaryKeyValue() == -1 && !gusRow.isDeleted()) {
+		setDefaultAttributes(s, gusRow);
+		newRows.addElement(gusRow);
+		Vector tableRows = newRowsByTable.get(gusRow.getTable());
+		if (tableRows == null) {
+		    tableRows = new Vector();
+		    newRowsByTable.put(gusRow.getTable(), tableRows);
+		}
+		tableRows.addElement(gusRow);
+	    }
+	    else {
+		otherRows.addElement(gusRow);
+	    }
+	}
+
+	try {
+	    // Assign primary keys a table at a time, so that rows in the batch 
+	    // can reference one another
+	    //
+	    for (Map.Entry<GUSTable,Vector> entry : newRowsByTable.entrySet()) {
+		Vector tableRows = entry.getValue();
+		int nTableRows = tableRows.size();
+		long ids[] = s.conn.getNewPrimaryKeys(entry.getKey(), nTableRows);
+		if (ids == null) {
+		    clearPrimaryKeys(newRows);
+		    SubmitResult badSr = new SubmitResult(false, 0, 0, 0, null);
+		    badSr.setMessage("Unable to retrieve " + nTableRows + " new primary keys for " + entry.getKey());
+		    return badSr;
+		}
+		for (int i = 0; i < nTableRows; ++i) {
+		    ((GUSRow)tableRows.elementAt(i)).setPrimaryKeyValue(Long.valueOf(ids[i]));
+		}
+	    }
+
+	    // Parents that are neither in the batch nor in the database
+	    //
+	    int nNew = newRows.size();
+	    for (int i = 0; i < nNew; ++i) {
+		((GUSRow)newRows.elementAt(i)).submitNewParents(sr);
+	    }
+	    if (!sr.submitSucceeded()) {
+		clearPrimaryKeys(newRows);
+		return sr;
+	    }
+
+	    if (nNew > 0) {
+		sr.update(s.conn.insertGUSRows(newRows));
+	    }
+	} catch (Exception e) {
+	    System.err.println(e.getMessage());
+	    e.printStackTrace();
+	    clearPrimaryKeys(newRows);
+	    SubmitResult badSr = new SubmitResult(false, 0, 0, 0, null);
+	    badSr.setMessage(e.getMessage());
+	    return badSr;
+	}
+	if (!sr.submitSucceeded()) {
+	    // the batch was rolled back
+	    clearPrimaryKeys(newRows);
+	    return sr;
+	}
+
+	int nNew = newRows.size();
+	for (int i = 0; i < nNew; ++i) {
+	    GUSRow gusRow = (GUSRow)newRows.elementAt(i);
+	    gusRow.setIsEager(true);
+	    gusRow.syncAttsWithDb();
+	}
+
+	int nOther = otherRows.size();
+	for (int i = 0; i < nOther; ++i) {
+	    if (!submitGUSRow_aux(s, (GUSRow)otherRows.elementAt(i), false, sr)) {
+		break;
+	    }
+	}
+
+	s.addToHistory("submitGUSRows: inserted " + nNew + " new rows in a batch and submitted " + nOther + " other rows");
+	if (startTransaction == true && sr.submitSucceeded()){
+	    try {
+		s.conn.commit();
+	    }
+	    catch (RemoteException e){
+		e.printStackTrace();
+		System.err.println(e.getMessage());
+	    }
+	}
+	return sr;
+    }
+
+    /**
+     * Make the new rows of a batch that was not inserted new again, so that
+     * neither a retry nor a row referencing them uses primary key values
+     * that are not in the database.
+     */
+    private void clearPrimaryKeys(Vector newRows) {
+	int nNew = newRows.size();
+	for (int i = 0; i < nNew; ++i) {
+	    ((GUSRow)newRows.elementAt(i)).clearPrimaryKeyValue();
+	}
+    }
+
     @Override
     public GUSRow createGUSRow(String session, GUSTable table) 
         throws GUSNoConnectionException 
@@ -635,6 +757,27 @@ public class GUSServer implements ServerI {
 	return children;
     }
     
+    /**
+     * Let the session's object factory move clean rows to a memory-mapped
+     * file when it is full, instead of failing.  The rows are read back
+     * transparently the next time they are requested.
+     *
+     * @param sessionName  A session identifier returned by <code>openConnection</code>
+     * @param spillFile    File in which to keep spilled rows, or null to use a temporary file.
+     */
+    public void enableSpillCache(String sessionName, java.io.File spillFile) 
+	throws GUSNoConnectionException, java.io.IOException 
+    {
+	Session session = getSession(sessionName);
+	GUSRowSpillCache spillCache = (spillFile == null) ? new GUSRowSpillCache(this, sessionName) :
+	    new GUSRowSpillCache(this, sessionName, spillFile, false);
+	GUSRowSpillCache old = session.factory.getSpillCache();
+	session.factory.setSpillCache(spillCache);
+	if (old != null) old.close();
+	session.addToHistory("enableSpillCache: spilling clean rows to " + 
+			     ((spillFile == null) ? "a temporary file" : spillFile.getPath()));
+    }
+
     public java.sql.Date getDefaultModificationDate(String sessionName) throws GUSNoConnectionException { 
 	Session session = getSession(sessionName);
 	return session.getDefaultModificationDate();
@@ -10,7 +10,16 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.Vector;
 
 /**
@@ -32,6 +41,11 @@ public class JDBCDatabaseConnection implements DatabaseConnectionI {
     //
     protected static boolean DEBUG = true;
 
+    /**
+     * Maximum number of rows inserted by a single multi-row INSERT statement.
+     */
+    static private int INSERT_ROWS_CHUNK = 500;
+
     // ------------------------------------------------------------------
     // Instance variables
     // ------------------------------------------------------------------
@@ -466,6 +480,99 @@ public class JDBCDatabaseConnection implements DatabaseConnectionI {
 
 	return new SubmitResult(success, rowsInserted, rowsUpdated, rowsDeleted, pkeys);
     }
+
+    @Override
+    public long[] getNewPrimaryKeys(GUSTable table, int n)
+    {
+	long[] ids = new long[n];
+	if (n == 0) return ids;
+
+	try {
+	    Statement stmt = conn.createStatement();
+	    int numIds = 0;
+
+	    // Sequence: one query returns all <code>n</code> values
+	    //
+	    if (table.hasSequence()) {
+		ResultSet rs = stmt.executeQuery(sqlUtils.makeNewIdsSQL(table, n));
+		while (numIds < n && rs.next()) {
+		    ids[numIds++] = rs.getLong(1);
+		}
+		rs.close();
+	    }
+
+	    // No sequence: count up from max(pk) + 1
+	    //
+	    else {
+		ResultSet rs = stmt.executeQuery(sqlUtils.makeNewIdSQL(table));
+		if (rs.next()) {
+		    long firstId = rs.getLong(1);
+		    for (numIds = 0; numIds < n; ++numIds) {
+			ids[numIds] = firstId + numIds;
+		    }
+		}
+		rs.close();
+	    }
+	    stmt.close();
+
+	    if (numIds < n) {
+		System.err.println("JDBCDatabaseConnection.getNewPrimaryKeys: got " + numIds + " of " + n + 
+				   " primary key values for " + table);
+		return null;
+	    }
+	}
+	catch (SQLException e) {
+	    System.err.println(e.getMessage());
+	    e.printStackTrace();
+	    return null;
+	}
+	return ids;
+    }
+
+    /**
+     * Inserts the rows a table at a time.  Where the database supports it
+     * (see <code>SQLutilsI.makeCopySQL</code>) each table's rows are streamed
+     * with a single bulk load statement; failing that they are inserted
+     * <code>INSERT_ROWS_CHUNK</code> at a time with multi-row INSERTs, and
+     * failing that with a batch of single-row INSERTs.
+     */
+    @Override
+    public SubmitResult insertGUSRows(Vector rows)
+    {
+	int nRows = rows.size();
+	Vector<Long> pkeys = new Vector<>(nRows);
+	int rowsInserted = 0;
+
+	for (int i = 0; i < nRows; ++i) {
+	    GUSRow obj = (GUSRow)rows.elementAt(i);
+	    long pk = obj.getPrimaryKeyValue();
+	    if (pk == -1) {
+		SubmitResult badSr = new SubmitResult(false,0,0,0,null); // submit failed
+		badSr.setMessage("no primary key value has been assigned to " + obj);
+		return badSr;
+	    }
+	    pkeys.addElement(Long.valueOf(pk));
+	}
+
+	try {
+	    List<InsertGroup> groups = groupRowsForInsert(rows);
+	    for (InsertGroup group : groups) {
+		rowsInserted += insertGroup(group);
+	    }
+	    if (DEBUG) System.err.println("JDBCDatabaseConnection.insertGUSRows: inserted " + rowsInserted + 
+					  " rows in " + groups.size() + " group(s).");
+	} 
+	catch (SQLException sqle) {
+	    System.err.println(sqle.getMessage());
+	    sqle.printStackTrace();
+	    SubmitResult badSr = new SubmitResult(false,0,0,0,null); // submit failed
+	    badSr.setMessage("SQLException: " + sqle.getMessage());
+	    rollback();
+	    return badSr;
+	}
+
+	return new SubmitResult(true, rowsInserted, 0, 0, pkeys);
+    }
     
     @Override
     public boolean commit(){
@@ -846,6 +953,118 @@ public class JDBCDatabaseConnection implements DatabaseConnectionI {
     }
 
 
+    /**
+     * Split the rows passed to <code>insertGUSRows</code> into groups of rows
+     * from the same table that set the same columns, in the order in which
+     * the groups must be inserted.  Each INSERT or COPY then names only the
+     * columns its rows set, as a single-row INSERT does, so that the others
+     * get their defaults.  A row joins the most recent group for its table
+     * and columns unless one of its parents is in a later group, in which
+     * case a new group is started, so that no row is inserted before a
+     * parent in the same batch.  (Parents in the same group are inserted by
+     * the same statement.)
+     */
+    private List<InsertGroup> groupRowsForInsert(Vector rows) {
+	List<InsertGroup> groups = new ArrayList<>();
+	Map<List<Object>,InsertGroup> lastGroup = new HashMap<>();
+	IdentityHashMap<GUSRow,InsertGroup> groupOf = new IdentityHashMap<>();
+
+	int nRows = rows.size();
+	for (int i = 0; i < nRows; ++i) {
+	    GUSRow row = (GUSRow)rows.elementAt(i);
+	    GUSTable table = row.getTable();
+
+	    int minIndex = -1;
+	    Enumeration values = row.getAttributeValues().elements();
+	    while (values.hasMoreElements()) {
+		Object value = ((GUSRowAttribute)values.nextElement()).getCurrentValue();
+		InsertGroup parentGroup = (value instanceof GUSRow) ? groupOf.get(value) : null;
+		if (parentGroup != null && parentGroup.index > minIndex) {
+		    minIndex = parentGroup.index;
+		}
+	    }
+
+	    TreeSet<String> columns = new TreeSet<>();
+	    Enumeration keys = row.getAttributeValues().keys();
+	    while (keys.hasMoreElements()) {
+		String key = (String)keys.nextElement();
+		if (!key.equals(table.getPrimaryKeyName())) columns.add(key);
+	    }
+
+	    List<Object> groupKey = Arrays.asList(table, columns);
+	    InsertGroup group = lastGroup.get(groupKey);
+	    if (group == null || group.index < minIndex) {
+		group = new InsertGroup(table, columns, groups.size());
+		groups.add(group);
+		lastGroup.put(groupKey, group);
+	    }
+	    group.add(row);
+	    groupOf.put(row, group);
+	}
+	return groups;
+    }
+
+    /**
+     * Insert a group of rows from the same table.
+     *
+     * @return The number of rows inserted.
+     */
+    private int insertGroup(InsertGroup group) throws SQLException {
+	GUSTable table = group.table;
+	String owner = table.getSchemaName();
+	String tname = table.getTableName();
+	String pkName = table.getPrimaryKeyName();
+	String cols[] = group.getColumns();
+	long pks[] = group.getPrimaryKeys();
+	Object values[][] = group.getValues(cols);
+	int nRows = pks.length;
+
+	// Bulk load
+	//
+	String copySql = sqlUtils.makeCopySQL(owner, tname, pkName, cols);
+	if (copySql != null && PostgresCopyLoader.canCopy(conn)) {
+	    return (int)PostgresCopyLoader.copyRows(conn, copySql, sqlUtils, pks, values);
+	}
+
+	Statement stmt = conn.createStatement();
+	try {
+	    // Multi-row INSERTs
+	    //
+	    boolean multiRow = true;
+	    for (int start = 0; start < nRows; start += INSERT_ROWS_CHUNK) {
+		int end = Math.min(nRows, start + INSERT_ROWS_CHUNK);
+		String sql = sqlUtils.makeInsertRowsSQL(owner, tname, pkName, cols,
+							Arrays.copyOfRange(pks, start, end),
+							Arrays.copyOfRange(values, start, end));
+		if (sql == null) {
+		    multiRow = false;
+		    break;
+		}
+		stmt.addBatch(sql);
+	    }
+
+	    // One INSERT per row; makeInsertSQL adds the primary key column itself
+	    //
+	    if (!multiRow) {
+		for (GUSRow obj : group.rows) {
+		    Hashtable atts = (Hashtable)obj.getAttributeValues().clone();
+		    atts.remove(pkName);
+		    stmt.addBatch(sqlUtils.makeInsertSQL(owner, tname, pkName, obj.getPrimaryKeyValue(), atts));
+		}
+	    }
+
+	    int rowsInserted = 0;
+	    int counts[] = stmt.executeBatch();
+	    for (int i = 0; i < counts.length; ++i) {
+		rowsInserted += (counts[i] == Statement.SUCCESS_NO_INFO) ? 1 : counts[i];
+	    }
+	    return rowsInserted;
+	}
+	finally {
+	    stmt.close();
+	}
+    }
+
     /**
      * Given a ResultSet, return a Hashtable representing its current row (that is, the row to 
      * which the ResultSet's 'cursor' is pointing.)  The keys of the Hashtable are the column
@@ -901,4 +1120,57 @@ public class JDBCDatabaseConnection implements DatabaseConnectionI {
     //	FiniteAlphabet dnaAlphabet = DNATools.getDNA();
     //  dna = DNATools.createDNA(sequence.getSubString((long)1, (int)sequence.length()));
     
+    // ------------------------------------------------------------------
+    // InsertGroup
+    // ------------------------------------------------------------------
+
+    /**
+     * Rows from a single table that are inserted together by <code>insertGUSRows</code>.
+     */
+    private static class InsertGroup {
+	GUSTable table;
+	int index;
+	List<GUSRow> rows = new ArrayList<>();
+
+	/**
+	 * The (non-primary key) columns set in every one of <code>rows</code>,
+	 * and in no other column.
+	 */
+	String[] columns;
+
+	InsertGroup(GUSTable table, Collection<String> columns, int index) {
+	    this.table = table;
+	    this.columns = columns.toArray(new String[columns.size()]);
+	    this.index = index;
+	}
+
+	void add(GUSRow row) {
+	    rows.add(row);
+	}
+
+	String[] getColumns() {
+	    return columns;
+	}
+
+	long[] getPrimaryKeys() {
+	    long pks[] = new long[rows.size()];
+	    for (int i = 0; i < pks.length; ++i) {
+		pks[i] = rows.get(i).getPrimaryKeyValue();
+	    }
+	    return pks;
+	}
+
+	Object[][] getValues(String[] cols) {
+	    Object values[][] = new Object[rows.size()][cols.length];
+	    for (int r = 0; r < values.length; ++r) {
+		Hashtable atts = rows.get(r).getAttributeValues();
+		for (int c = 0; c < cols.length; ++c) {
+		    GUSRowAttribute att = (GUSRowAttribute)atts.get(cols[c]);
+		    values[r][c] = (att == null) ? null : att.getSubmitValue();
+		}
+	    }
+	    return values;
+	}
+    }
+
 } //JDBCDatabaseConnection
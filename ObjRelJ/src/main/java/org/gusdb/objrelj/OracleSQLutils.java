@@ -53,6 +53,25 @@ public class OracleSQLutils implements SQLutilsI, java.io.Serializable {
 	return insertSQL.toString();
     }
 
+    // Oracle has no multi-row VALUES clause; rows are batched one INSERT at a time
+    //
+    @Override
+    public String makeInsertRowsSQL(String owner, String table, String pkatt,
+				    String[] cols, long[] pks, Object[][] values)
+    {
+	return null;
+    }
+
+    @Override
+    public String makeCopySQL(String owner, String table, String pkatt, String[] cols) {
+	return null;
+    }
+
+    @Override
+    public String makeCopyRow(long pk, Object[] values) {
+	return null;
+    }
+
     @Override
     public String makeUpdateSQL(String owner, String table, String pkatt, 
 				long pk, Hashtable atts) 
@@ -118,6 +137,12 @@ public class OracleSQLutils implements SQLutilsI, java.io.Serializable {
 	}
     }
 
+    @Override
+    public String makeNewIdsSQL(GUSTable table, int n) {
+	return ("SELECT " + table.getSchemaName() + "." + table.getTableName() + 
+		"_SQ.NEXTVAL from DUAL CONNECT BY LEVEL <= " + n);
+    }
+
     @Override
     public String getSubmitDate(){
 	return "SYSDATE";
@@ -156,10 +181,12 @@ public class OracleSQLutils implements SQLutilsI, java.io.Serializable {
             final_value = "\nNULL";
         } 
         else {
+            if (value instanceof char[]) {
+		value = new String((char[])value);
+	    }
             if (value instanceof String || value instanceof Date) {
-		// JC: Don't we have to worry about quoting embedded quote characters here?
 		// JC: this is another oracle-specific section
-		final_value = " '" + value + "'";
+		final_value = " '" + value.toString().replace("'", "''") + "'";
 	    } else if (value instanceof Boolean) {
 		final_value = ((Boolean)value).booleanValue() ? "1" : "0";
 	    }
@@ -0,0 +1,98 @@
+package org.gusdb.objrelj;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * PostgresCopyLoader.java
+ *
+ * Streams rows into a PostgreSQL table using the driver's CopyManager,
+ * for the <code>COPY ... FROM STDIN</code> statements generated by
+ * <code>SQLutilsI.makeCopySQL</code>.  Rows are sent to the server in
+ * chunks of <code>BUFFER_SIZE</code> bytes as they are formatted, so the
+ * COPY data is never held in memory all at once.
+ *
+ * All references to the PostgreSQL driver are confined to this class,
+ * so that ObjRelJ can still be used without it on the classpath.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class PostgresCopyLoader {
+
+    // ------------------------------------------------------------------
+    // Static variables
+    // ------------------------------------------------------------------
+
+    static private int BUFFER_SIZE = 64 * 1024;
+
+    // ------------------------------------------------------------------
+    // Public methods
+    // ------------------------------------------------------------------
+
+    /**
+     * @return Whether <code>conn</code> is a PostgreSQL connection that supports COPY.
+     */
+    public static boolean canCopy(Connection conn) {
+	try {
+	    return conn.isWrapperFor(PGConnection.class);
+	}
+	catch (SQLException e) {
+	    return false;
+	}
+	catch (NoClassDefFoundError e) {
+	    return false;
+	}
+    }
+
+    /**
+     * Run a <code>COPY ... FROM STDIN</code> statement, sending it one row
+     * for each element of <code>pks</code>.
+     *
+     * @param conn      A connection for which <code>canCopy</code> is true.
+     * @param copySql   The statement returned by <code>sqlUtils.makeCopySQL</code>
+     * @param sqlUtils  Used to format each row.
+     * @param pks       Primary key value of each row.
+     * @param values    For each row, the submit values of the columns named in <code>copySql</code>
+     * @return The number of rows loaded.
+     */
+    public static long copyRows(Connection conn, String copySql, SQLutilsI sqlUtils, long[] pks, Object[][] values)
+	throws SQLException
+    {
+	CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+	try {
+	    byte[] buf = new byte[BUFFER_SIZE];
+	    int used = 0;
+
+	    for (int r = 0; r < pks.length; ++r) {
+		byte[] row = sqlUtils.makeCopyRow(pks[r], values[r]).getBytes(StandardCharsets.UTF_8);
+		if (used + row.length > buf.length) {
+		    copy.writeToCopy(buf, 0, used);
+		    used = 0;
+		}
+		if (row.length > buf.length) {
+		    copy.writeToCopy(row, 0, row.length);
+		}
+		else {
+		    System.arraycopy(row, 0, buf, used, row.length);
+		    used += row.length;
+		}
+	    }
+	    if (used > 0) {
+		copy.writeToCopy(buf, 0, used);
+	    }
+	    return copy.endCopy();
+	}
+	finally {
+	    if (copy.isActive()) {
+		copy.cancelCopy();
+	    }
+	}
+    }
+
+} //PostgresCopyLoader
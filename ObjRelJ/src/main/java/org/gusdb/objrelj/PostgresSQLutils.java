@@ -0,0 +1,247 @@
+package org.gusdb.objrelj;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+
+/**
+ * PostgresSQLutils.java
+ *
+ * A PostgreSQL-specific implementation of SQLutilsI, for GUS instances
+ * installed by DBAdmin's <code>PostgresWriter</code>.  That schema stores
+ * booleans as NUMERIC 0/1 (as on Oracle), dates as TIMESTAMP, CLOBs as
+ * TEXT and BLOBs as BYTEA, and names each table's sequence
+ * <code>&lt;table&gt;_SQ</code> in the table's own schema.
+ *
+ * Unlike Oracle, PostgreSQL supports multi-row INSERT statements and
+ * <code>COPY ... FROM STDIN</code>, which JDBCDatabaseConnection uses to
+ * insert new rows in bulk.
+ *
+ * Created: Mon Oct 19 2026
+ *
+ * @version $Revision$ $Date$ $Author$
+ */
+public class PostgresSQLutils implements SQLutilsI, java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // ------------------------------------------------------------------
+    // SQLutilsI
+    // ------------------------------------------------------------------
+
+    @Override
+    public String makeSelectAllRowsSQL(String owner, String table)
+    {
+	return "select * from " + owner + "." + table;
+    }
+
+    @Override
+    public String makeInsertSQL(String owner, String table, String pkatt, long pk, Hashtable atts)
+    {
+	StringBuffer insertSQL = new StringBuffer("INSERT into " + owner + "." + table + "\n(" );
+	StringBuffer valuesClause = new StringBuffer("VALUES \n(" );
+
+	insertSQL.append(pkatt);
+	valuesClause.append(pk);
+
+	Enumeration attKeys= atts.keys();
+	while (attKeys.hasMoreElements()){
+	    String key = (String)attKeys.nextElement();
+	    insertSQL.append(",\n" + key);
+	    GUSRowAttribute grAtt = (GUSRowAttribute)atts.get(key);
+	    valuesClause.append(", " + makeAppendValue(grAtt.getSubmitValue()));
+	}
+
+	insertSQL.append(")\n" + valuesClause + ")\n" );
+	return insertSQL.toString();
+    }
+
+    @Override
+    public String makeInsertRowsSQL(String owner, String table, String pkatt,
+				    String[] cols, long[] pks, Object[][] values)
+    {
+	StringBuffer sql = new StringBuffer("INSERT into " + owner + "." + table + " (" + pkatt);
+	for (int c = 0; c < cols.length; ++c) {
+	    sql.append(", " + cols[c]);
+	}
+	sql.append(")\nVALUES");
+
+	for (int r = 0; r < pks.length; ++r) {
+	    sql.append((r == 0) ? "\n(" : ",\n(");
+	    sql.append(pks[r]);
+	    for (int c = 0; c < cols.length; ++c) {
+		sql.append(", " + makeAppendValue(values[r][c]));
+	    }
+	    sql.append(")");
+	}
+	return sql.toString();
+    }
+
+    @Override
+    public String makeCopySQL(String owner, String table, String pkatt, String[] cols) {
+	StringBuffer sql = new StringBuffer("COPY " + owner + "." + table + " (" + pkatt);
+	for (int c = 0; c < cols.length; ++c) {
+	    sql.append(", " + cols[c]);
+	}
+	sql.append(") FROM STDIN");
+	return sql.toString();
+    }
+
+    /**
+     * Formats the row in COPY's default text format: tab-separated values,
+     * <code>\N</code> for NULL, and backslash escapes for backslash, tab,
+     * newline and carriage return.
+     */
+    @Override
+    public String makeCopyRow(long pk, Object[] values) {
+	StringBuilder row = new StringBuilder();
+	row.append(pk);
+	for (int c = 0; c < values.length; ++c) {
+	    row.append('\t');
+	    appendCopyValue(row, values[c]);
+	}
+	row.append('\n');
+	return row.toString();
+    }
+
+    @Override
+    public String makeUpdateSQL(String owner, String table, String pkatt,
+				long pk, Hashtable atts)
+    {
+	StringBuffer updateSQL = new StringBuffer("update " + owner + "." + table +  " set \n ");
+	StringBuffer whereSQL = new StringBuffer(" where " + pkatt + " = " + pk );
+
+	Enumeration attKeys= atts.keys();
+
+	int i = 0;
+	while (attKeys.hasMoreElements()){
+	    String key = (String)attKeys.nextElement();
+	    GUSRowAttribute grAtt = (GUSRowAttribute)atts.get(key);
+
+	    if (grAtt.isSetByApp()){
+		if (i > 0) { updateSQL.append(",\n"); }
+		i++;
+		updateSQL.append(key + " = ");
+		updateSQL.append(makeAppendValue(grAtt.getSubmitValue()));
+	    }
+	}
+	updateSQL.append(whereSQL.toString());
+	return updateSQL.toString();
+    }
+
+    @Override
+    public String makeDeleteSQL(String owner, String table, String pkatt, long pk) {
+	return "DELETE from " + owner + "." + table + "\nWHERE " + pkatt + " = " + pk;
+    }
+
+    @Override
+    public String makeNewIdSQL(GUSTable table) {
+	String owner = table.getSchemaName();
+	String tname = table.getTableName();
+
+	if (table.hasSequence()) {
+	    return "SELECT nextval('" + owner + "." + tname + "_SQ')";
+	}
+	String pkatt = table.getPrimaryKeyName();
+	return "SELECT max(" + pkatt + ") + 1 as pk_val from " + owner + "." + tname;
+    }
+
+    @Override
+    public String makeNewIdsSQL(GUSTable table, int n) {
+	return ("SELECT nextval('" + table.getSchemaName() + "." + table.getTableName() +
+		"_SQ') from generate_series(1, " + n + ")");
+    }
+
+    @Override
+    public String getSubmitDate(){
+	return "LOCALTIMESTAMP";
+    }
+
+    @Override
+    public String makeTransactionSQL(boolean noTran, String cmd) {
+        String command = null;
+        if (!noTran){
+            if (cmd.equals("commit")){
+                command = "COMMIT";
+            } else if (cmd.equals("rollback")){
+                command = "ROLLBACK";
+            }
+        }
+        return command;
+    }
+
+    // ------------------------------------------------------------------
+    // Protected methods
+    // ------------------------------------------------------------------
+
+    /**
+     * Generate a string that can be appended to an SQL INSERT or
+     * UPDATE statement.  Assumes <code>standard_conforming_strings</code>
+     * is on (the default since PostgreSQL 9.1), so that backslashes in
+     * string literals need no escaping.
+     *
+     * @param value    The value for the column.
+     * @return The value to be appended to the SQL statement.
+     */
+    protected String makeAppendValue(Object value){
+	if (value == null) {
+	    return "NULL";
+	}
+	if (value instanceof char[]) {
+	    value = new String((char[])value);
+	}
+	if (value instanceof String || value instanceof java.util.Date) {
+	    return "'" + value.toString().replace("'", "''") + "'";
+	}
+	if (value instanceof Boolean) {
+	    return ((Boolean)value).booleanValue() ? "1" : "0";
+	}
+	if (value instanceof byte[]) {
+	    StringBuilder hex = new StringBuilder("'\\x");
+	    appendHex(hex, (byte[])value);
+	    return hex.append("'::bytea").toString();
+	}
+	return value.toString();
+    }
+
+    /**
+     * Append a value in COPY text format.
+     */
+    protected void appendCopyValue(StringBuilder row, Object value) {
+	if (value == null) {
+	    row.append("\\N");
+	    return;
+	}
+	if (value instanceof Boolean) {
+	    row.append(((Boolean)value).booleanValue() ? '1' : '0');
+	    return;
+	}
+	if (value instanceof byte[]) {
+	    // bytea hex input, with its backslash escaped for COPY
+	    row.append("\\\\x");
+	    appendHex(row, (byte[])value);
+	    return;
+	}
+	String s = (value instanceof char[]) ? new String((char[])value) : value.toString();
+	int len = s.length();
+	for (int i = 0; i < len; ++i) {
+	    char ch = s.charAt(i);
+	    switch (ch) {
+	    case '\\': row.append("\\\\"); break;
+	    case '\t': row.append("\\t"); break;
+	    case '\n': row.append("\\n"); break;
+	    case '\r': row.append("\\r"); break;
+	    default: row.append(ch);
+	    }
+	}
+    }
+
+    protected static void appendHex(StringBuilder sb, byte[] bytes) {
+	for (int i = 0; i < bytes.length; ++i) {
+	    sb.append(HEX[(bytes[i] >> 4) & 0xf]);
+	    sb.append(HEX[bytes[i] & 0xf]);
+	}
+    }
+
+} //PostgresSQLutils
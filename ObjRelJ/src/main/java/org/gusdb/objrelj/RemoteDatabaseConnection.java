@@ -91,6 +91,20 @@ public class RemoteDatabaseConnection extends UnicastRemoteObject implements Rem
     {
 	return localConn.submitGUSRow(obj);
     }
+
+    @Override
+    public long[] getNewPrimaryKeys(GUSTable table, int n)
+	throws RemoteException
+    {
+	return localConn.getNewPrimaryKeys(table, n);
+    }
+
+    @Override
+    public SubmitResult insertGUSRows(Vector rows)
+	throws RemoteException
+    {
+	return localConn.insertGUSRows(rows);
+    }
     
     @Override
     public Long getParentPk(GUSRow child, GUSTable parentTable, String childAtt)
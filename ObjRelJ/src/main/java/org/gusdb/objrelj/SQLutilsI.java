@@ -52,6 +52,46 @@ public interface SQLutilsI {
     public String makeInsertSQL(String owner, String table, String pkatt, 
 				long pk, Hashtable atts);
 
+    /**
+     * Generate a single SQL INSERT statement that inserts several rows into
+     * the same table.  Every row supplies a value (possibly null) for each of
+     * <code>cols</code>.
+     *
+     * @param owner     Owner of the table into which to insert.
+     * @param table     Name of the table into which to insert.
+     * @param pkatt     Name of the table's primary key column.
+     * @param cols      Names of the non-primary key columns to insert.
+     * @param pks       Primary key value of each row.
+     * @param values    For each row, the submit values for <code>cols</code>, in order.
+     * @return A String that contains the SQL insert statement, or null if the
+     *         database does not support multi-row inserts.
+     */
+    public String makeInsertRowsSQL(String owner, String table, String pkatt,
+				    String[] cols, long[] pks, Object[][] values);
+
+    /**
+     * Generate a statement that bulk loads rows into a table from data sent
+     * by the client, e.g. PostgreSQL's <code>COPY ... FROM STDIN</code>.  The
+     * data for each row is formatted by <code>makeCopyRow</code>.
+     *
+     * @param owner     Owner of the table into which to load.
+     * @param table     Name of the table into which to load.
+     * @param pkatt     Name of the table's primary key column.
+     * @param cols      Names of the non-primary key columns to load.
+     * @return A String that contains the SQL statement, or null if the
+     *         database has no such bulk load statement.
+     */
+    public String makeCopySQL(String owner, String table, String pkatt, String[] cols);
+
+    /**
+     * Format a row of data for the statement returned by <code>makeCopySQL</code>.
+     *
+     * @param pk        Primary key value of the row.
+     * @param values    Submit values for the columns passed to <code>makeCopySQL</code>, in order.
+     * @return The row, including its line terminator.
+     */
+    public String makeCopyRow(long pk, Object[] values);
+
     // ------------------------------------------------------------------
     // UPDATE
     // ------------------------------------------------------------------
@@ -102,6 +142,17 @@ public interface SQLutilsI {
      */
     public String makeNewIdSQL(GUSTable table);
 
+    /**
+     * Construct an SQL query that will generate <code>n</code> new unique primary
+     * key values for the table in question, one per row of the result.  Only 
+     * valid for tables for which <code>hasSequence()</code> is true.
+     *
+     * @param table     The GUSTable for which new primary key values should be generated.
+     * @param n         The number of values to generate.
+     * @return A String that contains the SQL select statement.
+     */
+    public String makeNewIdsSQL(GUSTable table, int n);
+
     // ------------------------------------------------------------------
     // TRANSACTIONS
     // ------------------------------------------------------------------
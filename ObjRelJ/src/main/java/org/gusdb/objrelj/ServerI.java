@@ -157,6 +157,20 @@ public interface ServerI {
      */
     public SubmitResult submitGUSRow(String session, GUSRow obj, boolean deepSubmit, boolean newTransaction) 
 	throws GUSNoConnectionException;
+
+    /**
+     * Submit a set of objects to the database.  New objects are assigned their
+     * primary key values a table at a time and are then inserted in a single
+     * batch; any other objects are submitted individually, as if by a (non-deep)
+     * call to <code>submitGUSRow</code>.  A new object may reference another
+     * new object in <code>rows</code> as its parent.  Objects inserted in a batch
+     * are <b>not</b> added to the session's object cache.
+     *
+     * @param session     A session identifier returned by <code>openConnection</code>
+     * @param rows        A Vector of new or updated GUSRows to write back to the database.
+     */
+    public SubmitResult submitGUSRows(String session, Vector rows, boolean newTransaction)
+	throws GUSNoConnectionException;
     
     // ------------------------------------------------------------------
     // CREATE *NEW* OBJECT(S)